@@ -1 +1,3 @@
-jar cmf mainclass.txt Mars.jar PseudoOps.txt Config.properties Syscall.properties Settings.properties MARSlicense.txt mainclass.txt MipsXRayOpcode.xml registerDatapath.xml controlDatapath.xml ALUcontrolDatapath.xml CreateMarsJar.bat Mars.java Mars.class docs help images mars 
\ No newline at end of file
+java -cp . mars.util.ServiceIndex
+java -cp . mars.mips.instructions.BasicInstructionTable
+jar cmf mainclass.txt Mars.jar PseudoOps.txt BasicInstructions.txt Config.properties Syscall.properties Settings.properties MARSlicense.txt mainclass.txt MipsXRayOpcode.xml registerDatapath.xml controlDatapath.xml ALUcontrolDatapath.xml CreateMarsJar.bat Mars.java Mars.class META-INF/services docs help images mars 
\ No newline at end of file
@@ -16,4 +16,9 @@ then
 	NAME="${NAME}.jar"
 fi
 
-jar cmf mainclass.txt ${NAME} PseudoOps.txt Config.properties Syscall.properties Settings.properties MARSlicense.txt mainclass.txt MipsXRayOpcode.xml registerDatapath.xml controlDatapath.xml ALUcontrolDatapath.xml CreateMarsJar.bat create-jar.sh Mars.java Mars.class docs help images mars 
+# index of syscall, dump format and tool classes read at startup
+java -cp . mars.util.ServiceIndex || exit 1
+# table of basic instructions read at startup
+java -cp . mars.mips.instructions.BasicInstructionTable || exit 1
+
+jar cmf mainclass.txt ${NAME} PseudoOps.txt BasicInstructions.txt Config.properties Syscall.properties Settings.properties MARSlicense.txt mainclass.txt MipsXRayOpcode.xml registerDatapath.xml controlDatapath.xml ALUcontrolDatapath.xml CreateMarsJar.bat create-jar.sh Mars.java Mars.class META-INF/services docs help images mars 
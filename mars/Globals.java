@@ -104,6 +104,18 @@ public class Globals {
 	public static final int maximumErrorMessages = getErrorLimit();
 	/** Maximum number of back-step operations to buffer */
 	public static final int maximumBacksteps = getBackstepLimit();
+	/**
+	 * Megabytes of disk for back-step operations beyond maximumBacksteps; 0
+	 * if they are discarded
+	 */
+	public static final int backstepJournalMegabytes = getBackstepJournalLimit();
+	/**
+	 * Number of instructions between reverse execution checkpoints; 0 if
+	 * reverse execution is disabled
+	 */
+	public static final int checkpointInterval = getCheckpointInterval();
+	/** Megabytes of disk for the command-line result cache */
+	public static final int resultCacheMegabytes = getResultCacheLimit();
 	/** MARS copyright years */
 	public static final String copyrightYears = getCopyrightYears();
 	/** MARS copyright holders */
@@ -179,6 +191,24 @@ public class Globals {
 		return getIntegerProperty(configPropertiesFile, "BackstepLimit", 1000);
 	}
 
+	// Read limit on disk space (megabytes) for backstep operations that do
+	// not fit in the buffer, from properties file.
+	private static int getBackstepJournalLimit() {
+		return getIntegerProperty(configPropertiesFile, "BackstepJournalLimit", 0);
+	}
+
+	// Read number of instructions between reverse execution checkpoints from
+	// properties file.
+	private static int getCheckpointInterval() {
+		return getIntegerProperty(configPropertiesFile, "CheckpointInterval", 0);
+	}
+
+	// Read limit on disk space (megabytes) for cached command-line results
+	// from properties file.
+	private static int getResultCacheLimit() {
+		return getIntegerProperty(configPropertiesFile, "ResultCacheLimit", 64);
+	}
+
 	// Read ASCII default display character for non-printing characters, from
 	// properties file.
 	public static String getAsciiNonPrint() {
@@ -4,8 +4,10 @@ import mars.venus.*;
 import mars.assembler.*;
 import mars.simulator.*;
 import mars.mips.hardware.*;
+import mars.util.*;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.io.*;
 import java.awt.event.*;
 import javax.swing.*;
@@ -58,6 +60,7 @@ public class MIPSprogram {
 	private ArrayList parsedList;
 	private ArrayList machineList;
 	private BackStepper backStepper;
+	private ReverseExecution reverseExecution;
 	private SymbolTable localSymbolTable;
 	private MacroPool macroPool;
 	private ArrayList<SourceLine> sourceLineList;
@@ -111,7 +114,9 @@ public class MIPSprogram {
 	}
 
 	/**
-	 * Produces list of tokens that comprise the program.
+	 * Produces list of tokens that comprise the program. The list is kept
+	 * after assembly, because Reset assembles the same programs again without
+	 * tokenizing them (see RunResetAction).
 	 * 
 	 * @return ArrayList of TokenList. Each TokenList is list of tokens
 	 *         generated by corresponding line of MIPS source code.
@@ -180,6 +185,18 @@ public class MIPSprogram {
 		return backStepper;
 	}
 
+	/**
+	 * Returns ReverseExecution associated with this program. It is created
+	 * upon successful assembly, if running in the IDE and checkpointing is
+	 * configured.
+	 * 
+	 * @return ReverseExecution object, null if there is none.
+	 **/
+
+	public ReverseExecution getReverseExecution() {
+		return reverseExecution;
+	}
+
 	/**
 	 * Returns SymbolTable associated with this program. It is created at
 	 * assembly time, and stores local labels (those not declared using .globl
@@ -269,7 +286,9 @@ public class MIPSprogram {
 
 	/**
 	 * Prepares the given list of files for assembly. This involves reading and
-	 * tokenizing all the source files. There may be only one.
+	 * tokenizing all the source files. There may be only one. Files are
+	 * independent of each other until assembly, so when there are several
+	 * they are read and tokenized in parallel.
 	 * 
 	 * @param filenames
 	 *            ArrayList containing the source file name(s) in no particular
@@ -299,11 +318,14 @@ public class MIPSprogram {
 			filenames.add(0, exceptionHandler);
 			leadFilePosition = 1;
 		}
+		MIPSprogram[] preparees = new MIPSprogram[filenames.size()];
 		for (int i = 0; i < filenames.size(); i++) {
 			String filename = (String) filenames.get(i);
-			MIPSprogram preparee = (filename.equals(leadFilename)) ? this : new MIPSprogram();
-			preparee.readSource(filename);
-			preparee.tokenize();
+			preparees[i] = (filename.equals(leadFilename)) ? this : new MIPSprogram();
+		}
+		readAndTokenize(preparees, filenames);
+		for (int i = 0; i < preparees.length; i++) {
+			MIPSprogram preparee = preparees[i];
 			// I want "this" MIPSprogram to be the first in the list...except
 			// for exception handler
 			if (preparee == this && MIPSprogramsToAssemble.size() > 0) {
@@ -315,6 +337,54 @@ public class MIPSprogram {
 		return MIPSprogramsToAssemble;
 	}
 
+	// Read and tokenize each file into the corresponding MIPSprogram, using
+	// a thread per processor when there is more than one file. Errors are
+	// reported as if the files had been done one after another: the
+	// exception thrown is that of the first file, in list order, that failed.
+	private static void readAndTokenize(final MIPSprogram[] preparees, final ArrayList filenames)
+			throws ProcessingException {
+		if (preparees.length == 1) {
+			preparees[0].readSource((String) filenames.get(0));
+			preparees[0].tokenize();
+			return;
+		}
+		int threads = Math.min(preparees.length, Runtime.getRuntime().availableProcessors());
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			Future[] results = new Future[preparees.length];
+			for (int i = 0; i < preparees.length; i++) {
+				final int index = i;
+				results[i] = pool.submit(new Callable() {
+					public Object call() throws ProcessingException {
+						preparees[index].readSource((String) filenames.get(index));
+						preparees[index].tokenize();
+						return null;
+					}
+				});
+			}
+			for (int i = 0; i < results.length; i++) {
+				try {
+					results[i].get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof ProcessingException) {
+						throw (ProcessingException) cause;
+					} else if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					}
+					throw (Error) cause;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					ErrorList errors = new ErrorList();
+					errors.add(new ErrorMessage((MIPSprogram) null, 0, 0, "interrupted while reading source files"));
+					throw new ProcessingException(errors);
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
 	/**
 	 * Assembles the MIPS source program. All files comprising the program must
 	 * have already been tokenized. Assembler warnings are not considered
@@ -362,13 +432,43 @@ public class MIPSprogram {
 
 	public ErrorList assemble(ArrayList MIPSprogramsToAssemble, boolean extendedAssemblerEnabled,
 			boolean warningsAreErrors) throws ProcessingException {
+		if (this.backStepper != null) {
+			this.backStepper.close();
+		}
 		this.backStepper = null;
+		this.reverseExecution = null;
+		InputLog.clear();
+		InputLog.setRecording(false);
 		Assembler asm = new Assembler();
 		this.machineList = asm.assemble(MIPSprogramsToAssemble, extendedAssemblerEnabled, warningsAreErrors);
 		this.backStepper = new BackStepper();
+		if (Globals.checkpointInterval > 0 && Globals.getGui() != null) {
+			this.reverseExecution = new ReverseExecution(Globals.checkpointInterval);
+			InputLog.setRecording(true);
+		}
 		return asm.getErrorList();
 	}
 
+	// Used by ProgramImage to make this program stand for the given source
+	// file without reading it.
+	void setImageSource(String filename, SymbolTable localSymbolTable) {
+		this.filename = filename;
+		this.localSymbolTable = localSymbolTable;
+	}
+
+	// Used by ProgramImage to install machine code loaded from an image in
+	// place of assembling. Resets what assemble() resets.
+	void setImageMachineList(ArrayList machineList) {
+		if (this.backStepper != null) {
+			this.backStepper.close();
+		}
+		this.reverseExecution = null;
+		InputLog.clear();
+		InputLog.setRecording(false);
+		this.machineList = machineList;
+		this.backStepper = new BackStepper();
+	}
+
 	/**
 	 * Simulates execution of the MIPS program. Program must have already been
 	 * assembled. Begins simulation at beginning of text segment and continues
@@ -6,6 +6,7 @@ import mars.mips.dump.*;
 import mars.mips.hardware.*;
 import mars.simulator.*;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.awt.*;
 import javax.swing.*;
@@ -58,6 +59,9 @@ public class MarsLaunch {
 	 * occurs.<br>
 	 * ascii -- display memory or register contents interpreted as ASCII b --
 	 * brief - do not display register/memory address along with contents<br>
+	 * cache -- reuse the result of an earlier identical run, and the assembled
+	 * program of an earlier run of the same source, kept in a directory.
+	 * Option has 1 argument, e.g. <tt>cache &lt;dir&gt;</tt><br>
 	 * d -- print debugging statements<br>
 	 * da -- both a and d<br>
 	 * db -- MIPS delayed branching is enabled.<br>
@@ -71,6 +75,7 @@ public class MarsLaunch {
 	 * are <tt>Binary</tt>, <tt>HexText</tt>, <tt>BinaryText</tt>.<br>
 	 * h -- display help. Use by itself and with no filename</br>
 	 * hex -- display memory or register contents in hexadecimal (default)<br>
+	 * hs -- display heap statistics for the malloc/free syscalls<br>
 	 * ic -- display count of MIPS basic instructions 'executed'"); mc -- set
 	 * memory configuration. Option has 1 argument, e.g.<br>
 	 * <tt>mc &lt;config$gt;</tt>, where &lt;config$gt; is <tt>Default</tt><br>
@@ -86,12 +91,21 @@ public class MarsLaunch {
 	 * np -- No Pseudo-instructions allowed ("ne" will work also).<br>
 	 * p -- Project mode - assemble all files in the same directory as given
 	 * file.<br>
+	 * record -- record the program's input to a replay file. Option has 1
+	 * argument, e.g. <tt>record &lt;file&gt;</tt><br>
+	 * replay -- take the program's input from a file written by record. Option
+	 * has 1 argument, e.g. <tt>replay &lt;file&gt;</tt><br>
 	 * se<n> -- terminate MARS with integer exit code <n> if a simulation (run)
 	 * error occurs.<br>
 	 * sm -- Start execution at Main - Execution will start at program statement
 	 * globally labeled main.<br>
 	 * smc -- Self Modifying Code - Program can write and branch to either text
 	 * or data segment<br>
+	 * trace -- record every instruction fetch and memory access to a binary
+	 * file. Option has 1 argument, e.g. <tt>trace &lt;file&gt;</tt><br>
+	 * watch -- stop simulation when memory is accessed. Option has 2
+	 * arguments, e.g. <tt>watch &lt;kinds&gt; &lt;m&gt;-&lt;n&gt;</tt>, where
+	 * kinds combines r, w and c (read, write, change).<br>
 	 * we -- assembler Warnings will be considered Errors<br>
 	 * <n> -- where <n> is an integer maximum count of steps to simulate.<br>
 	 * If 0, negative or not specified, there is no maximum.<br>
@@ -126,8 +140,22 @@ public class MarsLaunch {
 									// labeled 'main'
 	private boolean countInstructions; // Whether to count and report number of
 										// instructions executed
+	private boolean heapStatistics; // Whether to report heap allocator
+									// statistics
 	private boolean selfModifyingCode; // Whether to allow self-modifying code
 										// (e.g. write to text segment)
+	private String traceFileName; // File to record memory trace to, or null
+	private MemoryTraceRecorder traceRecorder;
+	private String recordFileName; // File to record program input to, or null
+	private String replayFileName; // File to replay program input from, or null
+	private String[] commandArgs; // Command arguments, part of the result cache key
+	private ResultCache resultCache; // Cache of run results, or null
+	private String resultKey; // Result cache key of this run, or null if not cached
+	private String imageKey; // Image cache key of the program, or null if not cached
+	private ByteArrayOutputStream resultOutput; // Copies of what the run prints
+	private ByteArrayOutputStream resultErrorOutput; // while it is being cached
+	private PrintStream realOut; // Standard output while the run is being cached
+	private PrintStream realErr; // Standard error while the run is being cached
 	private static final String rangeSeparator = "-";
 	private static final int splashDuration = 2000; // time in MS to show splash
 													// screen
@@ -172,7 +200,12 @@ public class MarsLaunch {
 			warningsAreErrors = false;
 			startAtMain = false;
 			countInstructions = false;
+			heapStatistics = false;
 			selfModifyingCode = false;
+			traceFileName = null;
+			recordFileName = null;
+			replayFileName = null;
+			resultCache = null;
 			instructionCount = 0;
 			assembleErrorExitCode = 0;
 			simulateErrorExitCode = 0;
@@ -185,12 +218,14 @@ public class MarsLaunch {
 			code = new MIPSprogram();
 			maxSteps = -1;
 			out = System.out;
+			commandArgs = args;
 			if (parseCommandArgs(args)) {
 				if (runCommand()) {
 					displayMiscellaneousPostMortem();
 					displayRegistersPostMortem();
 					displayMemoryPostMortem();
 				}
+				storeCachedResult();
 				dumpSegments();
 			}
 			System.exit(Globals.exitCode);
@@ -341,6 +376,58 @@ public class MarsLaunch {
 				}
 				continue;
 			}
+			if (args[i].toLowerCase().equals("trace")) {
+				if (args.length <= (i + 1)) {
+					out.println("Trace command line argument requires a file name.");
+					argsOK = false;
+				} else {
+					traceFileName = args[++i];
+				}
+				continue;
+			}
+			if (args[i].toLowerCase().equals("cache")) {
+				if (args.length <= (i + 1)) {
+					out.println("Cache command line argument requires a directory name.");
+					argsOK = false;
+				} else {
+					resultCache = new ResultCache(new File(args[++i]),
+							(long) Globals.resultCacheMegabytes * 1024 * 1024);
+				}
+				continue;
+			}
+			if (args[i].toLowerCase().equals("record")) {
+				if (args.length <= (i + 1)) {
+					out.println("Record command line argument requires a file name.");
+					argsOK = false;
+				} else {
+					recordFileName = args[++i];
+				}
+				continue;
+			}
+			if (args[i].toLowerCase().equals("replay")) {
+				if (args.length <= (i + 1)) {
+					out.println("Replay command line argument requires a file name.");
+					argsOK = false;
+				} else {
+					replayFileName = args[++i];
+				}
+				continue;
+			}
+			if (args[i].toLowerCase().equals("watch")) {
+				if (args.length <= (i + 2)) {
+					out.println("Watch command line argument requires a kind and an address or address range.");
+					argsOK = false;
+				} else {
+					try {
+						Globals.memory.getWatchpoints().add(args[i + 2], args[i + 1]);
+					} catch (IllegalArgumentException e) {
+						out.println("Invalid watchpoint: " + e.getMessage());
+						argsOK = false;
+					}
+					i += 2;
+				}
+				continue;
+			}
 			if (args[i].toLowerCase().equals("mc")) {
 				String configName = args[++i];
 				MemoryConfiguration config = MemoryConfigurations.getConfigurationByName(configName);
@@ -429,6 +516,10 @@ public class MarsLaunch {
 				countInstructions = true;
 				continue;
 			}
+			if (args[i].toLowerCase().equals("hs")) {
+				heapStatistics = true;
+				continue;
+			}
 
 			if (args[i].indexOf("$") == 0) {
 				if (RegisterFile.getUserRegister(args[i]) == null && Coprocessor1.getRegister(args[i]) == null) {
@@ -522,21 +613,28 @@ public class MarsLaunch {
 			} else {
 				filesToAssemble = FilenameFinder.getFilenameList(filenameList, FilenameFinder.MATCH_ALL_EXTENSIONS);
 			}
-			if (Globals.debug) {
-				out.println("--------  TOKENIZING BEGINS  -----------");
-			}
-			ArrayList MIPSprogramsToAssemble = code.prepareFilesForAssembly(filesToAssemble, mainFile.getAbsolutePath(),
-					null);
-			if (Globals.debug) {
-				out.println("--------  ASSEMBLY BEGINS  -----------");
-			}
-			// Added logic to check for warnings and print if any. DPS 11/28/06
-			ErrorList warnings = code.assemble(MIPSprogramsToAssemble, pseudo, warningsAreErrors);
-			if (warnings != null && warnings.warningsOccurred()) {
-				out.println(warnings.generateWarningReport());
+			if (!loadCachedImage(filesToAssemble, mainFile.getAbsolutePath())) {
+				if (Globals.debug) {
+					out.println("--------  TOKENIZING BEGINS  -----------");
+				}
+				ArrayList MIPSprogramsToAssemble = code.prepareFilesForAssembly(filesToAssemble,
+						mainFile.getAbsolutePath(), null);
+				if (Globals.debug) {
+					out.println("--------  ASSEMBLY BEGINS  -----------");
+				}
+				// Added logic to check for warnings and print if any. DPS
+				// 11/28/06
+				ErrorList warnings = code.assemble(MIPSprogramsToAssemble, pseudo, warningsAreErrors);
+				if (warnings != null && warnings.warningsOccurred()) {
+					out.println(warnings.generateWarningReport());
+				}
+				storeCachedImage(MIPSprogramsToAssemble, warnings);
 			}
 			RegisterFile.initializeProgramCounter(startAtMain); // DPS 3/9/09
 			if (simulate) {
+				if (replayCachedResult()) {
+					return programRan; // nothing was simulated
+				}
 				// store program args (if any) in MIPS memory
 				new ProgramArgumentList(programArgumentList).storeProgramArguments();
 				// establish observer if specified
@@ -545,9 +643,22 @@ public class MarsLaunch {
 					out.println("--------  SIMULATION BEGINS  -----------");
 				}
 				programRan = true;
-				boolean done = code.simulate(maxSteps);
+				startInputReplay();
+				startMemoryTrace();
+				boolean done;
+				try {
+					done = code.simulate(maxSteps);
+				} finally {
+					stopMemoryTrace();
+					saveInputRecording();
+				}
 				if (!done) {
-					out.println("\nProgram terminated when maximum step limit " + maxSteps + " reached.");
+					if (Globals.memory.getWatchpoints().isTriggered()) {
+						out.println("\nProgram stopped at watchpoint: "
+								+ Globals.memory.getWatchpoints().getTriggerDescription());
+					} else {
+						out.println("\nProgram terminated when maximum step limit " + maxSteps + " reached.");
+					}
 				}
 			}
 			if (Globals.debug) {
@@ -561,6 +672,250 @@ public class MarsLaunch {
 		return programRan;
 	}
 
+	//////////////////////////////////////////////////////////////////////
+	// Start recording memory accesses to the file named by the trace option,
+	// if it was given. A file that cannot be created is reported but does
+	// not prevent the simulation.
+
+	private void startMemoryTrace() {
+		if (traceFileName == null) {
+			return;
+		}
+		try {
+			traceRecorder = new MemoryTraceRecorder(new File(traceFileName));
+			Globals.memory.setTraceRecorder(traceRecorder);
+		} catch (IOException e) {
+			out.println("Unable to create memory trace file " + traceFileName + ": " + e.getMessage());
+		}
+	}
+
+	//////////////////////////////////////////////////////////////////////
+	// Stop recording and wait for the trace file to be completely written.
+
+	private void stopMemoryTrace() {
+		if (traceRecorder == null) {
+			return;
+		}
+		Globals.memory.setTraceRecorder(null);
+		try {
+			traceRecorder.close();
+		} catch (IOException e) {
+			out.println("Error writing memory trace file " + traceFileName + ": " + e.getMessage());
+		}
+		traceRecorder = null;
+	}
+
+	//////////////////////////////////////////////////////////////////////
+	// If the cache option was given, load the image of the program saved
+	// when the same source was last assembled, instead of assembling it.
+	// Returns true if that was done. Runs that dump memory are always
+	// assembled, since some dump formats show assembler output that images
+	// do not keep.
+
+	private boolean loadCachedImage(ArrayList filenames, String leadFilename) {
+		imageKey = null;
+		if (resultCache == null || dumpTriples != null) {
+			return false;
+		}
+		try {
+			imageKey = computeImageKey(filenames, leadFilename);
+		} catch (IOException e) {
+			out.println("Unable to use image cache: " + e.getMessage());
+			return false;
+		}
+		ByteBuffer image = resultCache.getImage(imageKey);
+		if (image != null && ProgramImage.load(code, image)) {
+			imageKey = null;
+			return true;
+		}
+		return false;
+	}
+
+	//////////////////////////////////////////////////////////////////////
+	// Save the image of the program just assembled in the cache, unless
+	// assembling gave warnings, which an image would not repeat.
+
+	private void storeCachedImage(ArrayList programs, ErrorList warnings) {
+		if (imageKey == null || warnings != null && warnings.warningsOccurred()) {
+			return;
+		}
+		try {
+			resultCache.putImage(imageKey, ProgramImage.save(code, programs));
+		} catch (IOException e) {
+			out.println("Unable to store program image in cache: " + e.getMessage());
+		}
+		imageKey = null;
+	}
+
+	//////////////////////////////////////////////////////////////////////
+	// Compute the image cache key of the program: a digest of the names
+	// and contents of its source files, the settings, the memory
+	// configuration and the instruction set. Included files are checked by
+	// the image itself.
+
+	private String computeImageKey(ArrayList filenames, String leadFilename) throws IOException {
+		ResultCache.Key key = new ResultCache.Key();
+		key.add(Globals.version);
+		key.add(Globals.instructionSet.getInstructionCount());
+		key.add(MemoryConfigurations.getCurrentConfiguration().getConfigurationIdentifier());
+		for (int i = 0; i <= Settings.SELF_MODIFYING_CODE_ENABLED; i++) {
+			key.add(Globals.getSettings().getBooleanSetting(i) ? 1 : 0);
+		}
+		key.add(pseudo ? 1 : 0).add(warningsAreErrors ? 1 : 0);
+		key.add(leadFilename);
+		for (int i = 0; i < filenames.size(); i++) {
+			String filename = (String) filenames.get(i);
+			key.add(filename).add(new File(filename));
+		}
+		return key.toString();
+	}
+
+	//////////////////////////////////////////////////////////////////////
+	// If the cache option was given, look up the result of an identical
+	// earlier run and print what it printed. Returns true if that was done.
+	// Otherwise start copying what this run prints, for storeCachedResult().
+	// Runs that write or read files named by other options are not cached.
+
+	private boolean replayCachedResult() {
+		if (resultCache == null || dumpTriples != null || traceFileName != null || recordFileName != null
+				|| replayFileName != null) {
+			return false;
+		}
+		try {
+			resultKey = computeResultKey();
+		} catch (Exception e) {
+			out.println("Unable to use result cache: " + e.getMessage());
+			return false;
+		}
+		ResultCache.Result result = resultCache.get(resultKey);
+		if (result != null) {
+			System.out.write(result.getOutput(), 0, result.getOutput().length);
+			System.out.flush();
+			System.err.write(result.getErrorOutput(), 0, result.getErrorOutput().length);
+			System.err.flush();
+			instructionCount = result.getInstructionCount();
+			Globals.exitCode = result.getExitCode();
+			resultKey = null;
+			return true;
+		}
+		// Record the inputs, so that the result is only stored if they all
+		// came from the input stream.
+		InputLog.setRecording(true);
+		realOut = System.out;
+		realErr = System.err;
+		resultOutput = new ByteArrayOutputStream();
+		resultErrorOutput = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(new TeeOutputStream(realOut, resultOutput), true));
+		System.setErr(new PrintStream(new TeeOutputStream(realErr, resultErrorOutput), true));
+		out = (out == realErr) ? System.err : System.out;
+		return false;
+	}
+
+	//////////////////////////////////////////////////////////////////////
+	// Stop copying what the run prints and store it in the result cache,
+	// unless the run took input other than the input stream.
+
+	private void storeCachedResult() {
+		if (resultKey == null) {
+			return;
+		}
+		System.out.flush();
+		System.err.flush();
+		System.setOut(realOut);
+		System.setErr(realErr);
+		out = (out == System.err) ? realErr : realOut;
+		if (InputLog.isTextOnly()) {
+			try {
+				resultCache.put(resultKey, new ResultCache.Result(Globals.exitCode, instructionCount,
+						resultOutput.toByteArray(), resultErrorOutput.toByteArray()));
+			} catch (IOException e) {
+				out.println("Unable to store result in cache: " + e.getMessage());
+			}
+		}
+		resultKey = null;
+	}
+
+	//////////////////////////////////////////////////////////////////////
+	// Compute the result cache key of the assembled program: a digest of
+	// the machine code, the initial data segments, the memory configuration,
+	// the settings, the command arguments other than file names (the files
+	// are represented by the machine code) and the input stream. The input
+	// stream is read to its end here and then replaced by what was read.
+
+	private String computeResultKey() throws IOException, AddressErrorException {
+		ResultCache.Key key = new ResultCache.Key();
+		key.add(Globals.version);
+		for (int i = 0; i < commandArgs.length; i++) {
+			if (!filenameList.contains(commandArgs[i])) {
+				key.add(commandArgs[i]);
+			}
+		}
+		key.add(MemoryConfigurations.getCurrentConfiguration().getConfigurationIdentifier());
+		for (int i = 0; i <= Settings.SELF_MODIFYING_CODE_ENABLED; i++) {
+			key.add(Globals.getSettings().getBooleanSetting(i) ? 1 : 0);
+		}
+		ArrayList machineList = code.getMachineList();
+		for (int i = 0; i < machineList.size(); i++) {
+			ProgramStatement statement = (ProgramStatement) machineList.get(i);
+			key.add(statement.getAddress()).add(statement.getBinaryStatement());
+		}
+		addWordsToKey(key, Memory.dataSegmentBaseAddress, Memory.heapAddress);
+		addWordsToKey(key, Memory.kernelDataBaseAddress,
+				Globals.memory.getAddressOfFirstNull(Memory.kernelDataBaseAddress, Memory.kernelDataSegmentLimitAddress));
+		ByteArrayOutputStream input = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		for (int length; (length = System.in.read(buffer)) > 0;) {
+			input.write(buffer, 0, length);
+		}
+		key.add(input.toByteArray());
+		System.setIn(new ByteArrayInputStream(input.toByteArray()));
+		return key.toString();
+	}
+
+	// Add the address and value of each word in [low, high) that has been
+	// written to the result cache key.
+	private void addWordsToKey(ResultCache.Key key, int low, int high) throws AddressErrorException {
+		for (int address = low; address < high; address += Memory.WORD_LENGTH_BYTES) {
+			Integer word = Globals.memory.getRawWordOrNull(address);
+			if (word != null) {
+				key.add(address).add(word.intValue());
+			}
+		}
+	}
+
+	//////////////////////////////////////////////////////////////////////
+	// Load the input replay file and start recording input, as the replay
+	// and record options ask. A replay file that cannot be read is reported,
+	// and the program then takes its input live.
+
+	private void startInputReplay() {
+		if (replayFileName != null) {
+			try {
+				InputLog.load(new File(replayFileName));
+			} catch (IOException e) {
+				out.println("Unable to read input replay file " + replayFileName + ": " + e.getMessage());
+			}
+		}
+		if (recordFileName != null) {
+			InputLog.setRecording(true);
+		}
+	}
+
+	//////////////////////////////////////////////////////////////////////
+	// Write the input recorded during the run to the file named by the
+	// record option, if it was given.
+
+	private void saveInputRecording() {
+		if (recordFileName == null) {
+			return;
+		}
+		try {
+			InputLog.save(new File(recordFileName));
+		} catch (IOException e) {
+			out.println("Error writing input record file " + recordFileName + ": " + e.getMessage());
+		}
+	}
+
 	//////////////////////////////////////////////////////////////////////
 	// Check for memory address subrange. Has to be two integers separated
 	// by "-"; no embedded spaces. e.g. 0x00400000-0x00400010
@@ -627,6 +982,13 @@ public class MarsLaunch {
 		if (countInstructions) {
 			out.println("\n" + instructionCount);
 		}
+		if (heapStatistics) {
+			HeapAllocator heap = Globals.memory.getHeapAllocator();
+			out.println("\nHeap: " + heap.getLiveBytes() + " bytes live, " + heap.getPeakLiveBytes()
+					+ " bytes peak, " + heap.getHeapBytes() + " bytes obtained, " + heap.getFreeBytes()
+					+ " bytes free, " + Math.round(heap.getFragmentation() * 100) + "% external fragmentation, "
+					+ heap.getAllocationCount() + " allocations, " + heap.getFreeCount() + " frees");
+		}
 	}
 
 	//////////////////////////////////////////////////////////////////////
@@ -808,6 +1170,11 @@ public class MarsLaunch {
 		out.println("  ae<n>  -- terminate MARS with integer exit code <n> if an assemble error occurs.");
 		out.println("  ascii  -- display memory or register contents interpreted as ASCII codes.");
 		out.println("      b  -- brief - do not display register/memory address along with contents");
+		out.println("  cache <dir>  -- print the result of an earlier run of the same program with the");
+		out.println("            same options and standard input, kept in directory <dir>, instead of");
+		out.println("            running it again.  Only runs whose sole input is standard input are kept.");
+		out.println("            Standard input is read to its end before the program starts.");
+		out.println("            The assembled program is kept too, and reused while the source is unchanged.");
 		out.println("      d  -- display MARS debugging statements");
 		out.println("     db  -- MIPS delayed branching is enabled");
 		out.println("    dec  -- display memory or register contents in decimal.");
@@ -819,6 +1186,7 @@ public class MarsLaunch {
 		out.println("            <format> = " + formats);
 		out.println("      h  -- display this help.  Use by itself with no filename.");
 		out.println("    hex  -- display memory or register contents in hexadecimal (default)");
+		out.println("     hs  -- display heap statistics for malloc/free syscalls (60-63)");
 		out.println("     ic  -- display count of MIPS basic instructions 'executed'");
 		out.println("     mc <config>  -- set memory configuration.  Argument <config> is");
 		out.println("            case-sensitive and possible values are: Default for the default");
@@ -830,9 +1198,20 @@ public class MarsLaunch {
 		out.println("     nc  -- do not display copyright notice (for cleaner redirected/piped output).");
 		out.println("     np  -- use of pseudo instructions and formats not permitted");
 		out.println("      p  -- Project mode - assemble all files in the same directory as given file.");
+		out.println("  record <file>  -- record the program's input (syscall reads, file reads, dialogs,");
+		out.println("            random numbers and time of day) to <file>.");
+		out.println("  replay <file>  -- take the program's input from <file>, written by record, instead");
+		out.println("            of the console, dialogs, random numbers and clock.  Output is shown as usual;");
+		out.println("            files are not actually opened, read or written.");
 		out.println("  se<n>  -- terminate MARS with integer exit code <n> if a simulation (run) error occurs.");
 		out.println("     sm  -- start execution at statement with global label main, if defined");
 		out.println("    smc  -- Self Modifying Code - Program can write and branch to either text or data segment");
+		out.println("  trace <file>  -- record every instruction fetch and memory access to <file>");
+		out.println("            in a compact binary format.");
+		out.println("  watch <kinds> <m>[-<n>]  -- stop simulation when the program accesses memory");
+		out.println("            address <m>, or range <m> to <n>.  <kinds> is any combination of");
+		out.println("            r (read), w (write) and c (write that changes the value).");
+		out.println("            Option may be repeated.");
 		out.println("    <n>  -- where <n> is an integer maximum count of steps to simulate.");
 		out.println("            If 0, negative or not specified, there is no maximum.");
 		out.println(" $<reg>  -- where <reg> is number or name (e.g. 5, t3, f10) of register whose ");
@@ -853,4 +1232,30 @@ public class MarsLaunch {
 		out.println("Options used here do not affect MARS Settings menu values and vice versa.");
 	}
 
+	// Output stream that writes everything to two streams, used to keep a
+	// copy of what a run prints for the result cache.
+	private static class TeeOutputStream extends OutputStream {
+		private OutputStream first, second;
+
+		public TeeOutputStream(OutputStream first, OutputStream second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		public void write(int b) throws IOException {
+			first.write(b);
+			second.write(b);
+		}
+
+		public void write(byte[] b, int off, int len) throws IOException {
+			first.write(b, off, len);
+			second.write(b, off, len);
+		}
+
+		public void flush() throws IOException {
+			first.flush();
+			second.flush();
+		}
+	}
+
 }
@@ -0,0 +1,286 @@
+package mars;
+
+import mars.assembler.*;
+import mars.mips.hardware.*;
+import mars.mips.instructions.*;
+import mars.util.*;
+import java.io.*;
+import java.nio.*;
+import java.util.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * The result of assembling a program in a form that can be saved to a file
+ * and loaded again without tokenizing or assembling the source: the
+ * statements in the text segments with their source lines, the initial
+ * contents of the data segments, and the global and local symbol tables.
+ * Used by the command-line cache (see ResultCache).
+ * <p>
+ * Which files were brought in by .include directives is only known after
+ * tokenizing, so an image lists them with a digest of their contents, and
+ * is refused when loaded if any of them has changed since.
+ * 
+ * @version October 2026
+ */
+public class ProgramImage {
+	private static final int IMAGE_MAGIC = 0x4D524931; // "MRI1"
+
+	/**
+	 * Produces the image of a program that has just been assembled.
+	 * 
+	 * @param program
+	 *            the MIPSprogram the program was assembled with
+	 * @param programs
+	 *            ArrayList of the MIPSprogram objects of all its source files,
+	 *            as passed to assemble()
+	 * @return the image
+	 * @throws IOException
+	 *             if an included file cannot be read
+	 */
+	public static byte[] save(MIPSprogram program, ArrayList programs) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(IMAGE_MAGIC);
+		// Included files: source lines whose file is not one of the programs.
+		HashSet sourceFiles = new HashSet();
+		for (int i = 0; i < programs.size(); i++) {
+			sourceFiles.add(((MIPSprogram) programs.get(i)).getFilename());
+		}
+		LinkedHashSet includedFiles = new LinkedHashSet();
+		for (int i = 0; i < programs.size(); i++) {
+			ArrayList<SourceLine> lines = ((MIPSprogram) programs.get(i)).getSourceLineList();
+			for (int j = 0; j < lines.size(); j++) {
+				String filename = lines.get(j).getFilename();
+				if (!sourceFiles.contains(filename)) {
+					includedFiles.add(filename);
+				}
+			}
+		}
+		out.writeInt(includedFiles.size());
+		for (Iterator it = includedFiles.iterator(); it.hasNext();) {
+			String filename = (String) it.next();
+			writeString(out, filename);
+			writeString(out, new ResultCache.Key().add(new File(filename)).toString());
+		}
+		// Source files, including any only statements refer to.
+		ArrayList machineList = program.getMachineList();
+		ArrayList files = new ArrayList(programs);
+		for (int i = 0; i < machineList.size(); i++) {
+			MIPSprogram source = ((ProgramStatement) machineList.get(i)).getSourceMIPSprogram();
+			if (source != null && !files.contains(source)) {
+				files.add(source);
+			}
+		}
+		HashMap fileIndexes = new HashMap();
+		out.writeInt(files.size());
+		out.writeInt(files.indexOf(program));
+		for (int i = 0; i < files.size(); i++) {
+			MIPSprogram file = (MIPSprogram) files.get(i);
+			fileIndexes.put(file, Integer.valueOf(i));
+			writeString(out, file.getFilename());
+			writeSymbols(out, file.getLocalSymbolTable());
+		}
+		writeSymbols(out, Globals.symbolTable);
+		// Assembled statements, then anything else in the text segments (such
+		// as .word in .text), which only needs its binary code. Assembled
+		// statements only hold basic instructions.
+		ArrayList instructions = Globals.instructionSet.getBasicInstructionList();
+		HashMap instructionIndexes = new HashMap();
+		for (int i = 0; i < instructions.size(); i++) {
+			instructionIndexes.put(instructions.get(i), Integer.valueOf(i));
+		}
+		out.writeInt(machineList.size());
+		for (int i = 0; i < machineList.size(); i++) {
+			ProgramStatement statement = (ProgramStatement) machineList.get(i);
+			Integer file = (Integer) fileIndexes.get(statement.getSourceMIPSprogram());
+			Integer instruction = (Integer) instructionIndexes.get(statement.getInstruction());
+			out.writeInt(statement.getAddress());
+			out.writeInt(statement.getBinaryStatement());
+			out.writeInt((file == null) ? -1 : file.intValue());
+			out.writeInt(statement.getSourceLine());
+			writeString(out, statement.getSource());
+			writeString(out, statement.getBasicAssemblyStatement());
+			out.writeInt((instruction == null) ? -1 : instruction.intValue());
+			int numOperands = statement.getNumOperands();
+			out.writeInt(numOperands);
+			for (int j = 0; j < numOperands; j++) {
+				out.writeInt(statement.getOperand(j));
+			}
+		}
+		HashSet assembled = new HashSet(machineList);
+		ArrayList others = new ArrayList();
+		ArrayList textStatements = Globals.memory.getTextStatements();
+		for (int i = 0; i < textStatements.size(); i++) {
+			if (!assembled.contains(textStatements.get(i))) {
+				others.add(textStatements.get(i));
+			}
+		}
+		out.writeInt(others.size());
+		for (int i = 0; i < others.size(); i++) {
+			ProgramStatement statement = (ProgramStatement) others.get(i);
+			out.writeInt(statement.getAddress());
+			out.writeInt(statement.getBinaryStatement());
+		}
+		Globals.memory.writeImage(out);
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Loads an image made by save() in place of assembling the program: sets up
+	 * memory, the symbol tables and the program's machine code as assembling
+	 * would have. The image must have been made with the same settings and
+	 * memory configuration.
+	 * 
+	 * @param program
+	 *            the MIPSprogram that would have assembled the program
+	 * @param image
+	 *            the image, read from its current position
+	 * @return true if the image was loaded, false if it is malformed or one of
+	 *         the files it includes has changed. Memory and the symbol tables
+	 *         are then in no particular state and the program needs to be
+	 *         assembled after all.
+	 */
+	public static boolean load(MIPSprogram program, ByteBuffer image) {
+		try {
+			return read(program, image);
+		} catch (RuntimeException e) {
+			return false; // malformed image
+		} catch (IOException e) {
+			return false; // included file cannot be read
+		} catch (AddressErrorException e) {
+			return false; // statement outside the text segments
+		}
+	}
+
+	private static boolean read(MIPSprogram program, ByteBuffer in) throws IOException, AddressErrorException {
+		if (in.getInt() != IMAGE_MAGIC) {
+			return false;
+		}
+		int includedFiles = in.getInt();
+		for (int i = 0; i < includedFiles; i++) {
+			File file = new File(readString(in));
+			String digest = readString(in);
+			if (!file.isFile() || !new ResultCache.Key().add(file).toString().equals(digest)) {
+				return false;
+			}
+		}
+		MIPSprogram[] files = new MIPSprogram[in.getInt()];
+		int programIndex = in.getInt();
+		for (int i = 0; i < files.length; i++) {
+			files[i] = (i == programIndex) ? program : new MIPSprogram();
+			String filename = readString(in);
+			files[i].setImageSource(filename, readSymbols(in, new SymbolTable(filename)));
+		}
+		Globals.symbolTable.clear();
+		readSymbols(in, Globals.symbolTable);
+		Globals.memory.clear();
+		ArrayList instructions = Globals.instructionSet.getBasicInstructionList();
+		ArrayList machineList = new ArrayList();
+		int statements = in.getInt();
+		for (int i = 0; i < statements; i++) {
+			int address = in.getInt();
+			int binary = in.getInt();
+			int file = in.getInt();
+			int sourceLine = in.getInt();
+			String source = readString(in);
+			String basic = readString(in);
+			int instruction = in.getInt();
+			int[] operands = new int[4];
+			int numOperands = in.getInt();
+			for (int j = 0; j < numOperands; j++) {
+				operands[j] = in.getInt();
+			}
+			ProgramStatement statement = new ProgramStatement((file < 0) ? null : files[file], source, sourceLine,
+					(instruction < 0) ? null : (Instruction) instructions.get(instruction), operands, numOperands,
+					basic, binary, address);
+			Globals.memory.setStatement(address, statement);
+			machineList.add(statement);
+		}
+		statements = in.getInt();
+		for (int i = 0; i < statements; i++) {
+			int address = in.getInt();
+			Globals.memory.setStatement(address, new ProgramStatement(in.getInt(), address));
+		}
+		Globals.memory.readImage(in);
+		SystemIO.resetFiles();
+		program.setImageMachineList(machineList);
+		return true;
+	}
+
+	// Write the symbols of a table, or an empty list if there is none.
+	private static void writeSymbols(DataOutputStream out, SymbolTable table) throws IOException {
+		ArrayList symbols = (table == null) ? new ArrayList() : table.getAllSymbols();
+		out.writeInt(symbols.size());
+		for (int i = 0; i < symbols.size(); i++) {
+			Symbol symbol = (Symbol) symbols.get(i);
+			writeString(out, symbol.getName());
+			out.writeInt(symbol.getAddress());
+			out.writeBoolean(symbol.getType());
+		}
+	}
+
+	private static SymbolTable readSymbols(ByteBuffer in, SymbolTable table) {
+		ErrorList errors = new ErrorList();
+		int symbols = in.getInt();
+		for (int i = 0; i < symbols; i++) {
+			String name = readString(in);
+			int address = in.getInt();
+			boolean type = in.get() != 0;
+			table.addSymbol(new Token(TokenTypes.IDENTIFIER, name, null, 0, 0), address, type, errors);
+		}
+		return table;
+	}
+
+	// Strings are written as their length in UTF-8 bytes, or -1 for null,
+	// followed by the bytes.
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes("UTF-8");
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(ByteBuffer in) {
+		int length = in.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		try {
+			return new String(bytes, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException("UTF-8 is not available");
+		}
+	}
+}
@@ -44,10 +44,14 @@ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
  */
 
 public class ProgramStatement {
+	// The executable core is the instruction, operands, binary code and
+	// address. The token lists are only kept until the statement has been
+	// assembled, and the basic statement is kept in compact form, from which
+	// its strings are made on request.
 	private MIPSprogram sourceMIPSprogram;
-	private String source, basicAssemblyStatement, machineStatement;
+	private String source, basicAssemblyStatement; // only if given, else made from basicStatementList
 	private TokenList originalTokenList, strippedTokenList;
-	private BasicStatementList basicStatementList;
+	private BasicStatementList basicStatementList; // made from binary code on first use if null
 	private int[] operands;
 	private int numOperands;
 	private Instruction instruction;
@@ -91,7 +95,6 @@ public class ProgramStatement {
 		this.sourceLine = sourceLine;
 		this.basicAssemblyStatement = null;
 		this.basicStatementList = new BasicStatementList();
-		this.machineStatement = null;
 		this.binaryStatement = 0; // nop, or sll $0, $0, 0 (32 bits of 0's)
 		this.altered = false;
 	}
@@ -116,7 +119,7 @@ public class ProgramStatement {
 		this.textAddress = textAddress;
 		this.originalTokenList = this.strippedTokenList = null;
 		this.source = "";
-		this.machineStatement = this.basicAssemblyStatement = null;
+		this.basicAssemblyStatement = null;
 		BasicInstruction instr = Globals.instructionSet.findByBinaryCode(binaryStatement);
 		if (instr == null) {
 			this.operands = null;
@@ -152,7 +155,30 @@ public class ProgramStatement {
 			this.numOperands = numOps;
 		}
 		this.altered = false;
-		this.basicStatementList = buildBasicStatementListFromBinaryCode(binaryStatement, instr, operands, numOperands);
+		this.basicStatementList = null;
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Constructor for ProgramStatement loaded from an assembled program image
+	 * by ProgramImage. It has its source, instruction and operands but no
+	 * token lists, and its printable basic statement is made from its binary
+	 * code when first requested.
+	 **/
+	ProgramStatement(MIPSprogram sourceMIPSprogram, String source, int sourceLine, Instruction inst, int[] operands,
+			int numOperands, String basicAssemblyStatement, int binaryStatement, int textAddress) {
+		this.sourceMIPSprogram = sourceMIPSprogram;
+		this.source = source;
+		this.sourceLine = sourceLine;
+		this.originalTokenList = this.strippedTokenList = null;
+		this.instruction = inst;
+		this.operands = operands;
+		this.numOperands = numOperands;
+		this.basicAssemblyStatement = basicAssemblyStatement;
+		this.binaryStatement = binaryStatement;
+		this.textAddress = textAddress;
+		this.altered = false;
+		this.basicStatementList = null;
 	}
 
 	/////////////////////////////////////////////////////////////////////////////
@@ -169,8 +195,6 @@ public class ProgramStatement {
 	public void buildBasicStatementFromBasicInstruction(ErrorList errors) {
 		Token token = strippedTokenList.get(0);
 		String basicStatementElement = token.getValue() + " ";
-		;
-		String basic = basicStatementElement;
 		basicStatementList.addString(basicStatementElement); // the operator
 		TokenTypes tokenType, nextTokenType;
 		String tokenValue;
@@ -182,7 +206,6 @@ public class ProgramStatement {
 			tokenValue = token.getValue();
 			if (tokenType == TokenTypes.REGISTER_NUMBER) {
 				basicStatementElement = tokenValue;
-				basic += basicStatementElement;
 				basicStatementList.addString(basicStatementElement);
 				try {
 					registerNumber = RegisterFile.getUserRegister(tokenValue).getNumber();
@@ -196,7 +219,6 @@ public class ProgramStatement {
 			} else if (tokenType == TokenTypes.REGISTER_NAME) {
 				registerNumber = RegisterFile.getNumber(tokenValue);
 				basicStatementElement = "$" + registerNumber;
-				basic += basicStatementElement;
 				basicStatementList.addString(basicStatementElement);
 				if (registerNumber < 0) {
 					// should never happen; should be caught before now...
@@ -208,7 +230,6 @@ public class ProgramStatement {
 			} else if (tokenType == TokenTypes.FP_REGISTER_NAME) {
 				registerNumber = Coprocessor1.getRegisterNumber(tokenValue);
 				basicStatementElement = "$f" + registerNumber;
-				basic += basicStatementElement;
 				basicStatementList.addString(basicStatementElement);
 				if (registerNumber < 0) {
 					// should never happen; should be caught before now...
@@ -293,7 +314,6 @@ public class ProgramStatement {
 					}
 				}
 				//////////////////////////////////////////////////////////////////////
-				basic += address;
 				if (absoluteAddress) { // record as address if absolute, value
 										// if relative
 					basicStatementList.addAddress(address);
@@ -349,14 +369,12 @@ public class ProgramStatement {
 				 * 0xffff8000 ... 0xffffffff } } END DPS 3-July-2008 COMMENTS
 				 *******************************/
 
-				basic += tempNumeric;
 				basicStatementList.addValue(tempNumeric);
 				this.operands[this.numOperands++] = tempNumeric;
 				///// End modification 1/7/05 KENV
 				///// ///////////////////////////////////////////
 			} else {
 				basicStatementElement = tokenValue;
-				basic += basicStatementElement;
 				basicStatementList.addString(basicStatementElement);
 			}
 			// add separator if not at end of token list AND neither current nor
@@ -366,12 +384,11 @@ public class ProgramStatement {
 				if (tokenType != TokenTypes.LEFT_PAREN && tokenType != TokenTypes.RIGHT_PAREN
 						&& nextTokenType != TokenTypes.LEFT_PAREN && nextTokenType != TokenTypes.RIGHT_PAREN) {
 					basicStatementElement = ",";
-					basic += basicStatementElement;
 					basicStatementList.addString(basicStatementElement);
 				}
 			}
 		}
-		this.basicAssemblyStatement = basic;
+		basicStatementList.trim();
 	} // buildBasicStatementFromBasicInstruction()
 
 	/////////////////////////////////////////////////////////////////////////////
@@ -384,11 +401,11 @@ public class ProgramStatement {
 	 *            here.
 	 **/
 	public void buildMachineStatementFromBasicStatement(ErrorList errors) {
-
+		String machineStatement;
 		try {
 			// mask indicates bit positions for 'f'irst, 's'econd, 't'hird
 			// operand
-			this.machineStatement = ((BasicInstruction) instruction).getOperationMask();
+			machineStatement = ((BasicInstruction) instruction).getOperationMask();
 		} // This means the pseudo-instruction expansion generated another
 			// pseudo-instruction (expansion must be to all basic instructions).
 			// This is an error on the part of the pseudo-instruction author.
@@ -411,18 +428,21 @@ public class ProgramStatement {
 			}
 			// Note the bit shift to make this a word address.
 			this.operands[0] = this.operands[0] >>> 2;
-			this.insertBinaryCode(this.operands[0], Instruction.operandMask[0], errors);
+			machineStatement = this.insertBinaryCode(machineStatement, this.operands[0], Instruction.operandMask[0],
+					errors);
 		} else if (format == BasicInstructionFormat.I_BRANCH_FORMAT) {
 			for (int i = 0; i < this.numOperands - 1; i++) {
-				this.insertBinaryCode(this.operands[i], Instruction.operandMask[i], errors);
+				machineStatement = this.insertBinaryCode(machineStatement, this.operands[i],
+						Instruction.operandMask[i], errors);
 			}
-			this.insertBinaryCode(operands[this.numOperands - 1], Instruction.operandMask[this.numOperands - 1],
-					errors);
+			machineStatement = this.insertBinaryCode(machineStatement, operands[this.numOperands - 1],
+					Instruction.operandMask[this.numOperands - 1], errors);
 		} else { // R_FORMAT or I_FORMAT
 			for (int i = 0; i < this.numOperands; i++)
-				this.insertBinaryCode(this.operands[i], Instruction.operandMask[i], errors);
+				machineStatement = this.insertBinaryCode(machineStatement, this.operands[i],
+						Instruction.operandMask[i], errors);
 		}
-		this.binaryStatement = Binary.binaryStringToInt(this.machineStatement);
+		this.binaryStatement = Binary.binaryStringToInt(machineStatement);
 		return;
 	} // buildMachineStatementFromBasicStatement(
 
@@ -438,11 +458,11 @@ public class ProgramStatement {
 		// a crude attempt at string formatting. Where's C when you need it?
 		String blanks = "                               ";
 		String result = "[" + this.textAddress + "]";
-		if (this.basicAssemblyStatement != null) {
-			int firstSpace = this.basicAssemblyStatement.indexOf(" ");
-			result += blanks.substring(0, 16 - result.length()) + this.basicAssemblyStatement.substring(0, firstSpace);
-			result += blanks.substring(0, 24 - result.length()) + this.basicAssemblyStatement.substring(firstSpace + 1);
-			;
+		String basicAssemblyStatement = this.getBasicAssemblyStatement();
+		if (basicAssemblyStatement != null) {
+			int firstSpace = basicAssemblyStatement.indexOf(" ");
+			result += blanks.substring(0, 16 - result.length()) + basicAssemblyStatement.substring(0, firstSpace);
+			result += blanks.substring(0, 24 - result.length()) + basicAssemblyStatement.substring(firstSpace + 1);
 		} else {
 			result += blanks.substring(0, 16 - result.length()) + "0x" + Integer.toString(this.binaryStatement, 16);
 		}
@@ -452,11 +472,12 @@ public class ProgramStatement {
 				// result += operands[i] + " ";
 				result += Integer.toString(operands[i], 16) + " ";
 		}
-		if (this.machineStatement != null) {
-			result += "[" + Binary.binaryStringToHexString(this.machineStatement) + "]";
-			result += "  " + this.machineStatement.substring(0, 6) + "|" + this.machineStatement.substring(6, 11) + "|"
-					+ this.machineStatement.substring(11, 16) + "|" + this.machineStatement.substring(16, 21) + "|"
-					+ this.machineStatement.substring(21, 26) + "|" + this.machineStatement.substring(26, 32);
+		String machineStatement = this.getMachineStatement();
+		if (machineStatement != null) {
+			result += "[" + Binary.binaryStringToHexString(machineStatement) + "]";
+			result += "  " + machineStatement.substring(0, 6) + "|" + machineStatement.substring(6, 11) + "|"
+					+ machineStatement.substring(11, 16) + "|" + machineStatement.substring(16, 21) + "|"
+					+ machineStatement.substring(21, 26) + "|" + machineStatement.substring(26, 32);
 		}
 		return result;
 	} // toString()
@@ -475,14 +496,15 @@ public class ProgramStatement {
 
 	/**
 	 * Assigns given String to be binary machine code (32 characters, all of
-	 * them 0 or 1) equivalent to this source line.
+	 * them 0 or 1) equivalent to this source line. It is stored as the int
+	 * binary machine code.
 	 * 
 	 * @param statement
 	 *            A String containing equivalent machine code.
 	 **/
 
 	public void setMachineStatement(String statement) {
-		machineStatement = statement;
+		binaryStatement = Binary.binaryStringToInt(statement);
 	}
 
 	/**
@@ -556,7 +578,11 @@ public class ProgramStatement {
 	 **/
 
 	public String getBasicAssemblyStatement() {
-		return basicAssemblyStatement;
+		if (basicAssemblyStatement != null || basicStatementList == null) {
+			return basicAssemblyStatement;
+		}
+		return basicStatementList.toString(mars.venus.NumberDisplayBaseChooser.DECIMAL,
+				mars.venus.NumberDisplayBaseChooser.DECIMAL);
 	}
 
 	/**
@@ -567,18 +593,24 @@ public class ProgramStatement {
 	 * @return The Basic Assembly statement.
 	 **/
 	public String getPrintableBasicAssemblyStatement() {
+		if (basicStatementList == null) {
+			basicStatementList = buildBasicStatementListFromBinaryCode(binaryStatement,
+					(instruction instanceof BasicInstruction) ? (BasicInstruction) instruction : null, operands,
+					numOperands);
+		}
 		return basicStatementList.toString();
 	}
 
 	/**
 	 * Produces binary machine statement as 32 character string, all '0' and '1'
-	 * chars.
+	 * chars. It is made from the int binary machine code.
 	 * 
-	 * @return The String version of 32-bit binary machine code.
+	 * @return The String version of 32-bit binary machine code, or null if
+	 *         this is not a basic instruction.
 	 **/
 
 	public String getMachineStatement() {
-		return machineStatement;
+		return (instruction instanceof BasicInstruction) ? Binary.intToBinaryString(binaryStatement) : null;
 	}
 
 	/**
@@ -593,7 +625,8 @@ public class ProgramStatement {
 	/**
 	 * Produces token list generated from original source statement.
 	 * 
-	 * @return The TokenList of Token objects generated from original source.
+	 * @return The TokenList of Token objects generated from original source,
+	 *         or null once the statement has been assembled.
 	 **/
 	public TokenList getOriginalTokenList() {
 		return originalTokenList;
@@ -603,12 +636,22 @@ public class ProgramStatement {
 	 * Produces token list stripped of all but operator and operand tokens.
 	 * 
 	 * @return The TokenList of Token objects generated by stripping original
-	 *         list of all except operator and operand tokens.
+	 *         list of all except operator and operand tokens, or null once the
+	 *         statement has been assembled.
 	 **/
 	public TokenList getStrippedTokenList() {
 		return strippedTokenList;
 	}
 
+	/**
+	 * Releases the token lists once the assembler is done with this
+	 * statement. Only the executable core and what is needed to display the
+	 * statement stay in memory, which matters for very large programs.
+	 **/
+	public void releaseTokenLists() {
+		originalTokenList = strippedTokenList = null;
+	}
+
 	/**
 	 * Produces Instruction object corresponding to this statement's operator.
 	 * 
@@ -638,6 +681,11 @@ public class ProgramStatement {
 		return operands;
 	}
 
+	// Number of operands in use; for ProgramImage.
+	int getNumOperands() {
+		return numOperands;
+	}
+
 	/**
 	 * Produces operand value from given array position (first operand is
 	 * position 0).
@@ -659,20 +707,20 @@ public class ProgramStatement {
 	// Given operand (register or integer) and mask character ('f', 's', or
 	////////////////////////////////////////////////////////////////////////////// 't'),
 	// generate the correct sequence of bits and replace the mask with them.
-	private void insertBinaryCode(int value, char mask, ErrorList errors) {
-		int startPos = this.machineStatement.indexOf(mask);
-		int endPos = this.machineStatement.lastIndexOf(mask);
+	// Returns the machine statement with the bits inserted.
+	private String insertBinaryCode(String machineStatement, int value, char mask, ErrorList errors) {
+		int startPos = machineStatement.indexOf(mask);
+		int endPos = machineStatement.lastIndexOf(mask);
 		if (startPos == -1 || endPos == -1) { // should NEVER occur
 			errors.add(new ErrorMessage(this.sourceMIPSprogram, this.sourceLine, 0,
 					"INTERNAL ERROR: mismatch in number of operands in statement vs mask"));
-			return;
+			return machineStatement;
 		}
 		String bitString = Binary.intToBinaryString(value, endPos - startPos + 1);
-		String state = this.machineStatement.substring(0, startPos) + bitString;
-		if (endPos < this.machineStatement.length() - 1)
-			state = state + this.machineStatement.substring(endPos + 1);
-		this.machineStatement = state;
-		return;
+		String state = machineStatement.substring(0, startPos) + bitString;
+		if (endPos < machineStatement.length() - 1)
+			state = state + machineStatement.substring(endPos + 1);
+		return state;
 	} // insertBinaryCode()
 
 	//////////////////////////////////////////////////////////////////////////////
@@ -730,6 +778,7 @@ public class ProgramStatement {
 			}
 			tokenListCounter++;
 		}
+		statementList.trim();
 		return statementList;
 	} // buildBasicStatementListFromBinaryCode()
 
@@ -747,25 +796,52 @@ public class ProgramStatement {
 	// are relative to the PC.
 	//
 	// DPS 29-July-2010
+	//
+	// The elements are kept as one string, in which each address or
+	// value is a marker character standing for the next number in an
+	// int array, rather than as an object per element.
 
-	private class BasicStatementList {
+	private static class BasicStatementList {
+		private static final char ADDRESS = '\u0001', VALUE = '\u0002';
+		private static final int[] NO_NUMBERS = new int[0];
 
-		private ArrayList list;
+		private String text;
+		private StringBuffer pending; // text being added to, if any
+		private int[] numbers;
+		private int count;
 
 		BasicStatementList() {
-			list = new ArrayList();
+			text = "";
+			numbers = new int[2];
 		}
 
 		void addString(String string) {
-			list.add(new ListElement(0, string, 0));
+			append(string);
 		}
 
 		void addAddress(int address) {
-			list.add(new ListElement(1, null, address));
+			append(ADDRESS, address);
 		}
 
 		void addValue(int value) {
-			list.add(new ListElement(2, null, value));
+			append(VALUE, value);
+		}
+
+		private void append(String string) {
+			if (pending == null) {
+				pending = new StringBuffer(text);
+			}
+			pending.append(string);
+		}
+
+		private void append(char marker, int number) {
+			append(String.valueOf(marker));
+			if (count == numbers.length) {
+				int[] grown = new int[2 * count];
+				System.arraycopy(numbers, 0, grown, 0, count);
+				numbers = grown;
+			}
+			numbers[count++] = number;
 		}
 
 		public String toString() {
@@ -773,43 +849,45 @@ public class ProgramStatement {
 					? mars.venus.NumberDisplayBaseChooser.HEXADECIMAL : mars.venus.NumberDisplayBaseChooser.DECIMAL;
 			int valueBase = (Globals.getSettings().getBooleanSetting(Settings.DISPLAY_VALUES_IN_HEX))
 					? mars.venus.NumberDisplayBaseChooser.HEXADECIMAL : mars.venus.NumberDisplayBaseChooser.DECIMAL;
+			return toString(addressBase, valueBase);
+		}
+
+		// Makes the list compact once it is complete.
+		void trim() {
+			if (pending != null) {
+				text = pending.toString();
+				pending = null;
+			}
+			if (count < numbers.length) {
+				int[] trimmed = (count == 0) ? NO_NUMBERS : new int[count];
+				System.arraycopy(numbers, 0, trimmed, 0, count);
+				numbers = trimmed;
+			}
+		}
 
+		// Renders addresses and values in the given bases.
+		String toString(int addressBase, int valueBase) {
+			trim();
 			StringBuffer result = new StringBuffer();
-			for (int i = 0; i < list.size(); i++) {
-				ListElement e = (ListElement) list.get(i);
-				switch (e.type) {
-				case 0:
-					result.append(e.sValue);
-					break;
-				case 1:
-					result.append(mars.venus.NumberDisplayBaseChooser.formatNumber(e.iValue, addressBase));
-					break;
-				case 2:
+			int number = 0;
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				if (c == ADDRESS) {
+					result.append(mars.venus.NumberDisplayBaseChooser.formatNumber(numbers[number++], addressBase));
+				} else if (c == VALUE) {
 					if (valueBase == mars.venus.NumberDisplayBaseChooser.HEXADECIMAL) {
-						result.append(mars.util.Binary.intToHexString(e.iValue)); // 13-July-2011,
-																					// was:
-																					// intToHalfHexString()
+						result.append(mars.util.Binary.intToHexString(numbers[number++])); // 13-July-2011,
+																								// was:
+																								// intToHalfHexString()
 					} else {
-						result.append(mars.venus.NumberDisplayBaseChooser.formatNumber(e.iValue, valueBase));
+						result.append(mars.venus.NumberDisplayBaseChooser.formatNumber(numbers[number++], valueBase));
 					}
-				default:
-					break;
+				} else {
+					result.append(c);
 				}
 			}
 			return result.toString();
 		}
-
-		private class ListElement {
-			int type;
-			String sValue;
-			int iValue;
-
-			ListElement(int type, String sValue, int iValue) {
-				this.type = type;
-				this.sValue = sValue;
-				this.iValue = iValue;
-			}
-		}
 	}
 
 }
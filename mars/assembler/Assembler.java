@@ -13,6 +13,7 @@ import mars.ProgramStatement;
 import mars.mips.hardware.AddressErrorException;
 import mars.mips.hardware.Memory;
 import mars.mips.instructions.BasicInstruction;
+import mars.mips.instructions.CompiledTemplate;
 import mars.mips.instructions.ExtendedInstruction;
 import mars.mips.instructions.Instruction;
 import mars.util.Binary;
@@ -332,11 +333,13 @@ public class Assembler {
 					// ////////////////////////////////////////////////////////////////////////////
 					// If we are using compact memory config and there is a
 					// compact expansion, use it
-					ArrayList templateList;
+					ArrayList templateList, compiledList;
 					if (compactTranslationCanBeApplied(statement)) {
 						templateList = inst.getCompactBasicIntructionTemplateList();
+						compiledList = inst.getCompactCompiledTemplateList();
 					} else {
 						templateList = inst.getBasicIntructionTemplateList();
+						compiledList = inst.getCompiledTemplateList();
 					}
 
 					// subsequent ProgramStatement constructor needs the correct
@@ -345,26 +348,38 @@ public class Assembler {
 					// Will generate one basic instruction for each template in
 					// the list.
 					for (int instrNumber = 0; instrNumber < templateList.size(); instrNumber++) {
-						String instruction = ExtendedInstruction.makeTemplateSubstitutions(
-								this.fileCurrentlyBeingAssembled, (String) templateList.get(instrNumber), theTokenList);
-						// 23 Jan 2008 by DPS. Template substitution may result
-						// in no instruction.
-						// If this is the case, skip remainder of loop
-						// iteration. This should only
-						// happen if template substitution was for "nop"
-						// instruction but delayed branching
-						// is disabled so the "nop" is not generated.
-						if (instruction == null || instruction == "") {
+						// A compiled template yields the tokens of the generated
+						// instruction directly. Otherwise substitute into the
+						// template text and tokenize that.
+						CompiledTemplate compiled = (compiledList == null) ? null
+								: (CompiledTemplate) compiledList.get(instrNumber);
+						TokenList newTokenList = (compiled == null) ? null
+								: compiled.expand(this.fileCurrentlyBeingAssembled, theTokenList, sourceLine);
+						if (newTokenList == null) {
+							String instruction = ExtendedInstruction.makeTemplateSubstitutions(
+									this.fileCurrentlyBeingAssembled, (String) templateList.get(instrNumber),
+									theTokenList);
+							// 23 Jan 2008 by DPS. Template substitution may
+							// result in no instruction.
+							// If this is the case, skip remainder of loop
+							// iteration. This should only
+							// happen if template substitution was for "nop"
+							// instruction but delayed branching
+							// is disabled so the "nop" is not generated.
+							if (instruction == null || instruction == "") {
+								continue;
+							}
+							newTokenList = new Tokenizer().tokenizeLine(sourceLine, instruction, errors, false);
+						} else if (newTokenList.isEmpty()) {
 							continue;
 						}
 
 						// All substitutions have been made so we have generated
 						// a valid basic instruction!
 						if (Globals.debug)
-							System.out.println("PSEUDO generated: " + instruction);
-						// For generated instruction: tokenize, build program
+							System.out.println("PSEUDO generated: " + newTokenList);
+						// For generated instruction: build program
 						// statement, add to list.
-						TokenList newTokenList = new Tokenizer().tokenizeLine(sourceLine, instruction, errors, false);
 						ArrayList instrMatches = this.matchInstruction(newTokenList.get(0));
 						Instruction instr = OperandFormat.bestOperandMatch(newTokenList, instrMatches);
 						// Only first generated instruction is linked to
@@ -376,6 +391,7 @@ public class Assembler {
 						ps.buildBasicStatementFromBasicInstruction(errors);
 						this.machineList.add(ps);
 					} // end of FOR loop, repeated for each template in list.
+					statement.releaseTokenLists();
 				} // end of ELSE part for extended instruction.
 
 			} // end of assembler second pass.
@@ -402,6 +418,8 @@ public class Assembler {
 				errors.add(new ErrorMessage(t.getSourceMIPSprogram(), t.getSourceLine(), t.getStartPos(),
 						"Invalid address for text segment: " + e.getAddress()));
 			}
+			// Only the executable core and display data are kept from here.
+			statement.releaseTokenLists();
 		}
 		// Aug. 24, 2005 Ken Vollmar
 		// Ensure that I/O "file descriptors" are initialized for a new program
@@ -41,7 +41,10 @@ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
 public class SymbolTable {
 	private static String startLabel = "main";
 	private String filename;
-	private ArrayList table;
+	private ArrayList table; // Symbols in the order they were added
+	private HashMap symbolsByName; // String name -> Symbol
+	private HashMap symbolsByAddress; // Integer address -> ArrayList of Symbol, in table order
+	private ArrayList sortedByName, sortedByAddress; // built on demand, null when stale
 	// Note -1 is legal 32 bit address (0xFFFFFFFF) but it is the high address
 	// in
 	// kernel address space so highly unlikely that any symbol will have this as
@@ -58,7 +61,7 @@ public class SymbolTable {
 	 */
 	public SymbolTable(String filename) {
 		this.filename = filename;
-		this.table = new ArrayList();
+		clear();
 	}
 
 	/**
@@ -82,6 +85,9 @@ public class SymbolTable {
 		} else {
 			Symbol s = new Symbol(label, address, b);
 			table.add(s);
+			symbolsByName.put(label, s);
+			addToAddressIndex(s);
+			sortedByName = sortedByAddress = null;
 			if (Globals.debug)
 				System.out.println("The symbol " + label + " with address " + address + " has been added to the "
 						+ this.filename + " symbol table.");
@@ -99,14 +105,14 @@ public class SymbolTable {
 
 	public void removeSymbol(Token token) {
 		String label = token.getValue();
-		for (int i = 0; i < table.size(); i++) {
-			if (((Symbol) (table.get(i))).getName().equals(label)) {
-				table.remove(i);
-				if (Globals.debug)
-					System.out.println(
-							"The symbol " + label + " has been removed from the " + this.filename + " symbol table.");
-				break;
-			}
+		Symbol s = (Symbol) symbolsByName.remove(label);
+		if (s != null) {
+			table.remove(s);
+			removeFromAddressIndex(s);
+			sortedByName = sortedByAddress = null;
+			if (Globals.debug)
+				System.out.println(
+						"The symbol " + label + " has been removed from the " + this.filename + " symbol table.");
 		}
 		return;
 	}
@@ -120,12 +126,8 @@ public class SymbolTable {
 	 *         in symbol table.
 	 **/
 	public int getAddress(String s) {
-		for (int i = 0; i < table.size(); i++) {
-			if (((Symbol) (table.get(i))).getName().equals(s)) {
-				return ((Symbol) table.get(i)).getAddress();
-			}
-		}
-		return NOT_FOUND;
+		Symbol symbol = (Symbol) symbolsByName.get(s);
+		return (symbol == null) ? NOT_FOUND : symbol.getAddress();
 	}
 
 	/**
@@ -153,12 +155,7 @@ public class SymbolTable {
 	 **/
 
 	public Symbol getSymbol(String s) {
-		for (int i = 0; i < table.size(); i++) {
-			if (((Symbol) (table.get(i))).getName().equals(s)) {
-				return (Symbol) table.get(i);
-			}
-		}
-		return null;
+		return (Symbol) symbolsByName.get(s);
 	}
 
 	/**
@@ -179,12 +176,22 @@ public class SymbolTable {
 		} catch (NumberFormatException e) {
 			return null;
 		}
-		for (int i = 0; i < table.size(); i++) {
-			if (((Symbol) (table.get(i))).getAddress() == address) {
-				return (Symbol) table.get(i);
-			}
-		}
-		return null;
+		return getSymbolGivenAddress(address);
+	}
+
+	/**
+	 * Produce Symbol object from symbol table that has the given address. If
+	 * several do, the first one added is produced.
+	 * 
+	 * @param address
+	 *            the address
+	 * @return Symbol object having requested address, null if address not found
+	 *         in symbol table.
+	 **/
+
+	public Symbol getSymbolGivenAddress(int address) {
+		ArrayList symbols = (ArrayList) symbolsByAddress.get(Integer.valueOf(address));
+		return (symbols == null) ? null : (Symbol) symbols.get(0);
 	}
 
 	/**
@@ -201,6 +208,20 @@ public class SymbolTable {
 		return (sym == null) ? Globals.symbolTable.getSymbolGivenAddress(s) : sym;
 	}
 
+	/**
+	 * Produce Symbol object from either local or global symbol table that has
+	 * the given address.
+	 * 
+	 * @param address
+	 *            the address
+	 * @return Symbol object having requested address, null if address not found
+	 *         in symbol table.
+	 **/
+	public Symbol getSymbolGivenAddressLocalOrGlobal(int address) {
+		Symbol sym = this.getSymbolGivenAddress(address);
+		return (sym == null) ? Globals.symbolTable.getSymbolGivenAddress(address) : sym;
+	}
+
 	/**
 	 * For obtaining the Data Symbols.
 	 * 
@@ -240,11 +261,48 @@ public class SymbolTable {
 	 **/
 
 	public ArrayList getAllSymbols() {
-		ArrayList list = new ArrayList();
-		for (int i = 0; i < table.size(); i++) {
-			list.add(table.get(i));
+		return new ArrayList(table);
+	}
+
+	/**
+	 * For obtaining all the Symbols sorted by name, ignoring case. The sorted
+	 * list is kept until the table changes.
+	 * 
+	 * @return A new ArrayList of Symbol objects.
+	 **/
+
+	public ArrayList getSymbolsSortedByName() {
+		if (sortedByName == null) {
+			sortedByName = new ArrayList(table);
+			Collections.sort(sortedByName, new Comparator() {
+				public int compare(Object a, Object b) {
+					return ((Symbol) a).getName().compareToIgnoreCase(((Symbol) b).getName());
+				}
+			});
 		}
-		return list;
+		return new ArrayList(sortedByName);
+	}
+
+	/**
+	 * For obtaining all the Symbols sorted by address, treated as unsigned.
+	 * The sorted list is kept until the table changes.
+	 * 
+	 * @return A new ArrayList of Symbol objects.
+	 **/
+
+	public ArrayList getSymbolsSortedByAddress() {
+		if (sortedByAddress == null) {
+			sortedByAddress = new ArrayList(table);
+			Collections.sort(sortedByAddress, new Comparator() {
+				public int compare(Object a, Object b) {
+					// Flipping the sign bit makes signed order unsigned order.
+					int addressA = ((Symbol) a).getAddress() ^ Integer.MIN_VALUE;
+					int addressB = ((Symbol) b).getAddress() ^ Integer.MIN_VALUE;
+					return (addressA < addressB) ? -1 : (addressA == addressB) ? 0 : 1;
+				}
+			});
+		}
+		return new ArrayList(sortedByAddress);
 	}
 
 	/**
@@ -263,6 +321,9 @@ public class SymbolTable {
 
 	public void clear() {
 		table = new ArrayList();
+		symbolsByName = new HashMap();
+		symbolsByAddress = new HashMap();
+		sortedByName = sortedByAddress = null;
 	}
 
 	/**
@@ -278,14 +339,68 @@ public class SymbolTable {
 	 */
 
 	public void fixSymbolTableAddress(int originalAddress, int replacementAddress) {
-		Symbol label = getSymbolGivenAddress(Integer.toString(originalAddress));
-		while (label != null) {
-			label.setAddress(replacementAddress);
-			label = getSymbolGivenAddress(Integer.toString(originalAddress));
+		if (originalAddress == replacementAddress) {
+			return;
+		}
+		ArrayList symbols = (ArrayList) symbolsByAddress.remove(Integer.valueOf(originalAddress));
+		if (symbols == null) {
+			return;
+		}
+		for (int i = 0; i < symbols.size(); i++) {
+			((Symbol) symbols.get(i)).setAddress(replacementAddress);
+		}
+		Integer address = Integer.valueOf(replacementAddress);
+		ArrayList present = (ArrayList) symbolsByAddress.get(address);
+		if (present != null) {
+			symbols = mergeInTableOrder(present, symbols);
 		}
+		symbolsByAddress.put(address, symbols);
+		sortedByAddress = null;
 		return;
 	}
 
+	// Merge two lists of symbols that are each in table order into one, also
+	// in table order, so that moved symbols keep their place among those
+	// already at the address. Only needed when both lists are non-empty,
+	// which is rare, so positions are simply looked up in the table.
+	private ArrayList mergeInTableOrder(ArrayList first, ArrayList second) {
+		ArrayList merged = new ArrayList(first.size() + second.size());
+		int i = 0, j = 0;
+		while (i < first.size() && j < second.size()) {
+			if (table.indexOf(first.get(i)) < table.indexOf(second.get(j))) {
+				merged.add(first.get(i++));
+			} else {
+				merged.add(second.get(j++));
+			}
+		}
+		merged.addAll(first.subList(i, first.size()));
+		merged.addAll(second.subList(j, second.size()));
+		return merged;
+	}
+
+	// Symbols are added to the address index in table order, so the first
+	// one listed for an address is the first one added.
+	private void addToAddressIndex(Symbol s) {
+		Integer address = Integer.valueOf(s.getAddress());
+		ArrayList symbols = (ArrayList) symbolsByAddress.get(address);
+		if (symbols == null) {
+			symbols = new ArrayList(1);
+			symbolsByAddress.put(address, symbols);
+		}
+		symbols.add(s);
+	}
+
+	private void removeFromAddressIndex(Symbol s) {
+		Integer address = Integer.valueOf(s.getAddress());
+		ArrayList symbols = (ArrayList) symbolsByAddress.get(address);
+		if (symbols != null) {
+			symbols.remove(s);
+			if (symbols.isEmpty()) {
+				symbolsByAddress.remove(address);
+			}
+		}
+	}
+
 	/**
 	 * Fetches the text segment label (symbol) which, if declared global,
 	 * indicates the starting address for execution.
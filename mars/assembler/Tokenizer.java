@@ -1,6 +1,7 @@
 package mars.assembler;
 
 import mars.*;
+import mars.mips.hardware.*;
 import java.util.*;
 import java.io.*;
 
@@ -62,6 +63,26 @@ public class Tokenizer {
 	// decimal codes:
 	private static final String escapedCharacters = "'\"\\ntbrf0";
 	private static final String[] escapedCharactersValues = { "39", "34", "92", "10", "9", "8", "13", "12", "0" };
+	// Line cache: lexical scans of source lines, kept per source file and
+	// keyed by the text of the line. Scanning depends on nothing but that
+	// text, so when a program is reassembled after an edit only the changed
+	// lines need to be scanned again. Each tokenize() replaces the file's
+	// entry with the lines it actually saw, so stale lines do not accumulate.
+	// Only scanning is reused. The assembler still runs pass 1 and pass 2
+	// over every file: addresses continue from one file into the next, and
+	// both passes modify the tokens they are given, so reusing their results
+	// for unchanged files would need each file's statements, symbols and
+	// address range kept between assemblies.
+	private static final int LINE_CACHE_FILES = 32;
+	private static final LinkedHashMap<String, HashMap<String, TokenList>> lineCaches = new LinkedHashMap<String, HashMap<String, TokenList>>(
+			16, 0.75f, true) {
+		protected boolean removeEldestEntry(Map.Entry eldest) {
+			return size() > LINE_CACHE_FILES;
+		}
+	};
+	private HashMap<String, TokenList> previousLines;
+	private HashMap<String, TokenList> currentLines;
+	private static volatile Keywords keywords; // see buildKeywords()
 
 	/**
 	 * Simple constructor. Initializes empty error list.
@@ -85,7 +106,9 @@ public class Tokenizer {
 
 	/**
 	 * Will tokenize a complete MIPS program. MIPS is line oriented (not free
-	 * format), so we will be line-oriented too.
+	 * format), so we will be line-oriented too. Lines whose text has not
+	 * changed since the file was last tokenized are taken from the line cache
+	 * rather than scanned again.
 	 *
 	 * @param p
 	 *            The MIPSprogram to be tokenized.
@@ -97,6 +120,28 @@ public class Tokenizer {
 	public ArrayList tokenize(MIPSprogram p) throws ProcessingException {
 		sourceMIPSprogram = p;
 		equivalents = new HashMap<String, String>(); // DPS 11-July-2012
+		buildKeywords();
+		String cacheKey = p.getFilename();
+		if (cacheKey != null) {
+			synchronized (lineCaches) {
+				previousLines = lineCaches.remove(cacheKey);
+			}
+			currentLines = new HashMap<String, TokenList>();
+		}
+		try {
+			return tokenizeSource(p);
+		} finally {
+			if (cacheKey != null) {
+				synchronized (lineCaches) {
+					lineCaches.put(cacheKey, currentLines);
+				}
+			}
+			previousLines = null;
+			currentLines = null;
+		}
+	}
+
+	private ArrayList tokenizeSource(MIPSprogram p) throws ProcessingException {
 		ArrayList tokenList = new ArrayList();
 		// ArrayList source = p.getSourceList();
 		ArrayList<SourceLine> source = processIncludes(p, new HashMap<String, String>()); // DPS
@@ -106,7 +151,8 @@ public class Tokenizer {
 		String sourceLine;
 		for (int i = 0; i < source.size(); i++) {
 			sourceLine = source.get(i).getSource();
-			currentLineTokens = this.tokenizeLine(i + 1, sourceLine);
+			currentLineTokens = processEqv(sourceMIPSprogram, i + 1, sourceLine,
+					scanLine(sourceMIPSprogram, i + 1, sourceLine));
 			tokenList.add(currentLineTokens);
 			// DPS 03-Jan-2013. Related to 11-July-2012. If source code
 			// substitution was made
@@ -147,7 +193,7 @@ public class Tokenizer {
 		ArrayList<SourceLine> result = new ArrayList<SourceLine>(source.size());
 		for (int i = 0; i < source.size(); i++) {
 			String line = (String) source.get(i);
-			TokenList tl = tokenizeLine(program, i + 1, line, false);
+			TokenList tl = scanLine(program, i + 1, line);
 			boolean hasInclude = false;
 			for (int ii = 0; ii < tl.size(); ii++) {
 				if (tl.get(ii).getValue().equalsIgnoreCase(Directives.INCLUDE.getName()) && (tl.size() > ii + 1)
@@ -193,6 +239,43 @@ public class Tokenizer {
 		return result;
 	}
 
+	// Lexical scan of one line without .eqv processing; same result as
+	// tokenizeLine(program, lineNum, theLine, false). Uses the line cache
+	// when tokenizing a whole program. Lines that produced errors or warnings
+	// are not cached so their messages are reported every time.
+	private TokenList scanLine(MIPSprogram program, int lineNum, String theLine) {
+		if (currentLines == null) {
+			return tokenizeLine(program, lineNum, theLine, false);
+		}
+		TokenList scanned = currentLines.get(theLine);
+		if (scanned == null && previousLines != null) {
+			scanned = previousLines.get(theLine);
+			if (scanned != null) {
+				currentLines.put(theLine, scanned);
+			}
+		}
+		if (scanned != null) {
+			return copyTokens(scanned, program, lineNum);
+		}
+		int messages = errors.errorCount() + errors.warningCount();
+		TokenList result = tokenizeLine(program, lineNum, theLine, false);
+		if (messages == errors.errorCount() + errors.warningCount() && !errors.errorLimitExceeded()) {
+			currentLines.put(theLine, copyTokens(result, null, 0));
+		}
+		return result;
+	}
+
+	// Fresh tokens for the given program and line. The assembler modifies
+	// tokens and token lists, so cached ones are never handed out directly.
+	private static TokenList copyTokens(TokenList tokens, MIPSprogram program, int lineNum) {
+		TokenList result = new TokenList();
+		for (int i = 0; i < tokens.size(); i++) {
+			Token t = tokens.get(i);
+			result.add(new Token(t.getType(), t.getValue(), program, lineNum, t.getStartPos()));
+		}
+		return result;
+	}
+
 	/**
 	 * Used only to create a token list for the example provided with each
 	 * instruction specification.
@@ -327,12 +410,13 @@ public class Tokenizer {
 		TokenList result = new TokenList();
 		if (theLine.length() == 0)
 			return result;
-		// will be faster to work with char arrays instead of strings
+		// will be faster to work with char arrays instead of strings. A token
+		// is always a run of consecutive characters of the line, so it is
+		// tracked by its start and length rather than copied out.
 		char c;
 		char[] line = theLine.toCharArray();
 		int linePos = 0;
-		char[] token = new char[line.length];
-		int tokenPos = 0;
+		int tokenPos = 0; // length of current token
 		int tokenStartPos = 1;
 		boolean insideQuotedString = false;
 		if (Globals.debug)
@@ -342,12 +426,12 @@ public class Tokenizer {
 		while (linePos < line.length) {
 			c = line[linePos];
 			if (insideQuotedString) { // everything goes into token
-				token[tokenPos++] = c;
-				if (c == '"' && token[tokenPos - 2] != '\\') { // If quote not
+				tokenPos++;
+				if (c == '"' && line[linePos - 1] != '\\') { // If quote not
 																// preceded by
 																// backslash,
 																// this is end
-					this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+					this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine, result);
 					tokenPos = 0;
 					insideQuotedString = false;
 				}
@@ -356,13 +440,13 @@ public class Tokenizer {
 				switch (c) {
 				case '#': // # denotes comment that takes remainder of line
 					if (tokenPos > 0) {
-						this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+						this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine,
+								result);
 						tokenPos = 0;
 					}
 					tokenStartPos = linePos + 1;
 					tokenPos = line.length - linePos;
-					System.arraycopy(line, linePos, token, 0, tokenPos);
-					this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+					this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine, result);
 					linePos = line.length;
 					tokenPos = 0;
 					break;
@@ -370,7 +454,8 @@ public class Tokenizer {
 				case '\t':
 				case ',': // space, tab or comma is delimiter
 					if (tokenPos > 0) {
-						this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+						this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine,
+								result);
 						tokenPos = 0;
 					}
 					break;
@@ -389,21 +474,23 @@ public class Tokenizer {
 					// DPS 17 Aug 2005
 					if (tokenPos > 0 && line.length >= linePos + 2 && Character.isDigit(line[linePos + 1])
 							&& (line[linePos - 1] == 'e' || line[linePos - 1] == 'E')) {
-						token[tokenPos++] = c;
+						tokenPos++;
 						break;
 					}
 					// End of REAL hack.
 					if (tokenPos > 0) {
-						this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+						this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine,
+								result);
 						tokenPos = 0;
 					}
 					tokenStartPos = linePos + 1;
-					token[tokenPos++] = c;
+					tokenPos++;
 					if (!((result.isEmpty()
 							|| ((Token) result.get(result.size() - 1)).getType() != TokenTypes.IDENTIFIER)
 							&& (line.length >= linePos + 2 && Character.isDigit(line[linePos + 1])))) {
 						// treat it as binary.....
-						this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+						this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine,
+								result);
 						tokenPos = 0;
 					}
 					break;
@@ -412,49 +499,51 @@ public class Tokenizer {
 				case '(':
 				case ')':
 					if (tokenPos > 0) {
-						this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+						this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine,
+								result);
 						tokenPos = 0;
 					}
 					tokenStartPos = linePos + 1;
-					token[tokenPos++] = c;
-					this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+					tokenPos++;
+					this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine, result);
 					tokenPos = 0;
 					break;
 				case '"': // we're not inside a quoted string, so start a new
 							// token...
 					if (tokenPos > 0) {
-						this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+						this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine,
+								result);
 						tokenPos = 0;
 					}
 					tokenStartPos = linePos + 1;
-					token[tokenPos++] = c;
+					tokenPos++;
 					insideQuotedString = true;
 					break;
 				case '\'': // start of character constant (single quote).
 					if (tokenPos > 0) {
-						this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+						this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine,
+								result);
 						tokenPos = 0;
 					}
 					// Our strategy is to process the whole thing right now...
 					tokenStartPos = linePos + 1;
-					token[tokenPos++] = c; // Put the quote in token[0]
+					tokenPos++; // the quote
 					int lookaheadChars = line.length - linePos - 1;
 					// need minimum 2 more characters, 1 for char and 1 for
 					// ending quote
 					if (lookaheadChars < 2)
 						break; // gonna be an error
 					c = line[++linePos];
-					token[tokenPos++] = c; // grab second character, put it in
-											// token[1]
+					tokenPos++; // grab second character
 					if (c == '\'')
 						break; // gonna be an error: nothing between the quotes
 					c = line[++linePos];
-					token[tokenPos++] = c; // grab third character, put it in
-											// token[2]
+					tokenPos++; // grab third character
 					// Process if we've either reached second, non-escaped,
 					// quote or end of line.
-					if (c == '\'' && token[1] != '\\' || lookaheadChars == 2) {
-						this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+					if (c == '\'' && line[tokenStartPos] != '\\' || lookaheadChars == 2) {
+						this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine,
+								result);
 						tokenPos = 0;
 						tokenStartPos = linePos + 1;
 						break;
@@ -466,12 +555,12 @@ public class Tokenizer {
 					// we either have an escape code, an octal code (also
 					// escaped) or invalid.
 					c = line[++linePos];
-					token[tokenPos++] = c; // grab fourth character, put it in
-											// token[3]
+					tokenPos++; // grab fourth character
 					// Process, if this is ending quote for escaped character or
 					// if at end of line
 					if (c == '\'' || lookaheadChars == 3) {
-						this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+						this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine,
+								result);
 						tokenPos = 0;
 						tokenStartPos = linePos + 1;
 						break;
@@ -481,33 +570,31 @@ public class Tokenizer {
 					// Proceed, if enough characters remain to finish off octal.
 					if (lookaheadChars >= 5) {
 						c = line[++linePos];
-						token[tokenPos++] = c; // grab fifth character, put it
-												// in token[4]
+						tokenPos++; // grab fifth character
 						if (c != '\'') {
 							// still haven't reached end, last chance for
 							// validity!
 							c = line[++linePos];
-							token[tokenPos++] = c; // grab sixth character, put
-													// it in token[5]
+							tokenPos++; // grab sixth character
 						}
 					}
 					// process no matter what...we either have a valid character
 					// by now or not
-					this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+					this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine, result);
 					tokenPos = 0;
 					tokenStartPos = linePos + 1;
 					break;
 				default:
 					if (tokenPos == 0)
 						tokenStartPos = linePos + 1;
-					token[tokenPos++] = c;
+					tokenPos++;
 					break;
 				} // switch
 			} // if (insideQuotedString)
 			linePos++;
 		} // while
 		if (tokenPos > 0) {
-			this.processCandidateToken(token, program, lineNum, theLine, tokenPos, tokenStartPos, result);
+			this.processCandidateToken(line, tokenStartPos - 1, tokenPos, program, lineNum, theLine, result);
 			tokenPos = 0;
 		}
 		if (doEqvSubstitutes) {
@@ -587,28 +674,37 @@ public class Tokenizer {
 				return tokens;
 			}
 		}
-		// Check if a substitution from defined .eqv is to be made. If so, make
-		// one.
-		boolean substitutionMade = false;
-		for (int i = 0; i < tokens.size(); i++) {
+		// Check if substitutions from defined .eqv are to be made. If so, make
+		// them all in one pass over the tokens, using their positions, and
+		// tokenize the result once. Symbols within the substituted text are
+		// caught on the recursion. A substitution containing a comment or a
+		// quote changes how the rest of the line divides into tokens, so no
+		// more are made after one of those until the line is tokenized again.
+		StringBuffer substituted = null;
+		int copied = 0; // length of theLine already copied to substituted
+		for (int i = 0; i < tokens.size() && equivalents != null; i++) {
 			Token token = tokens.get(i);
-			if (token.getType() == TokenTypes.IDENTIFIER && equivalents != null
-					&& equivalents.containsKey(token.getValue())) {
+			if (token.getType() == TokenTypes.IDENTIFIER && equivalents.containsKey(token.getValue())) {
 				// do the substitution
 				String sub = equivalents.get(token.getValue());
 				int startPos = token.getStartPos();
-				theLine = theLine.substring(0, startPos - 1) + sub
-						+ theLine.substring(startPos + token.getValue().length() - 1);
-				substitutionMade = true; // one substitution per call. If there
-											// are multiple, will catch next one
-											// on the recursion
-				break;
+				if (substituted == null) {
+					substituted = new StringBuffer(theLine.length() + sub.length());
+				}
+				substituted.append(theLine, copied, startPos - 1).append(sub);
+				copied = startPos + token.getValue().length() - 1;
+				if (sub.indexOf('#') >= 0 || sub.indexOf('"') >= 0 || sub.indexOf('\'') >= 0) {
+					break;
+				}
 			}
 		}
+		if (substituted != null) {
+			theLine = substituted.append(theLine, copied, theLine.length()).toString();
+		}
 		tokens.setProcessedLine(theLine); // DPS 03-Jan-2013. Related to changes
 											// of 11-July-2012.
 
-		return (substitutionMade) ? tokenizeLine(lineNum, theLine) : tokens;
+		return (substituted != null) ? tokenizeLine(lineNum, theLine) : tokens;
 	}
 
 	/**
@@ -620,22 +716,117 @@ public class Tokenizer {
 		return errors;
 	}
 
-	// Given candidate token and its position, will classify and record it.
-	private void processCandidateToken(char[] token, MIPSprogram program, int line, String theLine, int tokenPos,
-			int tokenStartPos, TokenList tokenList) {
-		String value = new String(token, 0, tokenPos);
-		if (value.length() > 0 && value.charAt(0) == '\'')
-			value = preprocessCharacterLiteral(value);
-		TokenTypes type = TokenTypes.matchTokenType(value);
-		if (type == TokenTypes.ERROR) {
-			errors.add(
-					new ErrorMessage(program, line, tokenStartPos, theLine + "\nInvalid language element: " + value));
+	// Given candidate token, the characters at line[start] through
+	// line[start+length-1], will classify and record it. Register names,
+	// mnemonics and directives come from the keyword table, which saves
+	// creating and classifying a new String for each of them.
+	private void processCandidateToken(char[] line, int start, int length, MIPSprogram program, int lineNum,
+			String theLine, TokenList tokenList) {
+		String value;
+		TokenTypes type;
+		Keywords table = keywords;
+		int keyword = (table == null) ? -1 : table.find(line, start, length);
+		if (keyword >= 0) {
+			value = table.words[keyword];
+			type = table.types[keyword];
+		} else {
+			value = new String(line, start, length);
+			if (value.length() > 0 && value.charAt(0) == '\'')
+				value = preprocessCharacterLiteral(value);
+			type = TokenTypes.matchTokenType(value);
+			if (type == TokenTypes.ERROR) {
+				errors.add(new ErrorMessage(program, lineNum, start + 1,
+						theLine + "\nInvalid language element: " + value));
+			}
 		}
-		Token toke = new Token(type, value, program, line, tokenStartPos);
+		Token toke = new Token(type, value, program, lineNum, start + 1);
 		tokenList.add(toke);
 		return;
 	}
 
+	// Builds the keyword table if that has not been done yet. It holds
+	// instruction mnemonics, so it is only built when a whole program is
+	// tokenized; the instruction set tokenizes its own templates while it
+	// is still being put together.
+	private static synchronized void buildKeywords() {
+		if (keywords != null) {
+			return;
+		}
+		ArrayList words = new ArrayList();
+		Register[] registers = RegisterFile.getRegisters();
+		for (int i = 0; i < registers.length; i++) {
+			words.add(registers[i].getName());
+			words.add("$" + registers[i].getNumber());
+		}
+		registers = Coprocessor1.getRegisters();
+		for (int i = 0; i < registers.length; i++) {
+			words.add(registers[i].getName());
+		}
+		ArrayList directives = Directives.getDirectiveList();
+		for (int i = 0; i < directives.size(); i++) {
+			words.add(((Directives) directives.get(i)).getName());
+		}
+		words.addAll(Globals.instructionSet.getOperatorNames());
+		keywords = new Keywords(words);
+	}
+
+	// Open-addressing hash table of keywords and their token types, searched
+	// directly with characters from the line being tokenized.
+	private static class Keywords {
+		private String[] words;
+		private TokenTypes[] types;
+		private int mask;
+
+		private Keywords(ArrayList list) {
+			int size = 1;
+			while (size < 2 * list.size()) {
+				size <<= 1;
+			}
+			words = new String[size];
+			types = new TokenTypes[size];
+			mask = size - 1;
+			for (int i = 0; i < list.size(); i++) {
+				String word = (String) list.get(i);
+				TokenTypes type = TokenTypes.matchTokenType(word);
+				if (type == TokenTypes.ERROR) {
+					continue; // must go through the error report
+				}
+				char[] chars = word.toCharArray();
+				int slot = hash(chars, 0, chars.length) & mask;
+				while (words[slot] != null && !words[slot].equals(word)) {
+					slot = (slot + 1) & mask;
+				}
+				words[slot] = word;
+				types[slot] = type;
+			}
+		}
+
+		// Slot holding the keyword spelled by the given characters, or -1.
+		private int find(char[] line, int start, int length) {
+			int slot = hash(line, start, length) & mask;
+			for (String word; (word = words[slot]) != null; slot = (slot + 1) & mask) {
+				if (word.length() == length) {
+					int i = 0;
+					while (i < length && word.charAt(i) == line[start + i]) {
+						i++;
+					}
+					if (i == length) {
+						return slot;
+					}
+				}
+			}
+			return -1;
+		}
+
+		private static int hash(char[] chars, int start, int length) {
+			int h = 0;
+			for (int i = start; i < start + length; i++) {
+				h = 31 * h + chars[i];
+			}
+			return h ^ (h >>> 16);
+		}
+	}
+
 	// If passed a candidate character literal, attempt to translate it into
 	// integer constant.
 	// If the translation fails, return original value.
@@ -69,7 +69,7 @@ public class BinaryDumpFormat extends AbstractDumpFormat {
 	 */
 	public void dumpMemoryRange(File file, int firstAddress, int lastAddress)
 			throws AddressErrorException, IOException {
-		PrintStream out = new PrintStream(new FileOutputStream(file));
+		PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(file)));
 		try {
 			for (int address = firstAddress; address <= lastAddress; address += Memory.WORD_LENGTH_BYTES) {
 				Integer temp = Globals.memory.getRawWordOrNull(address);
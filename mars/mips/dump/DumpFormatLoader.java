@@ -43,10 +43,7 @@ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
 
 public class DumpFormatLoader {
 
-	private static final String CLASS_PREFIX = "mars.mips.dump.";
 	private static final String DUMP_DIRECTORY_PATH = "mars/mips/dump";
-	private static final String SYSCALL_INTERFACE = "DumpFormat.class";
-	private static final String CLASS_EXTENSION = "class";
 
 	private static ArrayList formatList = null;
 
@@ -55,29 +52,30 @@ public class DumpFormatLoader {
 	 * from the loadGameControllers() method in Bret Barker's GameServer class.
 	 * Barker (bret@hypefiend.com) is co-author of the book "Developing Games in
 	 * Java". Also see the ToolLoader and SyscallLoader classes elsewhere in
-	 * MARS.
+	 * MARS. The dump formats that come with MARS are listed in an index
+	 * generated at build time (see ServiceIndex). The dump directory is still
+	 * searched, for formats the user has added to it, but only the classes not
+	 * in the index are loaded to check them.
 	 */
 
 	public ArrayList loadDumpFormats() {
 		// The list will be populated only the first time this method is called.
 		if (formatList == null) {
 			formatList = new ArrayList();
-			// grab all class files in the dump directory
-			ArrayList candidates = FilenameFinder.getFilenameList(this.getClass().getClassLoader(), DUMP_DIRECTORY_PATH,
-					CLASS_EXTENSION);
-			for (int i = 0; i < candidates.size(); i++) {
-				String file = (String) candidates.get(i);
+			ArrayList classNames = ServiceIndex.getClassNames(this.getClass().getClassLoader(), DumpFormat.class,
+					DUMP_DIRECTORY_PATH);
+			for (int i = 0; i < classNames.size(); i++) {
+				String formatClassName = (String) classNames.get(i);
 				try {
 					// grab the class, make sure it implements DumpFormat,
 					// instantiate, add to list
-					String formatClassName = CLASS_PREFIX + file.substring(0, file.indexOf(CLASS_EXTENSION) - 1);
 					Class clas = Class.forName(formatClassName);
 					if (DumpFormat.class.isAssignableFrom(clas) && !Modifier.isAbstract(clas.getModifiers())
 							&& !Modifier.isInterface(clas.getModifiers())) {
 						formatList.add(clas.newInstance());
 					}
 				} catch (Exception e) {
-					System.out.println("Error instantiating DumpFormat from file " + file + ": " + e);
+					System.out.println("Error instantiating DumpFormat " + formatClassName + ": " + e);
 				}
 			}
 		}
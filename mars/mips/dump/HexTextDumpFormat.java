@@ -70,7 +70,7 @@ public class HexTextDumpFormat extends AbstractDumpFormat {
 	 */
 	public void dumpMemoryRange(File file, int firstAddress, int lastAddress)
 			throws AddressErrorException, IOException {
-		PrintStream out = new PrintStream(new FileOutputStream(file));
+		PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(file)));
 		String string = null;
 		try {
 			for (int address = firstAddress; address <= lastAddress; address += Memory.WORD_LENGTH_BYTES) {
@@ -83,7 +83,7 @@ public class SegmentWindowDumpFormat extends AbstractDumpFormat {
 	public void dumpMemoryRange(File file, int firstAddress, int lastAddress)
 			throws AddressErrorException, IOException {
 
-		PrintStream out = new PrintStream(new FileOutputStream(file));
+		PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(file)));
 
 		boolean hexAddresses = Globals.getSettings().getDisplayAddressesInHex();
 
@@ -57,6 +57,16 @@ public class Coprocessor0 {
 			new Register("$12 (status)", 12, DEFAULT_STATUS_VALUE), new Register("$13 (cause)", 13, 0),
 			new Register("$14 (epc)", 14, 0) };
 
+	// Registers written since the Coprocessor 0 window last displayed them,
+	// by list position.
+	private static final DirtyRegisterSet dirtyRegisters = new DirtyRegisterSet();
+
+	static {
+		for (int i = 0; i < registers.length; i++) {
+			registers[i].trackWrites(dirtyRegisters, i);
+		}
+	}
+
 	/**
 	 * Method for displaying the register values for debugging.
 	 **/
@@ -197,6 +207,30 @@ public class Coprocessor0 {
 		return null;
 	}
 
+	/**
+	 * Returns the registers written since the previous call, and forgets them.
+	 * Used by the Coprocessor 0 window to redisplay only rows that may have
+	 * changed.
+	 * 
+	 * @return bit mask with bit n set if the register at list position n (see
+	 *         getRegisterPosition) was written
+	 **/
+
+	public static long takeDirtyRegisters() {
+		return dirtyRegisters.take();
+	}
+
+	/**
+	 * Determines whether the register written most recently is a Coprocessor
+	 * 0 register. Used to select the window that shows it.
+	 * 
+	 * @return true if a register here was written last
+	 **/
+
+	public static boolean holdsLastWrite() {
+		return dirtyRegisters.holdsLastWrite();
+	}
+
 	/**
 	 * Method to reinitialize the values of the registers.
 	 **/
@@ -207,6 +241,33 @@ public class Coprocessor0 {
 		}
 	}
 
+	/**
+	 * Returns a copy of the values of all registers, for restoreValues().
+	 * 
+	 * @return the values, by list position (see getRegisterPosition)
+	 **/
+
+	public static int[] saveValues() {
+		int[] saved = new int[registers.length];
+		for (int i = 0; i < registers.length; i++) {
+			saved[i] = registers[i].getValueNoNotify();
+		}
+		return saved;
+	}
+
+	/**
+	 * Sets all registers to values returned by saveValues(). Once all are
+	 * written, observers of each register whose value changed are notified of
+	 * one WRITE operation.
+	 * 
+	 * @param saved
+	 *            the values to restore
+	 **/
+
+	public static void restoreValues(int[] saved) {
+		Register.restoreValues(registers, saved);
+	}
+
 	/**
 	 * Each individual register is a separate object and Observable. This handy
 	 * method will add the given Observer to each one.
@@ -34,6 +34,11 @@ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
 
 /**
  * Represents Coprocessor 1, the Floating Point Unit (FPU)
+ * <p>
+ * The register values are plain ints, not volatile, and are handed to other
+ * threads the same way as those of RegisterFile: they are written holding
+ * Globals.memoryAndRegistersLock, and read holding it or after the simulator
+ * thread passes control to the event dispatch thread.
  * 
  * @author Pete Sanderson
  * @version July 2005
@@ -50,21 +55,43 @@ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
 // storing into registers, and reassembled upon retrieval.
 
 public class Coprocessor1 {
-	private static Register[] registers = { new Register("$f0", 0, 0), new Register("$f1", 1, 0),
-			new Register("$f2", 2, 0), new Register("$f3", 3, 0), new Register("$f4", 4, 0), new Register("$f5", 5, 0),
-			new Register("$f6", 6, 0), new Register("$f7", 7, 0), new Register("$f8", 8, 0), new Register("$f9", 9, 0),
-			new Register("$f10", 10, 0), new Register("$f11", 11, 0), new Register("$f12", 12, 0),
-			new Register("$f13", 13, 0), new Register("$f14", 14, 0), new Register("$f15", 15, 0),
-			new Register("$f16", 16, 0), new Register("$f17", 17, 0), new Register("$f18", 18, 0),
-			new Register("$f19", 19, 0), new Register("$f20", 20, 0), new Register("$f21", 21, 0),
-			new Register("$f22", 22, 0), new Register("$f23", 23, 0), new Register("$f24", 24, 0),
-			new Register("$f25", 25, 0), new Register("$f26", 26, 0), new Register("$f27", 27, 0),
-			new Register("$f28", 28, 0), new Register("$f29", 29, 0), new Register("$f30", 30, 0),
-			new Register("$f31", 31, 0) };
+	// Values of $f0-$f31, indexed by register number. Simulation reads and
+	// writes this array directly, and reads or writes an even/odd pair as one
+	// 64-bit value. The Register objects below are views of its elements,
+	// used by the GUI and by anyone who wants to observe a register.
+	private static final int[] values = new int[32];
+
+	private static Register[] registers = { new Register("$f0", 0, 0, values, 0), new Register("$f1", 1, 0, values, 1),
+			new Register("$f2", 2, 0, values, 2), new Register("$f3", 3, 0, values, 3),
+			new Register("$f4", 4, 0, values, 4), new Register("$f5", 5, 0, values, 5),
+			new Register("$f6", 6, 0, values, 6), new Register("$f7", 7, 0, values, 7),
+			new Register("$f8", 8, 0, values, 8), new Register("$f9", 9, 0, values, 9),
+			new Register("$f10", 10, 0, values, 10), new Register("$f11", 11, 0, values, 11),
+			new Register("$f12", 12, 0, values, 12), new Register("$f13", 13, 0, values, 13),
+			new Register("$f14", 14, 0, values, 14), new Register("$f15", 15, 0, values, 15),
+			new Register("$f16", 16, 0, values, 16), new Register("$f17", 17, 0, values, 17),
+			new Register("$f18", 18, 0, values, 18), new Register("$f19", 19, 0, values, 19),
+			new Register("$f20", 20, 0, values, 20), new Register("$f21", 21, 0, values, 21),
+			new Register("$f22", 22, 0, values, 22), new Register("$f23", 23, 0, values, 23),
+			new Register("$f24", 24, 0, values, 24), new Register("$f25", 25, 0, values, 25),
+			new Register("$f26", 26, 0, values, 26), new Register("$f27", 27, 0, values, 27),
+			new Register("$f28", 28, 0, values, 28), new Register("$f29", 29, 0, values, 29),
+			new Register("$f30", 30, 0, values, 30), new Register("$f31", 31, 0, values, 31) };
 	// The 8 condition flags will be stored in bits 0-7 for flags 0-7.
 	private static Register condition = new Register("cf", 32, 0);
 	private static int numConditionFlags = 8;
 
+	// Registers written since the Coprocessor 1 window last displayed them,
+	// by register number, with the condition flags at position 32.
+	private static final DirtyRegisterSet dirtyRegisters = new DirtyRegisterSet();
+
+	static {
+		for (int i = 0; i < registers.length; i++) {
+			registers[i].trackWrites(dirtyRegisters, i);
+		}
+		condition.trackWrites(dirtyRegisters, 32);
+	}
+
 	/**
 	 * Method for displaying the register values for debugging.
 	 **/
@@ -103,7 +130,7 @@ public class Coprocessor1 {
 
 	public static void setRegisterToFloat(int reg, float val) {
 		if (reg >= 0 && reg < registers.length) {
-			registers[reg].setValue(Float.floatToRawIntBits(val));
+			setRegister(reg, Float.floatToRawIntBits(val));
 		}
 	}
 
@@ -133,7 +160,7 @@ public class Coprocessor1 {
 
 	public static void setRegisterToInt(int reg, int val) {
 		if (reg >= 0 && reg < registers.length) {
-			registers[reg].setValue(val);
+			setRegister(reg, val);
 		}
 	}
 
@@ -155,13 +182,7 @@ public class Coprocessor1 {
 		if (reg % 2 != 0) {
 			throw new InvalidRegisterAccessException();
 		}
-		long bits = Double.doubleToRawLongBits(val);
-		registers[reg + 1].setValue(Binary.highOrderLongToInt(bits)); // high
-																		// order
-																		// 32
-																		// bits
-		registers[reg].setValue(Binary.lowOrderLongToInt(bits)); // low order 32
-																	// bits
+		setRegisterPair(reg, Double.doubleToRawLongBits(val));
 	}
 
 	/**
@@ -201,12 +222,7 @@ public class Coprocessor1 {
 		if (reg % 2 != 0) {
 			throw new InvalidRegisterAccessException();
 		}
-		registers[reg + 1].setValue(Binary.highOrderLongToInt(val)); // high
-																		// order
-																		// 32
-																		// bits
-		registers[reg].setValue(Binary.lowOrderLongToInt(val)); // low order 32
-																// bits
+		setRegisterPair(reg, val);
 	}
 
 	/**
@@ -240,7 +256,7 @@ public class Coprocessor1 {
 	public static float getFloatFromRegister(int reg) {
 		float result = 0F;
 		if (reg >= 0 && reg < registers.length) {
-			result = Float.intBitsToFloat(registers[reg].getValue());
+			result = Float.intBitsToFloat(getValue(reg));
 		}
 		return result;
 	}
@@ -268,7 +284,7 @@ public class Coprocessor1 {
 	public static int getIntFromRegister(int reg) {
 		int result = 0;
 		if (reg >= 0 && reg < registers.length) {
-			result = registers[reg].getValue();
+			result = getValue(reg);
 		}
 		return result;
 	}
@@ -297,12 +313,10 @@ public class Coprocessor1 {
 	 **/
 
 	public static double getDoubleFromRegisterPair(int reg) throws InvalidRegisterAccessException {
-		double result = 0.0;
 		if (reg % 2 != 0) {
 			throw new InvalidRegisterAccessException();
 		}
-		long bits = Binary.twoIntsToLong(registers[reg + 1].getValue(), registers[reg].getValue());
-		return Double.longBitsToDouble(bits);
+		return getRegisterPairDouble(reg);
 	}
 
 	/**
@@ -332,11 +346,10 @@ public class Coprocessor1 {
 	 **/
 
 	public static long getLongFromRegisterPair(int reg) throws InvalidRegisterAccessException {
-		double result = 0.0;
 		if (reg % 2 != 0) {
 			throw new InvalidRegisterAccessException();
 		}
-		return Binary.twoIntsToLong(registers[reg + 1].getValue(), registers[reg].getValue());
+		return getRegisterPairBits(reg);
 	}
 
 	/**
@@ -366,18 +379,53 @@ public class Coprocessor1 {
 	 **/
 
 	public static int updateRegister(int num, int val) {
-		int old = 0;
-		for (int i = 0; i < registers.length; i++) {
-			if (registers[i].getNumber() == num) {
-				old = (Globals.getSettings().getBackSteppingEnabled())
-						? Globals.program.getBackStepper().addCoprocessor1Restore(num, registers[i].setValue(val))
-						: registers[i].setValue(val);
-				break;
-			}
+		if (num < 0 || num >= registers.length) {
+			return 0;
+		}
+		int old = setRegister(num, val);
+		if (Globals.getSettings().getBackSteppingEnabled()) {
+			Globals.program.getBackStepper().addCoprocessor1Restore(num, old);
 		}
 		return old;
 	}
 
+	/**
+	 * Updates the even/odd FPU register pair starting at num to the 64 bit
+	 * pattern given: the low order 32 bits go to num and the high order 32 bits
+	 * to num+1. The pair is a single write: both halves are stored before
+	 * either register's observers hear about it, and backstepping records one
+	 * step that restores both. The caller is responsible for checking that num
+	 * is even.
+	 * 
+	 * @param num
+	 *            even-numbered FPU register of the pair.
+	 * @param val
+	 *            The desired 64 bit pattern for the pair.
+	 * @return previous 64 bit pattern of the pair.
+	 **/
+
+	public static long updateRegisterPair(int num, long val) {
+		long old = setRegisterPair(num, val);
+		if (Globals.getSettings().getBackSteppingEnabled()) {
+			Globals.program.getBackStepper().addCoprocessor1PairRestore(num, old);
+		}
+		return old;
+	}
+
+	/**
+	 * Updates the even/odd FPU register pair starting at num to the double
+	 * value given. See updateRegisterPair(int, long).
+	 * 
+	 * @param num
+	 *            even-numbered FPU register of the pair.
+	 * @param val
+	 *            The desired double value for the pair.
+	 **/
+
+	public static void updateRegisterPairDouble(int num, double val) {
+		updateRegisterPair(num, Double.doubleToRawLongBits(val));
+	}
+
 	/**
 	 * Returns the value of the FPU register who's number is num. Returns the
 	 * raw int value actually stored there. If you need a float, use
@@ -389,7 +437,38 @@ public class Coprocessor1 {
 	 **/
 
 	public static int getValue(int num) {
-		return registers[num].getValue();
+		Register reg = registers[num];
+		return (reg.isObserved()) ? reg.getValue() : values[num];
+	}
+
+	/**
+	 * Returns the 64 bit pattern held by the even/odd FPU register pair
+	 * starting at num: num holds the low order 32 bits and num+1 the high
+	 * order 32 bits. The caller is responsible for checking that num is even.
+	 * 
+	 * @param num
+	 *            even-numbered FPU register of the pair.
+	 * @return The 64 bit pattern of the pair.
+	 **/
+
+	public static long getRegisterPairBits(int num) {
+		if (registers[num].isObserved() || registers[num + 1].isObserved()) {
+			return Binary.twoIntsToLong(registers[num + 1].getValue(), registers[num].getValue());
+		}
+		return ((long) values[num + 1] << 32) | (values[num] & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Returns the double held by the even/odd FPU register pair starting at
+	 * num. See getRegisterPairBits(int).
+	 * 
+	 * @param num
+	 *            even-numbered FPU register of the pair.
+	 * @return The double value of the pair.
+	 **/
+
+	public static double getRegisterPairDouble(int num) {
+		return Double.longBitsToDouble(getRegisterPairBits(num));
 	}
 
 	/**
@@ -445,6 +524,30 @@ public class Coprocessor1 {
 		return reg;
 	}
 
+	/**
+	 * Returns the registers written since the previous call, and forgets them.
+	 * Used by the Coprocessor 1 window to redisplay only rows that may have
+	 * changed.
+	 * 
+	 * @return bit mask with bit n set if register $fn was written, and bit 32
+	 *         set if any condition flag was written
+	 **/
+
+	public static long takeDirtyRegisters() {
+		return dirtyRegisters.take();
+	}
+
+	/**
+	 * Determines whether the register written most recently is a Coprocessor
+	 * 1 register or condition flag. Used to select the window that shows it.
+	 * 
+	 * @return true if a register here was written last
+	 **/
+
+	public static boolean holdsLastWrite() {
+		return dirtyRegisters.holdsLastWrite();
+	}
+
 	/**
 	 * Method to reinitialize the values of the registers.
 	 **/
@@ -455,6 +558,38 @@ public class Coprocessor1 {
 		clearConditionFlags();
 	}
 
+	/**
+	 * Returns a copy of the values of all FPU registers and the condition
+	 * flags, for restoreValues().
+	 * 
+	 * @return the values of $f0-$f31, followed by the condition flags
+	 **/
+
+	public static int[] saveValues() {
+		int[] saved = new int[values.length + 1];
+		System.arraycopy(values, 0, saved, 0, values.length);
+		saved[values.length] = condition.getValueNoNotify();
+		return saved;
+	}
+
+	/**
+	 * Sets all FPU registers and the condition flags to values returned by
+	 * saveValues(). Once all are written, observers of each register whose
+	 * value changed, the condition flags included, are notified of one WRITE
+	 * operation, and only those registers count as written for
+	 * takeDirtyRegisters().
+	 * 
+	 * @param saved
+	 *            the values to restore
+	 **/
+
+	public static void restoreValues(int[] saved) {
+		Register[] all = new Register[registers.length + 1];
+		System.arraycopy(registers, 0, all, 0, registers.length);
+		all[registers.length] = condition;
+		Register.restoreValues(all, saved);
+	}
+
 	/**
 	 * Each individual register is a separate object and Observable. This handy
 	 * method will add the given Observer to each one.
@@ -565,4 +700,35 @@ public class Coprocessor1 {
 	public static int getConditionFlagCount() {
 		return numConditionFlags;
 	}
+
+	//
+	// Store val in FPU register num, going through the Register object only
+	// if somebody observes it. Returns the previous value.
+	//
+	private static int setRegister(int num, int val) {
+		Register reg = registers[num];
+		if (reg.isObserved()) {
+			return reg.setValue(val);
+		}
+		int old = values[num];
+		values[num] = val;
+		dirtyRegisters.mark(num);
+		return old;
+	}
+
+	//
+	// Store the 64 bits of val in the even/odd pair starting at num. Both
+	// halves are stored before any observer is notified, so an observer never
+	// sees half a double. Returns the previous 64 bits of the pair.
+	//
+	private static long setRegisterPair(int num, long val) {
+		long old = ((long) values[num + 1] << 32) | (values[num] & 0xFFFFFFFFL);
+		values[num] = (int) val;
+		values[num + 1] = (int) (val >>> 32);
+		dirtyRegisters.mark(num);
+		dirtyRegisters.mark(num + 1);
+		registers[num].notifyAnyObservers(AccessNotice.WRITE);
+		registers[num + 1].notifyAnyObservers(AccessNotice.WRITE);
+		return old;
+	}
 }
@@ -0,0 +1,120 @@
+package mars.mips.hardware;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Set of registers written since the GUI last displayed them, one bit per
+ * register position (at most 64). The simulator marks registers as it writes
+ * them and a register window takes the set when it refreshes, so that only
+ * rows whose value may have changed are formatted again.
+ * <p>
+ * Marking a register that is already marked costs a single read, which is the
+ * usual case between two refreshes. Taking the set clears it atomically, so a
+ * write that races with a refresh is never lost.
+ * <p>
+ * The set holding the register written most recently, of all sets, is also
+ * known, so that the window showing that register can be brought to the
+ * front, as it is when a register is written while stepping.
+ *
+ * @version October 2026
+ */
+
+public class DirtyRegisterSet {
+	// The set marked most recently. Only written when it changes, so marking
+	// the same set again costs a single read.
+	private static volatile DirtyRegisterSet lastWritten;
+
+	private final AtomicLong bits = new AtomicLong(0L);
+	private final long counted; // positions whose writes count as the latest
+
+	/**
+	 * Create an empty set in which a write to any register counts as the most
+	 * recent write.
+	 */
+	public DirtyRegisterSet() {
+		this(-1L);
+	}
+
+	/**
+	 * Create an empty set in which only writes to the given registers count as
+	 * the most recent write, so that a register written all the time, such as
+	 * the program counter, can be left out.
+	 *
+	 * @param counted
+	 *            bit mask with bit n set if writes to the register at position
+	 *            n count
+	 */
+	public DirtyRegisterSet(long counted) {
+		this.counted = counted;
+	}
+
+	/**
+	 * Mark the register at the given position as written.
+	 *
+	 * @param position
+	 *            position of the register, 0 to 63
+	 */
+	public void mark(int position) {
+		long bit = 1L << position;
+		long current = bits.get();
+		while ((current & bit) == 0 && !bits.compareAndSet(current, current | bit)) {
+			current = bits.get();
+		}
+		if ((counted & bit) != 0 && lastWritten != this) {
+			lastWritten = this;
+		}
+	}
+
+	/**
+	 * Mark every register as written, for instance after a reset.
+	 */
+	public void markAll() {
+		bits.set(-1L);
+	}
+
+	/**
+	 * Return the registers written since the previous call and clear the set.
+	 *
+	 * @return bit mask with bit n set if the register at position n was written
+	 */
+	public long take() {
+		return bits.getAndSet(0L);
+	}
+
+	/**
+	 * Determine whether the register written most recently, of all sets, is in
+	 * this one. Marking every register by markAll() does not count as a write.
+	 *
+	 * @return true if this set was marked last
+	 */
+	public boolean holdsLastWrite() {
+		return lastWritten == this;
+	}
+}
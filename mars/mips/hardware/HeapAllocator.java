@@ -0,0 +1,575 @@
+package mars.mips.hardware;
+
+import mars.*;
+import mars.util.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Segregated-fit allocator for the heap, used by the malloc, free, calloc and
+ * realloc syscalls. Storage is obtained from the top of the heap through
+ * Memory.allocateBytesFromHeap(), the same mechanism used by sbrk, so a program
+ * may use both. All bookkeeping is kept here rather than in MIPS memory, so a
+ * program that writes outside its blocks cannot corrupt the allocator.
+ * <p>
+ * Block sizes are rounded up to a multiple of 8 bytes, which also keeps
+ * doubles stored in a block properly aligned. Blocks of up to SMALL_LIMIT
+ * bytes are recycled through one LIFO free list per size, so allocating and
+ * freeing them is constant time. Larger free blocks are kept in size order for
+ * best fit and in address order so that neighbours are coalesced when freed.
+ * <p>
+ * Backstepping over malloc, free, calloc or realloc undoes the changes each
+ * made to the free and allocated blocks. Storage obtained from the top of the
+ * heap is not returned, as with sbrk; a block carved from it by an undone
+ * allocation is simply not reused.
+ *
+ * @version October 2026
+ */
+
+public class HeapAllocator {
+	/** Block sizes and addresses are multiples of this many bytes. **/
+	public static final int ALIGNMENT = 8;
+	/** Largest block size, in bytes, served from the exact-size free lists. **/
+	public static final int SMALL_LIMIT = 512;
+
+	private Memory memory;
+
+	// Free lists for small blocks, indexed by size / ALIGNMENT. Each is a
+	// stack of block addresses; smallFreeCount holds the depth of each.
+	private int[][] smallFree;
+	private int[] smallFreeCount;
+
+	// Free large blocks, by size (each entry a list of addresses having that
+	// size) and by address (each entry the size of the block at that address).
+	private TreeMap largeFreeBySize;
+	private TreeMap largeFreeByAddress;
+
+	// Size of each block currently allocated, keyed by its address.
+	private HashMap allocated;
+
+	private int heapBytes; // bytes obtained from the heap, including padding
+	private int liveBytes; // bytes in blocks currently allocated
+	private int peakLiveBytes;
+	private int allocationCount;
+	private int freeCount;
+
+	// Kinds of change recorded for backstepping, each an entry of UNDO_ENTRY
+	// ints: the kind, then the address, size and list position as needed.
+	private static final int UNDO_ENTRY = 4;
+	private static final int ALLOCATED_ADD = 0;
+	private static final int ALLOCATED_REMOVE = 1;
+	private static final int SMALL_PUSH = 2;
+	private static final int SMALL_TAKE = 3;
+	private static final int LARGE_ADD = 4;
+	private static final int LARGE_REMOVE = 5;
+	// The undo log starts with the counters as they were before the change:
+	// liveBytes, peakLiveBytes, allocationCount, freeCount.
+	private static final int UNDO_COUNTERS = 4;
+
+	// Changes made by the operation in progress, while recording is on.
+	private boolean recording;
+	private int[] undoLog = new int[32];
+	private int undoLength;
+
+	/**
+	 * Create an allocator that has not yet obtained any heap storage.
+	 *
+	 * @param memory
+	 *            the memory whose heap is to be managed
+	 */
+	public HeapAllocator(Memory memory) {
+		this.memory = memory;
+		smallFree = new int[SMALL_LIMIT / ALIGNMENT + 1][];
+		smallFreeCount = new int[SMALL_LIMIT / ALIGNMENT + 1];
+		largeFreeBySize = new TreeMap();
+		largeFreeByAddress = new TreeMap();
+		allocated = new HashMap();
+	}
+
+	/**
+	 * Allocate a block of at least the given number of bytes. Its contents are
+	 * not initialized.
+	 *
+	 * @param numBytes
+	 *            number of bytes requested. A request for 0 bytes returns a
+	 *            distinct minimum-size block.
+	 * @return address of the block, or 0 if the heap is exhausted.
+	 * @throws IllegalArgumentException
+	 *             if number of requested bytes is negative
+	 */
+	public int malloc(int numBytes) throws IllegalArgumentException {
+		beginChange();
+		try {
+			return allocate(numBytes);
+		} finally {
+			endChange();
+		}
+	}
+
+	private int allocate(int numBytes) {
+		if (numBytes < 0) {
+			throw new IllegalArgumentException("request (" + numBytes + ") is negative heap amount");
+		}
+		if (numBytes > Integer.MAX_VALUE - ALIGNMENT) {
+			return 0;
+		}
+		int size = blockSize(numBytes);
+		int address = (size <= SMALL_LIMIT) ? takeSmallBlock(size) : takeLargeBlock(size);
+		if (address == 0) {
+			address = obtainFromHeap(size);
+			if (address == 0) {
+				return 0;
+			}
+		}
+		allocated.put(Integer.valueOf(address), Integer.valueOf(size));
+		log(ALLOCATED_ADD, address, 0, 0);
+		liveBytes += size;
+		if (liveBytes > peakLiveBytes) {
+			peakLiveBytes = liveBytes;
+		}
+		allocationCount++;
+		return address;
+	}
+
+	/**
+	 * Release a block previously returned by malloc() or realloc(). Freeing
+	 * address 0 does nothing.
+	 *
+	 * @param address
+	 *            address of the block
+	 * @throws IllegalArgumentException
+	 *             if the address is not that of an allocated block, for
+	 *             instance because it was already freed
+	 */
+	public void free(int address) throws IllegalArgumentException {
+		beginChange();
+		try {
+			release(address);
+		} finally {
+			endChange();
+		}
+	}
+
+	private void release(int address) {
+		if (address == 0) {
+			return;
+		}
+		Integer size = (Integer) allocated.remove(Integer.valueOf(address));
+		if (size == null) {
+			throw new IllegalArgumentException("address " + Binary.intToHexString(address)
+					+ " is not an allocated block (invalid pointer or double free)");
+		}
+		log(ALLOCATED_REMOVE, address, size.intValue(), 0);
+		liveBytes -= size.intValue();
+		freeCount++;
+		if (size.intValue() <= SMALL_LIMIT) {
+			pushSmallBlock(address, size.intValue());
+		} else {
+			releaseLargeBlock(address, size.intValue());
+		}
+	}
+
+	/**
+	 * Change the size of an allocated block. If the block is already large
+	 * enough it is kept in place, otherwise the contents are moved to a new
+	 * block and the old one is freed.
+	 *
+	 * @param address
+	 *            address of the block, or 0 to allocate a new one
+	 * @param numBytes
+	 *            new size in bytes. 0 frees the block.
+	 * @return address of the resized block, or 0 if the block was freed or the
+	 *         heap is exhausted (in which case the original block is intact)
+	 * @throws IllegalArgumentException
+	 *             if the address is not that of an allocated block or the size
+	 *             is negative
+	 * @throws AddressErrorException
+	 *             if the contents cannot be copied
+	 */
+	public int realloc(int address, int numBytes) throws IllegalArgumentException, AddressErrorException {
+		beginChange();
+		try {
+			return reallocate(address, numBytes);
+		} finally {
+			endChange();
+		}
+	}
+
+	private int reallocate(int address, int numBytes) throws AddressErrorException {
+		if (address == 0) {
+			return allocate(numBytes);
+		}
+		Integer oldSize = (Integer) allocated.get(Integer.valueOf(address));
+		if (oldSize == null) {
+			throw new IllegalArgumentException("address " + Binary.intToHexString(address)
+					+ " is not an allocated block (invalid pointer or double free)");
+		}
+		if (numBytes == 0) {
+			release(address);
+			return 0;
+		}
+		if (numBytes > 0 && numBytes <= oldSize.intValue()) {
+			return address;
+		}
+		int newAddress = allocate(numBytes);
+		if (newAddress != 0) {
+			memory.copy(address, newAddress, oldSize.intValue());
+			release(address);
+		}
+		return newAddress;
+	}
+
+	/**
+	 * Allocate a block for an array and set its contents to zero.
+	 *
+	 * @param count
+	 *            number of elements
+	 * @param elementSize
+	 *            size of each element in bytes
+	 * @return address of the block, or 0 if the heap is exhausted or the total
+	 *         size is too large
+	 * @throws IllegalArgumentException
+	 *             if either argument is negative
+	 * @throws AddressErrorException
+	 *             if the block cannot be cleared
+	 */
+	public int calloc(int count, int elementSize) throws IllegalArgumentException, AddressErrorException {
+		if (count < 0 || elementSize < 0) {
+			throw new IllegalArgumentException("request (" + count + " x " + elementSize + ") is negative heap amount");
+		}
+		long total = (long) count * elementSize;
+		if (total > Integer.MAX_VALUE) {
+			return 0;
+		}
+		beginChange();
+		try {
+			int address = allocate((int) total);
+			if (address != 0 && total > 0) {
+				memory.writeBytes(address, new byte[(int) total], 0, (int) total);
+			}
+			return address;
+		} finally {
+			endChange();
+		}
+	}
+
+	/**
+	 * Undo the changes made by one malloc, free, calloc or realloc, as
+	 * recorded for backstepping. Changes made after it must already have been
+	 * undone.
+	 *
+	 * @param changes
+	 *            the changes, as passed to BackStepper.addHeapRestore()
+	 */
+	public void undo(byte[] changes) {
+		IntBuffer log = ByteBuffer.wrap(changes).asIntBuffer();
+		for (int entry = log.limit() - UNDO_ENTRY; entry >= UNDO_COUNTERS; entry -= UNDO_ENTRY) {
+			int address = log.get(entry + 1);
+			int size = log.get(entry + 2);
+			switch (log.get(entry)) {
+			case ALLOCATED_ADD:
+				allocated.remove(Integer.valueOf(address));
+				break;
+			case ALLOCATED_REMOVE:
+				allocated.put(Integer.valueOf(address), Integer.valueOf(size));
+				break;
+			case SMALL_PUSH:
+				smallFreeCount[size / ALIGNMENT]--;
+				break;
+			case SMALL_TAKE:
+				pushSmallBlock(address, size);
+				break;
+			case LARGE_ADD:
+				removeLargeFree(address, size);
+				break;
+			case LARGE_REMOVE:
+				insertLargeFree(address, size, log.get(entry + 3));
+				break;
+			}
+		}
+		liveBytes = log.get(0);
+		peakLiveBytes = log.get(1);
+		allocationCount = log.get(2);
+		freeCount = log.get(3);
+	}
+
+	/**
+	 * Create an independent copy of this allocator, managing the same memory.
+	 * Used to save and restore the state of the heap.
+	 *
+	 * @return the copy
+	 */
+	public HeapAllocator copy() {
+		HeapAllocator copy = new HeapAllocator(memory);
+		for (int i = 0; i < smallFree.length; i++) {
+			if (smallFree[i] != null) {
+				copy.smallFree[i] = smallFree[i].clone();
+			}
+		}
+		copy.smallFreeCount = smallFreeCount.clone();
+		Iterator entries = largeFreeBySize.entrySet().iterator();
+		while (entries.hasNext()) {
+			Map.Entry entry = (Map.Entry) entries.next();
+			copy.largeFreeBySize.put(entry.getKey(), new ArrayList((ArrayList) entry.getValue()));
+		}
+		copy.largeFreeByAddress.putAll(largeFreeByAddress);
+		copy.allocated.putAll(allocated);
+		copy.heapBytes = heapBytes;
+		copy.liveBytes = liveBytes;
+		copy.peakLiveBytes = peakLiveBytes;
+		copy.allocationCount = allocationCount;
+		copy.freeCount = freeCount;
+		return copy;
+	}
+
+	/** Number of bytes in blocks currently allocated. **/
+	public int getLiveBytes() {
+		return liveBytes;
+	}
+
+	/** Largest value reached by getLiveBytes(). **/
+	public int getPeakLiveBytes() {
+		return peakLiveBytes;
+	}
+
+	/** Number of heap bytes the allocator has obtained, allocated or free. **/
+	public int getHeapBytes() {
+		return heapBytes;
+	}
+
+	/** Number of successful allocations (malloc, calloc and moving realloc). **/
+	public int getAllocationCount() {
+		return allocationCount;
+	}
+
+	/** Number of blocks freed. **/
+	public int getFreeCount() {
+		return freeCount;
+	}
+
+	/** Number of bytes in free blocks, available to later allocations. **/
+	public int getFreeBytes() {
+		int total = 0;
+		for (int i = 0; i < smallFreeCount.length; i++) {
+			total += smallFreeCount[i] * i * ALIGNMENT;
+		}
+		Iterator sizes = largeFreeByAddress.values().iterator();
+		while (sizes.hasNext()) {
+			total += ((Integer) sizes.next()).intValue();
+		}
+		return total;
+	}
+
+	/** Size in bytes of the largest free block, 0 if there is none. **/
+	public int getLargestFreeBlock() {
+		if (!largeFreeBySize.isEmpty()) {
+			return ((Integer) largeFreeBySize.lastKey()).intValue();
+		}
+		for (int i = smallFreeCount.length - 1; i > 0; i--) {
+			if (smallFreeCount[i] > 0) {
+				return i * ALIGNMENT;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * External fragmentation of the free blocks: 1 - largest free block / total
+	 * free bytes. 0.0 when the free storage is one block (or there is none),
+	 * approaching 1.0 as it is split into many small blocks.
+	 */
+	public double getFragmentation() {
+		int freeBytes = getFreeBytes();
+		return (freeBytes == 0) ? 0.0 : 1.0 - (double) getLargestFreeBlock() / freeBytes;
+	}
+
+	// Start recording the changes made by a public operation, beginning with
+	// the counters as they are now.
+	private void beginChange() {
+		recording = true;
+		undoLength = 0;
+		log(liveBytes, peakLiveBytes, allocationCount, freeCount);
+	}
+
+	// Stop recording, and if anything changed and backstepping is enabled,
+	// record a back step that undoes the changes.
+	private void endChange() {
+		recording = false;
+		if (undoLength > UNDO_COUNTERS && Globals.getSettings().getBackSteppingEnabled()) {
+			ByteBuffer changes = ByteBuffer.allocate(undoLength * 4);
+			changes.asIntBuffer().put(undoLog, 0, undoLength);
+			Globals.program.getBackStepper().addHeapRestore(changes.array());
+		}
+	}
+
+	private void log(int kind, int address, int size, int position) {
+		if (!recording) {
+			return;
+		}
+		if (undoLength + UNDO_ENTRY > undoLog.length) {
+			undoLog = Arrays.copyOf(undoLog, undoLog.length * 2);
+		}
+		undoLog[undoLength++] = kind;
+		undoLog[undoLength++] = address;
+		undoLog[undoLength++] = size;
+		undoLog[undoLength++] = position;
+	}
+
+	// Round request up to block size: a multiple of ALIGNMENT, at least
+	// ALIGNMENT.
+	private int blockSize(int numBytes) {
+		return Math.max(ALIGNMENT, (numBytes + ALIGNMENT - 1) & ~(ALIGNMENT - 1));
+	}
+
+	// Get fresh storage from the top of the heap, first padding it out to
+	// ALIGNMENT in case sbrk left it on a word boundary only. Returns 0 if the
+	// heap is exhausted.
+	private int obtainFromHeap(int size) {
+		try {
+			int padding = (ALIGNMENT - (Memory.heapAddress & (ALIGNMENT - 1))) & (ALIGNMENT - 1);
+			if (padding != 0) {
+				memory.allocateBytesFromHeap(padding);
+				heapBytes += padding;
+			}
+			int address = memory.allocateBytesFromHeap(size);
+			heapBytes += size;
+			return address;
+		} catch (IllegalArgumentException iae) {
+			return 0;
+		}
+	}
+
+	private int takeSmallBlock(int size) {
+		int index = size / ALIGNMENT;
+		if (smallFreeCount[index] == 0) {
+			return 0;
+		}
+		int address = smallFree[index][--smallFreeCount[index]];
+		log(SMALL_TAKE, address, size, 0);
+		return address;
+	}
+
+	private void pushSmallBlock(int address, int size) {
+		int index = size / ALIGNMENT;
+		int[] stack = smallFree[index];
+		if (stack == null) {
+			stack = smallFree[index] = new int[16];
+		} else if (smallFreeCount[index] == stack.length) {
+			stack = smallFree[index] = Arrays.copyOf(stack, stack.length * 2);
+		}
+		stack[smallFreeCount[index]++] = address;
+		log(SMALL_PUSH, address, size, 0);
+	}
+
+	// Best fit among the free large blocks. Any remainder that is large enough
+	// to be a block is returned to the free blocks. Returns 0 if none fits.
+	private int takeLargeBlock(int size) {
+		Map.Entry entry = largeFreeBySize.ceilingEntry(Integer.valueOf(size));
+		if (entry == null) {
+			return 0;
+		}
+		int blockSize = ((Integer) entry.getKey()).intValue();
+		ArrayList addresses = (ArrayList) entry.getValue();
+		int position = addresses.size() - 1;
+		int address = ((Integer) addresses.remove(position)).intValue();
+		if (addresses.isEmpty()) {
+			largeFreeBySize.remove(entry.getKey());
+		}
+		largeFreeByAddress.remove(Integer.valueOf(address));
+		log(LARGE_REMOVE, address, blockSize, position);
+		if (blockSize > size) {
+			int remainder = blockSize - size;
+			if (remainder <= SMALL_LIMIT) {
+				pushSmallBlock(address + size, remainder);
+			} else {
+				addLargeFree(address + size, remainder);
+			}
+		}
+		return address;
+	}
+
+	// Return a large block to the free blocks, merging it with free large
+	// neighbours on either side.
+	private void releaseLargeBlock(int address, int size) {
+		Map.Entry below = largeFreeByAddress.lowerEntry(Integer.valueOf(address));
+		if (below != null) {
+			int belowAddress = ((Integer) below.getKey()).intValue();
+			int belowSize = ((Integer) below.getValue()).intValue();
+			if (belowAddress + belowSize == address) {
+				removeLargeFree(belowAddress, belowSize);
+				address = belowAddress;
+				size += belowSize;
+			}
+		}
+		Integer aboveSize = (Integer) largeFreeByAddress.get(Integer.valueOf(address + size));
+		if (aboveSize != null) {
+			removeLargeFree(address + size, aboveSize.intValue());
+			size += aboveSize.intValue();
+		}
+		addLargeFree(address, size);
+	}
+
+	private void addLargeFree(int address, int size) {
+		Integer key = Integer.valueOf(size);
+		ArrayList addresses = (ArrayList) largeFreeBySize.get(key);
+		if (addresses == null) {
+			addresses = new ArrayList();
+			largeFreeBySize.put(key, addresses);
+		}
+		addresses.add(Integer.valueOf(address));
+		largeFreeByAddress.put(Integer.valueOf(address), key);
+		log(LARGE_ADD, address, size, 0);
+	}
+
+	private void removeLargeFree(int address, int size) {
+		Integer key = Integer.valueOf(size);
+		ArrayList addresses = (ArrayList) largeFreeBySize.get(key);
+		int position = addresses.indexOf(Integer.valueOf(address));
+		addresses.remove(position);
+		if (addresses.isEmpty()) {
+			largeFreeBySize.remove(key);
+		}
+		largeFreeByAddress.remove(Integer.valueOf(address));
+		log(LARGE_REMOVE, address, size, position);
+	}
+
+	// Put a free large block back where removeLargeFree() took it from.
+	private void insertLargeFree(int address, int size, int position) {
+		Integer key = Integer.valueOf(size);
+		ArrayList addresses = (ArrayList) largeFreeBySize.get(key);
+		if (addresses == null) {
+			addresses = new ArrayList();
+			largeFreeBySize.put(key, addresses);
+		}
+		addresses.add(position, Integer.valueOf(address));
+		largeFreeByAddress.put(Integer.valueOf(address), key);
+	}
+}
@@ -5,6 +5,11 @@ import mars.util.*;
 import mars.simulator.*;
 import mars.mips.instructions.*;
 import java.util.*;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
 
 /*
 Copyright (c) 2003-2009,  Pete Sanderson and Kenneth Vollmar
@@ -116,6 +121,18 @@ public class Memory extends Observable {
 
 	public static int heapAddress;
 
+	// Manages heap storage for the malloc and free syscalls. Replaced along
+	// with the heap itself by initialize().
+	private HeapAllocator heapAllocator;
+
+	// If not null, receives every fetch and every access that would notify
+	// observers. Unlike the heap allocator, survives initialize().
+	private volatile MemoryTraceRecorder traceRecorder;
+
+	// Data watchpoints, checked by the notifying load and store methods.
+	// Like breakpoints, they survive initialize().
+	private final MemoryWatchpoints watchpoints = new MemoryWatchpoints();
+
 	// Memory will maintain a collection of observables. Each one is associated
 	// with a specific memory address or address range, and each will have at
 	// least
@@ -382,6 +399,7 @@ public class Memory extends Observable {
 
 	private void initialize() {
 		heapAddress = heapBaseAddress;
+		heapAllocator = new HeapAllocator(this);
 		textBlockTable = new ProgramStatement[TEXT_BLOCK_TABLE_LENGTH][];
 		dataBlockTable = new int[BLOCK_TABLE_LENGTH][]; // array of null int[]
 														// references
@@ -425,6 +443,226 @@ public class Memory extends Observable {
 		return result;
 	}
 
+	/**
+	 * Returns the allocator that manages heap storage for the malloc, free,
+	 * calloc and realloc syscalls. A fresh allocator is created whenever memory
+	 * is cleared.
+	 *
+	 * @return the heap allocator
+	 */
+	public HeapAllocator getHeapAllocator() {
+		return heapAllocator;
+	}
+
+	/**
+	 * Takes a copy of the contents of memory, the heap and its allocator, which
+	 * restoreSnapshot() can later put back. Blocks that have not changed since
+	 * the given earlier snapshot are shared with it rather than copied.
+	 *
+	 * @param previous
+	 *            an earlier snapshot to share unchanged blocks with, or null
+	 * @return the snapshot
+	 */
+	public Snapshot takeSnapshot(Snapshot previous) {
+		Snapshot snapshot = new Snapshot();
+		int[][][] tables = { dataBlockTable, kernelDataBlockTable, stackBlockTable, memoryMapBlockTable };
+		snapshot.blockTables = new int[tables.length][][];
+		for (int t = 0; t < tables.length; t++) {
+			int[][] table = tables[t];
+			int[][] copy = snapshot.blockTables[t] = new int[table.length][];
+			int[][] shared = (previous == null) ? null : previous.blockTables[t];
+			for (int i = 0; i < table.length; i++) {
+				if (table[i] != null) {
+					copy[i] = (shared != null && Arrays.equals(table[i], shared[i])) ? shared[i]
+							: table[i].clone();
+				}
+			}
+		}
+		// Statements change only with self-modifying code; copy the block
+		// arrays, sharing the statements themselves.
+		ProgramStatement[][][] textTables = { textBlockTable, kernelTextBlockTable };
+		snapshot.textBlockTables = new ProgramStatement[textTables.length][][];
+		for (int t = 0; t < textTables.length; t++) {
+			ProgramStatement[][] table = textTables[t];
+			ProgramStatement[][] copy = snapshot.textBlockTables[t] = new ProgramStatement[table.length][];
+			ProgramStatement[][] shared = (previous == null) ? null : previous.textBlockTables[t];
+			for (int i = 0; i < table.length; i++) {
+				if (table[i] != null) {
+					copy[i] = (shared != null && Arrays.equals(table[i], shared[i])) ? shared[i]
+							: table[i].clone();
+				}
+			}
+		}
+		snapshot.heapAddress = heapAddress;
+		snapshot.heapAllocator = heapAllocator.copy();
+		return snapshot;
+	}
+
+	/**
+	 * Puts back the memory contents, heap and heap allocator saved in the given
+	 * snapshot, which remains usable. Observers are not notified.
+	 *
+	 * @param snapshot
+	 *            a snapshot taken by takeSnapshot()
+	 */
+	public void restoreSnapshot(Snapshot snapshot) {
+		int[][][] tables = new int[snapshot.blockTables.length][][];
+		for (int t = 0; t < tables.length; t++) {
+			int[][] saved = snapshot.blockTables[t];
+			int[][] table = tables[t] = new int[saved.length][];
+			for (int i = 0; i < saved.length; i++) {
+				if (saved[i] != null) {
+					table[i] = saved[i].clone();
+				}
+			}
+		}
+		dataBlockTable = tables[0];
+		kernelDataBlockTable = tables[1];
+		stackBlockTable = tables[2];
+		memoryMapBlockTable = tables[3];
+		ProgramStatement[][][] textTables = new ProgramStatement[snapshot.textBlockTables.length][][];
+		for (int t = 0; t < textTables.length; t++) {
+			ProgramStatement[][] saved = snapshot.textBlockTables[t];
+			ProgramStatement[][] table = textTables[t] = new ProgramStatement[saved.length][];
+			for (int i = 0; i < saved.length; i++) {
+				if (saved[i] != null) {
+					table[i] = saved[i].clone();
+				}
+			}
+		}
+		textBlockTable = textTables[0];
+		kernelTextBlockTable = textTables[1];
+		heapAddress = snapshot.heapAddress;
+		heapAllocator = snapshot.heapAllocator.copy();
+	}
+
+	/**
+	 * The contents of memory at one point in time. Only Memory can take one
+	 * apart.
+	 */
+	public static class Snapshot {
+		private int[][][] blockTables; // data, kernel data, stack, memory map
+		private ProgramStatement[][][] textBlockTables; // text, kernel text
+		private int heapAddress;
+		private HeapAllocator heapAllocator;
+	}
+
+	/**
+	 * Writes the words of the data, kernel data, stack and memory-mapped
+	 * segments that have been written to, for readImage() to load into memory
+	 * again. The text segments hold statements rather than words; see
+	 * getTextStatements().
+	 *
+	 * @param out
+	 *            where to write the image
+	 * @throws IOException
+	 *             if out cannot be written
+	 */
+	public void writeImage(DataOutputStream out) throws IOException {
+		int[][][] tables = { dataBlockTable, kernelDataBlockTable, stackBlockTable, memoryMapBlockTable };
+		for (int t = 0; t < tables.length; t++) {
+			int[][] table = tables[t];
+			int blocks = 0;
+			for (int i = 0; i < table.length; i++) {
+				if (table[i] != null) {
+					blocks++;
+				}
+			}
+			out.writeInt(blocks);
+			for (int i = 0; i < table.length; i++) {
+				if (table[i] != null) {
+					out.writeInt(i);
+					for (int j = 0; j < table[i].length; j++) {
+						out.writeInt(table[i][j]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Loads an image written by writeImage() into the data, kernel data, stack
+	 * and memory-mapped segments. Memory should have been cleared first, and
+	 * must have the same configuration as when the image was written.
+	 * Observers are not notified.
+	 *
+	 * @param in
+	 *            the image, read from its current position
+	 * @throws IllegalArgumentException
+	 *             if the image is malformed
+	 */
+	public void readImage(ByteBuffer in) {
+		int[][][] tables = { dataBlockTable, kernelDataBlockTable, stackBlockTable, memoryMapBlockTable };
+		for (int t = 0; t < tables.length; t++) {
+			int[][] table = tables[t];
+			int blocks = in.getInt();
+			for (int b = 0; b < blocks; b++) {
+				int i = in.getInt();
+				if (i < 0 || i >= table.length) {
+					throw new IllegalArgumentException("memory image block out of range");
+				}
+				table[i] = new int[BLOCK_LENGTH_WORDS];
+				IntBuffer words = in.asIntBuffer();
+				words.get(table[i]);
+				in.position(in.position() + BLOCK_LENGTH_WORDS * WORD_LENGTH_BYTES);
+			}
+		}
+	}
+
+	/**
+	 * Returns all the statements stored in the text and kernel text segments,
+	 * in address order.
+	 *
+	 * @return ArrayList of ProgramStatement
+	 */
+	public ArrayList getTextStatements() {
+		ArrayList statements = new ArrayList();
+		ProgramStatement[][][] textTables = { textBlockTable, kernelTextBlockTable };
+		for (int t = 0; t < textTables.length; t++) {
+			ProgramStatement[][] table = textTables[t];
+			for (int i = 0; i < table.length; i++) {
+				if (table[i] != null) {
+					for (int j = 0; j < table[i].length; j++) {
+						if (table[i][j] != null) {
+							statements.add(table[i][j]);
+						}
+					}
+				}
+			}
+		}
+		return statements;
+	}
+
+	/**
+	 * Installs a recorder to receive every instruction fetch and every data
+	 * access made through the notifying load and store methods, or removes the
+	 * current one. The recorder is not closed when it is removed.
+	 *
+	 * @param recorder
+	 *            the recorder to install, or null to stop tracing
+	 */
+	public void setTraceRecorder(MemoryTraceRecorder recorder) {
+		traceRecorder = recorder;
+	}
+
+	/**
+	 * Returns the recorder currently receiving memory accesses.
+	 *
+	 * @return the trace recorder, or null if tracing is off
+	 */
+	public MemoryTraceRecorder getTraceRecorder() {
+		return traceRecorder;
+	}
+
+	/**
+	 * Returns the data watchpoints checked by the load and store methods.
+	 *
+	 * @return the watchpoints
+	 */
+	public MemoryWatchpoints getWatchpoints() {
+		return watchpoints;
+	}
+
 	/**
 	 * Set byte order to either LITTLE_ENDIAN or BIG_ENDIAN. Default is
 	 * LITTLE_ENDIAN.
@@ -467,6 +705,11 @@ public class Memory extends Observable {
 
 	// Allocates blocks if necessary.
 	public int set(int address, int value, int length) throws AddressErrorException {
+		return set(address, value, length, true);
+	}
+
+	// Does the real work, but includes option to NOT notify observers.
+	private int set(int address, int value, int length, boolean notify) throws AddressErrorException {
 		int oldValue = 0;
 		if (Globals.debug)
 			System.out.println("memory[" + address + "] set to " + value + "(" + length + " bytes)");
@@ -524,7 +767,12 @@ public class Memory extends Observable {
 			// falls outside Mars addressing range
 			throw new AddressErrorException("address out of range ", Exceptions.ADDRESS_EXCEPTION_STORE, address);
 		}
-		notifyAnyObservers(AccessNotice.WRITE, address, length, value);
+		if (notify) {
+			if (watchpoints.isWatched(address))
+				watchpoints.checkWrite(address, length, valueChanged(oldValue, value, length));
+			traceAccess(MemoryTraceRecorder.WRITE, address, length);
+			notifyAnyObservers(AccessNotice.WRITE, address, length, value);
+		}
 		return oldValue;
 	}
 
@@ -596,6 +844,9 @@ public class Memory extends Observable {
 			// falls outside Mars addressing range
 			throw new AddressErrorException("store address out of range ", Exceptions.ADDRESS_EXCEPTION_STORE, address);
 		}
+		if (watchpoints.isWatched(address))
+			watchpoints.checkWrite(address, WORD_LENGTH_BYTES, oldValue != value);
+		traceAccess(MemoryTraceRecorder.WRITE, address, WORD_LENGTH_BYTES);
 		notifyAnyObservers(AccessNotice.WRITE, address, WORD_LENGTH_BYTES, value);
 		if (Globals.getSettings().getBackSteppingEnabled()) {
 			Globals.program.getBackStepper().addMemoryRestoreRawWord(address, oldValue);
@@ -688,6 +939,52 @@ public class Memory extends Observable {
 		return Double.longBitsToDouble(Binary.twoIntsToLong(oldHighOrder, oldLowOrder));
 	}
 
+	///////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Starting at the given address, write len bytes taken from the given array.
+	 * This is the bulk counterpart of setByte(), intended for syscalls and other
+	 * services that move whole buffers. Observers are notified once for the
+	 * whole range and, if backstepping is enabled, a single backstep restores
+	 * all of the overwritten bytes.
+	 * 
+	 * @param address
+	 *            Starting address of Memory range to be set.
+	 * @param src
+	 *            Array holding the bytes to be stored.
+	 * @param off
+	 *            Index in src of the first byte to be stored.
+	 * @param len
+	 *            Number of bytes to be written.
+	 * @throws AddressErrorException
+	 *             If any address in the range cannot be written. Bytes
+	 *             preceding that address may already have been written.
+	 **/
+	public void writeBytes(int address, byte[] src, int off, int len) throws AddressErrorException {
+		if (len <= 0) {
+			return;
+		}
+		boolean backstep = Globals.getSettings().getBackSteppingEnabled();
+		boolean watched = watchpoints.isWatched(address, len);
+		byte[] oldBytes = null;
+		if (backstep || watched) {
+			oldBytes = new byte[len];
+			transferBytes(address, oldBytes, 0, len, FETCH);
+		}
+		transferBytes(address, src, off, len, STORE);
+		if (backstep) {
+			Globals.program.getBackStepper().addMemoryRestoreBytes(address, oldBytes);
+		}
+		if (watched) {
+			boolean changed = false;
+			for (int i = 0; i < len && !changed; i++) {
+				changed = oldBytes[i] != src[off + i];
+			}
+			watchpoints.checkWrite(address, len, changed);
+		}
+		traceAccess(MemoryTraceRecorder.WRITE, address, len);
+		notifyAnyObservers(AccessNotice.WRITE, address, len, src[off] & 0xFF);
+	}
+
 	////////////////////////////////////////////////////////////////////////////////
 	/**
 	 * Stores ProgramStatement in Text Segment.
@@ -796,8 +1093,12 @@ public class Memory extends Observable {
 			// falls outside Mars addressing range
 			throw new AddressErrorException("address out of range ", Exceptions.ADDRESS_EXCEPTION_LOAD, address);
 		}
-		if (notify)
+		if (notify) {
+			if (watchpoints.isWatched(address))
+				watchpoints.checkRead(address, length);
+			traceAccess(MemoryTraceRecorder.READ, address, length);
 			notifyAnyObservers(AccessNotice.READ, address, length, value);
+		}
 		return value;
 	}
 
@@ -869,6 +1170,9 @@ public class Memory extends Observable {
 			// falls outside Mars addressing range
 			throw new AddressErrorException("address out of range ", Exceptions.ADDRESS_EXCEPTION_LOAD, address);
 		}
+		if (watchpoints.isWatched(address))
+			watchpoints.checkRead(address, Memory.WORD_LENGTH_BYTES);
+		traceAccess(MemoryTraceRecorder.READ, address, Memory.WORD_LENGTH_BYTES);
 		notifyAnyObservers(AccessNotice.READ, address, Memory.WORD_LENGTH_BYTES, value);
 		return value;
 	}
@@ -957,16 +1261,87 @@ public class Memory extends Observable {
 	 * @throws AddressErrorException
 	 *             if the base address is not on a word boundary
 	 */
+	// Where the address is held in a block table, an allocated block is known
+	// to contain no "null" words so the rest of it is skipped in one step.
 	public int getAddressOfFirstNull(int baseAddress, int limitAddress) throws AddressErrorException {
 		int address = baseAddress;
-		for (; address < limitAddress; address += Memory.WORD_LENGTH_BYTES) {
+		while (address < limitAddress) {
 			if (getRawWordOrNull(address) == null) {
 				break;
 			}
+			int[][] blockTable = blockTableForAddress(address);
+			int step = Memory.WORD_LENGTH_BYTES;
+			if (blockTable != null && blockTable != memoryMapBlockTable) {
+				step = bytesLeftInBlock(blockTable, address);
+				if (step > limitAddress - address) {
+					// stop on the same word the word-by-word search would
+					step = (limitAddress - address + WORD_LENGTH_BYTES - 1) & ~(WORD_LENGTH_BYTES - 1);
+				}
+				if (blockTableForAddress(address + step - WORD_LENGTH_BYTES) != blockTable) {
+					step = Memory.WORD_LENGTH_BYTES;
+				}
+			}
+			address += step;
 		}
 		return address;
 	}
 
+	/**
+	 * Find the terminating null byte of the string that starts at the given
+	 * address. Memory is searched a full word at a time where possible. Observers
+	 * are NOT notified.
+	 *
+	 * @param address
+	 *            address of the first byte of the string
+	 * @return address of the first byte, at or above the given address, whose
+	 *         value is 0.
+	 * @throws AddressErrorException
+	 *             if the search reaches an address that cannot be read before
+	 *             finding a null byte
+	 */
+	public int getAddressOfNullTerminator(int address) throws AddressErrorException {
+		while (true) {
+			int[][] blockTable = blockTableForAddress(address);
+			if (blockTable == null) {
+				// Not held in a block table (text segment); one byte at a time.
+				if (get(address, 1, false) == 0) {
+					return address;
+				}
+				address++;
+				continue;
+			}
+			int chunk = bytesLeftInBlock(blockTable, address);
+			// See transferBytes() concerning segment limits within a block.
+			if (chunk > 1 && blockTableForAddress(address + chunk - 1) != blockTable) {
+				chunk = 1;
+			}
+			int index = indexOfNullByteInBlock(blockTable, address, chunk);
+			if (index >= 0) {
+				return address + index;
+			}
+			address += chunk;
+		}
+	}
+
+	/**
+	 * Read the null-terminated string that starts at the given address. Each
+	 * byte becomes one char of the result; the terminator is not included.
+	 * Observers are notified once, for the whole string including the null
+	 * byte.
+	 *
+	 * @param address
+	 *            address of the first byte of the string
+	 * @return the string stored at that address
+	 * @throws AddressErrorException
+	 *             if the string runs into an address that cannot be read
+	 */
+	public String readNullTerminatedString(int address) throws AddressErrorException {
+		int length = getAddressOfNullTerminator(address) - address;
+		byte[] bytes = new byte[length + 1];
+		readBytes(address, bytes, 0, length + 1);
+		return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+	}
+
 	///////////////////////////////////////////////////////////////////////////////////////
 	/**
 	 * Starting at the given word address, read a 4 byte word as an int. Does
@@ -1007,6 +1382,39 @@ public class Memory extends Observable {
 		return get(address, WORD_LENGTH_BYTES, false);
 	}
 
+	///////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Starting at the given address, read a 2 byte halfword into lower 16 bits
+	 * of int. Observers are NOT notified.
+	 * 
+	 * @param address
+	 *            Starting address of halfword to be read.
+	 * @return Halfword (2-byte value) stored starting at that address, stored
+	 *         in lower 16 bits.
+	 * @throws AddressErrorException
+	 *             If address is not on halfword boundary.
+	 **/
+	public int getHalfNoNotify(int address) throws AddressErrorException {
+		if (address % 2 != 0) {
+			throw new AddressErrorException("fetch address not aligned on halfword boundary ",
+					Exceptions.ADDRESS_EXCEPTION_LOAD, address);
+		}
+		return get(address, 2, false);
+	}
+
+	///////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Reads specified Memory byte into low order 8 bits of int. Observers are
+	 * NOT notified.
+	 * 
+	 * @param address
+	 *            Address of Memory byte to be read.
+	 * @return Value stored at that address. Only low order 8 bits used.
+	 **/
+	public int getByteNoNotify(int address) throws AddressErrorException {
+		return get(address, 1, false);
+	}
+
 	///////////////////////////////////////////////////////////////////////////////////////
 	/**
 	 * Starting at the given word address, read a 2 byte word into lower 16 bits
@@ -1039,6 +1447,60 @@ public class Memory extends Observable {
 		return get(address, 1);
 	}
 
+	///////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Starting at the given address, read len bytes into the given array. This
+	 * is the bulk counterpart of getByte(), intended for syscalls and other
+	 * services that move whole buffers. Observers are notified once for the
+	 * whole range.
+	 * 
+	 * @param address
+	 *            Starting address of Memory range to be read.
+	 * @param dst
+	 *            Array to receive the bytes read.
+	 * @param off
+	 *            Index in dst at which to store the first byte read.
+	 * @param len
+	 *            Number of bytes to be read.
+	 * @throws AddressErrorException
+	 *             If any address in the range cannot be read.
+	 **/
+	public void readBytes(int address, byte[] dst, int off, int len) throws AddressErrorException {
+		if (len <= 0) {
+			return;
+		}
+		transferBytes(address, dst, off, len, FETCH);
+		if (watchpoints.isWatched(address, len))
+			watchpoints.checkRead(address, len);
+		traceAccess(MemoryTraceRecorder.READ, address, len);
+		notifyAnyObservers(AccessNotice.READ, address, len, dst[off] & 0xFF);
+	}
+
+	///////////////////////////////////////////////////////////////////////////////////////
+	/**
+	 * Copy len bytes from one memory range to another. The ranges may overlap;
+	 * the result is as if the source range were first read in full and then
+	 * written to the destination. Observers are notified of one read and one
+	 * write range, and a single backstep restores the destination range.
+	 * 
+	 * @param srcAddress
+	 *            Starting address of the range to be copied.
+	 * @param dstAddress
+	 *            Starting address of the range to be written.
+	 * @param len
+	 *            Number of bytes to be copied.
+	 * @throws AddressErrorException
+	 *             If any address in either range cannot be accessed.
+	 **/
+	public void copy(int srcAddress, int dstAddress, int len) throws AddressErrorException {
+		if (len <= 0) {
+			return;
+		}
+		byte[] buffer = new byte[len];
+		readBytes(srcAddress, buffer, 0, len);
+		writeBytes(dstAddress, buffer, 0, len);
+	}
+
 	////////////////////////////////////////////////////////////////////////////////
 	/**
 	 * Gets ProgramStatement from Text Segment.
@@ -1377,6 +1839,12 @@ public class Memory extends Observable {
 			return (address >= lowAddress && address <= highAddress - 1 + WORD_LENGTH_BYTES);
 		}
 
+		// True if any byte of the given range falls within this observable's
+		// range. Used for the single notice sent by bulk transfers.
+		public boolean match(int address, int length) {
+			return match(address) || (lowAddress >= address && lowAddress - address < length);
+		}
+
 		public void notifyObserver(MemoryAccessNotice notice) {
 			this.setChanged();
 			this.notifyObservers(notice);
@@ -1407,6 +1875,23 @@ public class Memory extends Observable {
 	 * THE HELPERS
 	 *************************************/
 
+	// Whether storing the low-order length bytes of newValue over oldValue
+	// changed anything.
+	private static boolean valueChanged(int oldValue, int newValue, int length) {
+		if (length >= WORD_LENGTH_BYTES)
+			return oldValue != newValue;
+		return ((oldValue ^ newValue) & ((1 << (length << 3)) - 1)) != 0;
+	}
+
+	// Hands a load or store to the trace recorder, if one is installed. Called
+	// alongside notifyAnyObservers() but independent of it, so tracing works
+	// without any observer registered.
+	private void traceAccess(int kind, int address, int length) {
+		MemoryTraceRecorder recorder = traceRecorder;
+		if (recorder != null && !InputLog.isReexecuting())
+			recorder.recordAccess(kind, address, length);
+	}
+
 	////////////////////////////////////////////////////////////////////////////////
 	//
 	// Method to notify any observers of memory operation that has just
@@ -1417,12 +1902,13 @@ public class Memory extends Observable {
 	// is from command mode, Globals.program is null but still want ability to
 	//////////////////////////////////////////////////////////////////////////////// observe.
 	private void notifyAnyObservers(int type, int address, int length, int value) {
-		if ((Globals.program != null || Globals.getGui() == null) && this.observables.size() > 0) {
+		if ((Globals.program != null || Globals.getGui() == null) && this.observables.size() > 0
+				&& ReverseExecution.isNotifyingObservers()) {
 			Iterator it = this.observables.iterator();
 			MemoryObservable mo;
 			while (it.hasNext()) {
 				mo = (MemoryObservable) it.next();
-				if (mo.match(address)) {
+				if ((length <= WORD_LENGTH_BYTES) ? mo.match(address) : mo.match(address, length)) {
 					mo.notifyObserver(new MemoryAccessNotice(type, address, length, value));
 				}
 			}
@@ -1517,6 +2003,162 @@ public class Memory extends Observable {
 		return (op == STORE) ? oldValue : value;
 	}
 
+	////////////////////////////////////////////////////////////////////////////////
+	//
+	// Helper method for the bulk byte transfers readBytes() and writeBytes().
+	// Works for either storing or fetching, as directed by the last arg. The
+	// range is processed in chunks that stay within one 4K block of one table,
+	// so the block is resolved once per chunk rather than once per byte.
+	// Addresses that are not held in a block table (the text segments, when
+	// self-modifying code is enabled) are transferred one byte at a time
+	// through get() and set(), which also produce the usual address errors.
+	// Observers are not notified here; the callers send a single range notice.
+	//
+	private void transferBytes(int address, byte[] buffer, int off, int len, boolean op)
+			throws AddressErrorException {
+		int done = 0;
+		while (done < len) {
+			int chunkAddress = address + done;
+			int[][] blockTable = blockTableForAddress(chunkAddress);
+			if (blockTable == null) {
+				if (op == STORE) {
+					set(chunkAddress, buffer[off + done], 1, false);
+				} else {
+					buffer[off + done] = (byte) get(chunkAddress, 1, false);
+				}
+				done++;
+				continue;
+			}
+			int chunk = Math.min(len - done, bytesLeftInBlock(blockTable, chunkAddress));
+			// Guard against segments whose configured limits fall within a
+			// block; the remainder will be picked up by the next chunk.
+			if (chunk > 1 && blockTableForAddress(chunkAddress + chunk - 1) != blockTable) {
+				chunk = 1;
+			}
+			transferBytesInBlock(blockTable, chunkAddress, buffer, off + done, chunk, op);
+			done += chunk;
+		}
+	}
+
+	// Moves bytes between the buffer and a single block. Caller guarantees that
+	// the whole range falls within that block. Works for little or big endian.
+	private synchronized void transferBytesInBlock(int[][] blockTable, int address, byte[] buffer, int off,
+			int len, boolean op) {
+		int block = relativeWordAddress(blockTable, address) / BLOCK_LENGTH_WORDS;
+		if (blockTable[block] == null) {
+			if (op == FETCH) {
+				Arrays.fill(buffer, off, off + len, (byte) 0);
+				return;
+			}
+			blockTable[block] = new int[BLOCK_LENGTH_WORDS];
+		}
+		int[] words = blockTable[block];
+		for (int i = 0; i < len; i++) {
+			int offset = relativeWordAddress(blockTable, address + i) % BLOCK_LENGTH_WORDS;
+			int shift = byteShift(address + i);
+			if (op == STORE) {
+				words[offset] = (words[offset] & ~(0xFF << shift)) | ((buffer[off + i] & 0xFF) << shift);
+			} else {
+				buffer[off + i] = (byte) (words[offset] >>> shift);
+			}
+		}
+	}
+
+	// Returns index within the given range of the first byte whose value is 0,
+	// or -1 if there is none. Caller guarantees that the whole range falls
+	// within one block. Whole words are tested four bytes at a time: the
+	// expression below sets the high bit of each byte of the mask that is zero
+	// in the word (and no others), and the byte order decides which end of the
+	// mask holds the lowest address.
+	private synchronized int indexOfNullByteInBlock(int[][] blockTable, int address, int len) {
+		int block = relativeWordAddress(blockTable, address) / BLOCK_LENGTH_WORDS;
+		if (blockTable[block] == null) {
+			return 0; // never written, so reads as zero
+		}
+		int[] words = blockTable[block];
+		int index = 0;
+		while (index < len && ((address + index) & 3) != 0) {
+			if (byteInWord(words, blockTable, address + index) == 0) {
+				return index;
+			}
+			index++;
+		}
+		while (len - index >= WORD_LENGTH_BYTES) {
+			int word = words[relativeWordAddress(blockTable, address + index) % BLOCK_LENGTH_WORDS];
+			int zeroBytes = ~(((word & 0x7F7F7F7F) + 0x7F7F7F7F) | word | 0x7F7F7F7F);
+			if (zeroBytes != 0) {
+				return index + ((byteOrder == LITTLE_ENDIAN) ? Integer.numberOfTrailingZeros(zeroBytes) >> 3
+						: Integer.numberOfLeadingZeros(zeroBytes) >> 3);
+			}
+			index += WORD_LENGTH_BYTES;
+		}
+		while (index < len) {
+			if (byteInWord(words, blockTable, address + index) == 0) {
+				return index;
+			}
+			index++;
+		}
+		return -1;
+	}
+
+	// Returns value of the byte at the given address, from the given block of
+	// the given table.
+	private int byteInWord(int[] words, int[][] blockTable, int address) {
+		return (words[relativeWordAddress(blockTable, address) % BLOCK_LENGTH_WORDS] >>> byteShift(address)) & 0xFF;
+	}
+
+	// Returns the left shift that moves a byte value into its position within
+	// the memory word that holds the given address. Segment base addresses are
+	// word aligned, so the low two address bits give the byte position within
+	// the word (0 is lowest address).
+	private int byteShift(int address) {
+		return (byteOrder == LITTLE_ENDIAN) ? (address & 3) << 3 : (3 - (address & 3)) << 3;
+	}
+
+	// Returns the block table holding the given address, or null if the address
+	// is not held in a block table. Segments are tested in the same order as
+	// in get().
+	private int[][] blockTableForAddress(int address) {
+		if (inDataSegment(address)) {
+			return dataBlockTable;
+		} else if (address > stackLimitAddress && address <= stackBaseAddress) {
+			return stackBlockTable;
+		} else if (address >= memoryMapBaseAddress && address < memoryMapLimitAddress) {
+			return memoryMapBlockTable;
+		} else if (inTextSegment(address)) {
+			return null;
+		} else if (inKernelDataSegment(address)) {
+			return kernelDataBlockTable;
+		}
+		return null;
+	}
+
+	// Returns the word index within the given table of the word that holds the
+	// given byte address. Stack addresses are computed "backward" from the
+	// stack base, as in the other helpers.
+	private int relativeWordAddress(int[][] blockTable, int address) {
+		if (blockTable == stackBlockTable) {
+			return (stackBaseAddress - (address & ~3)) >> 2;
+		} else if (blockTable == dataBlockTable) {
+			return (address - dataSegmentBaseAddress) >> 2;
+		} else if (blockTable == memoryMapBlockTable) {
+			return (address - memoryMapBaseAddress) >> 2;
+		} else {
+			return (address - kernelDataBaseAddress) >> 2;
+		}
+	}
+
+	// Returns the number of bytes, starting at the given address and moving
+	// toward higher addresses, that are held in the same block.
+	private int bytesLeftInBlock(int[][] blockTable, int address) {
+		int offset = relativeWordAddress(blockTable, address) % BLOCK_LENGTH_WORDS;
+		if (blockTable == stackBlockTable) {
+			// higher addresses have lower offsets within a stack block
+			return (offset << 2) + WORD_LENGTH_BYTES - (address & 3);
+		}
+		return ((BLOCK_LENGTH_WORDS - offset) << 2) - (address & 3);
+	}
+
 	////////////////////////////////////////////////////////////////////////////////
 	//
 	// Helper method to store 4 byte value in table that represents MIPS memory.
@@ -1653,6 +2295,9 @@ public class Memory extends Observable {
 	// Last parameter controls whether or not observers will be notified.
 	private ProgramStatement readProgramStatement(int address, int baseAddress, ProgramStatement[][] blockTable,
 			boolean notify) {
+		MemoryTraceRecorder recorder = traceRecorder;
+		if (notify && recorder != null)
+			recorder.recordFetch(address);
 		int relative = (address - baseAddress) >> 2; // convert byte address to
 														// words
 		int block = relative / TEXT_BLOCK_LENGTH_WORDS;
@@ -0,0 +1,322 @@
+package mars.mips.hardware;
+
+import mars.mips.instructions.Instruction;
+import java.io.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Records every instruction fetch and every data memory access made by the
+ * simulated program to a compact binary file. Memory feeds the recorder
+ * directly from its load, store and fetch paths, so tracing does not require
+ * an Observer and does not create an AccessNotice per access.
+ * <p>
+ * The simulating thread only claims a slot in a lock-free ring buffer and
+ * copies three ints into it. A background thread drains the ring, encodes the
+ * records and writes them to the file. If the ring fills up, the simulating
+ * thread waits for the writer rather than dropping records.
+ * <p>
+ * File format: the 8 bytes "MARSTRC" followed by a version byte (1), then one
+ * record per access. Each record begins with a tag byte:
+ * <ul>
+ * <li>bits 0-1: kind, FETCH (0), READ (1) or WRITE (2)</li>
+ * <li>bits 2-3: length code, 1, 2 or 4 bytes (0, 1, 2) or an explicit length
+ * (3) that follows as a varint</li>
+ * <li>bit 4: an explicit PC follows (data accesses only)</li>
+ * <li>bit 5: the address is predicted and omitted</li>
+ * </ul>
+ * The address follows as a zigzag varint holding its difference from a
+ * prediction: for a fetch, the previous fetch address plus 4; for a READ or
+ * WRITE, the previous data address. A sequential fetch is predicted exactly
+ * and takes a single byte. The PC of a data access is implicit: it is the
+ * address of the most recent fetch unless bit 4 is set, in which case its
+ * difference from that address follows as a zigzag varint.
+ *
+ * @version October 2026
+ */
+
+public class MemoryTraceRecorder {
+	/** Record kind of an instruction fetch. **/
+	public static final int FETCH = 0;
+	/** Record kind of a data read. **/
+	public static final int READ = 1;
+	/** Record kind of a data write. **/
+	public static final int WRITE = 2;
+
+	private static final byte[] MAGIC = { 'M', 'A', 'R', 'S', 'T', 'R', 'C', 0 };
+	private static final int VERSION = 1;
+
+	private static final int RING_SIZE = 1 << 16; // records; must be power of 2
+	private static final int RING_MASK = RING_SIZE - 1;
+	private static final int SLOT_INTS = 3; // kind and length, address, PC
+	private static final int MAX_SHORT_LENGTH = 4;
+	private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+	private static final long IDLE_PARK_NANOS = 200000L;
+
+	private final int[] ring = new int[RING_SIZE * SLOT_INTS];
+	// published.get(slot) == sequence + 1 once the record with that sequence
+	// number has been completely written to the slot.
+	private final AtomicLongArray published = new AtomicLongArray(RING_SIZE);
+	private final AtomicLong claimed = new AtomicLong(0);
+	private final AtomicLong drained = new AtomicLong(0);
+	private volatile boolean closing;
+	private volatile IOException failure;
+	private volatile int lastFetchAddress;
+
+	private final File file;
+	private final OutputStream out;
+	private final Thread writer;
+
+	// Writer-thread state.
+	private final byte[] buffer = new byte[OUTPUT_BUFFER_SIZE];
+	private int bufferCount;
+	private int previousFetch;
+	private int previousData;
+	private int currentPC;
+
+	/**
+	 * Create the trace file, write its header and start the background writer.
+	 * Nothing is recorded until the recorder is installed with
+	 * Memory.setTraceRecorder().
+	 *
+	 * @param file
+	 *            the file to write the trace to. Any existing content is
+	 *            replaced.
+	 * @throws IOException
+	 *             if the file cannot be created or written.
+	 */
+	public MemoryTraceRecorder(File file) throws IOException {
+		this.file = file;
+		this.out = new FileOutputStream(file);
+		try {
+			out.write(MAGIC);
+			out.write(VERSION);
+		} catch (IOException e) {
+			out.close();
+			throw e;
+		}
+		writer = new Thread(new Runnable() {
+			public void run() {
+				drain();
+			}
+		}, "MARS memory trace writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Get the file this recorder writes to.
+	 *
+	 * @return the trace file
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Get the number of records accepted so far.
+	 *
+	 * @return number of fetches and data accesses recorded
+	 */
+	public long getRecordCount() {
+		return claimed.get();
+	}
+
+	/**
+	 * Record the fetch of the instruction at the given address. Data accesses
+	 * recorded after this are attributed to that instruction.
+	 *
+	 * @param address
+	 *            address of the instruction fetched
+	 */
+	public void recordFetch(int address) {
+		lastFetchAddress = address;
+		put(FETCH, address, Instruction.INSTRUCTION_LENGTH, address);
+	}
+
+	/**
+	 * Record a data read or write made by the instruction most recently
+	 * fetched.
+	 *
+	 * @param kind
+	 *            READ or WRITE
+	 * @param address
+	 *            first address accessed
+	 * @param length
+	 *            number of bytes accessed
+	 */
+	public void recordAccess(int kind, int address, int length) {
+		put(kind, address, length, lastFetchAddress);
+	}
+
+	/**
+	 * Stop accepting records, wait for the writer to drain everything already
+	 * recorded and close the file. Calling close more than once has no
+	 * further effect.
+	 *
+	 * @throws IOException
+	 *             if writing the trace failed at any point.
+	 */
+	public void close() throws IOException {
+		closing = true;
+		LockSupport.unpark(writer);
+		boolean interrupted = false;
+		while (writer.isAlive()) {
+			try {
+				writer.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	// Claim the next slot, waiting while the ring is full, and publish the
+	// record in it. Safe for any number of producing threads.
+	private void put(int kind, int address, int length, int pc) {
+		if (closing || failure != null) {
+			return;
+		}
+		long sequence = claimed.getAndIncrement();
+		while (sequence - drained.get() >= RING_SIZE) {
+			if (failure != null) {
+				return;
+			}
+			Thread.yield();
+		}
+		int slot = (int) sequence & RING_MASK;
+		int base = slot * SLOT_INTS;
+		ring[base] = (kind << 30) | (length & 0x3FFFFFFF);
+		ring[base + 1] = address;
+		ring[base + 2] = pc;
+		published.lazySet(slot, sequence + 1);
+	}
+
+	// Body of the writer thread.
+	private void drain() {
+		long sequence = 0;
+		try {
+			while (true) {
+				int slot = (int) sequence & RING_MASK;
+				if (published.get(slot) != sequence + 1) {
+					if (closing && sequence == claimed.get()) {
+						break;
+					}
+					flushBuffer();
+					LockSupport.parkNanos(IDLE_PARK_NANOS);
+					continue;
+				}
+				int base = slot * SLOT_INTS;
+				encode(ring[base] >>> 30, ring[base] & 0x3FFFFFFF, ring[base + 1], ring[base + 2]);
+				drained.lazySet(++sequence);
+			}
+			flushBuffer();
+		} catch (IOException e) {
+			failure = e;
+		} finally {
+			drained.set(Long.MAX_VALUE / 2); // release any waiting producer
+			try {
+				out.close();
+			} catch (IOException e) {
+				if (failure == null) {
+					failure = e;
+				}
+			}
+		}
+	}
+
+	private void encode(int kind, int length, int address, int pc) throws IOException {
+		if (bufferCount > OUTPUT_BUFFER_SIZE - 16) {
+			flushBuffer();
+		}
+		int lengthCode;
+		if (length == 1) {
+			lengthCode = 0;
+		} else if (length == 2) {
+			lengthCode = 1;
+		} else if (length == MAX_SHORT_LENGTH) {
+			lengthCode = 2;
+		} else {
+			lengthCode = 3;
+		}
+		int tag = kind | (lengthCode << 2);
+		int delta;
+		boolean explicitPC = false;
+		if (kind == FETCH) {
+			delta = address - (previousFetch + Instruction.INSTRUCTION_LENGTH);
+			previousFetch = address;
+			currentPC = address;
+		} else {
+			delta = address - previousData;
+			previousData = address;
+			explicitPC = (pc != currentPC);
+		}
+		if (explicitPC) {
+			tag |= 1 << 4;
+		}
+		if (delta == 0) {
+			tag |= 1 << 5;
+		}
+		buffer[bufferCount++] = (byte) tag;
+		if (delta != 0) {
+			putVarint(zigzag(delta));
+		}
+		if (lengthCode == 3) {
+			putVarint(length);
+		}
+		if (explicitPC) {
+			putVarint(zigzag(pc - currentPC));
+		}
+	}
+
+	private static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private void putVarint(int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer[bufferCount++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[bufferCount++] = (byte) value;
+	}
+
+	private void flushBuffer() throws IOException {
+		if (bufferCount > 0) {
+			out.write(buffer, 0, bufferCount);
+			bufferCount = 0;
+		}
+	}
+}
@@ -0,0 +1,346 @@
+package mars.mips.hardware;
+
+import mars.mips.instructions.Instruction;
+import mars.util.*;
+import java.util.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Data watchpoints: stop the simulation when the program reads, writes or
+ * changes the value of an address or range of addresses. Memory consults the
+ * watchpoints from its notifying load and store methods, which are the ones
+ * used by simulated instructions and syscalls.
+ * <p>
+ * To keep the cost of an unwatched access to a single bit test, one bit per
+ * 4K page of the address space records whether any watchpoint overlaps that
+ * page. Only accesses to a marked page are compared against the watchpoints
+ * themselves.
+ * <p>
+ * A watchpoint that triggers does not interrupt the access; the instruction
+ * completes and the simulator then stops as it does at a breakpoint.
+ *
+ * @version October 2026
+ */
+
+public class MemoryWatchpoints {
+	/** Trigger when any byte in the range is read. **/
+	public static final int READ = 1;
+	/** Trigger when any byte in the range is written. **/
+	public static final int WRITE = 2;
+	/** Trigger when a write to the range changes the value stored. **/
+	public static final int CHANGE = 4;
+
+	private static final int PAGE_SHIFT = 12;
+	private static final int PAGE_COUNT = 1 << (32 - PAGE_SHIFT);
+
+	private final long[] watchedPages = new long[PAGE_COUNT / 64];
+	private final ArrayList watchpoints = new ArrayList();
+
+	private Watchpoint triggered;
+	private String triggerDescription;
+
+	/**
+	 * Add a watchpoint on the given range of addresses.
+	 *
+	 * @param lowAddress
+	 *            first address watched
+	 * @param highAddress
+	 *            last address watched, not less than lowAddress when both are
+	 *            treated as unsigned
+	 * @param kinds
+	 *            any combination of READ, WRITE and CHANGE
+	 * @return the watchpoint added
+	 * @throws IllegalArgumentException
+	 *             if the range is empty or no kind is given
+	 */
+	public synchronized Watchpoint add(int lowAddress, int highAddress, int kinds) {
+		if (!unsignedNotAbove(lowAddress, highAddress)) {
+			throw new IllegalArgumentException("watchpoint range is empty");
+		}
+		if ((kinds & (READ | WRITE | CHANGE)) == 0) {
+			throw new IllegalArgumentException("watchpoint must watch reads, writes or changes");
+		}
+		Watchpoint watchpoint = new Watchpoint(lowAddress, highAddress, kinds & (READ | WRITE | CHANGE));
+		watchpoints.add(watchpoint);
+		markPages(watchpoint);
+		return watchpoint;
+	}
+
+	/**
+	 * Add a watchpoint described by text, as entered on the command line or in
+	 * the Watchpoints dialog.
+	 *
+	 * @param range
+	 *            an address, or two addresses separated by "-", hex or decimal
+	 * @param kinds
+	 *            any combination of the letters r (read), w (write) and c
+	 *            (change)
+	 * @return the watchpoint added
+	 * @throws IllegalArgumentException
+	 *             if either argument is not valid
+	 */
+	public Watchpoint add(String range, String kinds) {
+		int flags = 0;
+		for (int i = 0; i < kinds.length(); i++) {
+			switch (Character.toLowerCase(kinds.charAt(i))) {
+			case 'r':
+				flags |= READ;
+				break;
+			case 'w':
+				flags |= WRITE;
+				break;
+			case 'c':
+				flags |= CHANGE;
+				break;
+			default:
+				throw new IllegalArgumentException("invalid watchpoint kind '" + kinds.charAt(i) + "'");
+			}
+		}
+		int separator = range.indexOf('-', 1);
+		try {
+			if (separator < 0) {
+				int address = Binary.stringToInt(range.trim());
+				return add(address, address, flags);
+			}
+			return add(Binary.stringToInt(range.substring(0, separator).trim()),
+					Binary.stringToInt(range.substring(separator + 1).trim()), flags);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("invalid watchpoint address range " + range);
+		}
+	}
+
+	/**
+	 * Remove a watchpoint.
+	 *
+	 * @param watchpoint
+	 *            the watchpoint to remove
+	 */
+	public synchronized void remove(Watchpoint watchpoint) {
+		if (watchpoints.remove(watchpoint)) {
+			Arrays.fill(watchedPages, 0L);
+			for (int i = 0; i < watchpoints.size(); i++) {
+				markPages((Watchpoint) watchpoints.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Remove all watchpoints.
+	 */
+	public synchronized void clear() {
+		watchpoints.clear();
+		Arrays.fill(watchedPages, 0L);
+	}
+
+	/**
+	 * Get the current watchpoints, in the order they were added.
+	 *
+	 * @return list of Watchpoint
+	 */
+	public synchronized List getWatchpoints() {
+		return new ArrayList(watchpoints);
+	}
+
+	/**
+	 * Determine whether the page holding the given address has any watchpoint
+	 * on it. This is the test made on every access, so it is kept minimal.
+	 *
+	 * @param address
+	 *            the address accessed
+	 * @return true if the address may be watched
+	 */
+	public boolean isWatched(int address) {
+		int page = address >>> PAGE_SHIFT;
+		return (watchedPages[page >>> 6] & (1L << page)) != 0;
+	}
+
+	/**
+	 * Determine whether any page overlapping the given range has a watchpoint
+	 * on it.
+	 *
+	 * @param address
+	 *            first address accessed
+	 * @param length
+	 *            number of bytes accessed
+	 * @return true if some address in the range may be watched
+	 */
+	public boolean isWatched(int address, int length) {
+		int lastPage = (address + length - 1) >>> PAGE_SHIFT;
+		for (int page = address >>> PAGE_SHIFT;; page++) {
+			if ((watchedPages[page >>> 6] & (1L << page)) != 0) {
+				return true;
+			}
+			if (page == lastPage) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Check a read against the watchpoints. Call only for an address found to
+	 * be watched.
+	 *
+	 * @param address
+	 *            first address read
+	 * @param length
+	 *            number of bytes read
+	 */
+	public void checkRead(int address, int length) {
+		check(READ, address, length);
+	}
+
+	/**
+	 * Check a write against the watchpoints. Call only for an address found to
+	 * be watched.
+	 *
+	 * @param address
+	 *            first address written
+	 * @param length
+	 *            number of bytes written
+	 * @param changed
+	 *            whether the write changed any of the bytes it stored
+	 */
+	public void checkWrite(int address, int length, boolean changed) {
+		check(changed ? WRITE | CHANGE : WRITE, address, length);
+	}
+
+	/**
+	 * Determine whether a watchpoint has triggered since the last call to
+	 * clearTrigger().
+	 *
+	 * @return true if a watchpoint has triggered
+	 */
+	public boolean isTriggered() {
+		return triggered != null;
+	}
+
+	/**
+	 * Get the watchpoint that triggered first since the last call to
+	 * clearTrigger().
+	 *
+	 * @return the watchpoint, or null if none has triggered
+	 */
+	public Watchpoint getTriggered() {
+		return triggered;
+	}
+
+	/**
+	 * Get a description of the access that triggered the watchpoint, for
+	 * display to the user.
+	 *
+	 * @return description of the access, or null if none has triggered
+	 */
+	public String getTriggerDescription() {
+		return triggerDescription;
+	}
+
+	/**
+	 * Forget any watchpoint that has triggered. The simulator does this when
+	 * execution starts or resumes.
+	 */
+	public void clearTrigger() {
+		triggered = null;
+		triggerDescription = null;
+	}
+
+	private synchronized void check(int kinds, int address, int length) {
+		if (triggered != null) {
+			return;
+		}
+		int last = address + length - 1;
+		for (int i = 0; i < watchpoints.size(); i++) {
+			Watchpoint watchpoint = (Watchpoint) watchpoints.get(i);
+			if ((watchpoint.kinds & kinds) != 0 && unsignedNotAbove(address, watchpoint.highAddress)
+					&& unsignedNotAbove(watchpoint.lowAddress, last)) {
+				triggered = watchpoint;
+				triggerDescription = (((kinds & WRITE) != 0) ? "write to " : "read from ")
+						+ Binary.intToHexString(address) + " by instruction at "
+						+ Binary.intToHexString(RegisterFile.getProgramCounter() - Instruction.INSTRUCTION_LENGTH)
+						+ " (watchpoint " + watchpoint + ")";
+				return;
+			}
+		}
+	}
+
+	// Addresses at and above 0x80000000 (kernel, MMIO) are negative as ints.
+	private static boolean unsignedNotAbove(int a, int b) {
+		return (a ^ Integer.MIN_VALUE) <= (b ^ Integer.MIN_VALUE);
+	}
+
+	private void markPages(Watchpoint watchpoint) {
+		int lastPage = watchpoint.highAddress >>> PAGE_SHIFT;
+		for (int page = watchpoint.lowAddress >>> PAGE_SHIFT;; page++) {
+			watchedPages[page >>> 6] |= 1L << page;
+			if (page == lastPage) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * A single watchpoint: a range of addresses and the kinds of access that
+	 * trigger it.
+	 */
+	public static class Watchpoint {
+		private final int lowAddress;
+		private final int highAddress;
+		private final int kinds;
+
+		private Watchpoint(int lowAddress, int highAddress, int kinds) {
+			this.lowAddress = lowAddress;
+			this.highAddress = highAddress;
+			this.kinds = kinds;
+		}
+
+		public int getLowAddress() {
+			return lowAddress;
+		}
+
+		public int getHighAddress() {
+			return highAddress;
+		}
+
+		/**
+		 * @return combination of READ, WRITE and CHANGE
+		 */
+		public int getKinds() {
+			return kinds;
+		}
+
+		/**
+		 * @return the range and kinds, e.g. "0x10010000-0x10010003 rw"
+		 */
+		public String toString() {
+			return Binary.intToHexString(lowAddress)
+					+ ((highAddress == lowAddress) ? "" : "-" + Binary.intToHexString(highAddress)) + " "
+					+ (((kinds & READ) != 0) ? "r" : "") + (((kinds & WRITE) != 0) ? "w" : "")
+					+ (((kinds & CHANGE) != 0) ? "c" : "");
+		}
+	}
+}
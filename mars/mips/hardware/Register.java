@@ -1,6 +1,7 @@
 package mars.mips.hardware;
 
 import mars.*;
+import mars.simulator.ReverseExecution;
 import java.util.*;
 
 /*
@@ -41,11 +42,19 @@ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
 public class Register extends Observable {
 	private String name;
 	private int number, resetValue;
-	// volatile should be enough to allow safe multi-threaded access
-	// w/o the use of synchronized methods. getValue and setValue
-	// are the only methods here used by the register collection
-	// (RegisterFile, Coprocessor0, Coprocessor1) methods.
-	private volatile int value;
+	// The value is held in an element of an int array, normally one
+	// belonging to this register alone. A register collection may instead
+	// supply a shared array, which its own methods then read and write
+	// directly; the Register object becomes a view of that element.
+	private final int[] values;
+	private final int index;
+	// True while at least one Observer is registered. Lets a register
+	// collection skip this object (and notification) when nobody listens.
+	private volatile boolean observed;
+	// If not null, the register marks its position in this set whenever
+	// its value is set or reset.
+	private DirtyRegisterSet dirtySet;
+	private int dirtyPosition;
 
 	/**
 	 * Creates a new register with specified name, number, and value.
@@ -59,9 +68,31 @@ public class Register extends Observable {
 	 */
 
 	public Register(String n, int num, int val) {
+		this(n, num, val, new int[1], 0);
+	}
+
+	/**
+	 * Creates a new register whose value is held in the given element of a
+	 * shared array. The array element is set to the initial value.
+	 * 
+	 * @param n
+	 *            The name of the register.
+	 * @param num
+	 *            The number of the register.
+	 * @param val
+	 *            The inital (and reset) value of the register.
+	 * @param storage
+	 *            The array that holds the register's value.
+	 * @param index
+	 *            The index of the register's value in storage.
+	 */
+
+	public Register(String n, int num, int val, int[] storage, int index) {
 		name = n;
 		number = num;
-		value = val;
+		values = storage;
+		this.index = index;
+		values[index] = val;
 		resetValue = val;
 	}
 
@@ -84,7 +115,7 @@ public class Register extends Observable {
 
 	public synchronized int getValue() {
 		notifyAnyObservers(AccessNotice.READ);
-		return value;
+		return values[index];
 	}
 
 	/**
@@ -95,7 +126,7 @@ public class Register extends Observable {
 	 */
 
 	public synchronized int getValueNoNotify() {
-		return value;
+		return values[index];
 	}
 
 	/**
@@ -128,8 +159,10 @@ public class Register extends Observable {
 	 */
 
 	public synchronized int setValue(int val) {
-		int old = value;
-		value = val;
+		int old = values[index];
+		values[index] = val;
+		if (dirtySet != null)
+			dirtySet.mark(dirtyPosition);
 		notifyAnyObservers(AccessNotice.WRITE);
 		return old;
 	}
@@ -140,7 +173,55 @@ public class Register extends Observable {
 	 */
 
 	public synchronized void resetValue() {
-		value = resetValue;
+		values[index] = resetValue;
+		if (dirtySet != null)
+			dirtySet.mark(dirtyPosition);
+	}
+
+	/**
+	 * Sets the value of the register, as part of restoring a whole register
+	 * collection. Observers are not notified; the collection notifies them of
+	 * the changed registers once all of its values have been written.
+	 * 
+	 * @param val
+	 *            Value to set the Register to.
+	 * @return true if the value changed
+	 */
+
+	synchronized boolean restoreValue(int val) {
+		if (values[index] == val) {
+			return false;
+		}
+		values[index] = val;
+		if (dirtySet != null)
+			dirtySet.mark(dirtyPosition);
+		return true;
+	}
+
+	/**
+	 * Write the given values to the registers, then notify the observers of
+	 * each register whose value changed of a WRITE operation. This is how all
+	 * register collections restore saved values, so observers see a single
+	 * notice per changed register and never a partly restored collection.
+	 * 
+	 * @param registers
+	 *            the registers, at most 64
+	 * @param saved
+	 *            the value for each register, at the same position
+	 */
+
+	static void restoreValues(Register[] registers, int[] saved) {
+		long changed = 0L;
+		for (int i = 0; i < registers.length; i++) {
+			if (registers[i].restoreValue(saved[i])) {
+				changed |= 1L << i;
+			}
+		}
+		for (int i = 0; changed != 0L; i++, changed >>>= 1) {
+			if ((changed & 1L) != 0L) {
+				registers[i].notifyAnyObservers(AccessNotice.WRITE);
+			}
+		}
 	}
 
 	/**
@@ -152,11 +233,58 @@ public class Register extends Observable {
 		resetValue = reset;
 	}
 
+	/**
+	 * Have this register mark the given position in the set whenever its value
+	 * is set or reset. Used by the register collections.
+	 * 
+	 * @param set
+	 *            the set to mark
+	 * @param position
+	 *            the position of this register in the set
+	 */
+
+	void trackWrites(DirtyRegisterSet set, int position) {
+		dirtySet = set;
+		dirtyPosition = position;
+	}
+
+	/**
+	 * Determine whether any Observer is registered with this register.
+	 * 
+	 * @return true if at least one Observer is registered
+	 */
+
+	public boolean isObserved() {
+		return observed;
+	}
+
+	@SuppressWarnings("deprecation")
+	public synchronized void addObserver(Observer o) {
+		super.addObserver(o);
+		observed = true;
+	}
+
+	@SuppressWarnings("deprecation")
+	public synchronized void deleteObserver(Observer o) {
+		super.deleteObserver(o);
+		observed = countObservers() > 0;
+	}
+
+	public synchronized void deleteObservers() {
+		super.deleteObservers();
+		observed = false;
+	}
+
 	//
 	// Method to notify any observers of register operation that has just
-	// occurred.
+	// occurred. Package-private so a register collection that writes the
+	// shared array directly can still notify. Observers are not notified
+	// again of writes repeated while going back (see ReverseExecution).
 	//
-	private void notifyAnyObservers(int type) {
+	void notifyAnyObservers(int type) {
+		if (!ReverseExecution.isNotifyingObservers()) {
+			return;
+		}
 		if (this.countObservers() > 0) {// && Globals.program != null) &&
 										// Globals.program.inSteppedExecution())
 										// {
@@ -37,6 +37,16 @@ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
 
 /**
  * Represents the collection of MIPS registers.
+ * <p>
+ * The register values are plain ints, not volatile. While a program runs they
+ * are written by the simulator thread as it executes each instruction, and by
+ * the GUI and tools when the user edits a register, all holding
+ * Globals.memoryAndRegistersLock. Other threads read them holding that lock,
+ * or in a task the simulator thread passes to the event dispatch thread with
+ * SwingUtilities.invokeLater() (the display updates while running and when
+ * execution stops). Both make the writes before them visible to the reader.
+ * Changes made while no program runs, such as a reset or a backstep, are made
+ * before the simulator thread is started, which makes them visible to it.
  * 
  * @author Jason Bumgarner, Jason Shrewsbury
  * @version June 2003
@@ -47,28 +57,58 @@ public class RegisterFile {
 	public static final int GLOBAL_POINTER_REGISTER = 28;
 	public static final int STACK_POINTER_REGISTER = 29;
 
-	private static Register[] regFile = { new Register("$zero", 0, 0), new Register("$at", 1, 0),
-			new Register("$v0", 2, 0), new Register("$v1", 3, 0), new Register("$a0", 4, 0), new Register("$a1", 5, 0),
-			new Register("$a2", 6, 0), new Register("$a3", 7, 0), new Register("$t0", 8, 0), new Register("$t1", 9, 0),
-			new Register("$t2", 10, 0), new Register("$t3", 11, 0), new Register("$t4", 12, 0),
-			new Register("$t5", 13, 0), new Register("$t6", 14, 0), new Register("$t7", 15, 0),
-			new Register("$s0", 16, 0), new Register("$s1", 17, 0), new Register("$s2", 18, 0),
-			new Register("$s3", 19, 0), new Register("$s4", 20, 0), new Register("$s5", 21, 0),
-			new Register("$s6", 22, 0), new Register("$s7", 23, 0), new Register("$t8", 24, 0),
-			new Register("$t9", 25, 0), new Register("$k0", 26, 0), new Register("$k1", 27, 0),
-			new Register("$gp", GLOBAL_POINTER_REGISTER, Memory.globalPointer),
-			new Register("$sp", STACK_POINTER_REGISTER, Memory.stackPointer), new Register("$fp", 30, 0),
-			new Register("$ra", 31, 0) };
-
-	private static Register programCounter = new Register("pc", 32, Memory.textBaseAddress);
-	private static Register hi = new Register("hi", 33, 0);// this is an
-															// internal register
-															// with arbitrary
-															// number
-	private static Register lo = new Register("lo", 34, 0);// this is an
-															// internal register
-															// with arbitrary
-															// number
+	private static final int PC_NUMBER = 32;
+	private static final int HI_NUMBER = 33; // internal register with arbitrary
+												// number
+	private static final int LO_NUMBER = 34; // internal register with arbitrary
+												// number
+
+	// Values of all registers, indexed by register number: $zero-$ra, then
+	// pc, hi and lo. Simulation reads and writes this array directly. The
+	// Register objects below are views of its elements, used by the GUI and
+	// by anyone who wants to observe a register.
+	private static final int[] values = new int[LO_NUMBER + 1];
+
+	private static Register[] regFile = { new Register("$zero", 0, 0, values, 0), new Register("$at", 1, 0, values, 1),
+			new Register("$v0", 2, 0, values, 2), new Register("$v1", 3, 0, values, 3),
+			new Register("$a0", 4, 0, values, 4), new Register("$a1", 5, 0, values, 5),
+			new Register("$a2", 6, 0, values, 6), new Register("$a3", 7, 0, values, 7),
+			new Register("$t0", 8, 0, values, 8), new Register("$t1", 9, 0, values, 9),
+			new Register("$t2", 10, 0, values, 10), new Register("$t3", 11, 0, values, 11),
+			new Register("$t4", 12, 0, values, 12), new Register("$t5", 13, 0, values, 13),
+			new Register("$t6", 14, 0, values, 14), new Register("$t7", 15, 0, values, 15),
+			new Register("$s0", 16, 0, values, 16), new Register("$s1", 17, 0, values, 17),
+			new Register("$s2", 18, 0, values, 18), new Register("$s3", 19, 0, values, 19),
+			new Register("$s4", 20, 0, values, 20), new Register("$s5", 21, 0, values, 21),
+			new Register("$s6", 22, 0, values, 22), new Register("$s7", 23, 0, values, 23),
+			new Register("$t8", 24, 0, values, 24), new Register("$t9", 25, 0, values, 25),
+			new Register("$k0", 26, 0, values, 26), new Register("$k1", 27, 0, values, 27),
+			new Register("$gp", GLOBAL_POINTER_REGISTER, Memory.globalPointer, values, GLOBAL_POINTER_REGISTER),
+			new Register("$sp", STACK_POINTER_REGISTER, Memory.stackPointer, values, STACK_POINTER_REGISTER),
+			new Register("$fp", 30, 0, values, 30), new Register("$ra", 31, 0, values, 31) };
+
+	private static Register programCounter = new Register("pc", PC_NUMBER, Memory.textBaseAddress, values,
+			PC_NUMBER);
+	private static Register hi = new Register("hi", HI_NUMBER, 0, values, HI_NUMBER);
+	private static Register lo = new Register("lo", LO_NUMBER, 0, values, LO_NUMBER);
+
+	// The Register object for each element of values.
+	private static final Register[] registersByNumber = new Register[LO_NUMBER + 1];
+
+	// Registers written since the registers window last displayed them,
+	// by register number. The program counter, written by every
+	// instruction, does not count as the latest write.
+	private static final DirtyRegisterSet dirtyRegisters = new DirtyRegisterSet(~(1L << PC_NUMBER));
+
+	static {
+		System.arraycopy(regFile, 0, registersByNumber, 0, regFile.length);
+		registersByNumber[PC_NUMBER] = programCounter;
+		registersByNumber[HI_NUMBER] = hi;
+		registersByNumber[LO_NUMBER] = lo;
+		for (int i = 0; i < registersByNumber.length; i++) {
+			registersByNumber[i].trackWrites(dirtyRegisters, i);
+		}
+	}
 
 	/**
 	 * Method for displaying the register values for debugging.
@@ -94,26 +134,22 @@ public class RegisterFile {
 	 **/
 
 	public static int updateRegister(int num, int val) {
-		int old = 0;
-		if (num == 0) {
-			// System.out.println("You can not change the value of the zero
-			// register.");
+		if (num <= 0 || num == PC_NUMBER || num > LO_NUMBER) {
+			// You can not change the value of the zero register, and the
+			// program counter has its own methods.
+			return 0;
+		}
+		int old;
+		Register reg = registersByNumber[num];
+		if (reg.isObserved()) {
+			old = reg.setValue(val);
 		} else {
-			for (int i = 0; i < regFile.length; i++) {
-				if (regFile[i].getNumber() == num) {
-					old = (Globals.getSettings().getBackSteppingEnabled())
-							? Globals.program.getBackStepper().addRegisterFileRestore(num, regFile[i].setValue(val))
-							: regFile[i].setValue(val);
-					break;
-				}
-			}
+			old = values[num];
+			values[num] = val;
+			dirtyRegisters.mark(num);
 		}
-		if (num == 33) {// updates the hi register
-			old = (Globals.getSettings().getBackSteppingEnabled())
-					? Globals.program.getBackStepper().addRegisterFileRestore(num, hi.setValue(val)) : hi.setValue(val);
-		} else if (num == 34) {// updates the low register
-			old = (Globals.getSettings().getBackSteppingEnabled())
-					? Globals.program.getBackStepper().addRegisterFileRestore(num, lo.setValue(val)) : lo.setValue(val);
+		if (Globals.getSettings().getBackSteppingEnabled()) {
+			Globals.program.getBackStepper().addRegisterFileRestore(num, old);
 		}
 		return old;
 	}
@@ -150,13 +186,8 @@ public class RegisterFile {
 	 **/
 
 	public static int getValue(int num) {
-		if (num == 33) {
-			return hi.getValue();
-		} else if (num == 34) {
-			return lo.getValue();
-		} else
-			return regFile[num].getValue();
-
+		Register reg = registersByNumber[num];
+		return (reg.isObserved()) ? reg.getValue() : values[num];
 	}
 
 	/**
@@ -232,7 +263,7 @@ public class RegisterFile {
 	 **/
 
 	public static void initializeProgramCounter(int value) {
-		programCounter.setValue(value);
+		setProgramCounterValue(value);
 	}
 
 	/**
@@ -268,8 +299,7 @@ public class RegisterFile {
 	 **/
 
 	public static int setProgramCounter(int value) {
-		int old = programCounter.getValue();
-		programCounter.setValue(value);
+		int old = setProgramCounterValue(value);
 		if (Globals.getSettings().getBackSteppingEnabled()) {
 			Globals.program.getBackStepper().addPCRestore(old);
 		}
@@ -283,7 +313,7 @@ public class RegisterFile {
 	 **/
 
 	public static int getProgramCounter() {
-		return programCounter.getValue();
+		return (programCounter.isObserved()) ? programCounter.getValue() : values[PC_NUMBER];
 	}
 
 	/**
@@ -332,7 +362,65 @@ public class RegisterFile {
 	 **/
 
 	public static void incrementPC() {
-		programCounter.setValue(programCounter.getValue() + Instruction.INSTRUCTION_LENGTH);
+		setProgramCounterValue(getProgramCounter() + Instruction.INSTRUCTION_LENGTH);
+	}
+
+	// Set the program counter, notifying observers only if there are any.
+	// Returns the previous value.
+	private static int setProgramCounterValue(int value) {
+		if (programCounter.isObserved()) {
+			return programCounter.setValue(value);
+		}
+		int old = values[PC_NUMBER];
+		values[PC_NUMBER] = value;
+		dirtyRegisters.mark(PC_NUMBER);
+		return old;
+	}
+
+	/**
+	 * Returns the registers written since the previous call, and forgets them.
+	 * Used by the registers window to redisplay only rows that may have
+	 * changed.
+	 * 
+	 * @return bit mask with bit n set if register number n (32 for pc, 33 for
+	 *         hi, 34 for lo) was written
+	 */
+	public static long takeDirtyRegisters() {
+		return dirtyRegisters.take();
+	}
+
+	/**
+	 * Determines whether the register written most recently, other than the
+	 * program counter, is one of these rather than a coprocessor register.
+	 * Used to select the window that shows it.
+	 * 
+	 * @return true if a register here was written last
+	 */
+	public static boolean holdsLastWrite() {
+		return dirtyRegisters.holdsLastWrite();
+	}
+
+	/**
+	 * Returns a copy of the values of all registers, for restoreValues().
+	 * 
+	 * @return the values, indexed by register number (32 for pc, 33 for hi,
+	 *         34 for lo)
+	 */
+	public static int[] saveValues() {
+		return values.clone();
+	}
+
+	/**
+	 * Sets all registers to values returned by saveValues(). Once all are
+	 * written, observers of each register whose value changed are notified of
+	 * one WRITE operation, and only those registers count as written for
+	 * takeDirtyRegisters().
+	 * 
+	 * @param saved
+	 *            the values to restore
+	 */
+	public static void restoreValues(int[] saved) {
+		Register.restoreValues(registersByNumber, saved);
 	}
 
 	/**
@@ -42,6 +42,8 @@ public class BasicInstruction extends Instruction {
 	private BasicInstructionFormat instructionFormat;
 	private String operationMask;
 	private SimulationCode simulationCode;
+	private InstructionSet instructionSet; // creates simulationCode when first needed
+	private int index; // position in instructionSet
 
 	private int opcodeMask; // integer with 1's where constants required (0/1
 							// become 1, f/s/t become 0)
@@ -94,6 +96,26 @@ public class BasicInstruction extends Instruction {
 		this.opcodeMatch = (int) Long.parseLong(this.operationMask.replaceAll("[^1]", "0"), 2);
 	}
 
+	/**
+	 * BasicInstruction constructor for an instruction read from the basic
+	 * instruction table, with its opcode mask and match already computed. The
+	 * instruction set creates its simulation code the first time it is needed.
+	 * 
+	 * @see BasicInstructionTable
+	 **/
+	BasicInstruction(String example, String description, BasicInstructionFormat instrFormat, String operMask,
+			int opcodeMask, int opcodeMatch, InstructionSet instructionSet, int index) {
+		this.exampleFormat = example;
+		this.mnemonic = this.extractOperator(example);
+		this.description = description;
+		this.instructionFormat = instrFormat;
+		this.operationMask = operMask;
+		this.opcodeMask = opcodeMask;
+		this.opcodeMatch = opcodeMatch;
+		this.instructionSet = instructionSet;
+		this.index = index;
+	}
+
 	// Temporary constructor so that instructions without description yet will
 	// compile.
 
@@ -140,6 +162,9 @@ public class BasicInstruction extends Instruction {
 	 **/
 
 	public SimulationCode getSimulationCode() {
+		if (simulationCode == null && instructionSet != null) {
+			simulationCode = instructionSet.createSimulationCode(this, index);
+		}
 		return simulationCode;
 	}
 
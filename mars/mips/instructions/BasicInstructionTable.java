@@ -0,0 +1,177 @@
+package mars.mips.instructions;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+
+/**
+ * The generated table of basic instructions read when the instruction set is
+ * populated. Each line holds the example, format, operation mask, opcode mask
+ * and match, and description of one basic instruction, in instruction list
+ * order, so the instructions can be set up without creating their simulation
+ * code. InstructionSet creates that for each instruction the first time it is
+ * executed.
+ * <p>
+ * The table is a build product, like the class files: create-jar.sh and
+ * CreateMarsJar.bat write it for the classes just compiled, and it is not kept
+ * in source control. It records a checksum of the compiled InstructionSet
+ * class, where the instructions are defined, so a table left over from an
+ * earlier compile is not used. Without a usable table InstructionSet creates
+ * every basic instruction itself, at the cost of a slower start.
+ *
+ * @version October 2026
+ */
+public class BasicInstructionTable {
+	/** Name of the table resource, at the root of the class path. */
+	public static final String FILENAME = "BasicInstructions.txt";
+
+	private static final String STAMP_PREFIX = "# definitions ";
+	private static final String[] FORMAT_NAMES = { "R", "I", "I_BRANCH", "J" };
+	private static final BasicInstructionFormat[] FORMATS = { BasicInstructionFormat.R_FORMAT,
+			BasicInstructionFormat.I_FORMAT, BasicInstructionFormat.I_BRANCH_FORMAT,
+			BasicInstructionFormat.J_FORMAT };
+
+	/**
+	 * Reads the basic instructions from the table.
+	 * 
+	 * @param instructionSet
+	 *            the instruction set that will create their simulation code
+	 * @return ArrayList of BasicInstruction, or null if there is no table, it
+	 *         cannot be read, or it was written for other definitions
+	 */
+	static ArrayList read(InstructionSet instructionSet) {
+		// leading "/" prevents package name being prepended to filepath.
+		InputStream is = BasicInstructionTable.class.getResourceAsStream("/" + FILENAME);
+		if (is == null) {
+			return null;
+		}
+		ArrayList instructions = new ArrayList();
+		try {
+			BufferedReader in = new BufferedReader(new InputStreamReader(is, "UTF-8"));
+			String line;
+			boolean current = false;
+			while ((line = in.readLine()) != null) {
+				if (line.startsWith(STAMP_PREFIX)) {
+					String stamp = definitionsStamp();
+					current = stamp != null && stamp.equals(line.substring(STAMP_PREFIX.length()));
+					if (!current) {
+						break;
+					}
+				}
+				if (line.startsWith("#") || line.length() == 0) {
+					continue;
+				}
+				if (!current) {
+					break; // no checksum before the first instruction
+				}
+				String[] fields = line.split("\t", -1);
+				instructions.add(new BasicInstruction(fields[0], fields[5], toFormat(fields[1]), fields[2],
+						(int) Long.parseLong(fields[3], 16), (int) Long.parseLong(fields[4], 16), instructionSet,
+						instructions.size()));
+			}
+			in.close();
+			if (!current) {
+				return null;
+			}
+		} catch (Exception e) {
+			return null;
+		}
+		return instructions;
+	}
+
+	// Checksum of the compiled InstructionSet class, or null if it cannot be
+	// read. It only matches the compile that wrote the table, which is why
+	// the table is generated with the jar rather than checked in.
+	private static String definitionsStamp() {
+		InputStream is = InstructionSet.class.getResourceAsStream("InstructionSet.class");
+		if (is == null) {
+			return null;
+		}
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[8192];
+		try {
+			int count;
+			while ((count = is.read(buffer)) > 0) {
+				crc.update(buffer, 0, count);
+			}
+			is.close();
+		} catch (IOException e) {
+			return null;
+		}
+		return Long.toHexString(crc.getValue());
+	}
+
+	private static BasicInstructionFormat toFormat(String name) {
+		for (int i = 0; i < FORMAT_NAMES.length; i++) {
+			if (FORMAT_NAMES[i].equals(name)) {
+				return FORMATS[i];
+			}
+		}
+		throw new IllegalArgumentException(name);
+	}
+
+	private static String toName(BasicInstructionFormat format) {
+		for (int i = 0; i < FORMATS.length; i++) {
+			if (FORMATS[i] == format) {
+				return FORMAT_NAMES[i];
+			}
+		}
+		throw new IllegalArgumentException();
+	}
+
+	/**
+	 * Writes the table from the basic instructions defined by InstructionSet.
+	 * Run after compiling, from the directory holding the mars package or with
+	 * it on the class path.
+	 * 
+	 * @param args
+	 *            optional directory to write the table into, default the
+	 *            current directory
+	 */
+	public static void main(String[] args) throws Exception {
+		File table = new File((args.length > 0) ? args[0] : ".", FILENAME);
+		InstructionSet instructionSet = new InstructionSet();
+		PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(table), "UTF-8"));
+		out.print("# Basic instructions, generated by mars.mips.instructions.BasicInstructionTable\r\n");
+		out.print("# example, format, operation mask, opcode mask, opcode match, description\r\n");
+		out.print(STAMP_PREFIX + definitionsStamp() + "\r\n");
+		int count = 0;
+		BasicInstruction basic;
+		while ((basic = instructionSet.createBasicInstruction(count)) != null) {
+			out.print(basic.getExampleFormat() + "\t" + toName(basic.getInstructionFormat()) + "\t"
+					+ basic.getOperationMask() + "\t" + Integer.toHexString(basic.getOpcodeMask()) + "\t"
+					+ Integer.toHexString(basic.getOpcodeMatch()) + "\t" + basic.getDescription() + "\r\n");
+			count++;
+		}
+		out.close();
+		System.out.println(table + ": " + count + " instructions");
+	}
+}
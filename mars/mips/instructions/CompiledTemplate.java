@@ -0,0 +1,467 @@
+package mars.mips.instructions;
+
+import mars.*;
+import mars.util.*;
+import mars.assembler.*;
+import mars.mips.hardware.*;
+import java.util.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * A basic instruction template of a pseudo-instruction (see PseudoOps.txt),
+ * taken apart once when the instruction set builds the pseudo-instruction.
+ * The literal parts of the template are tokenized in advance and each
+ * placeholder (RGn, VLn, LAB, etc.) is recorded with the operand it takes its
+ * value from, so that expanding a pseudo-instruction produces the token list
+ * of the generated basic instruction directly, without substituting into the
+ * template text and tokenizing the result.
+ * <p>
+ * The result is the same as ExtendedInstruction.makeTemplateSubstitutions()
+ * followed by tokenizing. Templates that cannot be taken apart this way, and
+ * operand values whose substitution would not yield one token, are left to
+ * that method.
+ * 
+ * @version October 2026
+ */
+public class CompiledTemplate {
+	// Kinds of template element. A placeholder becomes exactly one token.
+	private static final int LITERAL = 0;
+	private static final int OPERAND = 1; // RGn, OPn
+	private static final int LABEL_HIGH = 2; // LHn, LHnPm
+	private static final int LABEL_LOW = 3; // LLn, LLnU, LLnPm
+	private static final int VALUE_HIGH_LOGICAL = 4; // VHLn, VHLnPm
+	private static final int VALUE_HIGH = 5; // VHn, VHnPm
+	private static final int VALUE_LOW = 6; // VLn, VLnU, VLnPm, VLnPmU
+	private static final int LABEL_HIGH_ONLY = 7; // LHL
+	private static final int ADDRESS_HIGH = 8; // LHPA, LHPAPm
+	private static final int ADDRESS_HIGH_UNADJUSTED = 9; // LHPN
+	private static final int ADDRESS_LOW = 10; // LLP, LLPU, LLPPm
+	private static final int BRANCH_OFFSET = 11; // BROFFnm
+	private static final int NEXT_REGISTER = 12; // NRn
+	private static final int SHIFT_32 = 13; // S32
+	private static final int LABEL = 14; // LAB
+
+	private boolean delayedBranchNop;
+	private Element[] elements;
+
+	private CompiledTemplate() {
+	}
+
+	/**
+	 * Takes apart a basic instruction template. Must be called after all
+	 * instructions have been added to the instruction set, since the literal
+	 * parts of the template are tokenized.
+	 * 
+	 * @param template
+	 *            the template, as listed in PseudoOps.txt
+	 * @return the compiled template, or null if the template has to be
+	 *         expanded by ExtendedInstruction.makeTemplateSubstitutions()
+	 */
+	public static CompiledTemplate compile(String template) {
+		CompiledTemplate compiled = new CompiledTemplate();
+		if (template.indexOf("DBNOP") >= 0) {
+			compiled.delayedBranchNop = true;
+			return compiled;
+		}
+		ArrayList list = new ArrayList();
+		int literalStart = 0;
+		int i = 0;
+		while (i < template.length()) {
+			char c = template.charAt(i);
+			if (c == '#' || c == '"' || c == '\'') {
+				return null;
+			}
+			if (c < 'A' || c > 'Z') {
+				i++;
+				continue;
+			}
+			Element placeholder = parsePlaceholder(template, i);
+			if (placeholder == null) {
+				return null;
+			}
+			if (i > 0 && " \t,(".indexOf(template.charAt(i - 1)) < 0 || placeholder.end < template.length()
+					&& " \t,()".indexOf(template.charAt(placeholder.end)) < 0) {
+				return null; // would not be a token of its own
+			}
+			if (!addLiteral(list, template, literalStart, i)) {
+				return null;
+			}
+			list.add(placeholder);
+			literalStart = i = placeholder.end;
+		}
+		if (!addLiteral(list, template, literalStart, template.length()) || !consistent(list)) {
+			return null;
+		}
+		compiled.elements = (Element[]) list.toArray(new Element[list.size()]);
+		for (int e = 1; e < compiled.elements.length; e++) {
+			Element element = compiled.elements[e];
+			if (element.kind == LITERAL && compiled.elements[e - 1].kind != LITERAL) {
+				// tokenized without the placeholder before it
+				char first = element.value.charAt(0);
+				element.signed = first == '+' || first == '-';
+			}
+		}
+		return compiled;
+	}
+
+	/**
+	 * Produces the token list of the basic instruction generated from this
+	 * template for one pseudo-instruction statement.
+	 * 
+	 * @param program
+	 *            MIPSprogram being assembled
+	 * @param theTokenList
+	 *            tokens of the pseudo-instruction statement in basic format,
+	 *            as passed to makeTemplateSubstitutions()
+	 * @param sourceLine
+	 *            source line number for the generated tokens
+	 * @return the token list, which is empty if no instruction is generated,
+	 *         or null if this statement has to be expanded by
+	 *         makeTemplateSubstitutions()
+	 */
+	public TokenList expand(MIPSprogram program, TokenList theTokenList, int sourceLine) {
+		TokenList result = new TokenList();
+		if (delayedBranchNop) {
+			if (Globals.getSettings().getBooleanSetting(Settings.DELAYED_BRANCHING_ENABLED)) {
+				result.add(new Token(TokenTypes.OPERATOR, "nop", null, sourceLine, 1));
+			}
+			return result;
+		}
+		int size = theTokenList.size();
+		int end = 0;
+		TokenTypes previous = null;
+		for (int e = 0; e < elements.length; e++) {
+			Element element = elements[e];
+			int op = element.operand;
+			// placeholders for missing operands are left in place by
+			// makeTemplateSubstitutions(), or make it throw
+			if (op >= size || (element.kind == LABEL_HIGH_ONLY && size <= 2)
+					|| (element.kind >= ADDRESS_HIGH && element.kind <= ADDRESS_LOW && size <= 4)) {
+				return null;
+			}
+			String value = null;
+			TokenTypes type = null;
+			int number = 0;
+			switch (element.kind) {
+			case LITERAL:
+				if (element.signed && previous == TokenTypes.IDENTIFIER) {
+					return null;
+				}
+				value = element.value;
+				type = element.type;
+				break;
+			case OPERAND:
+				value = theTokenList.get(op).getValue();
+				type = theTokenList.get(op).getType();
+				if (!isSingleToken(value, type) || hasUpperCase(value)) {
+					return null;
+				}
+				break;
+			case LABEL_HIGH:
+			case VALUE_HIGH:
+				number = toInt(theTokenList.get(op), element.addend);
+				number = (number >> 16) + Binary.bitValue(number, 15);
+				break;
+			case LABEL_LOW:
+			case VALUE_LOW:
+				number = toInt(theTokenList.get(op), element.addend);
+				number = element.unsigned ? number & 0xffff : number << 16 >> 16;
+				break;
+			case VALUE_HIGH_LOGICAL:
+				number = toInt(theTokenList.get(op), element.addend) >> 16;
+				break;
+			case LABEL_HIGH_ONLY:
+				number = toInt(theTokenList.get(2), 0) >> 16;
+				break;
+			case ADDRESS_HIGH:
+				number = toInt(theTokenList.get(2), theTokenList.get(4), element.addend);
+				number = (number >> 16) + Binary.bitValue(number, 15);
+				break;
+			case ADDRESS_HIGH_UNADJUSTED:
+				number = toInt(theTokenList.get(2), theTokenList.get(4), 0) >> 16;
+				break;
+			case ADDRESS_LOW:
+				number = toInt(theTokenList.get(2), theTokenList.get(4), element.addend);
+				number = element.unsigned ? number & 0xffff : number << 16 >> 16;
+				break;
+			case BRANCH_OFFSET:
+				// first digit if delayed branching is disabled, else second
+				number = Globals.getSettings().getBooleanSetting(Settings.DELAYED_BRANCHING_ENABLED)
+						? element.addend % 10 : element.addend / 10;
+				break;
+			case NEXT_REGISTER:
+				String register = theTokenList.get(op).getValue();
+				Register reg = RegisterFile.getUserRegister(register);
+				if (reg != null) {
+					value = "$" + (reg.getNumber() + 1);
+				} else if (Coprocessor1.getRegisterNumber(register) >= 0) {
+					value = "$f" + (Coprocessor1.getRegisterNumber(register) + 1);
+				} else {
+					return null;
+				}
+				type = TokenTypes.matchTokenType(value);
+				break;
+			case SHIFT_32:
+				number = 32 - toInt(theTokenList.get(size - 1), 0);
+				break;
+			case LABEL:
+				String label = theTokenList.get(size - 1).getValue();
+				Symbol sym = program.getLocalSymbolTable().getSymbolGivenAddressLocalOrGlobal(label);
+				if (sym == null) {
+					return null;
+				}
+				value = sym.getName();
+				type = TokenTypes.matchTokenType(value);
+				if (!isSingleToken(value, type)) {
+					return null;
+				}
+				break;
+			}
+			if (value == null) {
+				value = String.valueOf(number);
+				type = TokenTypes.matchIntegerType(number);
+			}
+			char first = value.charAt(0);
+			if ((first == '+' || first == '-') && previous == TokenTypes.IDENTIFIER) {
+				return null; // would be taken as a binary operator
+			}
+			end += element.gap;
+			result.add(new Token(type, value, null, sourceLine, end + 1));
+			end += value.length();
+			previous = type;
+		}
+		return result;
+	}
+
+	// Recognizes the placeholder starting at the given position, or returns
+	// null if there is none. Longer forms are tried first, in the order in
+	// which makeTemplateSubstitutions() replaces them.
+	private static Element parsePlaceholder(String template, int start) {
+		String rest = template.substring(start);
+		if (rest.startsWith("LHPAP")) {
+			return withDigits(new Element(ADDRESS_HIGH, start, start + 5), template, 1);
+		} else if (rest.startsWith("LHPA")) {
+			return new Element(ADDRESS_HIGH, start, start + 4);
+		} else if (rest.startsWith("LHPN")) {
+			return new Element(ADDRESS_HIGH_UNADJUSTED, start, start + 4);
+		} else if (rest.startsWith("LHL")) {
+			return new Element(LABEL_HIGH_ONLY, start, start + 3);
+		} else if (rest.startsWith("LLPP")) {
+			return withDigits(new Element(ADDRESS_LOW, start, start + 4), template, 1);
+		} else if (rest.startsWith("LLP")) {
+			return withSuffix(new Element(ADDRESS_LOW, start, start + 3), template);
+		} else if (rest.startsWith("BROFF")) {
+			return withDigits(new Element(BRANCH_OFFSET, start, start + 5), template, 2);
+		} else if (rest.startsWith("S32")) {
+			return new Element(SHIFT_32, start, start + 3);
+		} else if (rest.startsWith("LAB")) {
+			return new Element(LABEL, start, start + 3);
+		}
+		Element element;
+		if (rest.startsWith("RG") || rest.startsWith("OP")) {
+			element = new Element(OPERAND, start, start + 2);
+		} else if (rest.startsWith("NR")) {
+			element = new Element(NEXT_REGISTER, start, start + 2);
+		} else if (rest.startsWith("LH")) {
+			element = new Element(LABEL_HIGH, start, start + 2);
+		} else if (rest.startsWith("LL")) {
+			element = new Element(LABEL_LOW, start, start + 2);
+		} else if (rest.startsWith("VHL")) {
+			element = new Element(VALUE_HIGH_LOGICAL, start, start + 3);
+		} else if (rest.startsWith("VH")) {
+			element = new Element(VALUE_HIGH, start, start + 2);
+		} else if (rest.startsWith("VL")) {
+			element = new Element(VALUE_LOW, start, start + 2);
+		} else {
+			return null;
+		}
+		if (element.end == template.length() || !Character.isDigit(template.charAt(element.end))
+				|| template.charAt(element.end) == '0') {
+			return null; // operands 1 to 9 are substituted
+		}
+		element.operand = template.charAt(element.end++) - '0';
+		if (element.kind == OPERAND || element.kind == NEXT_REGISTER) {
+			return element;
+		}
+		if (element.end + 1 < template.length() && template.charAt(element.end) == 'P'
+				&& Character.isDigit(template.charAt(element.end + 1))) {
+			element.plus = true;
+			element.addend = template.charAt(element.end + 1) - '0';
+			element.end += 2;
+			if (element.kind != VALUE_LOW) {
+				return element;
+			}
+		}
+		return (element.kind == LABEL_LOW || element.kind == VALUE_LOW) ? withSuffix(element, template) : element;
+	}
+
+	// Takes the given number of digits following the placeholder name as its
+	// addend.
+	private static Element withDigits(Element element, String template, int digits) {
+		if (element.end + digits > template.length()) {
+			return null;
+		}
+		element.plus = true;
+		for (int i = 0; i < digits; i++) {
+			char c = template.charAt(element.end++);
+			if (!Character.isDigit(c)) {
+				return null;
+			}
+			element.addend = 10 * element.addend + c - '0';
+		}
+		return element;
+	}
+
+	// Takes a U following the placeholder, which asks for an unsigned value.
+	private static Element withSuffix(Element element, String template) {
+		if (element.end < template.length() && template.charAt(element.end) == 'U') {
+			element.unsigned = true;
+			element.end++;
+		}
+		return element;
+	}
+
+	// Tokenizes the literal part of a template, from start to end, and adds
+	// its tokens to the list.
+	private static boolean addLiteral(ArrayList list, String template, int start, int end) {
+		if (start == end) {
+			return true;
+		}
+		ErrorList errors = new ErrorList();
+		TokenList tokens = new Tokenizer().tokenizeLine(0, template.substring(start, end), errors, false);
+		if (errors.errorsOccurred()) {
+			return false;
+		}
+		for (int i = 0; i < tokens.size(); i++) {
+			Token token = tokens.get(i);
+			Element element = new Element(LITERAL, start + token.getStartPos() - 1,
+					start + token.getStartPos() - 1 + token.getValue().length());
+			element.value = token.getValue();
+			element.type = token.getType();
+			list.add(element);
+		}
+		return true;
+	}
+
+	// makeTemplateSubstitutions() replaces every occurrence of the first form
+	// it finds of a placeholder, so a template mixing, say, VL1 and VL1U or
+	// LH1P1 and LH1P2 is left to it. Also works out the gaps between
+	// elements.
+	private static boolean consistent(ArrayList list) {
+		HashMap forms = new HashMap();
+		int labels = 0;
+		int previousEnd = 0;
+		for (int e = 0; e < list.size(); e++) {
+			Element element = (Element) list.get(e);
+			element.gap = element.start - previousEnd;
+			previousEnd = element.end;
+			if (element.kind == LITERAL) {
+				continue;
+			}
+			if (element.kind == LABEL && ++labels > 1) {
+				return false;
+			}
+			String name = element.kind + " " + element.operand + " " + element.plus;
+			String form = element.addend + " " + element.unsigned;
+			String known = (String) forms.put(name, form);
+			if (known != null && !known.equals(form)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Value of an operand plus addend, or 0 if the operand is not a number.
+	private static int toInt(Token token, int addend) {
+		try {
+			return Binary.stringToInt(token.getValue()) + addend;
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	// Sum of two operands plus addend, or 0 if either is not a number.
+	private static int toInt(Token first, Token second, int addend) {
+		try {
+			return Binary.stringToInt(first.getValue()) + Binary.stringToInt(second.getValue()) + addend;
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	// Whether a substituted value would be tokenized as the one token given.
+	private static boolean isSingleToken(String value, TokenTypes type) {
+		if (value.length() == 0 || type == TokenTypes.ERROR) {
+			return false;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (" \t,#():\"'".indexOf(c) >= 0) {
+				return false;
+			}
+			if ((c == '+' || c == '-') && (i > 0 || value.length() == 1 || !Character.isDigit(value.charAt(1)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Whether an operand value could be taken for a placeholder by the
+	// substitutions that follow it in makeTemplateSubstitutions().
+	private static boolean hasUpperCase(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) >= 'A' && value.charAt(i) <= 'Z') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// One token of the generated instruction: a literal, or a placeholder
+	// with the operand its value comes from.
+	private static class Element {
+		private int kind;
+		private int start, end; // in the template
+		private int gap; // characters between this element and the one before
+		private String value; // literal only
+		private TokenTypes type; // literal only
+		private boolean signed; // literal starting with a sign, following a
+								// placeholder
+		private int operand; // placeholder only, 1 to 9
+		private boolean plus; // has digits to add
+		private int addend;
+		private boolean unsigned;
+
+		private Element(int kind, int start, int end) {
+			this.kind = kind;
+			this.start = start;
+			this.end = end;
+		}
+	}
+}
@@ -48,6 +48,7 @@ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
 public class ExtendedInstruction extends Instruction {
 
 	private ArrayList translationStrings, compactTranslationStrings;
+	private ArrayList compiledTranslations, compiledCompactTranslations; // see compileTemplates()
 
 	/**
 	 * Constructor for ExtendedInstruction.
@@ -73,7 +74,6 @@ public class ExtendedInstruction extends Instruction {
 		this.exampleFormat = example;
 		this.description = description;
 		this.mnemonic = this.extractOperator(example);
-		this.createExampleTokenList();
 		this.translationStrings = buildTranslationList(translation);
 		this.compactTranslationStrings = buildTranslationList(compactTranslation);
 	}
@@ -95,7 +95,6 @@ public class ExtendedInstruction extends Instruction {
 		this.exampleFormat = example;
 		this.description = description;
 		this.mnemonic = this.extractOperator(example);
-		this.createExampleTokenList();
 		this.translationStrings = buildTranslationList(translation);
 		this.compactTranslationStrings = null;
 	}
@@ -178,6 +177,43 @@ public class ExtendedInstruction extends Instruction {
 		return compactTranslationStrings;
 	}
 
+	/**
+	 * Get ArrayList of CompiledTemplate objects corresponding to the list of
+	 * templates returned by getBasicIntructionTemplateList(). An element is
+	 * null if its template can only be expanded by
+	 * makeTemplateSubstitutions().
+	 * 
+	 * @return ArrayList of CompiledTemplate, or null if templates have not been
+	 *         compiled.
+	 */
+
+	public ArrayList getCompiledTemplateList() {
+		return compiledTranslations;
+	}
+
+	/**
+	 * Get ArrayList of CompiledTemplate objects corresponding to the list of
+	 * templates returned by getCompactBasicIntructionTemplateList().
+	 * 
+	 * @return ArrayList of CompiledTemplate. Returns null if the instruction
+	 *         does not have a compact alternative.
+	 */
+
+	public ArrayList getCompactCompiledTemplateList() {
+		return compiledCompactTranslations;
+	}
+
+	/**
+	 * Compiles the basic instruction templates, so the assembler does not have
+	 * to substitute into the template text and tokenize the result for every
+	 * statement using this instruction. Called by InstructionSet when it builds
+	 * the instruction.
+	 */
+	void compileTemplates() {
+		compiledTranslations = compileTemplateList(translationStrings);
+		compiledCompactTranslations = compileTemplateList(compactTranslationStrings);
+	}
+
 	/**
 	 * Given a basic instruction template and the list of tokens from an
 	 * extended instruction statement, substitute operands from the token list
@@ -249,6 +285,8 @@ public class ExtendedInstruction extends Instruction {
 	 * otherwise substitute m. n and m are single digit numbers indicating
 	 * constant branch offset (in words). Added in 3.4.1 release.
 	 * </UL>
+	 * The assembler uses the CompiledTemplate for the template when it can,
+	 * which gives the tokens of the same statement.
 	 * 
 	 * @param template
 	 *            a String containing template for basic statement.
@@ -735,6 +773,17 @@ public class ExtendedInstruction extends Instruction {
 		return translationList;
 	}
 
+	private static ArrayList compileTemplateList(ArrayList translationList) {
+		if (translationList == null) {
+			return null;
+		}
+		ArrayList compiledList = new ArrayList();
+		for (int i = 0; i < translationList.size(); i++) {
+			compiledList.add(CompiledTemplate.compile((String) translationList.get(i)));
+		}
+		return compiledList;
+	}
+
 	/*
 	 * Get length in bytes that this extended instruction requires in its binary
 	 * form. The answer depends on how many basic instructions it expands to.
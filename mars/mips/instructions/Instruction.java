@@ -62,7 +62,7 @@ public abstract class Instruction {
 	protected String description;
 	/**
 	 * List of tokens generated by tokenizing example usage (see
-	 * <tt>exampleFormat</tt>).
+	 * <tt>exampleFormat</tt>), when first requested.
 	 **/
 	protected TokenList tokenList;
 
@@ -108,6 +108,9 @@ public abstract class Instruction {
 	 */
 
 	public TokenList getTokenList() {
+		if (tokenList == null) {
+			createExampleTokenList();
+		}
 		return tokenList;
 	}
 
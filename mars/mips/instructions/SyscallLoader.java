@@ -4,6 +4,7 @@ import mars.mips.instructions.syscalls.*;
 import mars.*;
 import mars.util.*;
 import java.util.*;
+import java.lang.reflect.*;
 
 /*
 Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
@@ -45,11 +46,7 @@ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
 
 class SyscallLoader {
 
-	private static final String CLASS_PREFIX = "mars.mips.instructions.syscalls.";
 	private static final String SYSCALLS_DIRECTORY_PATH = "mars/mips/instructions/syscalls";
-	private static final String SYSCALL_INTERFACE = "Syscall.class";
-	private static final String SYSCALL_ABSTRACT = "AbstractSyscall.class";
-	private static final String CLASS_EXTENSION = "class";
 
 	private ArrayList syscallList;
 
@@ -58,42 +55,37 @@ class SyscallLoader {
 	 * the loadGameControllers() method in Bret Barker's GameServer class.
 	 * Barker (bret@hypefiend.com) is co-author of the book "Developing Games in
 	 * Java".  Also see the "loadMarsTools()" method from ToolLoader class.
+	 *
+	 * The syscalls that come with MARS are listed in an index generated at
+	 * build time (see ServiceIndex). The syscalls directory is still searched,
+	 * for syscalls the user has added to it, but only the classes not in the
+	 * index are loaded to check them. Called the first time a syscall is
+	 * looked up, so programs are assembled without loading any of them.
 	 */
 	void loadSyscalls() {
 		syscallList = new ArrayList();
-		// grab all class files in the same directory as Syscall
-		ArrayList candidates = FilenameFinder.getFilenameList(this.getClass().getClassLoader(), SYSCALLS_DIRECTORY_PATH,
-				CLASS_EXTENSION);
-		HashMap syscalls = new HashMap();
-		for (int i = 0; i < candidates.size(); i++) {
-			String file = (String) candidates.get(i);
-			// Do not add class if already encountered (happens if run in MARS
-			// development directory)
-			if (syscalls.containsKey(file)) {
-				continue;
-			} else {
-				syscalls.put(file, file);
-			}
-			if ((!file.equals(SYSCALL_INTERFACE)) && (!file.equals(SYSCALL_ABSTRACT))) {
-				try {
-					// grab the class, make sure it implements Syscall,
-					// instantiate, add to list
-					String syscallClassName = CLASS_PREFIX + file.substring(0, file.indexOf(CLASS_EXTENSION) - 1);
-					Class clas = Class.forName(syscallClassName);
-					if (!Syscall.class.isAssignableFrom(clas)) {
-						continue;
-					}
-					Syscall syscall = (Syscall) clas.newInstance();
-					if (findSyscall(syscall.getNumber()) == null) {
-						syscallList.add(syscall);
-					} else {
-						throw new Exception("Duplicate service number: " + syscall.getNumber()
-								+ " already registered to " + findSyscall(syscall.getNumber()).getName());
-					}
-				} catch (Exception e) {
-					System.out.println("Error instantiating Syscall from file " + file + ": " + e);
-					System.exit(0);
+		ArrayList classNames = ServiceIndex.getClassNames(this.getClass().getClassLoader(), Syscall.class,
+				SYSCALLS_DIRECTORY_PATH);
+		for (int i = 0; i < classNames.size(); i++) {
+			String syscallClassName = (String) classNames.get(i);
+			try {
+				// grab the class, make sure it implements Syscall,
+				// instantiate, add to list
+				Class clas = Class.forName(syscallClassName);
+				if (!Syscall.class.isAssignableFrom(clas) || Modifier.isAbstract(clas.getModifiers())
+						|| Modifier.isInterface(clas.getModifiers())) {
+					continue;
+				}
+				Syscall syscall = (Syscall) clas.newInstance();
+				if (findSyscall(syscall.getNumber()) == null) {
+					syscallList.add(syscall);
+				} else {
+					throw new Exception("Duplicate service number: " + syscall.getNumber()
+							+ " already registered to " + findSyscall(syscall.getNumber()).getName());
 				}
+			} catch (Exception e) {
+				System.out.println("Error instantiating Syscall " + syscallClassName + ": " + e);
+				System.exit(0);
 			}
 		}
 		syscallList = processSyscallNumberOverrides(syscallList);
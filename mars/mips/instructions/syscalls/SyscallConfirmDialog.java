@@ -61,17 +61,8 @@ public class SyscallConfirmDialog extends AbstractSyscall {
 
 		String message = new String(); // = "";
 		int byteAddress = RegisterFile.getValue(4);
-		char ch[] = { ' ' }; // Need an array to convert to String
 		try {
-			ch[0] = (char) Globals.memory.getByte(byteAddress);
-			while (ch[0] != 0) // only uses single location ch[0]
-			{
-				message = message.concat(new String(ch)); // parameter to String
-															// constructor is a
-															// char[] array
-				byteAddress++;
-				ch[0] = (char) Globals.memory.getByte(byteAddress);
-			}
+			message = Globals.memory.readNullTerminatedString(byteAddress);
 		} catch (AddressErrorException e) {
 			throw new ProcessingException(statement, e);
 		}
@@ -81,7 +72,11 @@ public class SyscallConfirmDialog extends AbstractSyscall {
 		// 0 ---> meaning Yes
 		// 1 ---> meaning No
 		// 2 ---> meaning Cancel
-		RegisterFile.updateRegister(4, JOptionPane.showConfirmDialog(null, message));
+		Integer answer = InputLog.nextInteger();
+		if (answer == null) {
+			answer = Integer.valueOf(InputLog.record(JOptionPane.showConfirmDialog(null, message)));
+		}
+		RegisterFile.updateRegister(4, answer.intValue());
 
 	}
 
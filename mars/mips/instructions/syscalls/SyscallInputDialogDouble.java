@@ -65,17 +65,8 @@ public class SyscallInputDialogDouble extends AbstractSyscall {
 
 		String message = new String(); // = "";
 		int byteAddress = RegisterFile.getValue(4);
-		char ch[] = { ' ' }; // Need an array to convert to String
 		try {
-			ch[0] = (char) Globals.memory.getByte(byteAddress);
-			while (ch[0] != 0) // only uses single location ch[0]
-			{
-				message = message.concat(new String(ch)); // parameter to String
-															// constructor is a
-															// char[] array
-				byteAddress++;
-				ch[0] = (char) Globals.memory.getByte(byteAddress);
-			}
+			message = Globals.memory.readNullTerminatedString(byteAddress);
 		} catch (AddressErrorException e) {
 			throw new ProcessingException(statement, e);
 		}
@@ -85,7 +76,10 @@ public class SyscallInputDialogDouble extends AbstractSyscall {
 		// An empty string returned (that is, inputValue.length() of zero)
 		// means that OK was chosen but no string was input.
 		String inputValue = null;
-		inputValue = JOptionPane.showInputDialog(message);
+		inputValue = InputLog.nextString();
+		if (!InputLog.isReplaying()) {
+			inputValue = InputLog.record(JOptionPane.showInputDialog(message));
+		}
 
 		try {
 			Coprocessor1.setRegisterPairToDouble(0, 0.0); // set $f0 to zero
@@ -64,17 +64,8 @@ public class SyscallInputDialogInt extends AbstractSyscall {
 
 		String message = new String(); // = "";
 		int byteAddress = RegisterFile.getValue(4);
-		char ch[] = { ' ' }; // Need an array to convert to String
 		try {
-			ch[0] = (char) Globals.memory.getByte(byteAddress);
-			while (ch[0] != 0) // only uses single location ch[0]
-			{
-				message = message.concat(new String(ch)); // parameter to String
-															// constructor is a
-															// char[] array
-				byteAddress++;
-				ch[0] = (char) Globals.memory.getByte(byteAddress);
-			}
+			message = Globals.memory.readNullTerminatedString(byteAddress);
 		} catch (AddressErrorException e) {
 			throw new ProcessingException(statement, e);
 		}
@@ -84,7 +75,10 @@ public class SyscallInputDialogInt extends AbstractSyscall {
 		// An empty string returned (that is, inputValue.length() of zero)
 		// means that OK was chosen but no string was input.
 		String inputValue = null;
-		inputValue = JOptionPane.showInputDialog(message);
+		inputValue = InputLog.nextString();
+		if (!InputLog.isReplaying()) {
+			inputValue = InputLog.record(JOptionPane.showInputDialog(message));
+		}
 		if (inputValue == null) // Cancel was chosen
 		{
 			RegisterFile.updateRegister(4, 0); // set $a0 to zero
@@ -66,17 +66,8 @@ public class SyscallInputDialogString extends AbstractSyscall {
 		String message = new String(); // = "";
 		int byteAddress = RegisterFile.getValue(4); // byteAddress of string is
 													// in $a0
-		char ch[] = { ' ' }; // Need an array to convert to String
 		try {
-			ch[0] = (char) Globals.memory.getByte(byteAddress);
-			while (ch[0] != 0) // only uses single location ch[0]
-			{
-				message = message.concat(new String(ch)); // parameter to String
-															// constructor is a
-															// char[] array
-				byteAddress++;
-				ch[0] = (char) Globals.memory.getByte(byteAddress);
-			}
+			message = Globals.memory.readNullTerminatedString(byteAddress);
 		} catch (AddressErrorException e) {
 			throw new ProcessingException(statement, e);
 		}
@@ -86,7 +77,10 @@ public class SyscallInputDialogString extends AbstractSyscall {
 		// An empty string returned (that is, inputString.length() of zero)
 		// means that OK was chosen but no string was input.
 		String inputString = null;
-		inputString = JOptionPane.showInputDialog(message);
+		inputString = InputLog.nextString();
+		if (!InputLog.isReplaying()) {
+			inputString = InputLog.record(JOptionPane.showInputDialog(message));
+		}
 		byteAddress = RegisterFile.getValue(5); // byteAddress of string is in
 												// $a1
 		int maxLength = RegisterFile.getValue(6); // input buffer size for input
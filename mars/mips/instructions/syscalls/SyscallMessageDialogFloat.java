@@ -60,21 +60,15 @@ public class SyscallMessageDialogFloat extends AbstractSyscall {
 
 		String message = new String(); // = "";
 		int byteAddress = RegisterFile.getValue(4);
-		char ch[] = { ' ' }; // Need an array to convert to String
 		try {
-			ch[0] = (char) Globals.memory.getByte(byteAddress);
-			while (ch[0] != 0) // only uses single location ch[0]
-			{
-				message = message.concat(new String(ch)); // parameter to String
-															// constructor is a
-															// char[] array
-				byteAddress++;
-				ch[0] = (char) Globals.memory.getByte(byteAddress);
-			}
+			message = Globals.memory.readNullTerminatedString(byteAddress);
 		} catch (AddressErrorException e) {
 			throw new ProcessingException(statement, e);
 		}
 
+		if (InputLog.isReexecuting()) {
+			return; // already shown the first time through
+		}
 		// Display the dialog.
 		JOptionPane.showMessageDialog(null, message + Float.toString(Coprocessor1.getFloatFromRegister("$f12")), null,
 				JOptionPane.INFORMATION_MESSAGE);
@@ -81,6 +81,9 @@ public class SyscallMidiOutSync extends AbstractSyscall {
 	 * javax.sound.midi; actual MIDI instruments use the range 1-128.
 	 */
 	public void simulate(ProgramStatement statement) throws ProcessingException {
+		if (InputLog.isReexecuting()) {
+			return; // already played the first time through
+		}
 		int pitch = RegisterFile.getValue(4); // $a0
 		int duration = RegisterFile.getValue(5); // $a1
 		int instrument = RegisterFile.getValue(6); // $a2
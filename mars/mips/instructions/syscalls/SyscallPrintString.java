@@ -51,15 +51,9 @@ public class SyscallPrintString extends AbstractSyscall {
 	 */
 	public void simulate(ProgramStatement statement) throws ProcessingException {
 		int byteAddress = RegisterFile.getValue(4);
-		char ch = 0;
 		try {
-			ch = (char) Globals.memory.getByte(byteAddress);
 			// won't stop until NULL byte reached!
-			while (ch != 0) {
-				SystemIO.printString(new Character(ch).toString());
-				byteAddress++;
-				ch = (char) Globals.memory.getByte(byteAddress);
-			}
+			SystemIO.printString(Globals.memory.readNullTerminatedString(byteAddress));
 		} catch (AddressErrorException e) {
 			throw new ProcessingException(statement, e);
 		}
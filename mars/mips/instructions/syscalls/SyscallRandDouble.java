@@ -64,8 +64,10 @@ public class SyscallRandDouble extends AbstractSyscall {
 			stream = new Random(); // create a non-seeded stream
 			RandomStreams.randomStreams.put(index, stream);
 		}
+		Double replayed = InputLog.nextDouble();
 		try {
-			Coprocessor1.setRegisterPairToDouble(0, stream.nextDouble());
+			Coprocessor1.setRegisterPairToDouble(0,
+					(replayed != null) ? replayed.doubleValue() : InputLog.record(stream.nextDouble()));
 		} catch (InvalidRegisterAccessException e) { // register ID error in
 														// this method
 			throw new ProcessingException(statement,
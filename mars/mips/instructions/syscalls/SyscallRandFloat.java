@@ -64,6 +64,8 @@ public class SyscallRandFloat extends AbstractSyscall {
 			stream = new Random(); // create a non-seeded stream
 			RandomStreams.randomStreams.put(index, stream);
 		}
-		Coprocessor1.setRegisterToFloat(0, stream.nextFloat());
+		Double replayed = InputLog.nextDouble();
+		Coprocessor1.setRegisterToFloat(0,
+				(replayed != null) ? replayed.floatValue() : (float) InputLog.record(stream.nextFloat()));
 	}
 }
\ No newline at end of file
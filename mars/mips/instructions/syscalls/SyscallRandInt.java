@@ -63,7 +63,8 @@ public class SyscallRandInt extends AbstractSyscall {
 			stream = new Random(); // create a non-seeded stream
 			RandomStreams.randomStreams.put(index, stream);
 		}
-		RegisterFile.updateRegister(4, stream.nextInt());
+		Integer replayed = InputLog.nextInteger();
+		RegisterFile.updateRegister(4, (replayed != null) ? replayed.intValue() : InputLog.record(stream.nextInt()));
 	}
 
 }
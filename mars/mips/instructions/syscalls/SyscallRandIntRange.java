@@ -67,8 +67,11 @@ public class SyscallRandIntRange extends AbstractSyscall {
 			stream = new Random(); // create a non-seeded stream
 			RandomStreams.randomStreams.put(index, stream);
 		}
+		int upperBound = RegisterFile.getValue(5);
+		Integer replayed = (upperBound > 0) ? InputLog.nextInteger() : null;
 		try {
-			RegisterFile.updateRegister(4, stream.nextInt(RegisterFile.getValue(5)));
+			RegisterFile.updateRegister(4,
+					(replayed != null) ? replayed.intValue() : InputLog.record(stream.nextInt(upperBound)));
 		} catch (IllegalArgumentException iae) {
 			throw new ProcessingException(statement,
 					"Upper bound of range cannot be negative (syscall " + this.getNumber() + ")",
@@ -58,6 +58,9 @@ public class SyscallRandSeed extends AbstractSyscall {
 		// Result: No values are returned. Sets the seed of the underlying Java
 		// pseudorandom number generator.
 
+		if (InputLog.isReplaying()) {
+			return; // numbers drawn while replaying come from the log
+		}
 		Integer index = new Integer(RegisterFile.getValue(4));
 		Random stream = (Random) RandomStreams.randomStreams.get(index);
 		if (stream == null) {
@@ -57,8 +57,6 @@ public class SyscallRead extends AbstractSyscall {
 	public void simulate(ProgramStatement statement) throws ProcessingException {
 		int byteAddress = RegisterFile.getValue(5); // destination of characters
 													// read from file
-		byte b = 0;
-		int index = 0;
 		byte myBuffer[] = new byte[RegisterFile.getValue(6)]; // specified
 																// length
 		// Call to SystemIO.xxxx.read(xxx,xxx,xxx) returns actual length
@@ -80,9 +78,7 @@ public class SyscallRead extends AbstractSyscall {
 		 */
 		// copy bytes from returned buffer into MARS memory
 		try {
-			while (index < retLength) {
-				Globals.memory.setByte(byteAddress++, myBuffer[index++]);
-			}
+			Globals.memory.writeBytes(byteAddress, myBuffer, 0, retLength);
 		} catch (AddressErrorException e) {
 			throw new ProcessingException(statement, e);
 		}
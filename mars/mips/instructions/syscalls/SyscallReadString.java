@@ -64,16 +64,21 @@ public class SyscallReadString extends AbstractSyscall {
 		}
 		inputString = SystemIO.readString(this.getNumber(), maxLength);
 		int stringLength = Math.min(maxLength, inputString.length());
+		// Assemble the complete result, then store it with one bulk write.
+		byte[] bytes = new byte[stringLength + 2];
+		for (int index = 0; index < stringLength; index++) {
+			bytes[index] = (byte) inputString.charAt(index);
+		}
+		if (stringLength < maxLength) {
+			bytes[stringLength] = '\n';
+			stringLength++;
+		}
+		if (addNullByte) {
+			bytes[stringLength] = 0;
+			stringLength++;
+		}
 		try {
-			for (int index = 0; index < stringLength; index++) {
-				Globals.memory.setByte(buf + index, inputString.charAt(index));
-			}
-			if (stringLength < maxLength) {
-				Globals.memory.setByte(buf + stringLength, '\n');
-				stringLength++;
-			}
-			if (addNullByte)
-				Globals.memory.setByte(buf + stringLength, 0);
+			Globals.memory.writeBytes(buf, bytes, 0, stringLength);
 		} catch (AddressErrorException e) {
 			throw new ProcessingException(statement, e);
 		}
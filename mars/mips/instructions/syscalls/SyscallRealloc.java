@@ -0,0 +1,70 @@
+package mars.mips.instructions.syscalls;
+
+import mars.util.*;
+import mars.simulator.*;
+import mars.mips.hardware.*;
+import mars.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Service to resize the heap block whose address is in $a0 to the size in $a1,
+ * putting the (possibly moved) block address into $v0.
+ *
+ */
+
+public class SyscallRealloc extends AbstractSyscall {
+	/**
+	 * Build an instance of the Realloc syscall. Default service number is 63
+	 * and name is "Realloc".
+	 */
+	public SyscallRealloc() {
+		super(63, "Realloc");
+	}
+
+	/**
+	 * Performs syscall function to resize the heap block whose address is in
+	 * $a0 to at least the number of bytes in $a1. Contents are preserved up to
+	 * the smaller of the two sizes. If $a0 is 0 this is the same as Malloc; if
+	 * $a1 is 0 the block is freed and $v0 is set to 0. If the heap is exhausted
+	 * $v0 is set to 0 and the original block is left intact.
+	 */
+	public void simulate(ProgramStatement statement) throws ProcessingException {
+		int address = 0;
+		try {
+			address = Globals.memory.getHeapAllocator().realloc(RegisterFile.getValue(4), RegisterFile.getValue(5));
+		} catch (IllegalArgumentException iae) {
+			throw new ProcessingException(statement, iae.getMessage() + " (syscall " + this.getNumber() + ")",
+					Exceptions.SYSCALL_EXCEPTION);
+		} catch (AddressErrorException e) {
+			throw new ProcessingException(statement, e);
+		}
+		RegisterFile.updateRegister(2, address);
+	}
+
+}
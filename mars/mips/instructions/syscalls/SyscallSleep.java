@@ -57,6 +57,9 @@ public class SyscallSleep extends AbstractSyscall {
 	public void simulate(ProgramStatement statement) throws ProcessingException {
 		// Input arguments: $a0 is the length of time to sleep in milliseconds.
 
+		if (InputLog.isReplaying()) {
+			return; // no need to wait again
+		}
 		try {
 			Thread.sleep(RegisterFile.getValue(4)); // units of milliseconds
 													// 1000 millisec = 1 sec.
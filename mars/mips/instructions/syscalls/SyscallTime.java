@@ -51,7 +51,8 @@ public class SyscallTime extends AbstractSyscall {
 	 * order 32 bits) and $a1 (high order 32 bits).
 	 */
 	public void simulate(ProgramStatement statement) throws ProcessingException {
-		long value = new java.util.Date().getTime();
+		Long replayed = InputLog.nextLong();
+		long value = (replayed != null) ? replayed.longValue() : InputLog.record(new java.util.Date().getTime());
 		RegisterFile.updateRegister(4, Binary.lowOrderLongToInt(value)); // $a0
 		RegisterFile.updateRegister(5, Binary.highOrderLongToInt(value)); // $a1
 	}
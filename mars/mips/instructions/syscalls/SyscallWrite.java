@@ -58,26 +58,15 @@ public class SyscallWrite extends AbstractSyscall {
 	public void simulate(ProgramStatement statement) throws ProcessingException {
 		int byteAddress = RegisterFile.getValue(5); // source of characters to
 													// write to file
-		byte b = 0;
 		int reqLength = RegisterFile.getValue(6); // user-requested length
-		int index = 0;
 		byte myBuffer[] = new byte[RegisterFile.getValue(6) + 1]; // specified
 																	// length
 																	// plus null
 																	// termination
 		try {
-			b = (byte) Globals.memory.getByte(byteAddress);
-			while (index < reqLength) // Stop at requested length. Null bytes
-										// are included.
-			// while (index < reqLength && b != 0) // Stop at requested length
-			// OR null byte
-			{
-				myBuffer[index++] = b;
-				byteAddress++;
-				b = (byte) Globals.memory.getByte(byteAddress);
-			}
-
-			myBuffer[index] = 0; // Add string termination
+			// Stop at requested length. Null bytes are included.
+			Globals.memory.readBytes(byteAddress, myBuffer, 0, reqLength);
+			myBuffer[Math.max(reqLength, 0)] = 0; // Add string termination
 		} // end try
 		catch (AddressErrorException e) {
 			throw new ProcessingException(statement, e);
@@ -4,7 +4,9 @@ import mars.*;
 import mars.venus.*;
 import mars.mips.hardware.*;
 import mars.mips.instructions.*;
+import mars.util.Binary;
 import java.util.*;
+import javax.swing.SwingUtilities;
 
 /*
 Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
@@ -43,8 +45,8 @@ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
 
 public class BackStepper {
 	// The types of "undo" actions. Under 1.5, these would be enumerated type.
-	// These fit better in the BackStep class below but inner classes cannot
-	// have static members.
+	// These fit better in the BackstepStack class below but inner classes
+	// cannot have static members.
 	private static final int MEMORY_RESTORE_RAW_WORD = 0;
 	private static final int MEMORY_RESTORE_WORD = 1;
 	private static final int MEMORY_RESTORE_HALF = 2;
@@ -57,12 +59,17 @@ public class BackStepper {
 	private static final int COPROC1_CONDITION_SET = 9;
 	private static final int DO_NOTHING = 10; // instruction does not write
 												// anything.
-
-	// Flag to mark BackStep object as prepresenting specific situation: user
-	// manipulates
-	// memory/register value via GUI after assembling program but before running
-	// it.
-	private static final int NOT_PC_VALUE = -1;
+	private static final int MEMORY_RESTORE_BYTES = 11;
+	private static final int COPROC1_PAIR_RESTORE = 12;
+	private static final int HEAP_RESTORE = 13;
+	private static final int BREAKPOINT_HITS_RESTORE = 14;
+
+	// Bits of a back step's flags.
+	private static final int IN_DELAY_SLOT = 1; // instruction executed in
+												// "delay slot" (delayed
+												// branching enabled)
+	private static final int INSTRUCTION_END = 2; // last back step of its
+													// instruction
 
 	private boolean engaged;
 	private BackstepStack backSteps;
@@ -81,6 +88,25 @@ public class BackStepper {
 	public BackStepper() {
 		engaged = true;
 		backSteps = new BackstepStack(Globals.maximumBacksteps);
+		if (Globals.backstepJournalMegabytes > 0) {
+			backSteps.journal = new BackstepJournal(Globals.backstepJournalMegabytes * 1024L * 1024L);
+		}
+	}
+
+	/**
+	 * Discard all recorded steps and release any files holding them. Called
+	 * when this BackStepper is being replaced.
+	 */
+	public void close() {
+		backSteps.clear();
+	}
+
+	/**
+	 * Discard all recorded steps. Called when the machine state has been
+	 * replaced wholesale, as by reverse execution, so they no longer apply.
+	 */
+	public void clear() {
+		backSteps.clear();
 	}
 
 	/**
@@ -121,7 +147,7 @@ public class BackStepper {
 	 */
 	// Added 25 June 2007
 	public boolean inDelaySlot() {
-		return !empty() && backSteps.peek().inDelaySlot;
+		return !empty() && (backSteps.flags[backSteps.peek()] & IN_DELAY_SLOT) != 0;
 	}
 
 	/**
@@ -138,55 +164,93 @@ public class BackStepper {
 	// Both must be undone transparently, so we need to detect that multiple
 	// steps happen
 	// together and carry out all of them here.
-	// Use a do-while loop based on the backstep's program statement reference.
+	// Use a do-while loop based on the backstep's program counter value; the
+	// back steps of one instruction share it, and the last one is also marked
+	// with INSTRUCTION_END so repeated executions of the same instruction stay
+	// apart. An instruction that writes nothing has no back step of its own:
+	// addDoNothing() counts it in a DO_NOTHING entry covering a run of such
+	// instructions at consecutive addresses, which is undone one at a time.
 
 	public void backStep() {
 		if (engaged && !backSteps.empty()) {
-			ProgramStatement statement = ((BackStep) backSteps.peek()).ps;
 			engaged = false; // GOTTA DO THIS SO METHOD CALL IN SWITCH WILL NOT
 								// RESULT IN NEW ACTION ON STACK!
+			BackstepStack s = backSteps;
+			int step = s.peek();
+			int pc = s.pcs[step];
+			// The statement is looked up here rather than when the step was
+			// recorded. No statement means memory or registers were changed
+			// through the GUI before the program started; the action will not
+			// be associated with any instruction, but will be carried out.
+			boolean hasStatement = isStatementAddress(pc);
+			if (s.actions[step] == DO_NOTHING && s.params1[step] > 1) {
+				// Last of a run of instructions that wrote nothing.
+				s.params1[step]--;
+				if (hasStatement) {
+					RegisterFile.setProgramCounter(pc + s.params1[step] * Instruction.INSTRUCTION_LENGTH);
+				}
+				engaged = true;
+				steppedBack(hasStatement);
+				return;
+			}
 			do {
-				BackStep step = (BackStep) backSteps.pop();
+				step = s.pop();
 				/*
-				 * System.out.println("backstep POP: action "+step.action+" pc "
-				 * +mars.util.Binary.intToHexString(step.pc)+
-				 * " source "+((step.ps==null)? "none":step.ps.getSource())+
-				 * " parm1 "+step.param1+" parm2 "+step.param2);
+				 * System.out.println("backstep POP: action "+s.actions[step]+
+				 * " pc "+mars.util.Binary.intToHexString(s.pcs[step])+
+				 * " parm1 "+s.params1[step]+" parm2 "+s.params2[step]);
 				 */
-				if (step.pc != NOT_PC_VALUE) {
-					RegisterFile.setProgramCounter(step.pc);
+				if (hasStatement) {
+					RegisterFile.setProgramCounter(pc);
 				}
 				try {
-					switch (step.action) {
+					switch (s.actions[step]) {
 					case MEMORY_RESTORE_RAW_WORD:
-						Globals.memory.setRawWord(step.param1, step.param2);
+						Globals.memory.setRawWord(s.params1[step], s.params2[step]);
 						break;
 					case MEMORY_RESTORE_WORD:
-						Globals.memory.setWord(step.param1, step.param2);
+						Globals.memory.setWord(s.params1[step], s.params2[step]);
 						break;
 					case MEMORY_RESTORE_HALF:
-						Globals.memory.setHalf(step.param1, step.param2);
+						Globals.memory.setHalf(s.params1[step], s.params2[step]);
 						break;
 					case MEMORY_RESTORE_BYTE:
-						Globals.memory.setByte(step.param1, step.param2);
+						Globals.memory.setByte(s.params1[step], s.params2[step]);
+						break;
+					case MEMORY_RESTORE_BYTES:
+						byte[] values = s.bytes[step];
+						s.bytes[step] = null;
+						Globals.memory.writeBytes(s.params1[step], values, 0, values.length);
+						break;
+					case HEAP_RESTORE:
+						Globals.memory.getHeapAllocator().undo(s.bytes[step]);
+						s.bytes[step] = null;
+						break;
+					case BREAKPOINT_HITS_RESTORE:
+						Simulator.getInstance().getBreakpointConditions().restoreHits(s.params1[step],
+								s.params2[step]);
 						break;
 					case REGISTER_RESTORE:
-						RegisterFile.updateRegister(step.param1, step.param2);
+						RegisterFile.updateRegister(s.params1[step], s.params2[step]);
 						break;
 					case PC_RESTORE:
-						RegisterFile.setProgramCounter(step.param1);
+						RegisterFile.setProgramCounter(s.params1[step]);
 						break;
 					case COPROC0_REGISTER_RESTORE:
-						Coprocessor0.updateRegister(step.param1, step.param2);
+						Coprocessor0.updateRegister(s.params1[step], s.params2[step]);
 						break;
 					case COPROC1_REGISTER_RESTORE:
-						Coprocessor1.updateRegister(step.param1, step.param2);
+						Coprocessor1.updateRegister(s.params1[step], s.params2[step]);
+						break;
+					case COPROC1_PAIR_RESTORE:
+						Coprocessor1.updateRegisterPair(s.params1[step],
+								Binary.twoIntsToLong(s.params3[step], s.params2[step]));
 						break;
 					case COPROC1_CONDITION_CLEAR:
-						Coprocessor1.clearConditionFlag(step.param1);
+						Coprocessor1.clearConditionFlag(s.params1[step]);
 						break;
 					case COPROC1_CONDITION_SET:
-						Coprocessor1.setConditionFlag(step.param1);
+						Coprocessor1.setConditionFlag(s.params1[step]);
 						break;
 					case DO_NOTHING:
 						break;
@@ -197,9 +261,37 @@ public class BackStepper {
 					System.out.println("Internal MARS error: address exception while back-stepping.");
 					System.exit(0);
 				}
-			} while (!backSteps.empty() && statement == ((BackStep) backSteps.peek()).ps);
+			} while (!s.empty() && (s.flags[s.peek()] & INSTRUCTION_END) == 0 && s.pcs[s.peek()] == pc);
 			engaged = true; // RESET IT (was disabled at top of loop -- see
 							// comment)
+			steppedBack(hasStatement);
+		}
+	}
+
+	// An instruction has been undone; reverse execution counts instructions
+	// and tools may keep state of their own that must be undone with it.
+	private void steppedBack(boolean instructionUndone) {
+		if (!instructionUndone) {
+			return;
+		}
+		ReverseExecution reverse = Globals.program.getReverseExecution();
+		if (reverse != null) {
+			reverse.steppedBack();
+		}
+		Simulator.getInstance().notifyObserversOfBackstep(1);
+	}
+
+	/*
+	 * Determine whether a statement can be fetched from the given address,
+	 * which is the case for any program counter value recorded during
+	 * execution.
+	 */
+	private boolean isStatementAddress(int address) {
+		try {
+			Globals.memory.getStatementNoNotify(address);
+			return true;
+		} catch (AddressErrorException e) {
+			return false;
 		}
 	}
 
@@ -275,6 +367,52 @@ public class BackStepper {
 		return value;
 	}
 
+	/**
+	 * Add a new "back step" (the undo action) to the stack. The action here is
+	 * to restore a range of memory bytes, as written by Memory.writeBytes().
+	 * 
+	 * @param address
+	 *            The lowest affected memory address.
+	 * @param values
+	 *            The "restore" values to be stored there, one per byte.
+	 * @return the argument values
+	 */
+	public byte[] addMemoryRestoreBytes(int address, byte[] values) {
+		backSteps.push(MEMORY_RESTORE_BYTES, pc(), address, values);
+		return values;
+	}
+
+	/**
+	 * Add a new "back step" (the undo action) to the stack. The action here is
+	 * to undo the changes one malloc, free, calloc or realloc made to the heap
+	 * allocator (HeapAllocator.undo).
+	 * 
+	 * @param changes
+	 *            The changes, as recorded by the allocator.
+	 * @return the argument changes
+	 */
+	public byte[] addHeapRestore(byte[] changes) {
+		backSteps.push(HEAP_RESTORE, pc(), 0, changes);
+		return changes;
+	}
+
+	/**
+	 * Add a new "back step" (the undo action) to the stack. The action here is
+	 * to restore the hit count of a breakpoint. The simulator counts a hit
+	 * once the instruction before it has executed, so the back step is added
+	 * to that instruction.
+	 * 
+	 * @param address
+	 *            The breakpoint address.
+	 * @param hits
+	 *            The "restore" hit count.
+	 * @return the argument hits
+	 */
+	public int addBreakpointHitsRestore(int address, int hits) {
+		backSteps.pushIntoLastInstruction(BREAKPOINT_HITS_RESTORE, address, hits);
+		return hits;
+	}
+
 	/**
 	 * Add a new "back step" (the undo action) to the stack. The action here is
 	 * to restore a register file register value.
@@ -304,7 +442,13 @@ public class BackStepper {
 		// Use "value" insead of "pc()" for second arg because
 		// RegisterFile.getProgramCounter()
 		// returns branch target address at this point.
-		backSteps.push(PC_RESTORE, value, value);
+		if (Simulator.inDelaySlot()) {
+			// Delayed branch taking effect after its delay slot instruction
+			// executed (and was marked as ended); undo the two together.
+			backSteps.pushIntoInstruction(PC_RESTORE, value, value);
+		} else {
+			backSteps.push(PC_RESTORE, value, value);
+		}
 		return value;
 	}
 
@@ -338,6 +482,23 @@ public class BackStepper {
 		return value;
 	}
 
+	/**
+	 * Add a new "back step" (the undo action) to the stack. The action here is
+	 * to restore both registers of a coprocessor 1 even/odd register pair,
+	 * written together by a double precision instruction.
+	 * 
+	 * @param register
+	 *            The even-numbered register of the pair.
+	 * @param value
+	 *            The 64 bit "restore" value to be stored there.
+	 * @return the argument value
+	 */
+	public long addCoprocessor1PairRestore(int register, long value) {
+		backSteps.push(COPROC1_PAIR_RESTORE, pc(), register, Binary.lowOrderLongToInt(value),
+				Binary.highOrderLongToInt(value));
+		return value;
+	}
+
 	/**
 	 * Add a new "back step" (the undo action) to the stack. The action here is
 	 * to set the given coprocessor 1 condition flag (to 1).
@@ -365,73 +526,20 @@ public class BackStepper {
 	}
 
 	/**
-	 * Add a new "back step" (the undo action) to the stack. The action here is
-	 * to do nothing! This is just a place holder so when user is backstepping
-	 * through the program no instructions will be skipped. Cosmetic. If the top
-	 * of the stack has the same PC counter, the do-nothing action will not be
-	 * added.
+	 * Record the end of an instruction's execution. If the instruction added
+	 * back steps, its last one is marked as such. Otherwise it gets a
+	 * do-nothing action, so when user is backstepping through the program no
+	 * instructions will be skipped. Cosmetic. The do-nothing action of an
+	 * instruction that directly follows another do-nothing instruction is not
+	 * added; the existing one is extended to cover both.
 	 * 
 	 * @return 0
 	 */
 	public int addDoNothing(int pc) {
-		if (backSteps.empty() || backSteps.peek().pc != pc) {
-			backSteps.push(DO_NOTHING, pc);
-		}
+		backSteps.endInstruction(pc, Simulator.inDelaySlot());
 		return 0;
 	}
 
-	// Represents a "back step" (undo action) on the stack.
-	private class BackStep {
-		private int action; // what do do MEMORY_RESTORE_WORD, etc
-		private int pc; // program counter value when original step occurred
-		private ProgramStatement ps; // statement whose action is being "undone"
-										// here
-		private int param1; // first parameter required by that action
-		private int param2; // optional second parameter required by that action
-		private boolean inDelaySlot; // true if instruction executed in "delay
-										// slot" (delayed branching enabled)
-
-		// it is critical that BackStep object get its values by calling this
-		// method
-		// rather than assigning to individual members, because of the technique
-		// used
-		// to set its ps member (and possibly pc).
-		private void assign(int act, int programCounter, int parm1, int parm2) {
-			action = act;
-			pc = programCounter;
-			try {
-				// Client does not have direct access to program statement, and
-				// rather than making all
-				// of them go through the methods below to obtain it, we will do
-				// it here.
-				// Want the program statement but do not want observers
-				// notified.
-				ps = Globals.memory.getStatementNoNotify(programCounter);
-			} catch (Exception e) {
-				// The only situation causing this so far: user modifies memory
-				// or register
-				// contents through direct manipulation on the GUI, after
-				// assembling the program but
-				// before starting to run it (or after backstepping all the way
-				// to the start).
-				// The action will not be associated with any instruction, but
-				// will be carried out
-				// when popped.
-				ps = null;
-				pc = NOT_PC_VALUE; // Backstep method above will see this as
-									// flag to not set PC
-			}
-			param1 = parm1;
-			param2 = parm2;
-			inDelaySlot = Simulator.inDelaySlot(); // ADDED 25 June 2007
-			/*
-			 * System.out.println("backstep PUSH: action "+action+" pc "+mars.
-			 * util.Binary.intToHexString(pc)+ " source "+((ps==null)?
-			 * "none":ps.getSource())+ " parm1 "+param1+" parm2 "+param2);
-			 */
-		}
-	}
-
 	// *****************************************************************************
 	// special purpose stack class for backstepping. You've heard of circular
 	// queues
@@ -441,45 +549,67 @@ public class BackStepper {
 	// operations
 	// are constant time. It's synchronized too, to be safe (is used by both the
 	// simulation thread and the GUI thread for the back-step button).
-	// Upon construction, it is filled with newly-created empty BackStep objects
-	// which
-	// will exist for the life of the stack. Push does not create a BackStep
-	// object
-	// but instead overwrites the contents of the existing one. Thus during MIPS
-	// program (simulated) execution, BackStep objects are never created or
-	// junked
-	// regardless of how many steps are executed. This will speed things up a
-	// bit
+	// If it has a journal, the oldest entry is instead moved to the journal,
+	// and the stack refills itself from there when popped empty; it then
+	// holds only the newest steps, which undo without touching the disk.
+	// Upon construction, it allocates one array per back step field, each
+	// with an element for every entry; these exist for the life of the stack.
+	// Push overwrites the elements of the next entry. Thus during MIPS
+	// program (simulated) execution, nothing is created or junked
+	// regardless of how many steps are executed (the saved bytes of
+	// MEMORY_RESTORE_BYTES and HEAP_RESTORE excepted). This will speed things up a bit
 	// and make life easier for the garbage collector.
 
 	private class BackstepStack {
 		private int capacity;
 		private int size;
 		private int top;
-		private BackStep[] stack;
+		// One entry per back step, spread across parallel arrays so pushing
+		// stores a few ints and allocates nothing.
+		private int[] actions; // what do do MEMORY_RESTORE_WORD, etc
+		private int[] pcs; // program counter value when original step occurred
+		private int[] params1; // first parameter required by that action
+		private int[] params2; // optional second parameter required by that
+								// action
+		private int[] params3; // high order word for COPROC1_PAIR_RESTORE
+		private byte[][] bytes; // restore values for MEMORY_RESTORE_BYTES
+								// and HEAP_RESTORE
+		private byte[] flags; // IN_DELAY_SLOT, INSTRUCTION_END
+		private BackstepJournal journal; // older entries, or null
 
 		// Stack is created upon successful assembly or reset. The one-time
 		// overhead of
-		// creating all the BackStep objects will not be noticed by the user,
-		// and enhances
-		// runtime performance by not having to create or recycle them during
-		// MIPS
+		// creating the arrays will not be noticed by the user, and enhances
+		// runtime performance by not having to allocate during MIPS
 		// program execution.
 		private BackstepStack(int capacity) {
 			this.capacity = capacity;
 			this.size = 0;
 			this.top = -1;
-			this.stack = new BackStep[capacity];
-			for (int i = 0; i < capacity; i++) {
-				this.stack[i] = new BackStep();
-			}
+			this.actions = new int[capacity];
+			this.pcs = new int[capacity];
+			this.params1 = new int[capacity];
+			this.params2 = new int[capacity];
+			this.params3 = new int[capacity];
+			this.bytes = new byte[capacity][];
+			this.flags = new byte[capacity];
 		}
 
 		private synchronized boolean empty() {
-			return size == 0;
+			return size == 0 && (journal == null || journal.isEmpty());
+		}
+
+		private synchronized void clear() {
+			size = 0;
+			top = -1;
+			Arrays.fill(bytes, null);
+			if (journal != null) {
+				journal.clear();
+			}
 		}
 
-		private synchronized void push(int act, int programCounter, int parm1, int parm2) {
+		private synchronized void push(int act, int programCounter, int parm1, int parm2, int parm3,
+				byte[] values, int flagBits) {
 			if (size == 0) {
 				top = 0;
 				size++;
@@ -487,44 +617,155 @@ public class BackStepper {
 				top = (top + 1) % capacity;
 				size++;
 			} else { // size == capacity. The top moves up one, replacing oldest
-						// entry (goodbye!)
+						// entry (goodbye, unless there is a journal!)
 				top = (top + 1) % capacity;
+				if (journal != null && !journal.append(actions[top], flags[top], pcs[top], params1[top],
+						params2[top], params3[top], actions[top] == COPROC1_PAIR_RESTORE, bytes[top])) {
+					journalFailed();
+				}
 			}
-			// We'll re-use existing objects rather than create/discard each
-			// time.
-			// Must use assign() method rather than series of assignment
-			// statements!
-			stack[top].assign(act, programCounter, parm1, parm2);
+			actions[top] = act;
+			pcs[top] = programCounter;
+			params1[top] = parm1;
+			params2[top] = parm2;
+			params3[top] = parm3;
+			bytes[top] = values;
+			flags[top] = (byte) flagBits;
+		}
+
+		private void push(int act, int programCounter, int parm1, int parm2, int parm3) {
+			push(act, programCounter, parm1, parm2, parm3, null, delaySlotFlag());
+		}
+
+		private void push(int act, int programCounter, int parm1, int parm2) {
+			push(act, programCounter, parm1, parm2, 0, null, delaySlotFlag());
 		}
 
-		private synchronized void push(int act, int programCounter, int parm1) {
-			push(act, programCounter, parm1, 0);
+		private void push(int act, int programCounter, int parm1, byte[] values) {
+			push(act, programCounter, parm1, 0, 0, values, delaySlotFlag());
 		}
 
-		private synchronized void push(int act, int programCounter) {
-			push(act, programCounter, 0, 0);
+		private void push(int act, int programCounter, int parm1) {
+			push(act, programCounter, parm1, 0, 0, null, delaySlotFlag());
+		}
+
+		// The journal could not take the oldest entry, which is therefore
+		// lost. Drop the journal too, so that backstepping stops cleanly at
+		// the oldest entry still in the stack instead of skipping over the
+		// lost one, and carry on without a journal as if there never was one.
+		private void journalFailed() {
+			journal.clear();
+			journal = null;
+			final String message = "Back step journal could not be written; backstepping is limited to the most "
+					+ "recent " + capacity + " operations from now on.";
+			if (Globals.getGui() == null) {
+				System.err.println(message);
+				return;
+			}
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					Globals.getGui().getMessagesPane().postMarsMessage(message + "\n");
+				}
+			});
+		}
+
+		private int delaySlotFlag() {
+			return Simulator.inDelaySlot() ? IN_DELAY_SLOT : 0;
+		}
+
+		// Called after the instruction at programCounter executed: see
+		// addDoNothing(). A DO_NOTHING entry counts (in param1) the
+		// instructions it covers, starting at its pc.
+		private synchronized void endInstruction(int programCounter, boolean inDelaySlot) {
+			if (size > 0) {
+				if ((flags[top] & INSTRUCTION_END) == 0 && pcs[top] == programCounter) {
+					flags[top] |= INSTRUCTION_END;
+					return;
+				}
+				if (actions[top] == DO_NOTHING && !inDelaySlot && (flags[top] & IN_DELAY_SLOT) == 0
+						&& pcs[top] + params1[top] * Instruction.INSTRUCTION_LENGTH == programCounter) {
+					params1[top]++;
+					return;
+				}
+			}
+			push(DO_NOTHING, programCounter, 1, 0, 0, null,
+					INSTRUCTION_END | (inDelaySlot ? IN_DELAY_SLOT : 0));
+		}
+
+		// Push a back step belonging to the instruction at programCounter,
+		// even if that instruction has already been marked as ended.
+		private synchronized void pushIntoInstruction(int act, int programCounter, int parm1) {
+			if (size > 0 && pcs[top] == programCounter && (flags[top] & INSTRUCTION_END) != 0) {
+				flags[top] &= ~INSTRUCTION_END;
+				push(act, programCounter, parm1, 0, 0, null, INSTRUCTION_END | delaySlotFlag());
+			} else {
+				push(act, programCounter, parm1);
+			}
+		}
+
+		// Push a back step belonging to the instruction executed last, after
+		// that instruction's own back steps. If it is the last of a run of
+		// instructions that wrote nothing, it is taken out of the run.
+		private synchronized void pushIntoLastInstruction(int act, int parm1, int parm2) {
+			if (empty()) {
+				return;
+			}
+			int last = peek();
+			if (actions[last] == DO_NOTHING && params1[last] > 1) {
+				params1[last]--;
+				push(act, pcs[last] + params1[last] * Instruction.INSTRUCTION_LENGTH, parm1, parm2, 0, null,
+						INSTRUCTION_END);
+			} else {
+				int ended = flags[last] & INSTRUCTION_END;
+				flags[last] &= ~INSTRUCTION_END;
+				push(act, pcs[last], parm1, parm2, 0, null, ended | (flags[last] & IN_DELAY_SLOT));
+			}
 		}
 
 		// NO PROTECTION. This class is used only within this file so there is
 		// no excuse
-		// for trying to pop from empty stack.
-		private synchronized BackStep pop() {
-			BackStep bs;
-			bs = stack[top];
+		// for trying to pop from empty stack. Returns the index of the popped
+		// entry, whose values stay put until the next push.
+		private synchronized int pop() {
+			if (size == 0) {
+				refill();
+			}
+			int popped = top;
 			if (size == 1) {
 				top = -1;
 			} else {
 				top = (top + capacity - 1) % capacity;
 			}
 			size--;
-			return bs;
+			return popped;
 		}
 
 		// NO PROTECTION. This class is used only within this file so there is
 		// no excuse
 		// for trying to peek from empty stack.
-		private synchronized BackStep peek() {
-			return stack[top];
+		private synchronized int peek() {
+			if (size == 0) {
+				refill();
+			}
+			return top;
+		}
+
+		// Move the newest entries of the journal, up to half the capacity,
+		// back into the (empty) stack.
+		private void refill() {
+			int count = Math.max(1, Math.min(journal.size(), capacity / 2));
+			for (int i = count - 1; i >= 0; i--) {
+				journal.pop(COPROC1_PAIR_RESTORE);
+				actions[i] = journal.action;
+				flags[i] = (byte) journal.flags;
+				pcs[i] = journal.pc;
+				params1[i] = journal.param1;
+				params2[i] = journal.param2;
+				params3[i] = journal.param3;
+				bytes[i] = journal.bytes;
+			}
+			top = count - 1;
+			size = count;
 		}
 
 	}
@@ -0,0 +1,222 @@
+package mars.simulator;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Holds back steps too old for the in-memory BackstepStack of BackStepper, so
+ * that execution can be undone further back than BackstepLimit operations
+ * without keeping them all on the heap. The stack spills its oldest entry here
+ * when it is full, and refills itself from here when it runs empty.
+ * <p>
+ * Records are appended to temporary files of SEGMENT_BYTES each, mapped into
+ * memory. When the segments together exceed the byte budget, the oldest
+ * segment is deleted and the back steps in it are forgotten. Each record is
+ * followed by its own length so the newest record can always be read back
+ * from the end.
+ * <p>
+ * Record format: action (byte), flags (byte), pc, param1 and param2 (ints),
+ * then param3 (int) if the action has one, then the length (int) and values
+ * of the saved bytes if the back step has them, then the record length (int).
+ * A record is longer than its fixed fields exactly when it has saved bytes.
+ * 
+ * @version October 2026
+ */
+
+class BackstepJournal {
+	/** Size of one journal file. A larger record gets a segment of its own. */
+	public static final int SEGMENT_BYTES = 4 * 1024 * 1024;
+
+	// Values returned by the most recent pop().
+	int action, flags, pc, param1, param2, param3;
+	byte[] bytes;
+
+	private long budget;
+	private long totalBytes; // mapped size of all segments
+	private int records;
+	private ArrayList segments = new ArrayList(); // oldest first
+	private Segment current; // newest, or null if none
+
+	/**
+	 * Create an empty journal.
+	 * 
+	 * @param budget
+	 *            number of bytes the journal files may occupy. At least one
+	 *            segment is kept regardless.
+	 */
+	public BackstepJournal(long budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * Determine whether the journal holds any back steps.
+	 * 
+	 * @return true if there are none
+	 */
+	public boolean isEmpty() {
+		return records == 0;
+	}
+
+	/**
+	 * Get the number of back steps in the journal.
+	 * 
+	 * @return the number of back steps
+	 */
+	public int size() {
+		return records;
+	}
+
+	/**
+	 * Append a back step, making it the newest. param3 is written only if
+	 * hasParam3, and bytes only if not null.
+	 * 
+	 * @return false if the back step could not be written, in which case it is
+	 *         lost
+	 */
+	public boolean append(int action, int flags, int pc, int param1, int param2, int param3, boolean hasParam3,
+			byte[] bytes) {
+		int length = 2 + 3 * 4 + (hasParam3 ? 4 : 0) + ((bytes != null) ? 4 + bytes.length : 0) + 4;
+		try {
+			if (current == null || current.buffer.remaining() < length) {
+				newSegment(Math.max(SEGMENT_BYTES, length));
+			}
+		} catch (IOException e) {
+			return false;
+		}
+		ByteBuffer buffer = current.buffer;
+		buffer.put((byte) action);
+		buffer.put((byte) flags);
+		buffer.putInt(pc);
+		buffer.putInt(param1);
+		buffer.putInt(param2);
+		if (hasParam3) {
+			buffer.putInt(param3);
+		}
+		if (bytes != null) {
+			buffer.putInt(bytes.length);
+			buffer.put(bytes);
+		}
+		buffer.putInt(length);
+		current.records++;
+		records++;
+		return true;
+	}
+
+	/**
+	 * Remove the newest back step. Its values are left in the action, flags,
+	 * pc, param1, param2, param3 and bytes fields.
+	 * 
+	 * @param param3Action
+	 *            the action whose records hold param3
+	 */
+	public void pop(int param3Action) {
+		ByteBuffer buffer = current.buffer;
+		int end = buffer.position();
+		int length = buffer.getInt(end - 4);
+		int start = end - length;
+		buffer.position(start);
+		action = buffer.get();
+		flags = buffer.get();
+		pc = buffer.getInt();
+		param1 = buffer.getInt();
+		param2 = buffer.getInt();
+		param3 = (action == param3Action) ? buffer.getInt() : 0;
+		if (length > 2 + 3 * 4 + ((action == param3Action) ? 4 : 0) + 4) {
+			bytes = new byte[buffer.getInt()];
+			buffer.get(bytes);
+		} else {
+			bytes = null;
+		}
+		buffer.position(start);
+		records--;
+		if (--current.records == 0) {
+			segments.remove(segments.size() - 1);
+			delete(current);
+			current = (segments.isEmpty()) ? null : (Segment) segments.get(segments.size() - 1);
+		}
+	}
+
+	/**
+	 * Forget all back steps and delete the journal files.
+	 */
+	public void clear() {
+		for (int i = 0; i < segments.size(); i++) {
+			delete((Segment) segments.get(i));
+		}
+		segments.clear();
+		current = null;
+		records = 0;
+	}
+
+	private void newSegment(int size) throws IOException {
+		File file = File.createTempFile("marsbackstep", ".tmp");
+		file.deleteOnExit();
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		Segment segment = new Segment();
+		segment.file = file;
+		segment.channel = raf.getChannel();
+		try {
+			segment.buffer = segment.channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		} catch (IOException e) {
+			segment.channel.close();
+			file.delete();
+			throw e;
+		}
+		segments.add(segment);
+		current = segment;
+		totalBytes += size;
+		while (totalBytes > budget && segments.size() > 1) {
+			Segment oldest = (Segment) segments.remove(0);
+			records -= oldest.records;
+			delete(oldest);
+		}
+	}
+
+	private void delete(Segment segment) {
+		totalBytes -= segment.buffer.capacity();
+		try {
+			segment.channel.close();
+		} catch (IOException e) {
+		}
+		// A mapped file cannot be deleted on some systems until the mapping
+		// is garbage collected; deleteOnExit() then takes care of it.
+		segment.file.delete();
+	}
+
+	// One journal file.
+	private static class Segment {
+		private File file;
+		private FileChannel channel;
+		private MappedByteBuffer buffer; // position is the end of the records
+		private int records;
+	}
+}
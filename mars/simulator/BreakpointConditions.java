@@ -0,0 +1,449 @@
+package mars.simulator;
+
+import mars.*;
+import mars.mips.hardware.*;
+import mars.util.*;
+import java.util.*;
+import javax.swing.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Conditions, hit counts and log messages attached to breakpoints. A
+ * breakpoint without one pauses execution every time it is reached, as
+ * always. With one, it counts the times it is reached, and when its condition
+ * holds (or every time, if it has none) it logs its message, if any, and
+ * pauses, unless it is a tracepoint, which never pauses.
+ * <p>
+ * Conditions and the expressions in log messages are compiled by
+ * BreakpointExpression when they are set. The simulator consults this table
+ * only when the program counter is at one of the breakpoint addresses it was
+ * given, so instructions elsewhere cost nothing extra.
+ * <p>
+ * A log message is text in which each <tt>{expression}</tt> is replaced by the
+ * value of the expression. A suffix selects the format: <tt>{$t0:x}</tt> for
+ * hexadecimal, <tt>{$t0:u}</tt> unsigned, <tt>{$t0:c}</tt> a character and
+ * <tt>{$a0:s}</tt> the null-terminated string at an address. Messages go to
+ * the MARS Messages tab, or to standard output from the command line.
+ * <p>
+ * Hit counts are part of the state of the program: backstepping undoes a
+ * hit, and ReverseExecution saves them in its checkpoints and counts the hits
+ * again as it re-executes.
+ *
+ * @version October 2026
+ */
+
+public class BreakpointConditions {
+	private static final int MAX_LOGGED_STRING = 80;
+
+	private final HashMap breakpoints = new HashMap(); // Integer address -> Breakpoint
+	private String triggerDescription;
+
+	/**
+	 * Attach a condition and log message to the breakpoint at an address,
+	 * replacing any it had.
+	 *
+	 * @param address
+	 *            address of the breakpoint
+	 * @param condition
+	 *            expression that must not be 0 for the breakpoint to take
+	 *            effect, or null or empty to take effect every time
+	 * @param message
+	 *            message to log when the breakpoint takes effect, or null or
+	 *            empty for none
+	 * @param pause
+	 *            true to pause execution when the breakpoint takes effect,
+	 *            false for a tracepoint
+	 * @return the breakpoint
+	 * @throws IllegalArgumentException
+	 *             if the condition or an expression in the message is not
+	 *             well formed
+	 */
+	public synchronized Breakpoint set(int address, String condition, String message, boolean pause) {
+		Breakpoint breakpoint = new Breakpoint(address, condition, message, pause);
+		Breakpoint old = (Breakpoint) breakpoints.put(Integer.valueOf(address), breakpoint);
+		if (old != null) {
+			breakpoint.hits = old.hits;
+		}
+		return breakpoint;
+	}
+
+	/**
+	 * Get what is attached to the breakpoint at an address.
+	 *
+	 * @param address
+	 *            address of the breakpoint
+	 * @return the breakpoint, or null if it has no condition, message or hit
+	 *         count
+	 */
+	public synchronized Breakpoint get(int address) {
+		return (Breakpoint) breakpoints.get(Integer.valueOf(address));
+	}
+
+	/**
+	 * Remove what is attached to the breakpoint at an address, making it a
+	 * plain breakpoint.
+	 *
+	 * @param address
+	 *            address of the breakpoint
+	 */
+	public synchronized void remove(int address) {
+		breakpoints.remove(Integer.valueOf(address));
+	}
+
+	/**
+	 * Remove all conditions and log messages.
+	 */
+	public synchronized void clear() {
+		breakpoints.clear();
+		triggerDescription = null;
+	}
+
+	/**
+	 * Set the hit count of every breakpoint back to 0, as when the program is
+	 * reset.
+	 */
+	public synchronized void resetHitCounts() {
+		Iterator it = breakpoints.values().iterator();
+		while (it.hasNext()) {
+			((Breakpoint) it.next()).hits = 0;
+		}
+		triggerDescription = null;
+	}
+
+	/**
+	 * Description of why the last pause at a breakpoint with a condition
+	 * happened.
+	 *
+	 * @return description, or null if the last pause was not at such a
+	 *         breakpoint
+	 */
+	public synchronized String getTriggerDescription() {
+		return triggerDescription;
+	}
+
+	/**
+	 * Forget the last pause, before execution resumes.
+	 */
+	public synchronized void clearTrigger() {
+		triggerDescription = null;
+	}
+
+	/**
+	 * Called by the simulator when the program counter reaches a breakpoint
+	 * address. Counts the hit, evaluates the condition and logs the message.
+	 * A condition that cannot be evaluated pauses execution. This method has
+	 * package visibility.
+	 *
+	 * @param address
+	 *            the breakpoint address
+	 * @return true if execution should pause
+	 */
+	synchronized boolean hit(int address) {
+		Breakpoint breakpoint = (Breakpoint) breakpoints.get(Integer.valueOf(address));
+		if (breakpoint == null) {
+			return true; // plain breakpoint
+		}
+		count(breakpoint);
+		ReverseExecution reverse = Globals.program.getReverseExecution();
+		if (reverse != null) {
+			reverse.breakpointHit(address);
+		}
+		try {
+			if (breakpoint.condition != null && !breakpoint.condition.isTrue(breakpoint.hits)) {
+				return false;
+			}
+			if (breakpoint.message != null) {
+				log(breakpoint.format());
+			}
+		} catch (AddressErrorException e) {
+			triggerDescription = breakpoint + ": " + e.getMessage() + Binary.intToHexString(e.getAddress());
+			return true;
+		} catch (ArithmeticException e) {
+			triggerDescription = breakpoint + ": division by zero";
+			return true;
+		}
+		if (breakpoint.pause) {
+			triggerDescription = breakpoint + ", hit " + breakpoint.hits;
+		}
+		return breakpoint.pause;
+	}
+
+	/**
+	 * Whether the breakpoint at an address would pause execution now. Unlike
+	 * hit(), counts and logs nothing; used when searching backwards for a
+	 * breakpoint, where re-execution has brought the hit counts back to what
+	 * they were at the time. This method has package visibility.
+	 *
+	 * @param address
+	 *            the breakpoint address
+	 * @return true if execution would pause
+	 */
+	synchronized boolean wouldPause(int address) {
+		Breakpoint breakpoint = (Breakpoint) breakpoints.get(Integer.valueOf(address));
+		if (breakpoint == null) {
+			return true;
+		}
+		if (!breakpoint.pause) {
+			return false;
+		}
+		try {
+			return breakpoint.condition == null || breakpoint.condition.isTrue(breakpoint.hits);
+		} catch (AddressErrorException e) {
+			return true;
+		} catch (ArithmeticException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Count a hit of the breakpoint at an address again, without evaluating or
+	 * logging anything. Called by ReverseExecution when it re-executes the
+	 * instruction after which the hit was counted. This method has package
+	 * visibility.
+	 *
+	 * @param address
+	 *            the breakpoint address
+	 */
+	synchronized void recount(int address) {
+		Breakpoint breakpoint = (Breakpoint) breakpoints.get(Integer.valueOf(address));
+		if (breakpoint != null) {
+			count(breakpoint);
+		}
+	}
+
+	/**
+	 * Set the hit count of the breakpoint at an address, if it still has one.
+	 * Used by the BackStepper to undo a hit. This method has package
+	 * visibility.
+	 *
+	 * @param address
+	 *            the breakpoint address
+	 * @param hits
+	 *            the hit count
+	 */
+	synchronized void restoreHits(int address, int hits) {
+		Breakpoint breakpoint = (Breakpoint) breakpoints.get(Integer.valueOf(address));
+		if (breakpoint != null) {
+			breakpoint.hits = hits;
+		}
+	}
+
+	/**
+	 * Get the hit counts of all breakpoints, for a ReverseExecution
+	 * checkpoint. This method has package visibility.
+	 *
+	 * @return map from Integer address to Integer hit count
+	 */
+	synchronized HashMap saveHitCounts() {
+		HashMap counts = new HashMap();
+		Iterator it = breakpoints.values().iterator();
+		while (it.hasNext()) {
+			Breakpoint breakpoint = (Breakpoint) it.next();
+			if (breakpoint.hits != 0) {
+				counts.put(Integer.valueOf(breakpoint.address), Integer.valueOf(breakpoint.hits));
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Set the hit counts of all breakpoints as saved by saveHitCounts(). A
+	 * breakpoint not in the map, such as one attached since, gets 0. This
+	 * method has package visibility.
+	 *
+	 * @param counts
+	 *            map from Integer address to Integer hit count
+	 */
+	synchronized void restoreHitCounts(HashMap counts) {
+		Iterator it = breakpoints.values().iterator();
+		while (it.hasNext()) {
+			Breakpoint breakpoint = (Breakpoint) it.next();
+			Integer hits = (Integer) counts.get(Integer.valueOf(breakpoint.address));
+			breakpoint.hits = (hits == null) ? 0 : hits.intValue();
+		}
+	}
+
+	// Count a hit, recording how to undo it if backstepping is enabled.
+	private static void count(Breakpoint breakpoint) {
+		if (Globals.getSettings().getBackSteppingEnabled()) {
+			Globals.program.getBackStepper().addBreakpointHitsRestore(breakpoint.address, breakpoint.hits);
+		}
+		breakpoint.hits++;
+	}
+
+	private static void log(final String line) {
+		if (Globals.getGui() == null) {
+			System.out.println(line);
+			return;
+		}
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				Globals.getGui().getMessagesPane().postMarsMessage(line + "\n");
+			}
+		});
+	}
+
+	/**
+	 * The condition, log message and hit count of one breakpoint.
+	 */
+	public static class Breakpoint {
+		private final int address;
+		private final BreakpointExpression condition;
+		private final String message;
+		private final boolean pause;
+		private int hits;
+
+		// The message split at its expressions: literal text at even indexes,
+		// BreakpointExpression at odd ones, with format characters alongside.
+		private Object[] parts;
+		private char[] formats;
+
+		private Breakpoint(int address, String condition, String message, boolean pause) {
+			this.address = address;
+			this.condition = (condition == null || condition.trim().length() == 0) ? null
+					: new BreakpointExpression(condition.trim());
+			this.message = (message == null || message.length() == 0) ? null : message;
+			this.pause = pause;
+			if (this.message != null) {
+				compileMessage();
+			}
+		}
+
+		public int getAddress() {
+			return address;
+		}
+
+		/**
+		 * @return the condition, or null if there is none
+		 */
+		public String getCondition() {
+			return (condition == null) ? null : condition.toString();
+		}
+
+		/**
+		 * @return the log message, or null if there is none
+		 */
+		public String getMessage() {
+			return message;
+		}
+
+		/**
+		 * @return false if this is a tracepoint, which never pauses
+		 */
+		public boolean isPausing() {
+			return pause;
+		}
+
+		/**
+		 * @return number of times the breakpoint was reached since the program
+		 *         was last reset
+		 */
+		public int getHits() {
+			return hits;
+		}
+
+		public String toString() {
+			return (pause ? "breakpoint " : "tracepoint ") + Binary.intToHexString(address)
+					+ ((condition == null) ? "" : " if " + condition);
+		}
+
+		private void compileMessage() {
+			ArrayList partList = new ArrayList();
+			StringBuffer formatList = new StringBuffer();
+			int start = 0;
+			while (true) {
+				int open = message.indexOf('{', start);
+				if (open < 0) {
+					partList.add(message.substring(start));
+					break;
+				}
+				int close = message.indexOf('}', open);
+				if (close < 0) {
+					throw new IllegalArgumentException("'}' expected in \"" + message + "\"");
+				}
+				partList.add(message.substring(start, open));
+				String expression = message.substring(open + 1, close);
+				char format = 'd';
+				int colon = expression.lastIndexOf(':');
+				if (colon >= 0) {
+					String suffix = expression.substring(colon + 1).trim();
+					if (suffix.length() != 1 || "dxucs".indexOf(suffix.charAt(0)) < 0) {
+						throw new IllegalArgumentException("format \":" + suffix + "\" is not :d, :x, :u, :c or :s");
+					}
+					format = suffix.charAt(0);
+					expression = expression.substring(0, colon);
+				}
+				partList.add(new BreakpointExpression(expression.trim()));
+				formatList.append(format);
+				start = close + 1;
+			}
+			parts = partList.toArray();
+			formats = formatList.toString().toCharArray();
+		}
+
+		private String format() throws AddressErrorException {
+			StringBuffer line = new StringBuffer();
+			for (int i = 0; i < parts.length; i++) {
+				if (i % 2 == 0) {
+					line.append((String) parts[i]);
+					continue;
+				}
+				int value = ((BreakpointExpression) parts[i]).evaluate(hits);
+				switch (formats[i / 2]) {
+				case 'x':
+					line.append(Binary.intToHexString(value));
+					break;
+				case 'u':
+					line.append(Binary.unsignedIntToIntString(value));
+					break;
+				case 'c':
+					line.append((char) (value & 0xff));
+					break;
+				case 's':
+					appendString(line, value);
+					break;
+				default:
+					line.append(value);
+				}
+			}
+			return line.toString();
+		}
+
+		private static void appendString(StringBuffer line, int address) throws AddressErrorException {
+			for (int i = 0; i < MAX_LOGGED_STRING; i++) {
+				int c = Globals.memory.getByteNoNotify(address + i);
+				if (c == 0) {
+					return;
+				}
+				line.append((char) c);
+			}
+			line.append("...");
+		}
+	}
+}
@@ -0,0 +1,543 @@
+package mars.simulator;
+
+import mars.*;
+import mars.assembler.*;
+import mars.mips.hardware.*;
+import mars.util.*;
+import java.util.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * An expression in a breakpoint condition or tracepoint log message, such as
+ * <tt>$t0 == 5 &amp;&amp; mem[$sp+4] &gt; 0</tt>. The text is parsed once, when
+ * the breakpoint is set, into a tree of evaluator objects that read the
+ * register file and memory directly. Evaluating it involves no string
+ * handling, so a condition can be tested on every pass through a loop.
+ * <p>
+ * Operands are integer literals (decimal, or hexadecimal with 0x), character
+ * literals such as 'a', registers by name or number ($t0, $8, $f2, pc, hi,
+ * lo), program labels, which stand for their addresses, the breakpoint's hit
+ * count <tt>hits</tt>, and memory contents <tt>mem[address]</tt> (a word),
+ * <tt>half[address]</tt> and <tt>byte[address]</tt>, which are sign extended.
+ * Operators are those of C and Java with their usual precedence: unary - ! ~,
+ * * / %, + -, &lt;&lt; &gt;&gt; &gt;&gt;&gt;, &lt; &lt;= &gt; &gt;=, == !=,
+ * &amp;, ^, |, &amp;&amp; and ||. All arithmetic is on 32-bit signed integers;
+ * comparisons and logical operators produce 1 or 0. Reading memory does not
+ * notify observers or trigger watchpoints.
+ *
+ * @version October 2026
+ */
+
+public class BreakpointExpression {
+	private final String text;
+	private final Node root;
+
+	// Parser state, only used while constructing.
+	private int position;
+
+	/**
+	 * Parse an expression.
+	 *
+	 * @param text
+	 *            the expression
+	 * @throws IllegalArgumentException
+	 *             if the expression is not well formed or names an unknown
+	 *             register or label
+	 */
+	public BreakpointExpression(String text) {
+		this.text = text;
+		this.position = 0;
+		Node node = parseBinary(0);
+		skipSpaces();
+		if (position < text.length()) {
+			throw error("unexpected \"" + text.substring(position) + "\"");
+		}
+		this.root = node;
+	}
+
+	/**
+	 * Evaluate the expression against the current register and memory
+	 * contents.
+	 *
+	 * @param hits
+	 *            value of <tt>hits</tt> in the expression
+	 * @return the value of the expression
+	 * @throws AddressErrorException
+	 *             if memory is read at an invalid or misaligned address
+	 * @throws ArithmeticException
+	 *             on division by zero
+	 */
+	public int evaluate(int hits) throws AddressErrorException {
+		return root.value(hits);
+	}
+
+	/**
+	 * Whether the expression has a value other than 0.
+	 *
+	 * @param hits
+	 *            value of <tt>hits</tt> in the expression
+	 * @return true if the expression is not 0
+	 * @throws AddressErrorException
+	 *             if memory is read at an invalid or misaligned address
+	 * @throws ArithmeticException
+	 *             on division by zero
+	 */
+	public boolean isTrue(int hits) throws AddressErrorException {
+		return root.value(hits) != 0;
+	}
+
+	public String toString() {
+		return text;
+	}
+
+	/////////////////////////////////////////////////////////////////////////
+	// Parser: precedence climbing over the binary operators, recursive
+	// descent for the rest.
+
+	// Binary operators, lowest precedence first. Longer operators come before
+	// their prefixes within a level, and levels are tried in order when
+	// matching, so "<<" is never taken for "<".
+	private static final String[][] OPERATORS = { { "||" }, { "&&" }, { "|" }, { "^" }, { "&" }, { "==", "!=" },
+			{ "<=", ">=", "<", ">" }, { ">>>", "<<", ">>" }, { "+", "-" }, { "*", "/", "%" } };
+
+	private Node parseBinary(int level) {
+		if (level == OPERATORS.length) {
+			return parseUnary();
+		}
+		Node left = parseBinary(level + 1);
+		while (true) {
+			String operator = matchOperator(level);
+			if (operator == null) {
+				return left;
+			}
+			Node right = parseBinary(level + 1);
+			left = makeBinary(operator, left, right);
+		}
+	}
+
+	private String matchOperator(int level) {
+		skipSpaces();
+		String[] operators = OPERATORS[level];
+		for (int i = 0; i < operators.length; i++) {
+			String operator = operators[i];
+			if (text.startsWith(operator, position) && !startsLongerOperator(operator)) {
+				position += operator.length();
+				return operator;
+			}
+		}
+		return null;
+	}
+
+	// True if the operator at the current position is really a longer one
+	// that starts with the given one, such as "||" for "|" or "<<" for "<".
+	private boolean startsLongerOperator(String operator) {
+		for (int level = 0; level < OPERATORS.length; level++) {
+			for (int i = 0; i < OPERATORS[level].length; i++) {
+				String other = OPERATORS[level][i];
+				if (other.length() > operator.length() && other.startsWith(operator)
+						&& text.startsWith(other, position)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private Node parseUnary() {
+		skipSpaces();
+		if (position < text.length()) {
+			char c = text.charAt(position);
+			if (c == '-' || c == '~' || (c == '!' && !text.startsWith("!=", position))) {
+				position++;
+				Node operand = parseUnary();
+				Node node = (c == '-') ? (Node) new Negate(operand)
+						: (c == '~') ? (Node) new Complement(operand) : (Node) new Not(operand);
+				return operand.isConstant() ? fold(node) : node;
+			}
+		}
+		return parsePrimary();
+	}
+
+	private Node parsePrimary() {
+		skipSpaces();
+		if (position >= text.length()) {
+			throw error("operand expected at end");
+		}
+		char c = text.charAt(position);
+		if (c == '(') {
+			position++;
+			Node node = parseBinary(0);
+			expect(')');
+			return node;
+		}
+		if (c == '\'') {
+			if (position + 2 >= text.length() || text.charAt(position + 2) != '\'') {
+				throw error("bad character literal");
+			}
+			position += 3;
+			return new Constant(text.charAt(position - 2));
+		}
+		if (Character.isDigit(c)) {
+			String number = scanWord();
+			try {
+				return new Constant(Binary.stringToInt(number));
+			} catch (NumberFormatException e) {
+				throw error("bad number \"" + number + "\"");
+			}
+		}
+		if (c == '$' || Character.isJavaIdentifierStart(c)) {
+			String name = scanWord();
+			skipSpaces();
+			if (position < text.length() && text.charAt(position) == '[') {
+				return parseMemory(name);
+			}
+			return makeName(name);
+		}
+		throw error("unexpected \"" + text.substring(position) + "\"");
+	}
+
+	private Node parseMemory(String name) {
+		position++; // skip '['
+		Node address = parseBinary(0);
+		expect(']');
+		if (name.equals("mem") || name.equals("word")) {
+			return new MemoryWord(address);
+		} else if (name.equals("half")) {
+			return new MemoryHalf(address);
+		} else if (name.equals("byte")) {
+			return new MemoryByte(address);
+		}
+		throw error("\"" + name + "[\" is not mem[, word[, half[ or byte[");
+	}
+
+	private Node makeName(String name) {
+		if (name.equals("hits")) {
+			return new Hits();
+		}
+		if (name.equals("pc") || name.equals("hi") || name.equals("lo")) {
+			name = "$" + name;
+		}
+		if (name.startsWith("$")) {
+			if (name.equals("$pc")) {
+				return new ProgramCounter();
+			} else if (name.equals("$hi")) {
+				return new GeneralRegister(33);
+			} else if (name.equals("$lo")) {
+				return new GeneralRegister(34);
+			}
+			Register register = RegisterFile.getUserRegister(name);
+			if (register != null) {
+				return new GeneralRegister(register.getNumber());
+			}
+			int number = Coprocessor1.getRegisterNumber(name);
+			if (number >= 0) {
+				return new FloatingPointRegister(number);
+			}
+			throw error("unknown register \"" + name + "\"");
+		}
+		int address = SymbolTable.NOT_FOUND;
+		if (Globals.program != null && Globals.program.getLocalSymbolTable() != null) {
+			address = Globals.program.getLocalSymbolTable().getAddressLocalOrGlobal(name);
+		} else if (Globals.symbolTable != null) {
+			address = Globals.symbolTable.getAddress(name);
+		}
+		if (address == SymbolTable.NOT_FOUND) {
+			throw error("unknown label \"" + name + "\"");
+		}
+		return new Constant(address);
+	}
+
+	private Node makeBinary(String operator, Node left, Node right) {
+		Node node;
+		if (operator.equals("&&")) {
+			node = new And(left, right);
+		} else if (operator.equals("||")) {
+			node = new Or(left, right);
+		} else {
+			node = new Arithmetic(operator, left, right);
+		}
+		return (left.isConstant() && right.isConstant()) ? fold(node) : node;
+	}
+
+	// Replace a node whose operands are all constant by its value.
+	private Node fold(Node node) {
+		try {
+			return new Constant(node.value(0));
+		} catch (AddressErrorException e) {
+			return node; // cannot happen: memory is never constant
+		} catch (ArithmeticException e) {
+			throw error("division by zero");
+		}
+	}
+
+	private String scanWord() {
+		int start = position;
+		while (position < text.length()) {
+			char c = text.charAt(position);
+			if (!Character.isJavaIdentifierPart(c) && c != '$' && c != '.') {
+				break;
+			}
+			position++;
+		}
+		return text.substring(start, position);
+	}
+
+	private void expect(char c) {
+		skipSpaces();
+		if (position >= text.length() || text.charAt(position) != c) {
+			throw error("'" + c + "' expected");
+		}
+		position++;
+	}
+
+	private void skipSpaces() {
+		while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+			position++;
+		}
+	}
+
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException(message + " in \"" + text + "\"");
+	}
+
+	/////////////////////////////////////////////////////////////////////////
+	// Evaluator objects.
+
+	private static abstract class Node {
+		abstract int value(int hits) throws AddressErrorException;
+
+		boolean isConstant() {
+			return false;
+		}
+	}
+
+	private static class Constant extends Node {
+		private final int value;
+
+		Constant(int value) {
+			this.value = value;
+		}
+
+		int value(int hits) {
+			return value;
+		}
+
+		boolean isConstant() {
+			return true;
+		}
+	}
+
+	private static class Hits extends Node {
+		int value(int hits) {
+			return hits;
+		}
+	}
+
+	private static class ProgramCounter extends Node {
+		int value(int hits) {
+			return RegisterFile.getProgramCounter();
+		}
+	}
+
+	private static class GeneralRegister extends Node {
+		private final int number;
+
+		GeneralRegister(int number) {
+			this.number = number;
+		}
+
+		int value(int hits) {
+			return RegisterFile.getValue(number);
+		}
+	}
+
+	private static class FloatingPointRegister extends Node {
+		private final int number;
+
+		FloatingPointRegister(int number) {
+			this.number = number;
+		}
+
+		int value(int hits) {
+			return Coprocessor1.getValue(number);
+		}
+	}
+
+	private static class MemoryWord extends Node {
+		private final Node address;
+
+		MemoryWord(Node address) {
+			this.address = address;
+		}
+
+		int value(int hits) throws AddressErrorException {
+			return Globals.memory.getWordNoNotify(address.value(hits));
+		}
+	}
+
+	private static class MemoryHalf extends Node {
+		private final Node address;
+
+		MemoryHalf(Node address) {
+			this.address = address;
+		}
+
+		int value(int hits) throws AddressErrorException {
+			return (short) Globals.memory.getHalfNoNotify(address.value(hits));
+		}
+	}
+
+	private static class MemoryByte extends Node {
+		private final Node address;
+
+		MemoryByte(Node address) {
+			this.address = address;
+		}
+
+		int value(int hits) throws AddressErrorException {
+			return (byte) Globals.memory.getByteNoNotify(address.value(hits));
+		}
+	}
+
+	private static class Negate extends Node {
+		private final Node operand;
+
+		Negate(Node operand) {
+			this.operand = operand;
+		}
+
+		int value(int hits) throws AddressErrorException {
+			return -operand.value(hits);
+		}
+	}
+
+	private static class Complement extends Node {
+		private final Node operand;
+
+		Complement(Node operand) {
+			this.operand = operand;
+		}
+
+		int value(int hits) throws AddressErrorException {
+			return ~operand.value(hits);
+		}
+	}
+
+	private static class Not extends Node {
+		private final Node operand;
+
+		Not(Node operand) {
+			this.operand = operand;
+		}
+
+		int value(int hits) throws AddressErrorException {
+			return (operand.value(hits) == 0) ? 1 : 0;
+		}
+	}
+
+	private static class And extends Node {
+		private final Node left, right;
+
+		And(Node left, Node right) {
+			this.left = left;
+			this.right = right;
+		}
+
+		int value(int hits) throws AddressErrorException {
+			return (left.value(hits) != 0 && right.value(hits) != 0) ? 1 : 0;
+		}
+	}
+
+	private static class Or extends Node {
+		private final Node left, right;
+
+		Or(Node left, Node right) {
+			this.left = left;
+			this.right = right;
+		}
+
+		int value(int hits) throws AddressErrorException {
+			return (left.value(hits) != 0 || right.value(hits) != 0) ? 1 : 0;
+		}
+	}
+
+	private static class Arithmetic extends Node {
+		private static final String[] OPERATORS = { "+", "-", "*", "/", "%", "&", "|", "^", "<<", ">>", ">>>", "==",
+				"!=", "<", "<=", ">", ">=" };
+		private final int operator; // index in OPERATORS
+		private final Node left, right;
+
+		Arithmetic(String operator, Node left, Node right) {
+			this.operator = Arrays.asList(OPERATORS).indexOf(operator);
+			this.left = left;
+			this.right = right;
+		}
+
+		int value(int hits) throws AddressErrorException {
+			int a = left.value(hits);
+			int b = right.value(hits);
+			switch (operator) {
+			case 0:
+				return a + b;
+			case 1:
+				return a - b;
+			case 2:
+				return a * b;
+			case 3:
+				return a / b;
+			case 4:
+				return a % b;
+			case 5:
+				return a & b;
+			case 6:
+				return a | b;
+			case 7:
+				return a ^ b;
+			case 8:
+				return a << b;
+			case 9:
+				return a >> b;
+			case 10:
+				return a >>> b;
+			case 11:
+				return (a == b) ? 1 : 0;
+			case 12:
+				return (a != b) ? 1 : 0;
+			case 13:
+				return (a < b) ? 1 : 0;
+			case 14:
+				return (a <= b) ? 1 : 0;
+			case 15:
+				return (a > b) ? 1 : 0;
+			default:
+				return (a >= b) ? 1 : 0;
+			}
+		}
+	}
+}
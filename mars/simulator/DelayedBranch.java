@@ -165,4 +165,27 @@ public class DelayedBranch {
 		return branchTargetAddress;
 	}
 
+	/**
+	 * Capture the complete delayed branch state, state in the high order word
+	 * and target address in the low order word, for later use by restore().
+	 * This method has package visibility.
+	 *
+	 * @return the current delayed branch state
+	 */
+	static long save() {
+		return ((long) state << 32) | (branchTargetAddress & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Reinstate a delayed branch state previously captured by save(). This
+	 * method has package visibility.
+	 *
+	 * @param saved
+	 *            value returned by an earlier call to save()
+	 */
+	static void restore(long saved) {
+		state = (int) (saved >>> 32);
+		branchTargetAddress = (int) saved;
+	}
+
 } // DelayedBranch
\ No newline at end of file
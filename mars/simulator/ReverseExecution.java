@@ -0,0 +1,504 @@
+package mars.simulator;
+
+import mars.*;
+import mars.mips.hardware.*;
+import mars.util.*;
+import java.util.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Reverse execution of the program being simulated: going back any number of
+ * instructions, or back to the most recent breakpoint ("reverse continue"),
+ * however far that is -- not just as far as the BackStepper can undo.
+ * <p>
+ * Every so many instructions, a checkpoint of the complete machine state is
+ * taken: memory (including the heap allocator), the register file,
+ * coprocessors 0 and 1, the delayed branch, the table of files the program
+ * has open and the breakpoint hit counts. Memory blocks unchanged since
+ * the previous checkpoint are shared with it. Nondeterministic inputs are
+ * recorded by InputLog as they are consumed, and breakpoint hits as they are
+ * counted, since the simulator only counts them when running to a
+ * breakpoint. To reach an earlier instruction,
+ * the nearest checkpoint at or before it is restored and execution is
+ * repeated from there, with InputLog supplying the recorded inputs and output
+ * suppressed, since it has already been produced once. Observers of memory
+ * and registers, such as tools, are not told of the accesses either, for the
+ * same reason, and accesses are not traced again.
+ * <p>
+ * File syscalls are not repeated either; while re-executing they only keep
+ * the table of open files up to date. When execution goes on from an earlier
+ * point than the one the files were last used at (by backstepping after going
+ * back), the files are brought into line with the table: opened or closed as
+ * need be, a file being read moved back to where it was then, and a file
+ * being written cut back to the length it had then.
+ * <p>
+ * At most MAX_CHECKPOINTS are kept. When there would be more, every other one
+ * is discarded and the interval between them doubled, so a long run costs
+ * longer re-execution rather than more memory. The interval is doubled up to
+ * MAX_INTERVAL_FACTOR times the one it started with, which bounds the time a
+ * step back takes. Beyond that, every other checkpoint in the older half is
+ * discarded instead, so going back a long way takes longer than going back a
+ * little.
+ * <p>
+ * Not recorded, so not repeated by re-execution: changes made through the GUI
+ * while paused, MMIO device input and external interrupts.
+ * 
+ * @version October 2026
+ */
+
+public class ReverseExecution {
+	/** Most checkpoints kept at one time. */
+	public static final int MAX_CHECKPOINTS = 64;
+	/** Most times the checkpoint interval grows beyond the one it started with. */
+	public static final int MAX_INTERVAL_FACTOR = 16;
+
+	// False while instructions are executed again to go back, so that
+	// observers of memory and registers are not told of accesses twice.
+	private static volatile boolean notifyingObservers = true;
+
+	private int interval; // instructions between checkpoints
+	private int maxInterval;
+	private long count; // instructions executed since the program started
+	private long frontier; // furthest count reached; later is unknown
+	private long nextCheckpoint;
+	private ArrayList checkpoints = new ArrayList(); // by ascending count
+	// InputLog position after each instruction that consumed input.
+	private long[] markCounts = new long[16];
+	private int[] markPositions = new int[16];
+	private int marks;
+	// Breakpoint hits counted after each instruction, and the next one to
+	// count again while re-executing.
+	private long[] hitCounts = new long[16];
+	private int[] hitAddresses = new int[16];
+	private int hits;
+	private int nextHit;
+	private volatile boolean stopped;
+
+	/**
+	 * Create reverse execution support for a newly assembled program.
+	 * 
+	 * @param interval
+	 *            number of instructions between checkpoints
+	 */
+	public ReverseExecution(int interval) {
+		this.interval = interval;
+		this.maxInterval = (int) Math.min((long) interval * MAX_INTERVAL_FACTOR, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Determine whether observers of memory and registers are to be notified
+	 * of accesses. They are not while instructions are being executed again to
+	 * go back, since they were notified the first time, except by
+	 * replayFromStart().
+	 * 
+	 * @return false while going back
+	 */
+	public static boolean isNotifyingObservers() {
+		return notifyingObservers;
+	}
+
+	/**
+	 * Get the number of instructions executed to reach the current state.
+	 * 
+	 * @return the instruction count
+	 */
+	public long getInstructionCount() {
+		return count;
+	}
+
+	/**
+	 * Determine whether there is anything to go back to.
+	 * 
+	 * @return true if at least one instruction has been executed
+	 */
+	public boolean canReverse() {
+		return count > 0;
+	}
+
+	/**
+	 * Make a stepBack() or reverseContinue() under way in another thread end
+	 * early, leaving the program in the state it has reached.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * Determine whether the last stepBack() or reverseContinue() was ended
+	 * early by stop().
+	 *
+	 * @return true if it was stopped
+	 */
+	public boolean wasStopped() {
+		return stopped;
+	}
+
+	/**
+	 * Go back the given number of instructions, or to the start of the
+	 * program if there are fewer.
+	 * 
+	 * @param instructions
+	 *            number of instructions to go back
+	 * @return number of instructions actually gone back
+	 */
+	public long stepBack(long instructions) {
+		stopped = false;
+		long start = count;
+		goTo(Math.max(0, count - Math.max(0, instructions)));
+		wentBack(start);
+		return start - count;
+	}
+
+	/**
+	 * Go back to the most recent state, before the current one, in which the
+	 * next instruction to execute is at a breakpoint whose condition, if any,
+	 * holds. Tracepoints are passed over. If there is none, go back to the
+	 * start of the program.
+	 * 
+	 * @param breakPoints
+	 *            addresses of the breakpoints, null if none
+	 * @return true if a breakpoint was reached, false if the start was (or
+	 *         if stopped)
+	 */
+	public boolean reverseContinue(int[] breakPoints) {
+		stopped = false;
+		long start = count;
+		if (breakPoints != null && breakPoints.length > 0) {
+			int[] sorted = breakPoints.clone();
+			Arrays.sort(sorted);
+			// Search one checkpoint interval at a time, newest first.
+			long end = count;
+			for (int i = indexAtOrBefore(end - 1); i >= 0; i--) {
+				Checkpoint checkpoint = (Checkpoint) checkpoints.get(i);
+				restore(checkpoint);
+				long hit = replay(end - 1, sorted, false);
+				if (hit >= 0 && !stopped) {
+					goTo(hit);
+					wentBack(start);
+					return !stopped;
+				}
+				if (stopped) {
+					wentBack(start);
+					return false;
+				}
+				end = checkpoint.count;
+			}
+		}
+		goTo(0);
+		wentBack(start);
+		return false;
+	}
+
+	/**
+	 * Execute the program again from its start up to the current instruction,
+	 * for observers that missed the first execution, such as a tool that was
+	 * disconnected. Unlike going back, observers are notified of memory and
+	 * register accesses and instruction fetches, as they are when executing
+	 * forward. Can be ended early by stop().
+	 */
+	public void replayFromStart() {
+		stopped = false;
+		if (checkpoints.isEmpty()) {
+			return;
+		}
+		long target = count;
+		restore((Checkpoint) checkpoints.get(0));
+		replay(target, null, true);
+		Globals.memory.getWatchpoints().clearTrigger();
+	}
+
+	/**
+	 * Called by the simulator before it starts executing instructions. Takes
+	 * the checkpoint of the initial state. This method has package visibility.
+	 */
+	void started() {
+		if (checkpoints.isEmpty()) {
+			checkpoint();
+		}
+	}
+
+	/**
+	 * Called by the simulator after each instruction it executes. This method
+	 * has package visibility.
+	 */
+	void instructionExecuted() {
+		count++;
+		if (count <= frontier) {
+			if (InputLog.isReexecuting()) {
+				if (count == frontier) {
+					InputLog.setReplaying(false);
+					SystemIO.synchronizeFiles();
+				}
+				return;
+			}
+			// Execution no longer follows the recorded inputs, so what was
+			// recorded after this instruction will not happen.
+			discardAfter(count - 1);
+		}
+		frontier = count;
+		int position = InputLog.getPosition();
+		if (position != ((marks == 0) ? 0 : markPositions[marks - 1])) {
+			addMark(count, position);
+		}
+		if (count >= nextCheckpoint) {
+			checkpoint();
+		}
+	}
+
+	/**
+	 * Called by BreakpointConditions when the simulator has counted a hit of
+	 * the breakpoint at an address, after the instruction just executed. This
+	 * method has package visibility.
+	 * 
+	 * @param address
+	 *            the breakpoint address
+	 */
+	void breakpointHit(int address) {
+		if (hits == hitCounts.length) {
+			hitCounts = Arrays.copyOf(hitCounts, hits * 2);
+			hitAddresses = Arrays.copyOf(hitAddresses, hits * 2);
+		}
+		hitCounts[hits] = count;
+		hitAddresses[hits] = address;
+		hits++;
+	}
+
+	/**
+	 * Called by the BackStepper after it has undone one instruction. What was
+	 * recorded beyond that point is discarded, since execution from there
+	 * will take input afresh as it always has after backstepping. This method
+	 * has package visibility.
+	 */
+	void steppedBack() {
+		if (count == 0) {
+			return;
+		}
+		count--;
+		discardAfter(count);
+		InputLog.setPosition(positionAt(count));
+		InputLog.setReplaying(false);
+		SystemIO.synchronizeFiles();
+		frontier = count;
+	}
+
+	// Restore the nearest checkpoint and re-execute up to the target count.
+	private void goTo(long target) {
+		int i = indexAtOrBefore(target);
+		if (i < 0) {
+			return; // nothing recorded yet
+		}
+		restore((Checkpoint) checkpoints.get(i));
+		replay(target, null, false);
+		// Data watchpoints hit while re-executing do not count.
+		Globals.memory.getWatchpoints().clearTrigger();
+	}
+
+	// Re-execute until count reaches target. Returns the last count, up to and
+	// including target, at which the program counter was at a breakpoint, or
+	// -1 if none. Observers are notified of accesses only if notifyObservers.
+	private long replay(long target, int[] breakPoints, boolean notifyObservers) {
+		notifyingObservers = notifyObservers;
+		try {
+			return replayFrom(target, breakPoints, notifyObservers);
+		} finally {
+			notifyingObservers = true;
+			// Hits after where execution stopped are counted again if the
+			// simulator goes on past them.
+			while (hits > 0 && hitCounts[hits - 1] > count) {
+				hits--;
+			}
+		}
+	}
+
+	private long replayFrom(long target, int[] breakPoints, boolean notifyObservers) {
+		long hit = -1;
+		while (true) {
+			if (breakPoints != null && Arrays.binarySearch(breakPoints, RegisterFile.getProgramCounter()) >= 0
+					&& Simulator.getInstance().getBreakpointConditions().wouldPause(RegisterFile.getProgramCounter())) {
+				hit = count;
+			}
+			if (count >= target || stopped) {
+				break;
+			}
+			ProgramStatement statement = null;
+			try {
+				statement = notifyObservers ? Globals.memory.getStatement(RegisterFile.getProgramCounter())
+						: Globals.memory.getStatementNoNotify(RegisterFile.getProgramCounter());
+			} catch (AddressErrorException e) {
+			}
+			if (statement == null || Simulator.execute(statement) != null) {
+				break; // can only happen if execution diverged
+			}
+			instructionExecuted();
+			countHitsAgain();
+		}
+		return hit;
+	}
+
+	// Tell simulator observers how far execution went back from start.
+	private void wentBack(long start) {
+		if (start > count) {
+			Simulator.getInstance().notifyObserversOfBackstep((int) Math.min(start - count, Integer.MAX_VALUE));
+		}
+	}
+
+	private void restore(Checkpoint checkpoint) {
+		synchronized (Globals.memoryAndRegistersLock) {
+			checkpoint.restore();
+		}
+		count = checkpoint.count;
+		if (Globals.program.getBackStepper() != null) {
+			Globals.program.getBackStepper().clear();
+		}
+		// The checkpoint was taken before any hits after its instruction
+		// were counted.
+		nextHit = 0;
+		while (nextHit < hits && hitCounts[nextHit] < count) {
+			nextHit++;
+		}
+		countHitsAgain();
+		InputLog.setPosition(positionAt(count));
+		InputLog.setReplaying(count < frontier);
+		if (count >= frontier) {
+			SystemIO.synchronizeFiles();
+		}
+	}
+
+	// Count again the breakpoint hits recorded up to the current count.
+	private void countHitsAgain() {
+		while (nextHit < hits && hitCounts[nextHit] <= count) {
+			Simulator.getInstance().getBreakpointConditions().recount(hitAddresses[nextHit++]);
+		}
+	}
+
+	private void checkpoint() {
+		Checkpoint previous = checkpoints.isEmpty() ? null
+				: (Checkpoint) checkpoints.get(checkpoints.size() - 1);
+		checkpoints.add(new Checkpoint(count, previous));
+		if (checkpoints.size() > MAX_CHECKPOINTS) {
+			if (interval < maxInterval) {
+				// Keep the first, the last and every other one between.
+				for (int i = checkpoints.size() - 2; i > 0; i -= 2) {
+					checkpoints.remove(i);
+				}
+				interval = (int) Math.min(2L * interval, maxInterval);
+			} else {
+				// Keep the first and every other one of the older half, so
+				// recent ones stay one interval apart.
+				for (int i = checkpoints.size() / 2; i > 0; i -= 2) {
+					checkpoints.remove(i);
+				}
+			}
+		}
+		nextCheckpoint = count + interval;
+	}
+
+	// Forget checkpoints and input marks beyond the given count.
+	private void discardAfter(long last) {
+		while (checkpoints.size() > 1 && ((Checkpoint) checkpoints.get(checkpoints.size() - 1)).count > last) {
+			checkpoints.remove(checkpoints.size() - 1);
+		}
+		nextCheckpoint = ((Checkpoint) checkpoints.get(checkpoints.size() - 1)).count + interval;
+		while (marks > 0 && markCounts[marks - 1] > last) {
+			marks--;
+		}
+		while (hits > 0 && hitCounts[hits - 1] > last) {
+			hits--;
+		}
+	}
+
+	// Index of the last checkpoint taken at or before the given count.
+	private int indexAtOrBefore(long target) {
+		int i = checkpoints.size() - 1;
+		while (i >= 0 && ((Checkpoint) checkpoints.get(i)).count > target) {
+			i--;
+		}
+		return i;
+	}
+
+	private void addMark(long atCount, int position) {
+		if (marks == markCounts.length) {
+			markCounts = Arrays.copyOf(markCounts, marks * 2);
+			markPositions = Arrays.copyOf(markPositions, marks * 2);
+		}
+		markCounts[marks] = atCount;
+		markPositions[marks] = position;
+		marks++;
+	}
+
+	// InputLog position once the given number of instructions have executed.
+	private int positionAt(long atCount) {
+		int low = 0, high = marks - 1, found = -1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			if (markCounts[middle] <= atCount) {
+				found = middle;
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return (found < 0) ? 0 : markPositions[found];
+	}
+
+	/**
+	 * The complete machine state after a given number of instructions.
+	 */
+	private static class Checkpoint {
+		private long count;
+		private Memory.Snapshot memory;
+		private int[] registers;
+		private int[] coprocessor0;
+		private int[] coprocessor1;
+		private long delayedBranch;
+		private SystemIO.FileSnapshot files;
+		private HashMap hitCounts;
+
+		private Checkpoint(long count, Checkpoint previous) {
+			this.count = count;
+			this.memory = Globals.memory.takeSnapshot((previous == null) ? null : previous.memory);
+			this.registers = RegisterFile.saveValues();
+			this.coprocessor0 = Coprocessor0.saveValues();
+			this.coprocessor1 = Coprocessor1.saveValues();
+			this.delayedBranch = DelayedBranch.save();
+			this.files = SystemIO.takeFileSnapshot();
+			this.hitCounts = Simulator.getInstance().getBreakpointConditions().saveHitCounts();
+		}
+
+		private void restore() {
+			Globals.memory.restoreSnapshot(memory);
+			RegisterFile.restoreValues(registers);
+			Coprocessor0.restoreValues(coprocessor0);
+			Coprocessor1.restoreValues(coprocessor1);
+			DelayedBranch.restore(delayedBranch);
+			SystemIO.restoreFileSnapshot(files);
+			Simulator.getInstance().getBreakpointConditions().restoreHitCounts(hitCounts);
+		}
+	}
+}
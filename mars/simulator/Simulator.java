@@ -46,8 +46,10 @@ WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
 
 public class Simulator extends Observable {
 	private SimThread simulatorThread;
+	private ReverseThread reverseThread;
 	private static Simulator simulator = null; // Singleton object
 	private static Runnable interactiveGUIUpdater = null;
+	private final BreakpointConditions breakpointConditions = new BreakpointConditions();
 	// Others can set this true to indicate external interrupt. Initially used
 	// to simulate keyboard and display interrupts. The device is identified
 	// by the address of its MMIO control register. keyboard 0xFFFF0000 and
@@ -103,6 +105,16 @@ public class Simulator extends Observable {
 		return DelayedBranch.isTriggered();
 	}
 
+	/**
+	 * Returns the conditions, hit counts and log messages attached to
+	 * breakpoints.
+	 *
+	 * @return the breakpoint conditions
+	 */
+	public BreakpointConditions getBreakpointConditions() {
+		return breakpointConditions;
+	}
+
 	/**
 	 * Simulate execution of given MIPS program. It must have already been
 	 * assembled.
@@ -148,6 +160,25 @@ public class Simulator extends Observable {
 		return true;
 	}
 
+	/**
+	 * Reverse execution in a thread of its own, as simulate() executes
+	 * forward, so that the GUI is not held up while a checkpoint is restored
+	 * and instructions are executed again. STOP and PAUSE end it early, where
+	 * it has got to.
+	 *
+	 * @param reverse
+	 *            the reverse execution support of the program
+	 * @param reversal
+	 *            does the reversing, by calling stepBack() or reverseContinue()
+	 *            on reverse
+	 * @param whenFinished
+	 *            run in the GUI thread once reversal is finished
+	 */
+	public void reverse(ReverseExecution reverse, Runnable reversal, Runnable whenFinished) {
+		reverseThread = new ReverseThread(reverse, reversal, whenFinished);
+		reverseThread.start();
+	}
+
 	/**
 	 * Set the volatile stop boolean variable checked by the execution thread at
 	 * the end of each MIPS instruction execution. If variable is found to be
@@ -164,6 +195,10 @@ public class Simulator extends Observable {
 			}
 			simulatorThread = null;
 		}
+		if (reverseThread != null) {
+			reverseThread.reverse.stop();
+			reverseThread = null;
+		}
 	}
 
 	/*
@@ -202,10 +237,108 @@ public class Simulator extends Observable {
 				RunSpeedPanel.getInstance().getRunSpeed(), programCounter));
 	}
 
-	private void notifyObserversOfExecutionStop(int maxSteps, int programCounter) {
+	private void notifyObserversOfExecutionStop(int maxSteps, int programCounter, int reason) {
 		this.setChanged();
 		this.notifyObservers(new SimulatorNotice(SimulatorNotice.SIMULATOR_STOP, maxSteps,
-				RunSpeedPanel.getInstance().getRunSpeed(), programCounter));
+				RunSpeedPanel.getInstance().getRunSpeed(), programCounter, reason));
+	}
+
+	/**
+	 * Tell observers that execution has gone back the given number of
+	 * instructions, by backstepping or reverse execution. This method has
+	 * package visibility.
+	 */
+	void notifyObserversOfBackstep(int instructions) {
+		this.setChanged();
+		this.notifyObservers(new SimulatorNotice(SimulatorNotice.SIMULATOR_BACKSTEP, instructions,
+				RunSpeedPanel.getInstance().getRunSpeed(), RegisterFile.getProgramCounter()));
+	}
+
+	/**
+	 * Execute the given MIPS statement, which is the one at the program
+	 * counter, then carry out any delayed branch. A runtime exception is
+	 * handled by the exception handler if the program has one. Used by the
+	 * simulator thread, and by ReverseExecution to re-execute instructions.
+	 * This method has package visibility.
+	 *
+	 * @param statement
+	 *            the statement at the program counter
+	 * @return null if execution continues with the next instruction, otherwise
+	 *         the exception that ended it; one with no errors means the
+	 *         program exited normally.
+	 */
+	static ProcessingException execute(ProgramStatement statement) {
+		int pc = RegisterFile.getProgramCounter();
+		RegisterFile.incrementPC();
+		// Perform the MIPS instruction in synchronized block. If
+		// external threads agree
+		// to access MIPS memory and registers only through synchronized
+		// blocks on same
+		// lock variable, then full (albeit heavy-handed) protection of
+		// MIPS memory and
+		// registers is assured. Not as critical for reading from those
+		// resources.
+		synchronized (Globals.memoryAndRegistersLock) {
+			try {
+				// Interrupts are not recorded, so none are taken while
+				// re-executing recorded instructions.
+				if (Simulator.externalInterruptingDevice != NO_DEVICE && !InputLog.isReplaying()) {
+					int deviceInterruptCode = externalInterruptingDevice;
+					Simulator.externalInterruptingDevice = NO_DEVICE;
+					throw new ProcessingException(statement, "External Interrupt", deviceInterruptCode);
+				}
+				BasicInstruction instruction = (BasicInstruction) statement.getInstruction();
+				if (instruction == null) {
+					throw new ProcessingException(
+							statement, "undefined instruction ("
+									+ Binary.intToHexString(statement.getBinaryStatement()) + ")",
+							Exceptions.RESERVED_INSTRUCTION_EXCEPTION);
+				}
+				// THIS IS WHERE THE INSTRUCTION EXECUTION IS ACTUALLY
+				// SIMULATED!
+				instruction.getSimulationCode().simulate(statement);
+
+				// IF statement added 7/26/06 (explanation in
+				// SimThread.construct)
+				if (Globals.getSettings().getBackSteppingEnabled()) {
+					Globals.program.getBackStepper().addDoNothing(pc);
+				}
+			} catch (ProcessingException pe) {
+				if (pe.errors() == null) {
+					return pe; // execution completed without error.
+				} else {
+					// See if an exception handler is present. Assume
+					// this is the case
+					// if and only if memory location
+					// Memory.exceptionHandlerAddress
+					// (e.g. 0x80000180) contains an instruction. If so,
+					// then set the
+					// program counter there and continue. Otherwise
+					// terminate the
+					// MIPS program with appropriate error message.
+					ProgramStatement exceptionHandler = null;
+					try {
+						exceptionHandler = Globals.memory.getStatement(Memory.exceptionHandlerAddress);
+					} catch (AddressErrorException aee) {
+					} // will not occur with this well-known addres
+					if (exceptionHandler != null) {
+						RegisterFile.setProgramCounter(Memory.exceptionHandlerAddress);
+					} else {
+						return pe;
+					}
+				}
+			}
+		} // end synchronized block
+
+		///////// DPS 15 June 2007. Handle delayed branching if it
+		///////// occurs./////
+		if (DelayedBranch.isTriggered()) {
+			RegisterFile.setProgramCounter(DelayedBranch.getBranchTargetAddress());
+			DelayedBranch.clear();
+		} else if (DelayedBranch.isRegistered()) {
+			DelayedBranch.trigger();
+		} //////////////////////////////////////////////////////////////////////
+		return null;
 	}
 
 	/**
@@ -302,6 +435,10 @@ public class Simulator extends Observable {
 
 			Simulator.getInstance().notifyObserversOfExecutionStart(maxSteps, pc);
 
+			MemoryWatchpoints watchpoints = Globals.memory.getWatchpoints();
+			watchpoints.clearTrigger();
+			BreakpointConditions conditions = Simulator.getInstance().getBreakpointConditions();
+			conditions.clearTrigger();
 			RegisterFile.initializeProgramCounter(pc);
 			ProgramStatement statement = null;
 			try {
@@ -323,7 +460,7 @@ public class Simulator extends Observable {
 				this.constructReturnReason = EXCEPTION;
 				this.done = true;
 				SystemIO.resetFiles(); // close any files opened in MIPS program
-				Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc);
+				Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc, constructReturnReason);
 				return new Boolean(done);
 			}
 			int steps = 0;
@@ -383,87 +520,31 @@ public class Simulator extends Observable {
 
 			int pc = 0; // added: 7/26/06 (explanation above)
 
+			ReverseExecution reverse = p.getReverseExecution();
+			if (reverse != null) {
+				reverse.started();
+			}
+
 			while (statement != null) {
 				pc = RegisterFile.getProgramCounter(); // added: 7/26/06
 														// (explanation above)
-				RegisterFile.incrementPC();
-				// Perform the MIPS instruction in synchronized block. If
-				// external threads agree
-				// to access MIPS memory and registers only through synchronized
-				// blocks on same
-				// lock variable, then full (albeit heavy-handed) protection of
-				// MIPS memory and
-				// registers is assured. Not as critical for reading from those
-				// resources.
-				synchronized (Globals.memoryAndRegistersLock) {
-					try {
-						if (Simulator.externalInterruptingDevice != NO_DEVICE) {
-							int deviceInterruptCode = externalInterruptingDevice;
-							Simulator.externalInterruptingDevice = NO_DEVICE;
-							throw new ProcessingException(statement, "External Interrupt", deviceInterruptCode);
-						}
-						BasicInstruction instruction = (BasicInstruction) statement.getInstruction();
-						if (instruction == null) {
-							throw new ProcessingException(
-									statement, "undefined instruction ("
-											+ Binary.intToHexString(statement.getBinaryStatement()) + ")",
-									Exceptions.RESERVED_INSTRUCTION_EXCEPTION);
-						}
-						// THIS IS WHERE THE INSTRUCTION EXECUTION IS ACTUALLY
-						// SIMULATED!
-						instruction.getSimulationCode().simulate(statement);
-
-						// IF statement added 7/26/06 (explanation above)
-						if (Globals.getSettings().getBackSteppingEnabled()) {
-							Globals.program.getBackStepper().addDoNothing(pc);
-						}
-					} catch (ProcessingException pe) {
-						if (pe.errors() == null) {
-							this.constructReturnReason = NORMAL_TERMINATION;
-							this.done = true;
-							SystemIO.resetFiles(); // close any files opened in
-													// MIPS program
-							Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc);
-							return new Boolean(done); // execution completed
-														// without error.
-						} else {
-							// See if an exception handler is present. Assume
-							// this is the case
-							// if and only if memory location
-							// Memory.exceptionHandlerAddress
-							// (e.g. 0x80000180) contains an instruction. If so,
-							// then set the
-							// program counter there and continue. Otherwise
-							// terminate the
-							// MIPS program with appropriate error message.
-							ProgramStatement exceptionHandler = null;
-							try {
-								exceptionHandler = Globals.memory.getStatement(Memory.exceptionHandlerAddress);
-							} catch (AddressErrorException aee) {
-							} // will not occur with this well-known addres
-							if (exceptionHandler != null) {
-								RegisterFile.setProgramCounter(Memory.exceptionHandlerAddress);
-							} else {
-								this.constructReturnReason = EXCEPTION;
-								this.pe = pe;
-								this.done = true;
-								SystemIO.resetFiles(); // close any files opened
-														// in MIPS program
-								Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc);
-								return new Boolean(done);
-							}
-						}
+				ProcessingException pe = execute(statement);
+				if (pe != null) {
+					if (pe.errors() == null) {
+						this.constructReturnReason = NORMAL_TERMINATION;
+					} else {
+						this.constructReturnReason = EXCEPTION;
+						this.pe = pe;
 					}
-				} // end synchronized block
-
-				///////// DPS 15 June 2007. Handle delayed branching if it
-				///////// occurs./////
-				if (DelayedBranch.isTriggered()) {
-					RegisterFile.setProgramCounter(DelayedBranch.getBranchTargetAddress());
-					DelayedBranch.clear();
-				} else if (DelayedBranch.isRegistered()) {
-					DelayedBranch.trigger();
-				} //////////////////////////////////////////////////////////////////////
+					this.done = true;
+					SystemIO.resetFiles(); // close any files opened in MIPS
+											// program
+					Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc, constructReturnReason);
+					return new Boolean(done);
+				}
+				if (reverse != null) {
+					reverse.instructionExecuted();
+				}
 
 				// Volatile variable initialized false but can be set true by
 				// the main thread.
@@ -472,17 +553,27 @@ public class Simulator extends Observable {
 				if (stop == true) {
 					this.constructReturnReason = PAUSE_OR_STOP;
 					this.done = false;
-					Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc);
+					Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc, constructReturnReason);
 					return new Boolean(done);
 				}
-				// Return if we've reached a breakpoint.
+				// Return if we've reached a breakpoint whose condition, if
+				// any, holds. Tracepoints log and never return.
 				if ((breakPoints != null)
-						&& (Arrays.binarySearch(breakPoints, RegisterFile.getProgramCounter()) >= 0)) {
+						&& (Arrays.binarySearch(breakPoints, RegisterFile.getProgramCounter()) >= 0)
+						&& conditions.hit(RegisterFile.getProgramCounter())) {
 					this.constructReturnReason = BREAKPOINT;
 					this.done = false;
-					Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc);
+					Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc, constructReturnReason);
 					return new Boolean(done); // false;
 				}
+				// Return if the instruction just executed triggered a data
+				// watchpoint. Reported the same way as a breakpoint.
+				if (watchpoints.isTriggered()) {
+					this.constructReturnReason = BREAKPOINT;
+					this.done = false;
+					Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc, constructReturnReason);
+					return new Boolean(done);
+				}
 				// Check number of MIPS instructions executed. Return if at
 				// limit (-1 is no limit).
 				if (maxSteps > 0) {
@@ -490,7 +581,7 @@ public class Simulator extends Observable {
 					if (steps >= maxSteps) {
 						this.constructReturnReason = MAX_STEPS;
 						this.done = false;
-						Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc);
+						Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc, constructReturnReason);
 						return new Boolean(done);// false;
 					}
 				}
@@ -551,7 +642,9 @@ public class Simulator extends Observable {
 					this.done = true;
 					SystemIO.resetFiles(); // close any files opened in MIPS
 											// program
-					Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc);
+					// Report the address that could not be fetched, as above.
+					Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, RegisterFile.getProgramCounter(),
+							constructReturnReason);
 					return new Boolean(done);
 				}
 			}
@@ -570,7 +663,7 @@ public class Simulator extends Observable {
 			this.constructReturnReason = CLIFF_TERMINATION;
 			this.done = true;
 			SystemIO.resetFiles(); // close any files opened in MIPS program
-			Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc);
+			Simulator.getInstance().notifyObserversOfExecutionStop(maxSteps, pc, constructReturnReason);
 			return new Boolean(done); // true; // execution completed
 		}
 
@@ -612,14 +705,43 @@ public class Simulator extends Observable {
 
 	}
 
+	/**
+	 * SwingWorker subclass to perform reverse execution in the background.
+	 */
+	private class ReverseThread extends SwingWorker {
+		private ReverseExecution reverse;
+		private Runnable reversal;
+		private Runnable whenFinished;
+
+		ReverseThread(ReverseExecution reverse, Runnable reversal, Runnable whenFinished) {
+			super(true);
+			this.reverse = reverse;
+			this.reversal = reversal;
+			this.whenFinished = whenFinished;
+		}
+
+		public Object construct() {
+			Thread.currentThread().setPriority(Thread.NORM_PRIORITY - 1);
+			reversal.run();
+			return null;
+		}
+
+		public void finished() {
+			if (reverseThread == this) {
+				reverseThread = null;
+			}
+			whenFinished.run();
+		}
+	}
+
 	private class UpdateGUI implements Runnable {
 		public void run() {
-			if (Globals.getGui().getRegistersPane().getSelectedComponent() == Globals.getGui().getMainPane()
-					.getExecutePane().getRegistersWindow()) {
-				Globals.getGui().getMainPane().getExecutePane().getRegistersWindow().updateRegisters();
-			} else {
-				Globals.getGui().getMainPane().getExecutePane().getCoprocessor1Window().updateRegisters();
-			}
+			// Each window redisplays only the registers written since its
+			// last update. The one showing the register written last selects
+			// itself, whichever order they are updated in.
+			Globals.getGui().getMainPane().getExecutePane().getRegistersWindow().updateRegisters();
+			Globals.getGui().getMainPane().getExecutePane().getCoprocessor1Window().updateRegisters();
+			Globals.getGui().getMainPane().getExecutePane().getCoprocessor0Window().updateRegisters();
 			Globals.getGui().getMainPane().getExecutePane().getDataSegmentWindow().updateValues();
 			Globals.getGui().getMainPane().getExecutePane().getTextSegmentWindow().setCodeHighlighting(true);
 			Globals.getGui().getMainPane().getExecutePane().getTextSegmentWindow().highlightStepAtPC();
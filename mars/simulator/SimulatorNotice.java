@@ -41,8 +41,15 @@ public class SimulatorNotice {
 	private int maxSteps;
 	private double runSpeed;
 	private int programCounter;
+	private int reason;
 	public static final int SIMULATOR_START = 0;
 	public static final int SIMULATOR_STOP = 1;
+	/**
+	 * Execution went back by backstepping or reverse execution. The number of
+	 * instructions undone is given in place of the maximum steps, and the
+	 * program counter is where execution will resume.
+	 */
+	public static final int SIMULATOR_BACKSTEP = 2;
 
 	/**
 	 * Constructor will be called only within this package, so assume address
@@ -55,6 +62,14 @@ public class SimulatorNotice {
 		this.programCounter = programCounter;
 	}
 
+	/**
+	 * Constructor for a stop notice, which also tells why execution stopped.
+	 */
+	public SimulatorNotice(int action, int maxSteps, double runSpeed, int programCounter, int reason) {
+		this(action, maxSteps, runSpeed, programCounter);
+		this.reason = reason;
+	}
+
 	/** Fetch the memory address that was accessed. */
 	public int getAction() {
 		return this.action;
@@ -75,11 +90,21 @@ public class SimulatorNotice {
 		return this.programCounter;
 	}
 
+	/**
+	 * Fetch the reason execution stopped, one of the Simulator constants such
+	 * as Simulator.BREAKPOINT or Simulator.NORMAL_TERMINATION. Only set for
+	 * SIMULATOR_STOP.
+	 */
+	public int getReason() {
+		return this.reason;
+	}
+
 	/**
 	 * String representation indicates access type, address and length in bytes
 	 */
 	public String toString() {
-		return ((this.getAction() == SIMULATOR_START) ? "START " : "STOP  ") + "Max Steps " + this.maxSteps + " "
+		return ((this.getAction() == SIMULATOR_START) ? "START "
+				: (this.getAction() == SIMULATOR_STOP) ? "STOP  " : "BACK  ") + "Max Steps " + this.maxSteps + " "
 				+ "Speed " + ((this.runSpeed == mars.venus.RunSpeedPanel.UNLIMITED_SPEED) ? "unlimited "
 						: "" + this.runSpeed + " inst/sec")
 				+ "Prog Ctr " + this.programCounter;
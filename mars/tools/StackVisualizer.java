@@ -46,6 +46,7 @@ import javax.swing.JSeparator;
 import javax.swing.JTable;
 import javax.swing.ScrollPaneConstants;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
@@ -63,7 +64,7 @@ import mars.mips.hardware.Register;
 import mars.mips.hardware.RegisterAccessNotice;
 import mars.mips.hardware.RegisterFile;
 import mars.mips.instructions.Instruction;
-import mars.simulator.BackStepper;
+import mars.simulator.ReverseExecution;
 import mars.simulator.Simulator;
 import mars.simulator.SimulatorNotice;
 import mars.util.Binary;
@@ -150,6 +151,28 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 	 * (called but is yet to complete execution).
 	 */
 	private final ActiveSubroutineStats activeFunctionCallStats = new ActiveSubroutineStats();
+	/**
+	 * Reversible log of the changes made to {@code ras}, {@code activeFunctionCallStats},
+	 * the "Stored Reg" and "Call Layout" columns and the pending register/frame names,
+	 * oldest first. Changes are undone from the end when execution goes back.
+	 */
+	private final ArrayList<StateChange> changes    = new ArrayList<StateChange>();
+	/** Maximum number of changes logged. The oldest half is dropped when exceeded. */
+	private final int     MAX_LOGGED_CHANGES        = 100000;
+	/** Number of instructions fetched since the user program was reset. */
+	private long          instructionCount          = 0;
+	/** Changes of instructions up to this (inclusive) may have been dropped from the log. */
+	private long          changesDroppedUpTo        = 0;
+	/** Address of the last instruction fetched. */
+	private int           lastFetchAddress          = -1;
+	/** Whether the program terminated while executing the last instruction fetched. */
+	private boolean       lastInstrIncomplete       = false;
+	/**
+	 * Whether subroutine calls and table annotations follow the user program since
+	 * it was reset. False if the program was executed while the tool was disconnected,
+	 * until they are rebuilt on connecting.
+	 */
+	private boolean       stateIsCurrent            = false;
 	/** Current stack base address. Used to detect memory configuration changes */
 	private int currStackBaseAddress = Memory.stackBaseAddress;
 
@@ -196,7 +219,6 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 	private final int     LIGHT_GRAY   = 0xE0E0E0;
 	private final int     GRAY         = 0x999999;
 	private final int     WHITE        = 0xFFFFFF;
-	private boolean       disabledBackStep = false;
 	private boolean       displayDataPerByte = true;
 	private boolean       displayHexAddresses = true;
 	private boolean       displayHexValues = true;
@@ -204,7 +226,7 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 	private final DefaultTableModel tableModel = new DefaultTableModel();
 	
 	/** Used for debugging purposes. */
-	private final boolean debug = false, printMemContents = false, debugBackStepper = false;
+	private final boolean debug = false, printMemContents = false;
 
 
 	protected StackVisualizer(String title, String heading) {
@@ -433,27 +455,25 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 			connectButton.addActionListener(new ActionListener() {
 				@Override
 				public void actionPerformed(ActionEvent e) {
-					if (connectButton.isConnected()) {
-						restoreBackStepper();
-					} else {
+					if (!connectButton.isConnected()) {
 						checkMemConfChanged();
 						/*
-						 * User program should be recompiled (and executed) after
-						 * StackVisualizer is launched. This is required for
-						 * coherently storing the subroutine call stack.
-						 */
-						runButtonsSetEnabled(false);
-						/* Connecting StackVisualizer in the middle of program execution
-						 * will disable Back Stepper but the button will show as enabled.
-						 * Maybe we should disable it by hand or just don't mess with it.
+						 * Backsteps taken while disconnected have already been undone,
+						 * so the tool can continue where it left off. Otherwise, the
+						 * subroutine call stack is rebuilt by executing the user program
+						 * again from the start, once the tool is connected (this listener
+						 * runs before the one that connects it).
 						 */
-						disableBackStepper();
+						if (!stateIsCurrent) {
+							SwingUtilities.invokeLater(new Runnable() {
+								@Override
+								public void run() {
+									rebuildState();
+								}
+							});
+						}
 
 						refreshGui();
-
-						String msg = "Back Stepping has been disabled.\n"
-								+ "Already running programs should be assembled again.";
-						showMessageWindow(msg);
 					}
 				}
 			});
@@ -580,6 +600,8 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 		addAsObserver(Memory.stackLimitAddress, Memory.stackBaseAddress);
 		addAsObserver(RegisterFile.getRegisters()[SP_REG_NUMBER]);
 		addAsObserver(Memory.textBaseAddress, Memory.textLimitAddress);
+		// Exception handler instructions are observed too so that all instructions are counted.
+		addAsObserver(Memory.kernelTextBaseAddress, Memory.kernelTextLimitAddress);
 		addAsObserver(RegisterFile.getRegisters()[RA_REG_NUMBER]);
 	}
 
@@ -601,7 +623,7 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 
 		if (notice instanceof MemoryAccessNotice) {
 			MemoryAccessNotice m = (MemoryAccessNotice) notice;
-			if (Memory.inTextSegment(m.getAddress()))
+			if (Memory.inTextSegment(m.getAddress()) || Memory.inKernelTextSegment(m.getAddress()))
 				processTextMemoryUpdate(m);
 			else
 				processStackMemoryUpdate(m);
@@ -628,7 +650,11 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 		if (notice.getRegisterName().equals("$sp")) {
 			int oldSpDataRowIndex = spDataRowIndex;
 			updateSpDataRowColIndex();
-			resetStoredRegAndFrameNameColumns(spDataRowIndex + 1, oldSpDataRowIndex);
+			// Words popped off the stack lose their annotations.
+			for (int row = spDataRowIndex + 1; row <= oldSpDataRowIndex; row++) {
+				if (!isEmptyCell(row, storedRegisterColumn) || !isEmptyCell(row, frameNameColumn))
+					setAnnotation(row, "", "");
+			}
 //			 System.out.println("SP value: " + formatAddress(getSpValue()) + " - tableIndex: " + spDataRowIndex);
 			// Add more rows if we are reaching current row count
 			if (spDataRowIndex + REMAINING_ROWS_THRESHOLD > numberOfRows) {
@@ -678,8 +704,7 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 		if (debug)
 			System.out.println("Addr: " + formatAddress(notice.getAddress()) + " - tableIndex: " + row + " (" + regName + ")");
 
-		tableModel.setValueAt(regName, row, storedRegisterColumn);
-		tableModel.setValueAt(frameName, row, frameNameColumn);
+		setAnnotation(row, regName, frameName);
 		getStackData(row);
 		table.repaint();
 	}
@@ -771,6 +796,13 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 	private void processTextMemoryUpdate(MemoryAccessNotice notice) {
 		if (notice.getAccessType() == AccessNotice.WRITE)
 			return;
+		/*
+		 * Reads other than instruction fetches are ignored, such as lw from the
+		 * text segment or the simulator looking up the exception handler.
+		 */
+		if (notice.getAddress() != RegisterFile.getProgramCounter())
+			return;
+		instructionFetched(notice.getAddress());
 
 		if (debug) {
 			System.out.println("\nTextAccessNotice (R): " + notice.getAddress()
@@ -834,14 +866,17 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 				ProgramStatement jalStatement =  memInstance.getStatementNoNotify(jalStatementAddress);
 				int jalTargetAddress = jalStatement.getOperand(J_ADDR_OPERAND_LIST_INDEX) * WORD_LENGTH_BYTES;
 				String exitingSubroutineName = addrToTextSymbol(jalTargetAddress);
-				activeFunctionCallStats.removeCall(exitingSubroutineName);
+				boolean callRemoved = activeFunctionCallStats.removeCall(exitingSubroutineName);
+				Integer rasTopAddress = ras.isEmpty() ? null : ras.get(ras.size()-1);
+				logChange(new StateChange(StateChange.RETURN, instructionCount, rasTopAddress,
+						exitingSubroutineName, null, callRemoved));
 				if (debug) {
 					System.out.println("Returning from: " + exitingSubroutineName + " (" + ras.size() +
 							") to line: " + jalStatement.getSourceLine());
 				}
 
 				try {
-					Integer rasTopAddress = ras.remove(ras.size()-1);
+					ras.remove(ras.size()-1);
 					if (rasTopAddress.compareTo(jalStatementAddress) != 0) {
 						System.err.println("Mismatching return address: " + formatAddress(rasTopAddress) + " vs " + formatAddress(jalStatementAddress) +
 								" (Expected/jal vs Actual/jr)");
@@ -849,7 +884,7 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 				} catch (IndexOutOfBoundsException iobe) {
 					/* Exception is thrown whenever:
 					 * 1) Subroutine calling instructions are back-stepped (undone) and again executed.
-					 * Undoing the last step should not be supported! FIXED: BackStepper is disabled.
+					 * FIXED: Backstepping undoes the logged changes of the tool as well.
 					 *
 					 * 2) In case StackVisualizer gets disconnected while user program is executing and
 					 * then is again connected. FIXED: Tool's disconnect button is disabled during
@@ -878,6 +913,7 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 	private void registerNewSubroutineCall(ProgramStatement stmnt, String targetLabel) {
 		ras.add(stmnt.getAddress());
 		Integer count = activeFunctionCallStats.addCall(targetLabel);
+		logChange(new StateChange(StateChange.CALL, instructionCount, stmnt.getAddress(), targetLabel, null, true));
 		frameNameToBeCreated = targetLabel + " (" + count + ")";
 	}
 
@@ -931,9 +967,8 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 	 * @return the corresponding label; else null.
 	 */
 	private String addrToTextSymbol(int memAddress) {
-		String addrStr = String.valueOf(memAddress);
 		SymbolTable localSymTable = Globals.program.getLocalSymbolTable();
-		Symbol symbol = localSymTable.getSymbolGivenAddressLocalOrGlobal(addrStr);
+		Symbol symbol = localSymTable.getSymbolGivenAddressLocalOrGlobal(memAddress);
 		if (symbol != null) {
 			// System.out.println("Symbol: " + symbol.getName());
 			return symbol.getName();
@@ -952,48 +987,130 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 
 
 	/**
-	 * Disables back stepping.
+	 * Counts a new instruction fetched at {@code address}. The pending register and
+	 * frame names are logged if set, so that they can be restored when the instruction
+	 * is undone.
 	 */
-	private void disableBackStepper() {
-		/*
-		 * The ignoreObserving flag is required for disabling
-		 * BackStepper when the Connect button is pressed.
-		 * (The tool is not yet registered as observing)
-		 */
-		if (Globals.program == null)
-			return;
-		BackStepper bs = Globals.program.getBackStepper();
-		if (bs == null)
-			return;
-		if (bs.enabled()) {
-			if (debugBackStepper)
-				System.out.println("Disabled BackStepper");
-			bs.setEnabled(false);
-			disabledBackStep = true;
+	private void instructionFetched(int address) {
+		instructionCount++;
+		lastFetchAddress = address;
+		lastInstrIncomplete = false;
+		if (regNameToBeStoredInStack != null || frameNameToBeCreated != null || raWrittenInPrevInstr) {
+			logChange(new StateChange(StateChange.PENDING, instructionCount, null,
+					regNameToBeStoredInStack, frameNameToBeCreated, raWrittenInPrevInstr));
 		}
 	}
 
 
 	/**
-	 * Re-enables back stepping.
+	 * Sets the "Stored Reg" and "Call Layout" columns of table row {@code row},
+	 * logging their previous contents.
 	 */
-	private void restoreBackStepper() {
-		if (disabledBackStep) {
-			disabledBackStep = false;
-			if (Globals.program == null)
-				return;
-			BackStepper bs = Globals.program.getBackStepper();
-			if (bs == null)
-				return;
-			if (!bs.enabled()) {
-				if (debugBackStepper)
-					System.out.println("Enabled BackStepper");
-				bs.setEnabled(true);
+	private void setAnnotation(int row, String regName, String frameName) {
+		logChange(new StateChange(StateChange.ANNOTATION, instructionCount, row,
+				(String) tableModel.getValueAt(row, storedRegisterColumn),
+				(String) tableModel.getValueAt(row, frameNameColumn), false));
+		tableModel.setValueAt(regName, row, storedRegisterColumn);
+		tableModel.setValueAt(frameName, row, frameNameColumn);
+	}
+
+
+	/**
+	 * @return true if table cell ({@code row},{@code column}) is empty; else false.
+	 */
+	private boolean isEmptyCell(int row, int column) {
+		Object value = tableModel.getValueAt(row, column);
+		return (value == null || value.equals(""));
+	}
+
+
+	/**
+	 * Appends {@code change} to the log, dropping the oldest half of the log if it is full.
+	 */
+	private void logChange(StateChange change) {
+		changes.add(change);
+		if (changes.size() > MAX_LOGGED_CHANGES) {
+			int numDropped = MAX_LOGGED_CHANGES / 2;
+			changesDroppedUpTo = changes.get(numDropped - 1).instruction;
+			changes.subList(0, numDropped).clear();
+		}
+	}
+
+
+	/**
+	 * Undoes the logged changes of the last {@code numInstructions} instructions, newest first.
+	 */
+	private synchronized void undoInstructions(long numInstructions) {
+		long target = Math.max(0, instructionCount - numInstructions);
+		if (target < changesDroppedUpTo) {
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					showMessageWindow("Stack Visualizer cannot go back beyond its oldest logged change. "
+							+ "Disconnect and connect it again to rebuild the subroutine call stack.");
+				}
+			});
+			stateIsCurrent = false;
+		}
+		long group = -1;
+		while (!changes.isEmpty() && changes.get(changes.size()-1).instruction > target) {
+			StateChange change = changes.remove(changes.size()-1);
+			if (change.instruction != group) {
+				/*
+				 * A PENDING change is the first one of its instruction; if there is
+				 * none, nothing was pending when that instruction was fetched.
+				 */
+				clearPending();
+				group = change.instruction;
 			}
+			undoChange(change);
+		}
+		if (group != target + 1)
+			clearPending();
+		instructionCount = target;
+	}
+
+
+	/**
+	 * Undoes a single logged change.
+	 */
+	private void undoChange(StateChange change) {
+		switch (change.kind) {
+			case StateChange.CALL:
+				ras.remove(ras.size()-1);
+				activeFunctionCallStats.removeCall(change.name);
+				break;
+			case StateChange.RETURN:
+				if (change.address != null)
+					ras.add(change.address);
+				if (change.flag)
+					activeFunctionCallStats.addCall(change.name);
+				break;
+			case StateChange.ANNOTATION:
+				if (change.address < numberOfRows) {
+					tableModel.setValueAt(change.name, change.address, storedRegisterColumn);
+					tableModel.setValueAt(change.frameName, change.address, frameNameColumn);
+				}
+				break;
+			case StateChange.PENDING:
+				regNameToBeStoredInStack = change.name;
+				frameNameToBeCreated = change.frameName;
+				raWrittenInPrevInstr = change.flag;
+				break;
 		}
 	}
 
 
+	/**
+	 * Clears the register and frame names pending to be stored in the stack.
+	 */
+	private void clearPending() {
+		regNameToBeStoredInStack = null;
+		frameNameToBeCreated = null;
+		raWrittenInPrevInstr = false;
+	}
+
+
 	/**
 	 * Enables or disables Run buttons as of parameter.
 	 */
@@ -1156,17 +1273,19 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 
 
 	/**
-	 * Process a {@link SimulatorNotice} and handle {@code SIMULATOR_START} or
-	 * {@code SIMULATOR_STOP} accordingly.
+	 * Process a {@link SimulatorNotice} and handle {@code SIMULATOR_START},
+	 * {@code SIMULATOR_STOP} or {@code SIMULATOR_BACKSTEP} accordingly.
 	 */
 	private void processSimulatorUpdate(SimulatorNotice notice) {
 		int action = notice.getAction();
 		if (debug)
-			System.out.println("\nSimulatorNotice: " + ((action == SimulatorNotice.SIMULATOR_START) ? "Start" : "End"));
+			System.out.println("\nSimulatorNotice: " + notice);
 		if (action == SimulatorNotice.SIMULATOR_START)
 			onSimulationStart();
 		else if (action == SimulatorNotice.SIMULATOR_STOP)
-			onSimulationEnd();
+			onSimulationEnd(notice);
+		else if (action == SimulatorNotice.SIMULATOR_BACKSTEP)
+			onBackStep(notice.getMaxSteps(), notice.getProgramCounter());
 	}
 
 
@@ -1203,40 +1322,139 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 	 * A simulation starts each time a Run button is pressed (stepped or not).
 	 */
 	private synchronized void onSimulationStart() {
-		if (!isObserving())
+		if (!isObserving()) {
+			stateIsCurrent = false;
 			return;
+		}
 		if (VenusUI.getReset()) { // GUI Reset button clicks are also handled here.
 			if (debug)
 				System.out.println("GUI registers/memory reset detected");
 			 /* On memory configuration changes, the registers are reset. */
 			checkMemConfChanged();
-			/*
-			 * On registers/memory reset, clear data related to subroutine calls,
-			 * and reset/update table data.
-			 */
-			ras.clear();
-			activeFunctionCallStats.reset();
-			tableModel.setRowCount(INITIAL_ROW_COUNT);
-			numberOfRows = tableModel.getRowCount();
-			resetStoredRegAndFrameNameColumns(0, numberOfRows-1);
+			clearState();
+			stateIsCurrent = true;
 			refreshGui();
 		}
-		disableBackStepper();
 		onSimStartEndSetEnabled(false);
 	}
 
 
+	/**
+	 * On registers/memory reset, clear data related to subroutine calls,
+	 * and reset/update table data.
+	 */
+	private void clearState() {
+		ras.clear();
+		activeFunctionCallStats.reset();
+		changes.clear();
+		instructionCount = changesDroppedUpTo = 0;
+		lastFetchAddress = -1;
+		lastInstrIncomplete = false;
+		clearPending();
+		tableModel.setRowCount(INITIAL_ROW_COUNT);
+		numberOfRows = tableModel.getRowCount();
+		resetStoredRegAndFrameNameColumns(0, numberOfRows-1);
+	}
+
+
+	/**
+	 * Rebuilds the subroutine call stack and table annotations of a program that was
+	 * executed while the tool was disconnected, by having reverse execution execute it
+	 * again from the start, up to where it is now, while the tool observes. Without
+	 * reverse execution (CheckpointInterval is 0) the program has to be assembled again.
+	 */
+	private synchronized void rebuildState() {
+		final ReverseExecution reverse = (Globals.program == null) ? null : Globals.program.getReverseExecution();
+		if (!isObserving())
+			return;
+		if (reverse == null) {
+			runButtonsSetEnabled(false);
+			showMessageWindow("Already running programs should be assembled again.");
+			return;
+		}
+		clearState();
+		stateIsCurrent = true;
+		if (!reverse.canReverse()) {
+			refreshGui();
+			return;
+		}
+		final int status = FileStatus.get();
+		onSimStartEndSetEnabled(false);
+		FileStatus.set(FileStatus.RUNNING);
+		Simulator.getInstance().reverse(reverse, new Runnable() {
+			@Override
+			public void run() {
+				reverse.replayFromStart();
+			}
+		}, new Runnable() {
+			@Override
+			public void run() {
+				if (status == FileStatus.TERMINATED && !reverse.wasStopped())
+					countTerminatingInstruction();
+				onSimStartEndSetEnabled(true);
+				FileStatus.set(reverse.wasStopped() ? FileStatus.RUNNABLE : status);
+				refreshGui();
+			}
+		});
+	}
+
+
+	/**
+	 * Counts the instruction the program terminated in, which reverse execution does not
+	 * execute again, as it was counted when the program was executed.
+	 */
+	private synchronized void countTerminatingInstruction() {
+		int pc = RegisterFile.getProgramCounter();
+		try {
+			if (memInstance.getStatementNoNotify(pc) != null) {
+				instructionFetched(pc);
+				lastInstrIncomplete = true;
+			}
+		} catch (AddressErrorException aee) {
+			// Dropped off the bottom; there is no such instruction.
+		}
+	}
+
+
 	/**
 	 * Callback method after a simulation ends.
 	 * A simulation starts/ends each time a Run button is pressed (stepped or not).
 	 */
-	private void onSimulationEnd() {
+	private void onSimulationEnd(SimulatorNotice notice) {
 		if (!isObserving())
 			return;
+		int reason = notice.getReason();
+		lastInstrIncomplete = (reason == Simulator.NORMAL_TERMINATION || reason == Simulator.EXCEPTION)
+				&& notice.getProgramCounter() == lastFetchAddress;
 		onSimStartEndSetEnabled(true);
 	}
 
 
+	/**
+	 * Callback method after execution went back {@code numInstructions} instructions,
+	 * by backstepping or reverse execution. Also handled while disconnected, so that
+	 * the tool can be connected again without reassembling the program.
+	 *
+	 * @param resumeAddress the address of the instruction that will be executed next.
+	 */
+	private synchronized void onBackStep(int numInstructions, int resumeAddress) {
+		if (!stateIsCurrent)
+			return;
+		if (lastInstrIncomplete) {
+			/*
+			 * The instruction the program terminated in was counted but not undone,
+			 * unless it is the one the BackStepper undid (its partial effects).
+			 */
+			lastInstrIncomplete = false;
+			if (numInstructions > 1 || resumeAddress != lastFetchAddress)
+				numInstructions++;
+		}
+		undoInstructions(numInstructions);
+		lastFetchAddress = -1;
+		refreshGui();
+	}
+
+
 	/**
 	 * Enables/disables GUI components on simulation start/end.
 	 */
@@ -1273,7 +1491,8 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 				+ "word-length data in yellow. Lower addresses have a grey background (given that stack growth takes place\n"
 				+ "from higher to lower addresses). The names of the registers whose contents are stored (sw, sh, sb etc.) in the\n"
 				+ "stack, are shown in the \"Stored Reg\" column. In the \"Call Layout\" column, the subroutine frame (activation record)\n"
-				+ "layout is displayed, with subroutine names placed on the first address written in the corresponding frame.\n\n"
+				+ "layout is displayed, with subroutine names placed on the first address written in the corresponding frame.\n"
+				+ "Back stepping is supported: the changes made by the tool are undone along with the instructions.\n\n"
 				+ "Options\n"
 				+ "1) \"Display data per byte\": When enabled, the bytes of each word (4 Bytes) are displayed separately.\n"
 				+ "2) \"Hexadecimal Addresses\": Whether memory addresses are formatted in hexadecimal or decimal representation.\n"
@@ -1331,13 +1550,16 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 		 * Removes one subroutine call from statistics.
 		 *
 		 * @param subroutineName name of subroutine to be removed.
+		 * @return false if {@code subroutineName} had no calls to remove; else true.
 		 */
-		public void removeCall(String subroutineName) {
+		public boolean removeCall(String subroutineName) {
 			Integer oldValue = activeCalls.get(subroutineName);
-			if (oldValue == null)
+			if (oldValue == null) {
 				System.err.println("ActiveFunctionCallStats.removeCall: " + subroutineName + " doesn't exist");
-			else
-				activeCalls.replace(subroutineName, oldValue - 1);
+				return false;
+			}
+			activeCalls.replace(subroutineName, oldValue - 1);
+			return true;
 		}
 
 		/**
@@ -1349,6 +1571,42 @@ public class StackVisualizer extends AbstractMarsToolAndApplication {
 	}
 
 
+	/**
+	 * A logged change of {@link StackVisualizer} state, made by instruction number
+	 * {@code instruction}, which holds what is needed to undo it.
+	 */
+	private static class StateChange {
+		/** A subroutine call was pushed to {@code ras} and added to statistics. */
+		static final int CALL       = 0;
+		/** A subroutine return popped {@code ras} and was removed from statistics. */
+		static final int RETURN     = 1;
+		/** The "Stored Reg" and "Call Layout" columns of a table row were set. */
+		static final int ANNOTATION = 2;
+		/** Register/frame names were pending when the instruction was fetched. */
+		static final int PENDING    = 3;
+
+		final int     kind;
+		final long    instruction;
+		/** CALL/RETURN: the jal address pushed/popped, if any. ANNOTATION: the table row. */
+		final Integer address;
+		/** CALL/RETURN: the subroutine name. ANNOTATION/PENDING: the (previous) register name. */
+		final String  name;
+		/** ANNOTATION/PENDING: the (previous) frame name. */
+		final String  frameName;
+		/** RETURN: whether a call was removed from statistics. PENDING: whether $ra was written. */
+		final boolean flag;
+
+		StateChange(int kind, long instruction, Integer address, String name, String frameName, boolean flag) {
+			this.kind = kind;
+			this.instruction = instruction;
+			this.address = address;
+			this.name = name;
+			this.frameName = frameName;
+			this.flag = flag;
+		}
+	}
+
+
 	/**
 	 * Trivial {@link Exception} implementation for {@link StackVisualizer}.
 	 */
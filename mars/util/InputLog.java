@@ -0,0 +1,413 @@
+package mars.util;
+
+import java.io.*;
+import java.util.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Records the nondeterministic inputs of a MIPS program run -- syscall reads,
+ * file operation results, dialog answers, random numbers and the time of day
+ * -- in the order the program consumed them, so that a stretch of execution
+ * can be re-executed deterministically by reverse execution.
+ * <p>
+ * While recording, each input source passes the value it obtained to one of
+ * the record() methods. While replaying, it first asks for the next logged
+ * value instead and only goes to the real source if none is returned. A
+ * replay that asks for a value of the wrong kind, or runs past the end of the
+ * log, has diverged from the recorded run: the rest of the log is discarded
+ * and replay mode is turned off, so the run continues live from there.
+ * <p>
+ * Output produced while re-executing has already been shown once, so output
+ * sources check isReexecuting() and stay silent.
+ * <p>
+ * The log can also be saved to a replay file and loaded into a later run of
+ * the same program. That run takes its inputs from the file instead of the
+ * console, dialogs, random number generators and clock, but shows its output
+ * as usual, so an interactive session can be repeated as a batch job. If the
+ * run asks for more or different input than the file holds, it continues
+ * live from there.
+ * 
+ * @version October 2026
+ */
+
+public class InputLog {
+	private static ArrayList entries = new ArrayList();
+	private static int position = 0; // index of next entry to replay
+	private static boolean recording = false;
+	private static volatile boolean replaying = false;
+	private static boolean scripted = false; // entries ahead came from a replay file
+	private static final int FILE_MAGIC = 0x4D494C31; // "MIL1"
+
+	/**
+	 * Discard all recorded input and leave replay mode.
+	 */
+	public static void clear() {
+		entries.clear();
+		position = 0;
+		replaying = false;
+		scripted = false;
+	}
+
+	/**
+	 * Turn recording of inputs on or off. Has no effect on input already
+	 * recorded.
+	 * 
+	 * @param on
+	 *            true to record from now on
+	 */
+	public static void setRecording(boolean on) {
+		recording = on;
+	}
+
+	/**
+	 * Determine whether inputs are being recorded.
+	 * 
+	 * @return true if record() keeps the values passed to it
+	 */
+	public static boolean isRecording() {
+		return recording;
+	}
+
+	/**
+	 * Determine whether inputs are to be taken from the log, either because
+	 * execution is being repeated or because a replay file was loaded.
+	 * 
+	 * @return true while replaying
+	 */
+	public static boolean isReplaying() {
+		return replaying || scripted;
+	}
+
+	/**
+	 * Determine whether execution is being repeated, so that its output has
+	 * already been produced once.
+	 * 
+	 * @return true while re-executing
+	 */
+	public static boolean isReexecuting() {
+		return replaying;
+	}
+
+	/**
+	 * Enter or leave replay mode. Leaving it discards any entries beyond the
+	 * current position, since they describe a future that will now be
+	 * recorded afresh, unless they were loaded from a replay file.
+	 * 
+	 * @param on
+	 *            true to replay logged inputs from the current position
+	 */
+	public static void setReplaying(boolean on) {
+		replaying = on;
+		if (!on && !scripted) {
+			truncate();
+		}
+	}
+
+	/**
+	 * Get the current position in the log, for use by a later call to
+	 * setPosition().
+	 * 
+	 * @return number of entries recorded or replayed so far
+	 */
+	public static int getPosition() {
+		return position;
+	}
+
+	/**
+	 * Move to the given position in the log, so that the next value replayed
+	 * is the one recorded at that point.
+	 * 
+	 * @param newPosition
+	 *            value earlier returned by getPosition()
+	 */
+	public static void setPosition(int newPosition) {
+		position = Math.min(newPosition, entries.size());
+	}
+
+	/**
+	 * Determine whether every input recorded so far is text read from the
+	 * console, as opposed to, say, file contents or a random number. The
+	 * text read is determined by the input stream, so a run with no other
+	 * input will do the same again given the same input stream.
+	 * 
+	 * @return true if all recorded inputs are strings
+	 */
+	public static boolean isTextOnly() {
+		for (int i = 0; i < entries.size(); i++) {
+			if (!(entries.get(i) instanceof String)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Write the inputs recorded so far, up to the current position, to a
+	 * replay file.
+	 * 
+	 * @param file
+	 *            the file to write
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public static void save(File file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			out.writeInt(FILE_MAGIC);
+			out.writeInt(position);
+			for (int i = 0; i < position; i++) {
+				Object value = entries.get(i);
+				if (value instanceof Integer) {
+					out.writeByte('I');
+					out.writeInt(((Integer) value).intValue());
+				} else if (value instanceof Long) {
+					out.writeByte('L');
+					out.writeLong(((Long) value).longValue());
+				} else if (value instanceof Double) {
+					out.writeByte('D');
+					out.writeDouble(((Double) value).doubleValue());
+				} else if (value == NULL_STRING) {
+					out.writeByte('N');
+				} else if (value instanceof String) {
+					out.writeByte('S');
+					writeBytes(out, ((String) value).getBytes("UTF-8"));
+				} else {
+					out.writeByte('B');
+					writeBytes(out, (byte[]) value);
+				}
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Read a replay file written by save(), replacing any recorded input. The
+	 * inputs it holds are then replayed from the start.
+	 * 
+	 * @param file
+	 *            the file to read
+	 * @throws IOException
+	 *             if the file cannot be read or is not a replay file
+	 */
+	public static void load(File file) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		ArrayList loaded = new ArrayList();
+		try {
+			if (in.readInt() != FILE_MAGIC) {
+				throw new IOException("not an input replay file");
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				int kind = in.readByte();
+				switch (kind) {
+				case 'I':
+					loaded.add(Integer.valueOf(in.readInt()));
+					break;
+				case 'L':
+					loaded.add(Long.valueOf(in.readLong()));
+					break;
+				case 'D':
+					loaded.add(Double.valueOf(in.readDouble()));
+					break;
+				case 'N':
+					loaded.add(NULL_STRING);
+					break;
+				case 'S':
+					loaded.add(new String(readBytes(in), "UTF-8"));
+					break;
+				case 'B':
+					loaded.add(readBytes(in));
+					break;
+				default:
+					throw new IOException("corrupt input replay file");
+				}
+			}
+		} finally {
+			in.close();
+		}
+		clear();
+		entries = loaded;
+		scripted = !loaded.isEmpty();
+	}
+
+	/**
+	 * Record an int input.
+	 * 
+	 * @param value
+	 *            the value obtained
+	 * @return the value, for the convenience of the caller
+	 */
+	public static int record(int value) {
+		add(Integer.valueOf(value));
+		return value;
+	}
+
+	/**
+	 * Record a long input.
+	 * 
+	 * @param value
+	 *            the value obtained
+	 * @return the value, for the convenience of the caller
+	 */
+	public static long record(long value) {
+		add(Long.valueOf(value));
+		return value;
+	}
+
+	/**
+	 * Record a double input. Float inputs are recorded as double.
+	 * 
+	 * @param value
+	 *            the value obtained
+	 * @return the value, for the convenience of the caller
+	 */
+	public static double record(double value) {
+		add(Double.valueOf(value));
+		return value;
+	}
+
+	/**
+	 * Record a String input. A null string is recorded as such.
+	 * 
+	 * @param value
+	 *            the value obtained
+	 * @return the value, for the convenience of the caller
+	 */
+	public static String record(String value) {
+		add(value == null ? (Object) NULL_STRING : value);
+		return value;
+	}
+
+	/**
+	 * Record a block of bytes, for instance data read from a file. The bytes
+	 * are copied.
+	 * 
+	 * @param value
+	 *            array holding the bytes
+	 * @param length
+	 *            number of bytes, from the start of the array, to record
+	 */
+	public static void record(byte[] value, int length) {
+		byte[] copy = new byte[Math.max(0, length)];
+		System.arraycopy(value, 0, copy, 0, copy.length);
+		add(copy);
+	}
+
+	/**
+	 * Get the next logged int input.
+	 * 
+	 * @return the value, or null if not replaying or replay has diverged
+	 */
+	public static Integer nextInteger() {
+		return (Integer) next(Integer.class);
+	}
+
+	/**
+	 * Get the next logged long input.
+	 * 
+	 * @return the value, or null if not replaying or replay has diverged
+	 */
+	public static Long nextLong() {
+		return (Long) next(Long.class);
+	}
+
+	/**
+	 * Get the next logged double input.
+	 * 
+	 * @return the value, or null if not replaying or replay has diverged
+	 */
+	public static Double nextDouble() {
+		return (Double) next(Double.class);
+	}
+
+	/**
+	 * Get the next logged String input. Check isReplaying() afterwards to
+	 * tell a logged null string from no logged value.
+	 * 
+	 * @return the value, or null if not replaying or replay has diverged
+	 */
+	public static String nextString() {
+		Object value = next(String.class);
+		return (value == NULL_STRING) ? null : (String) value;
+	}
+
+	/**
+	 * Get the next logged block of bytes.
+	 * 
+	 * @return the bytes, or null if not replaying or replay has diverged
+	 */
+	public static byte[] nextBytes() {
+		return (byte[]) next(byte[].class);
+	}
+
+	// Stands for a null string in the log; compared by identity.
+	private static final String NULL_STRING = new String("");
+
+	private static void add(Object value) {
+		if (recording && !replaying) {
+			truncate();
+			entries.add(value);
+			position++;
+		}
+	}
+
+	private static Object next(Class kind) {
+		if (!replaying && !scripted) {
+			return null;
+		}
+		if (position < entries.size() && kind.isInstance(entries.get(position))) {
+			return entries.get(position++);
+		}
+		scripted = false;
+		setReplaying(false); // diverged
+		return null;
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			throw new IOException("corrupt input replay file");
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	private static void truncate() {
+		if (entries.size() > position) {
+			entries.subList(position, entries.size()).clear();
+		}
+	}
+}
@@ -0,0 +1,384 @@
+package mars.util;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.security.*;
+import java.util.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Disk cache of the results of command-line runs, so that running the same
+ * program on the same input again only has to repeat what the first run
+ * printed. Each result is stored in a file of the cache directory named by
+ * the key of the run, a digest of everything the run depends on. Using a
+ * result touches its file, and when the results take more than the allowed
+ * space the least recently used ones are deleted.
+ * <p>
+ * The cache also keeps assembled program images (see mars.ProgramImage),
+ * keyed by the source files and settings, so that a program run on
+ * different input does not have to be assembled again. Images share the
+ * directory and the space limit with the results.
+ * <p>
+ * Files are written under a temporary name and then renamed, so several
+ * MARS processes can share a cache directory.
+ * 
+ * @version October 2026
+ */
+
+public class ResultCache {
+	private static final int FILE_MAGIC = 0x4D524331; // "MRC1"
+	private static final String SUFFIX = ".result";
+	private static final String IMAGE_SUFFIX = ".image";
+	private File directory;
+	private long maxBytes;
+
+	/**
+	 * Create a cache in the given directory, which is created if need be.
+	 * 
+	 * @param directory
+	 *            where results are stored
+	 * @param maxBytes
+	 *            most space the results may take
+	 */
+	public ResultCache(File directory, long maxBytes) {
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		directory.mkdirs();
+	}
+
+	/**
+	 * Look up the result stored under the given key.
+	 * 
+	 * @param key
+	 *            the key of the run
+	 * @return the result, or null if there is none or it cannot be read
+	 */
+	public Result get(String key) {
+		File file = new File(directory, key + SUFFIX);
+		if (!file.isFile()) {
+			return null;
+		}
+		Result result;
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			try {
+				if (in.readInt() != FILE_MAGIC) {
+					return null;
+				}
+				int exitCode = in.readInt();
+				int instructionCount = in.readInt();
+				byte[] output = readBytes(in);
+				byte[] errorOutput = readBytes(in);
+				result = new Result(exitCode, instructionCount, output, errorOutput);
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return null;
+		}
+		file.setLastModified(System.currentTimeMillis());
+		return result;
+	}
+
+	/**
+	 * Store a result under the given key, then delete the least recently
+	 * used results if the cache has grown too big.
+	 * 
+	 * @param key
+	 *            the key of the run
+	 * @param result
+	 *            what the run produced
+	 * @throws IOException
+	 *             if the result cannot be written
+	 */
+	public void put(String key, Result result) throws IOException {
+		File temp = File.createTempFile("result", ".tmp", directory);
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			try {
+				out.writeInt(FILE_MAGIC);
+				out.writeInt(result.getExitCode());
+				out.writeInt(result.getInstructionCount());
+				writeBytes(out, result.getOutput());
+				writeBytes(out, result.getErrorOutput());
+			} finally {
+				out.close();
+			}
+			rename(temp, new File(directory, key + SUFFIX));
+		} finally {
+			temp.delete(); // only still there if something failed
+		}
+		evict();
+	}
+
+	/**
+	 * Look up the program image stored under the given key. The file is
+	 * mapped into memory rather than read.
+	 * 
+	 * @param key
+	 *            the key of the image
+	 * @return the image, positioned at its start, or null if there is none or
+	 *         it cannot be mapped
+	 */
+	public ByteBuffer getImage(String key) {
+		File file = new File(directory, key + IMAGE_SUFFIX);
+		if (!file.isFile()) {
+			return null;
+		}
+		ByteBuffer image;
+		try {
+			RandomAccessFile in = new RandomAccessFile(file, "r");
+			try {
+				FileChannel channel = in.getChannel();
+				image = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			} finally {
+				in.close(); // the mapping stays valid
+			}
+		} catch (IOException e) {
+			return null;
+		}
+		file.setLastModified(System.currentTimeMillis());
+		return image;
+	}
+
+	/**
+	 * Store a program image under the given key, then delete the least
+	 * recently used entries if the cache has grown too big.
+	 * 
+	 * @param key
+	 *            the key of the image
+	 * @param image
+	 *            the image
+	 * @throws IOException
+	 *             if the image cannot be written
+	 */
+	public void putImage(String key, byte[] image) throws IOException {
+		File temp = File.createTempFile("image", ".tmp", directory);
+		try {
+			OutputStream out = new FileOutputStream(temp);
+			try {
+				out.write(image);
+			} finally {
+				out.close();
+			}
+			rename(temp, new File(directory, key + IMAGE_SUFFIX));
+		} finally {
+			temp.delete(); // only still there if something failed
+		}
+		evict();
+	}
+
+	// Move a completely written temporary file to its final name, replacing
+	// any file already there.
+	private static void rename(File temp, File file) throws IOException {
+		if (!temp.renameTo(file)) {
+			file.delete();
+			if (!temp.renameTo(file)) {
+				throw new IOException("cannot rename " + temp + " to " + file);
+			}
+		}
+	}
+
+	// Delete least recently used results and images until the rest fit in
+	// maxBytes.
+	private void evict() {
+		File[] files = directory.listFiles(new FilenameFilter() {
+			public boolean accept(File dir, String name) {
+				return name.endsWith(SUFFIX) || name.endsWith(IMAGE_SUFFIX);
+			}
+		});
+		if (files == null) {
+			return;
+		}
+		long total = 0;
+		final long[] lastUsed = new long[files.length];
+		Integer[] order = new Integer[files.length];
+		for (int i = 0; i < files.length; i++) {
+			total += files[i].length();
+			lastUsed[i] = files[i].lastModified();
+			order[i] = Integer.valueOf(i);
+		}
+		if (total <= maxBytes) {
+			return;
+		}
+		Arrays.sort(order, new Comparator() {
+			public int compare(Object a, Object b) {
+				long x = lastUsed[((Integer) a).intValue()];
+				long y = lastUsed[((Integer) b).intValue()];
+				return (x < y) ? -1 : (x == y) ? 0 : 1;
+			}
+		});
+		for (int i = 0; i < order.length && total > maxBytes; i++) {
+			File file = files[order[i].intValue()];
+			long length = file.length();
+			if (file.delete()) {
+				total -= length;
+			}
+		}
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			throw new IOException("corrupt result file");
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	/**
+	 * What a run produced: its exit code, the number of instructions it
+	 * executed, and everything it printed to standard output and standard
+	 * error.
+	 */
+	public static class Result {
+		private int exitCode;
+		private int instructionCount;
+		private byte[] output;
+		private byte[] errorOutput;
+
+		public Result(int exitCode, int instructionCount, byte[] output, byte[] errorOutput) {
+			this.exitCode = exitCode;
+			this.instructionCount = instructionCount;
+			this.output = output;
+			this.errorOutput = errorOutput;
+		}
+
+		public int getExitCode() {
+			return exitCode;
+		}
+
+		public int getInstructionCount() {
+			return instructionCount;
+		}
+
+		public byte[] getOutput() {
+			return output;
+		}
+
+		public byte[] getErrorOutput() {
+			return errorOutput;
+		}
+	}
+
+	/**
+	 * Builds the key of a run from everything its result depends on, by
+	 * feeding it all into a SHA-256 digest.
+	 */
+	public static class Key {
+		private MessageDigest digest;
+		private DataOutputStream data;
+		private String key; // once computed
+
+		public Key() {
+			try {
+				digest = MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException("SHA-256 is not available");
+			}
+			data = new DataOutputStream(new DigestOutputStream(new OutputStream() {
+				public void write(int b) {
+				}
+			}, digest));
+		}
+
+		public Key add(int value) {
+			try {
+				data.writeInt(value);
+			} catch (IOException e) {
+				// cannot happen, nothing is actually written
+			}
+			return this;
+		}
+
+		public Key add(String value) {
+			try {
+				data.writeBoolean(value != null);
+				if (value != null) {
+					writeBytes(data, value.getBytes("UTF-8"));
+				}
+			} catch (IOException e) {
+				// as above
+			}
+			return this;
+		}
+
+		public Key add(byte[] value) {
+			try {
+				writeBytes(data, value);
+			} catch (IOException e) {
+				// as above
+			}
+			return this;
+		}
+
+		/**
+		 * Adds the contents of a file.
+		 * 
+		 * @throws IOException
+		 *             if the file cannot be read
+		 */
+		public Key add(File file) throws IOException {
+			ByteArrayOutputStream contents = new ByteArrayOutputStream();
+			InputStream in = new FileInputStream(file);
+			try {
+				byte[] buffer = new byte[8192];
+				for (int length; (length = in.read(buffer)) > 0;) {
+					contents.write(buffer, 0, length);
+				}
+			} finally {
+				in.close();
+			}
+			return add(contents.toByteArray());
+		}
+
+		/**
+		 * The key, as the hexadecimal digits of the digest. Nothing more can
+		 * be added once it has been computed.
+		 */
+		public String toString() {
+			if (key == null) {
+				byte[] hash = digest.digest();
+				StringBuffer hex = new StringBuffer();
+				for (int i = 0; i < hash.length; i++) {
+					hex.append(Integer.toHexString((hash[i] >> 4) & 0xF)).append(Integer.toHexString(hash[i] & 0xF));
+				}
+				key = hex.toString();
+			}
+			return key;
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package mars.util;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.util.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Index of the classes that MARS loads by name: syscalls, dump formats and
+ * tools. Each is listed in a resource named after the interface it
+ * implements, under META-INF/services, in the format used by
+ * java.util.ServiceLoader (one class name per line, # starts a comment).
+ * Reading the index saves searching the class path or the JAR file and
+ * loading every class in the package just to see which ones qualify.
+ * <p>
+ * The index is generated by running this class (see create-jar.sh) after
+ * the classes have been compiled. Classes that users add to one of these
+ * packages are not in the index, so the package is still listed, and only
+ * the classes missing from the index are loaded to check them. If the index
+ * for an interface cannot be found, every class in its package is checked,
+ * as before.
+ * 
+ * @version October 2026
+ */
+public class ServiceIndex {
+	private static final String INDEX_DIRECTORY = "META-INF/services";
+	private static final String CLASS_EXTENSION = "class";
+
+	// interface and the package searched for its implementations
+	private static final String[][] SERVICES = {
+			{ "mars.mips.instructions.syscalls.Syscall", "mars/mips/instructions/syscalls" },
+			{ "mars.mips.dump.DumpFormat", "mars/mips/dump" }, { "mars.tools.MarsTool", "mars/tools" } };
+
+	/**
+	 * Gets the names of the classes that may implement an interface: those in
+	 * its index, followed by any other classes in the given directory, such
+	 * as ones added by the user. Without an index, the directory is searched
+	 * and only qualifying classes are returned. The caller must check the
+	 * classes that were not in the index.
+	 * 
+	 * @param classLoader
+	 *            class loader to use
+	 * @param service
+	 *            the interface
+	 * @param directoryPath
+	 *            directory of the package holding the classes, relative to
+	 *            the class path (e.g. mars/tools)
+	 * @return ArrayList of fully qualified class names as Strings
+	 */
+	public static ArrayList getClassNames(ClassLoader classLoader, Class service, String directoryPath) {
+		ArrayList names = readIndex(classLoader, service.getName());
+		if (names == null) {
+			return findClassNames(classLoader, service, directoryPath);
+		}
+		ArrayList candidates = FilenameFinder.getFilenameList(classLoader, directoryPath, CLASS_EXTENSION);
+		String prefix = directoryPath.replace('/', '.') + ".";
+		for (int i = 0; i < candidates.size(); i++) {
+			String file = (String) candidates.get(i);
+			if (file.indexOf('$') >= 0) {
+				continue; // nested class
+			}
+			String className = prefix + file.substring(0, file.length() - CLASS_EXTENSION.length() - 1);
+			if (!names.contains(className)) {
+				names.add(className);
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Reads the index of the classes implementing an interface.
+	 * 
+	 * @param classLoader
+	 *            class loader to use
+	 * @param serviceName
+	 *            fully qualified name of the interface
+	 * @return ArrayList of fully qualified class names as Strings, or null if
+	 *         there is no index
+	 */
+	public static ArrayList readIndex(ClassLoader classLoader, String serviceName) {
+		InputStream in = classLoader.getResourceAsStream(INDEX_DIRECTORY + "/" + serviceName);
+		if (in == null) {
+			return null;
+		}
+		ArrayList names = new ArrayList();
+		try {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int comment = line.indexOf('#');
+				if (comment >= 0) {
+					line = line.substring(0, comment);
+				}
+				line = line.trim();
+				if (line.length() > 0 && !names.contains(line)) {
+					names.add(line);
+				}
+			}
+			reader.close();
+		} catch (IOException e) {
+			return null;
+		}
+		return names;
+	}
+
+	/**
+	 * Searches a directory on the class path, or in the JAR file, for concrete
+	 * classes implementing an interface. Each class file found is loaded to
+	 * find out.
+	 * 
+	 * @param classLoader
+	 *            class loader to use
+	 * @param service
+	 *            the interface
+	 * @param directoryPath
+	 *            directory of the package holding the classes, relative to
+	 *            the class path (e.g. mars/tools)
+	 * @return ArrayList of fully qualified class names as Strings, sorted
+	 */
+	public static ArrayList findClassNames(ClassLoader classLoader, Class service, String directoryPath) {
+		ArrayList candidates = FilenameFinder.getFilenameList(classLoader, directoryPath, CLASS_EXTENSION);
+		String prefix = directoryPath.replace('/', '.') + ".";
+		TreeSet names = new TreeSet();
+		for (int i = 0; i < candidates.size(); i++) {
+			String file = (String) candidates.get(i);
+			if (file.indexOf('$') >= 0) {
+				continue; // nested class
+			}
+			String className = prefix + file.substring(0, file.length() - CLASS_EXTENSION.length() - 1);
+			try {
+				Class clas = Class.forName(className, false, classLoader);
+				if (service.isAssignableFrom(clas) && !Modifier.isAbstract(clas.getModifiers())
+						&& !Modifier.isInterface(clas.getModifiers())) {
+					names.add(className);
+				}
+			} catch (Throwable e) {
+				// not a class we can use; the loaders report those they cannot
+				// instantiate
+			}
+		}
+		return new ArrayList(names);
+	}
+
+	/**
+	 * Writes the index of each interface by searching its package. Run after
+	 * compiling, from the directory holding the mars package or with it on the
+	 * class path.
+	 * 
+	 * @param args
+	 *            optional directory to write META-INF/services into, default
+	 *            the current directory
+	 */
+	public static void main(String[] args) throws Exception {
+		File directory = new File((args.length > 0) ? args[0] : ".", INDEX_DIRECTORY);
+		directory.mkdirs();
+		ClassLoader classLoader = ServiceIndex.class.getClassLoader();
+		for (int i = 0; i < SERVICES.length; i++) {
+			Class service = Class.forName(SERVICES[i][0]);
+			ArrayList names = findClassNames(classLoader, service, SERVICES[i][1]);
+			File index = new File(directory, SERVICES[i][0]);
+			PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(index), "UTF-8"));
+			out.print("# Classes implementing " + SERVICES[i][0] + ", generated by mars.util.ServiceIndex\r\n");
+			for (int j = 0; j < names.size(); j++) {
+				out.print(names.get(j) + "\r\n");
+			}
+			out.close();
+			System.out.println(index + ": " + names.size() + " classes");
+		}
+	}
+}
@@ -2,6 +2,7 @@ package mars.util;
 
 import mars.*;
 import java.io.*;
+import java.nio.channels.FileChannel;
 import javax.swing.*;
 import java.util.*;
 
@@ -77,19 +78,23 @@ public class SystemIO {
 	 */
 
 	public static int readInteger(int serviceNumber) {
-		String input = "0";
-		if (Globals.getGui() == null) {
-			try {
-				input = getInputReader().readLine();
-			} catch (IOException e) {
-			}
-		} else {
-			if (Globals.getSettings().getBooleanSetting(Settings.POPUP_SYSCALL_INPUT)) {
-				input = Globals.getGui().getMessagesPane()
-						.getInputString("Enter an integer value (syscall " + serviceNumber + ")");
+		String input = InputLog.nextString();
+		if (!InputLog.isReplaying()) {
+			input = "0";
+			if (Globals.getGui() == null) {
+				try {
+					input = getInputReader().readLine();
+				} catch (IOException e) {
+				}
 			} else {
-				input = Globals.getGui().getMessagesPane().getInputString(-1);
+				if (Globals.getSettings().getBooleanSetting(Settings.POPUP_SYSCALL_INPUT)) {
+					input = Globals.getGui().getMessagesPane()
+							.getInputString("Enter an integer value (syscall " + serviceNumber + ")");
+				} else {
+					input = Globals.getGui().getMessagesPane().getInputString(-1);
+				}
 			}
+			InputLog.record(input);
 		}
 
 		// Client is responsible for catching NumberFormatException
@@ -105,19 +110,23 @@ public class SystemIO {
 	 * @return float value corresponding to user input Feb 14 2005 Ken Vollmar
 	 */
 	public static float readFloat(int serviceNumber) {
-		String input = "0";
-		if (Globals.getGui() == null) {
-			try {
-				input = getInputReader().readLine();
-			} catch (IOException e) {
-			}
-		} else {
-			if (Globals.getSettings().getBooleanSetting(Settings.POPUP_SYSCALL_INPUT)) {
-				input = Globals.getGui().getMessagesPane()
-						.getInputString("Enter a float value (syscall " + serviceNumber + ")");
+		String input = InputLog.nextString();
+		if (!InputLog.isReplaying()) {
+			input = "0";
+			if (Globals.getGui() == null) {
+				try {
+					input = getInputReader().readLine();
+				} catch (IOException e) {
+				}
 			} else {
-				input = Globals.getGui().getMessagesPane().getInputString(-1);
+				if (Globals.getSettings().getBooleanSetting(Settings.POPUP_SYSCALL_INPUT)) {
+					input = Globals.getGui().getMessagesPane()
+							.getInputString("Enter a float value (syscall " + serviceNumber + ")");
+				} else {
+					input = Globals.getGui().getMessagesPane().getInputString(-1);
+				}
 			}
+			InputLog.record(input);
 		}
 		return new Float(input.trim()).floatValue();
 
@@ -133,19 +142,23 @@ public class SystemIO {
 	 *         Ken Vollmar's readFloat
 	 */
 	public static double readDouble(int serviceNumber) {
-		String input = "0";
-		if (Globals.getGui() == null) {
-			try {
-				input = getInputReader().readLine();
-			} catch (IOException e) {
-			}
-		} else {
-			if (Globals.getSettings().getBooleanSetting(Settings.POPUP_SYSCALL_INPUT)) {
-				input = Globals.getGui().getMessagesPane()
-						.getInputString("Enter a double value (syscall " + serviceNumber + ")");
+		String input = InputLog.nextString();
+		if (!InputLog.isReplaying()) {
+			input = "0";
+			if (Globals.getGui() == null) {
+				try {
+					input = getInputReader().readLine();
+				} catch (IOException e) {
+				}
 			} else {
-				input = Globals.getGui().getMessagesPane().getInputString(-1);
+				if (Globals.getSettings().getBooleanSetting(Settings.POPUP_SYSCALL_INPUT)) {
+					input = Globals.getGui().getMessagesPane()
+							.getInputString("Enter a double value (syscall " + serviceNumber + ")");
+				} else {
+					input = Globals.getGui().getMessagesPane().getInputString(-1);
+				}
 			}
+			InputLog.record(input);
 		}
 		return new Double(input.trim()).doubleValue();
 
@@ -155,6 +168,9 @@ public class SystemIO {
 	 * Implements syscall having 4 in $v0, to print a string.
 	 */
 	public static void printString(String string) {
+		if (InputLog.isReexecuting()) {
+			return; // already printed the first time through
+		}
 		if (Globals.getGui() == null) {
 			System.out.print(string);
 		} else {
@@ -173,22 +189,26 @@ public class SystemIO {
 	 * @return the entered string, truncated to maximum length if necessary
 	 */
 	public static String readString(int serviceNumber, int maxLength) {
-		String input = "";
-		if (Globals.getGui() == null) {
-			try {
-				input = getInputReader().readLine();
-			} catch (IOException e) {
-			}
-		} else {
-			if (Globals.getSettings().getBooleanSetting(Settings.POPUP_SYSCALL_INPUT)) {
-				input = Globals.getGui().getMessagesPane().getInputString(
-						"Enter a string of maximum length " + maxLength + " (syscall " + serviceNumber + ")");
+		String input = InputLog.nextString();
+		if (!InputLog.isReplaying()) {
+			input = "";
+			if (Globals.getGui() == null) {
+				try {
+					input = getInputReader().readLine();
+				} catch (IOException e) {
+				}
 			} else {
-				input = Globals.getGui().getMessagesPane().getInputString(maxLength);
-				if (input.endsWith("\n")) {
-					input = input.substring(0, input.length() - 1);
+				if (Globals.getSettings().getBooleanSetting(Settings.POPUP_SYSCALL_INPUT)) {
+					input = Globals.getGui().getMessagesPane().getInputString(
+							"Enter a string of maximum length " + maxLength + " (syscall " + serviceNumber + ")");
+				} else {
+					input = Globals.getGui().getMessagesPane().getInputString(maxLength);
+					if (input.endsWith("\n")) {
+						input = input.substring(0, input.length() - 1);
+					}
 				}
 			}
+			InputLog.record(input);
 		}
 
 		if (input.length() > maxLength) {
@@ -208,20 +228,24 @@ public class SystemIO {
 	 * @return int value with lowest byte corresponding to user input
 	 */
 	public static int readChar(int serviceNumber) {
-		String input = "0";
+		String input = InputLog.nextString();
 		int returnValue = 0;
-		if (Globals.getGui() == null) {
-			try {
-				input = getInputReader().readLine();
-			} catch (IOException e) {
-			}
-		} else {
-			if (Globals.getSettings().getBooleanSetting(Settings.POPUP_SYSCALL_INPUT)) {
-				input = Globals.getGui().getMessagesPane()
-						.getInputString("Enter a character value (syscall " + serviceNumber + ")");
+		if (!InputLog.isReplaying()) {
+			input = "0";
+			if (Globals.getGui() == null) {
+				try {
+					input = getInputReader().readLine();
+				} catch (IOException e) {
+				}
 			} else {
-				input = Globals.getGui().getMessagesPane().getInputString(1);
+				if (Globals.getSettings().getBooleanSetting(Settings.POPUP_SYSCALL_INPUT)) {
+					input = Globals.getGui().getMessagesPane()
+							.getInputString("Enter a character value (syscall " + serviceNumber + ")");
+				} else {
+					input = Globals.getGui().getMessagesPane().getInputString(1);
+				}
 			}
+			InputLog.record(input);
 		}
 		// The whole try-catch is not really necessary in this case since I'm
 		// just propagating the runtime exception (the default behavior), but
@@ -250,6 +274,22 @@ public class SystemIO {
 	 */
 
 	public static int writeToFile(int fd, byte[] myBuffer, int lengthRequested) {
+		// When replaying, the write has already been done. Console output is
+		// shown again, though, unless execution is being repeated.
+		Integer replayed = InputLog.nextInteger();
+		if (replayed != null) {
+			if ((fd == STDOUT || fd == STDERR) && !InputLog.isReexecuting()) {
+				write(fd, myBuffer, lengthRequested);
+			}
+			FileIOData.advance(fd, replayed.intValue());
+			return replayed.intValue();
+		}
+		int written = write(fd, myBuffer, lengthRequested);
+		FileIOData.advance(fd, written);
+		return InputLog.record(written);
+	}
+
+	private static int write(int fd, byte[] myBuffer, int lengthRequested) {
 		/////////////// DPS 8-Jan-2013
 		/////////////// ////////////////////////////////////////////////////
 		/// Write to STDOUT or STDERR file descriptor while using IDE - write to
@@ -322,6 +362,27 @@ public class SystemIO {
 	 * @return number of bytes read, 0 on EOF, or -1 on error
 	 */
 	public static int readFromFile(int fd, byte[] myBuffer, int lengthRequested) {
+		// When replaying, the read has already been done; the bytes were logged.
+		Integer replayed = InputLog.nextInteger();
+		byte[] bytesReplayed = (replayed != null && replayed.intValue() > 0) ? InputLog.nextBytes() : null;
+		if (replayed != null && (replayed.intValue() <= 0 || bytesReplayed != null)) {
+			Arrays.fill(myBuffer, (byte) 0);
+			if (bytesReplayed != null) {
+				System.arraycopy(bytesReplayed, 0, myBuffer, 0, bytesReplayed.length);
+			}
+			FileIOData.advance(fd, replayed.intValue());
+			return replayed.intValue();
+		}
+		int retValue = read(fd, myBuffer, lengthRequested);
+		FileIOData.advance(fd, retValue);
+		InputLog.record(retValue);
+		if (retValue > 0) {
+			InputLog.record(myBuffer, retValue);
+		}
+		return retValue;
+	}
+
+	private static int read(int fd, byte[] myBuffer, int lengthRequested) {
 		int retValue = -1;
 		/////////////// DPS 8-Jan-2013
 		/////////////// //////////////////////////////////////////////////
@@ -385,6 +446,17 @@ public class SystemIO {
 	 * @author Ken Vollmar
 	 */
 	public static int openFile(String filename, int flags) {
+		// When replaying, the file has already been opened. Only the table of
+		// file descriptors is brought up to date.
+		Integer replayed = InputLog.nextInteger();
+		if (replayed != null) {
+			FileIOData.replayOpen(replayed.intValue(), filename, flags);
+			return replayed.intValue();
+		}
+		return InputLog.record(open(filename, flags));
+	}
+
+	private static int open(String filename, int flags) {
 		// Internally, a "file descriptor" is an index into a table
 		// of the filename, flag, and the File???putStream associated with
 		// that file descriptor.
@@ -410,6 +482,7 @@ public class SystemIO {
 				FileIOData.setStreamInUse(fdToUse, inputStream); // Save stream
 																	// for later
 																	// use
+				FileIOData.setPosition(fdToUse, 0);
 			} catch (FileNotFoundException e) {
 				fileErrorString = new String("File " + filename + " not found, open for input.");
 				retValue = -1;
@@ -422,6 +495,7 @@ public class SystemIO {
 				FileIOData.setStreamInUse(fdToUse, outputStream); // Save stream
 																	// for later
 																	// use
+				FileIOData.setPosition(fdToUse, new File(filename).length());
 			} catch (FileNotFoundException e) {
 				fileErrorString = new String("File " + filename + " not found, open for output.");
 				retValue = -1;
@@ -438,6 +512,10 @@ public class SystemIO {
 	 *            the file descriptor of an open file
 	 */
 	public static void closeFile(int fd) {
+		if (InputLog.isReplaying()) {
+			FileIOData.replayClose(fd); // already closed the first time through
+			return;
+		}
 		FileIOData.close(fd);
 	}
 
@@ -448,6 +526,62 @@ public class SystemIO {
 		FileIOData.resetFiles();
 	}
 
+	/**
+	 * Take a snapshot of the table of open files: the name, flags and position
+	 * of each file opened by the program. Standard input and output are not
+	 * included. Files themselves are not saved.
+	 *
+	 * @return the snapshot
+	 */
+	public static FileSnapshot takeFileSnapshot() {
+		FileSnapshot snapshot = new FileSnapshot();
+		snapshot.fileNames = FileIOData.fileNames.clone();
+		snapshot.fileFlags = FileIOData.fileFlags.clone();
+		snapshot.positions = FileIOData.positions.clone();
+		return snapshot;
+	}
+
+	/**
+	 * Put back the table of open files saved in the given snapshot, which
+	 * remains usable. Only the table is changed; the files actually open stay
+	 * as they are until synchronizeFiles() is called. Meanwhile file syscalls
+	 * being replayed from the InputLog keep the table up to date.
+	 *
+	 * @param snapshot
+	 *            a snapshot taken by takeFileSnapshot()
+	 */
+	public static void restoreFileSnapshot(FileSnapshot snapshot) {
+		int first = STDERR + 1;
+		int count = SYSCALL_MAXFILES - first;
+		System.arraycopy(snapshot.fileNames, first, FileIOData.fileNames, first, count);
+		System.arraycopy(snapshot.fileFlags, first, FileIOData.fileFlags, first, count);
+		System.arraycopy(snapshot.positions, first, FileIOData.positions, first, count);
+	}
+
+	/**
+	 * Make the files actually open agree with the table of open files, once
+	 * replaying stops somewhere other than where the files were last used.
+	 * Files missing from the table are closed, and files in it are opened
+	 * again if need be. A file being read is positioned where the table says,
+	 * and a file being written is cut back to the length it had then.
+	 */
+	public static void synchronizeFiles() {
+		FileIOData.synchronize();
+	}
+
+	/**
+	 * The table of open files at some point during execution, as saved by
+	 * takeFileSnapshot().
+	 */
+	public static final class FileSnapshot {
+		private String[] fileNames;
+		private int[] fileFlags;
+		private long[] positions;
+
+		private FileSnapshot() {
+		}
+	}
+
 	/**
 	 * Retrieve file operation or error message
 	 *
@@ -500,6 +634,13 @@ public class SystemIO {
 																	// descriptor
 																	// is not in
 																	// use.
+		// Offset in each file at which the next read or write takes place, or
+		// -1 if not known (a file opened for appending while replaying).
+		private static long[] positions = new long[SYSCALL_MAXFILES];
+		// The file each stream in use was opened for. While replaying, files
+		// are opened and closed in the table only, so the streams can differ
+		// from it until synchronize() is called.
+		private static String[] streamNames = new String[SYSCALL_MAXFILES];
 		private static Object[] streams = new Object[SYSCALL_MAXFILES]; // The
 																		// streams
 																		// in
@@ -536,7 +677,91 @@ public class SystemIO {
 		// Preserve a stream that is in use
 		private static void setStreamInUse(int fd, Object s) {
 			streams[fd] = s;
+			streamNames[fd] = fileNames[fd];
+		}
+
+		private static void setPosition(int fd, long position) {
+			positions[fd] = position;
+		}
 
+		// Move past the bytes just read or written. Standard input and output
+		// are not tracked.
+		private static void advance(int fd, int bytes) {
+			if (fd > STDERR && fd < SYSCALL_MAXFILES && fileNames[fd] != null && positions[fd] >= 0 && bytes > 0) {
+				positions[fd] += bytes;
+			}
+		}
+
+		// Record in the table a file opened while replaying.
+		private static void replayOpen(int fd, String filename, int flag) {
+			if (fd > STDERR && fd < SYSCALL_MAXFILES) {
+				fileNames[fd] = filename;
+				fileFlags[fd] = flag;
+				positions[fd] = ((flag & O_APPEND) != 0) ? -1 : 0;
+			}
+		}
+
+		// Remove from the table a file closed while replaying.
+		private static void replayClose(int fd) {
+			if (fd > STDERR && fd < SYSCALL_MAXFILES) {
+				fileNames[fd] = null;
+				fileFlags[fd] = -1;
+			}
+		}
+
+		// Open, close and reposition streams to agree with the table.
+		private static void synchronize() {
+			for (int fd = STDERR + 1; fd < SYSCALL_MAXFILES; fd++) {
+				String name = fileNames[fd];
+				boolean reading = fileFlags[fd] == O_RDONLY;
+				if (streams[fd] != null && (name == null || !name.equals(streamNames[fd])
+						|| (streams[fd] instanceof FileInputStream) != reading)) {
+					closeStream(fd);
+				}
+				if (name == null) {
+					continue;
+				}
+				try {
+					FileChannel channel;
+					if (reading) {
+						if (streams[fd] == null) {
+							setStreamInUse(fd, new FileInputStream(name));
+						}
+						channel = ((FileInputStream) streams[fd]).getChannel();
+						if (positions[fd] >= 0 && channel.position() != positions[fd]) {
+							channel.position(positions[fd]);
+						}
+					} else {
+						// Reopened for appending so as not to lose what was
+						// written before; anything written beyond the position
+						// is cut off below.
+						if (streams[fd] == null) {
+							setStreamInUse(fd, new FileOutputStream(name, true));
+						}
+						channel = ((FileOutputStream) streams[fd]).getChannel();
+						if (positions[fd] >= 0 && channel.size() > positions[fd]) {
+							channel.truncate(positions[fd]);
+						}
+					}
+				} catch (IOException e) {
+					// The file cannot be used as it was, so treat it as closed.
+					closeStream(fd);
+					fileNames[fd] = null;
+					fileFlags[fd] = -1;
+				}
+			}
+		}
+
+		private static void closeStream(int fd) {
+			if (streams[fd] != null) {
+				try {
+					((Closeable) streams[fd]).close();
+				} catch (IOException ioe) {
+					// not concerned with this exception
+				}
+			}
+			streams[fd] = null;
+			streamNames[fd] = null;
 		}
 
 		// Retrieve a stream for use
@@ -591,6 +816,7 @@ public class SystemIO {
 				Object keepStream = streams[fd];
 				fileFlags[fd] = -1;
 				streams[fd] = null;
+				streamNames[fd] = null;
 				try {
 					if (keepFlag == O_RDONLY)
 						((FileInputStream) keepStream).close();
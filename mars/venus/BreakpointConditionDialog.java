@@ -0,0 +1,137 @@
+package mars.venus;
+
+import mars.simulator.*;
+import mars.util.*;
+import java.awt.*;
+import java.awt.event.*;
+import javax.swing.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Dialog to attach a condition and log message to the breakpoint on one line
+ * of the Text Segment window, or to make it a tracepoint that logs without
+ * pausing. Opened by right-clicking the line.
+ *
+ * @version October 2026
+ */
+
+public class BreakpointConditionDialog extends JDialog {
+	private static final long serialVersionUID = 1L;
+	private final int address;
+	private final JTextField conditionField;
+	private final JTextField messageField;
+	private final JCheckBox pauseBox;
+	private boolean accepted;
+
+	/**
+	 * Create the dialog for the breakpoint at an address, filled in with what
+	 * is attached to it now.
+	 *
+	 * @param owner
+	 *            frame that owns the dialog
+	 * @param address
+	 *            text segment address of the breakpoint
+	 */
+	public BreakpointConditionDialog(Frame owner, int address) {
+		super(owner, "Breakpoint at " + Binary.intToHexString(address), true);
+		this.address = address;
+		BreakpointConditions.Breakpoint breakpoint = Simulator.getInstance().getBreakpointConditions().get(address);
+
+		JPanel fields = new JPanel(new GridLayout(0, 1, 5, 5));
+		conditionField = new JTextField((breakpoint == null || breakpoint.getCondition() == null) ? ""
+				: breakpoint.getCondition(), 30);
+		conditionField.setToolTipText("Expression such as $t0 == 5 && mem[$sp+4] > 0 or hits % 1000 == 0. "
+				+ "Leave empty to take effect every time.");
+		messageField = new JTextField((breakpoint == null || breakpoint.getMessage() == null) ? ""
+				: breakpoint.getMessage(), 30);
+		messageField.setToolTipText("Text to log, with expressions in braces such as i={$t0} a[i]={mem[$a0]:x}");
+		pauseBox = new JCheckBox("Pause execution (uncheck for a tracepoint)", breakpoint == null
+				|| breakpoint.isPausing());
+		fields.add(new JLabel("Condition:"));
+		fields.add(conditionField);
+		fields.add(new JLabel("Log message:"));
+		fields.add(messageField);
+		fields.add(pauseBox);
+		fields.add(new JLabel("Hit count: " + ((breakpoint == null) ? 0 : breakpoint.getHits())));
+
+		JPanel buttons = new JPanel();
+		JButton okButton = new JButton("OK");
+		okButton.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				apply();
+			}
+		});
+		JButton cancelButton = new JButton("Cancel");
+		cancelButton.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				dispose();
+			}
+		});
+		buttons.add(okButton);
+		buttons.add(cancelButton);
+		getRootPane().setDefaultButton(okButton);
+
+		JPanel contents = new JPanel(new BorderLayout(10, 10));
+		contents.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+		contents.add(fields, BorderLayout.CENTER);
+		contents.add(buttons, BorderLayout.SOUTH);
+		setContentPane(contents);
+		setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+		pack();
+		setLocationRelativeTo(owner);
+	}
+
+	/**
+	 * Show the dialog and wait for it to close.
+	 *
+	 * @return true if the user pressed OK and the breakpoint should be set
+	 */
+	public boolean showDialog() {
+		setVisible(true);
+		return accepted;
+	}
+
+	private void apply() {
+		String condition = conditionField.getText().trim();
+		String message = messageField.getText();
+		BreakpointConditions conditions = Simulator.getInstance().getBreakpointConditions();
+		try {
+			if (condition.length() == 0 && message.length() == 0 && pauseBox.isSelected()) {
+				conditions.remove(address); // plain breakpoint
+			} else {
+				conditions.set(address, condition, message, pauseBox.isSelected());
+			}
+		} catch (IllegalArgumentException ex) {
+			JOptionPane.showMessageDialog(this, "Cannot set breakpoint: " + ex.getMessage());
+			return;
+		}
+		accepted = true;
+		dispose();
+	}
+}
@@ -50,7 +50,9 @@ public class Coprocessor0Window extends JPanel implements Observer {
 	private static Register[] registers;
 	private Object[][] tableData;
 	private boolean highlighting;
-	private int highlightRow;
+	private long highlightRows; // bit n set to highlight row n
+	private boolean highlightChanges; // highlight rows as registers change
+	private int displayedBase = -1; // number base of values in the table
 	private ExecutePane executePane;
 	private int[] rowGivenRegNumber; // translate register number to table row.
 	private static final int NAME_COLUMN = 0;
@@ -122,7 +124,7 @@ public class Coprocessor0Window extends JPanel implements Observer {
 		if (table != null) {
 			table.tableChanged(new TableModelEvent(table.getModel()));
 		}
-		highlightRow = -1; // assure highlight will not occur upon re-assemble.
+		highlightRows = 0; // assure highlight will not occur upon re-assemble.
 	}
 
 	/**
@@ -142,18 +144,43 @@ public class Coprocessor0Window extends JPanel implements Observer {
 	}
 
 	/**
-	 * Update register display using specified display base
+	 * Update register display using specified display base. Only registers
+	 * written since the previous update are redisplayed, unless the base has
+	 * changed.
 	 *
 	 * @param base
 	 *            number base for display (10 or 16)
 	 */
 	public void updateRegisters(int base) {
+		long written = Coprocessor0.takeDirtyRegisters();
+		long changed = (base == displayedBase) ? written : -1L;
+		displayedBase = base;
 		registers = Coprocessor0.getRegisters();
 		for (int i = 0; i < registers.length; i++) {
-			this.updateRegisterValue(registers[i].getNumber(), registers[i].getValue(), base);
+			if ((changed & (1L << i)) != 0) {
+				this.updateRegisterValue(registers[i].getNumber(), registers[i].getValueNoNotify(), base);
+			}
+		}
+		written &= (1L << registers.length) - 1;
+		if (highlightChanges && written != 0) {
+			this.highlighting = true;
+			this.highlightRows = written;
+			table.tableChanged(new TableModelEvent(table.getModel()));
+			if (Coprocessor0.holdsLastWrite()) {
+				Globals.getGui().getRegistersPane().setSelectedComponent(this);
+			}
 		}
 	}
 
+	/**
+	 * From now until the next simulation starts, highlight the registers
+	 * written between one update of the display and the next.
+	 */
+	public void highlightChanges() {
+		this.highlightChanges = true;
+		this.highlighting = true;
+	}
+
 	/**
 	 * This method handles the updating of the GUI.
 	 * 
@@ -170,11 +197,9 @@ public class Coprocessor0Window extends JPanel implements Observer {
 
 	/**
 	 * Required by Observer interface. Called when notified by an Observable
-	 * that we are registered with. Observables include: The Simulator object,
-	 * which lets us know when it starts and stops running A register object,
-	 * which lets us know of register operations The Simulator keeps us informed
-	 * of when simulated MIPS execution is active. This is the only time we care
-	 * about register operations.
+	 * that we are registered with. The Simulator keeps us informed of when
+	 * simulated MIPS execution is active. Registers changed during stepped or
+	 * timed execution are highlighted when the display is updated.
 	 * 
 	 * @param observable
 	 *            The Observable object who is notifying us
@@ -188,48 +213,14 @@ public class Coprocessor0Window extends JPanel implements Observer {
 				// Simulated MIPS execution starts. Respond to memory changes if
 				// running in timed
 				// or stepped mode.
+				this.highlightChanges = false;
 				if (notice.getRunSpeed() != RunSpeedPanel.UNLIMITED_SPEED || notice.getMaxSteps() == 1) {
-					Coprocessor0.addRegistersObserver(this);
-					this.highlighting = true;
+					highlightChanges();
 				}
-			} else {
-				// Simulated MIPS execution stops. Stop responding.
-				Coprocessor0.deleteRegistersObserver(this);
-			}
-		} else if (obj instanceof RegisterAccessNotice) {
-			// NOTE: each register is a separate Observable
-			RegisterAccessNotice access = (RegisterAccessNotice) obj;
-			if (access.getAccessType() == AccessNotice.WRITE) {
-				// For now, use highlighting technique used by Label Window
-				// feature to highlight
-				// memory cell corresponding to a selected label. The
-				// highlighting is not
-				// as visually distinct as changing the background color, but
-				// will do for now.
-				// Ideally, use the same highlighting technique as for Text
-				// Segment -- see
-				// AddressCellRenderer class in DataSegmentWindow.java.
-				this.highlighting = true;
-				this.highlightCellForRegister((Register) observable);
-				Globals.getGui().getRegistersPane().setSelectedComponent(this);
 			}
 		}
 	}
 
-	/**
-	 * Highlight the row corresponding to the given register.
-	 * 
-	 * @param register
-	 *            Register object corresponding to row to be selected.
-	 */
-	void highlightCellForRegister(Register register) {
-		int registerRow = Coprocessor0.getRegisterPosition(register);
-		if (registerRow < 0)
-			return; // not valid coprocessor0 register
-		this.highlightRow = registerRow;
-		table.tableChanged(new TableModelEvent(table.getModel()));
-	}
-
 	/*
 	 * Cell renderer for displaying register entries. This does highlighting, so
 	 * if you don't want highlighting for a given column, don't use this.
@@ -250,7 +241,7 @@ public class Coprocessor0Window extends JPanel implements Observer {
 			JLabel cell = (JLabel) super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
 			cell.setFont(font);
 			cell.setHorizontalAlignment(alignment);
-			if (settings.getRegistersHighlighting() && highlighting && row == highlightRow) {
+			if (settings.getRegistersHighlighting() && highlighting && (highlightRows & (1L << row)) != 0) {
 				cell.setBackground(settings.getColorSettingByPosition(Settings.REGISTER_HIGHLIGHT_BACKGROUND));
 				cell.setForeground(settings.getColorSettingByPosition(Settings.REGISTER_HIGHLIGHT_FOREGROUND));
 				cell.setFont(settings.getFontByPosition(Settings.REGISTER_HIGHLIGHT_FONT));
@@ -51,7 +51,9 @@ public class Coprocessor1Window extends JPanel implements ActionListener, Observ
 	private static Register[] registers;
 	private Object[][] tableData;
 	private boolean highlighting;
-	private int highlightRow;
+	private long highlightRows; // bit n set to highlight row n
+	private boolean highlightChanges; // highlight rows as registers change
+	private int displayedBase = -1; // number base of values in the table
 	private ExecutePane executePane;
 	private JCheckBox[] conditionFlagCheckBox;
 	private static final int NAME_COLUMN = 0;
@@ -179,7 +181,7 @@ public class Coprocessor1Window extends JPanel implements ActionListener, Observ
 		if (table != null) {
 			table.tableChanged(new TableModelEvent(table.getModel()));
 		}
-		highlightRow = -1; // assure highlight will not occur upon re-assemble.
+		highlightRows = 0; // assure highlight will not occur upon re-assemble.
 	}
 
 	/**
@@ -199,20 +201,48 @@ public class Coprocessor1Window extends JPanel implements ActionListener, Observ
 	}
 
 	/**
-	 * Redisplay registers using specified display number base (10 or 16)
+	 * Redisplay registers using specified display number base (10 or 16). Only
+	 * registers written since the previous update are redisplayed, unless the
+	 * base has changed.
 	 * 
 	 * @param base
 	 *            number base for display (10 or 16)
 	 */
 	public void updateRegisters(int base) {
+		long written = Coprocessor1.takeDirtyRegisters();
+		long changed = (base == displayedBase) ? written : -1L;
+		displayedBase = base;
 		registers = Coprocessor1.getRegisters();
 		for (int i = 0; i < registers.length; i++) {
-			updateFloatRegisterValue(registers[i].getNumber(), registers[i].getValue(), base);
-			if (i % 2 == 0) {
+			if ((changed & (1L << i)) != 0) {
+				updateFloatRegisterValue(registers[i].getNumber(), registers[i].getValueNoNotify(), base);
+			}
+			// The double in an even register depends on the odd one too.
+			if (i % 2 == 0 && (changed & (3L << i)) != 0) {
 				updateDoubleRegisterValue(i, base);
 			}
 		}
-		updateConditionFlagDisplay();
+		if ((changed & (1L << 32)) != 0) {
+			updateConditionFlagDisplay();
+		}
+		written &= (1L << registers.length) - 1;
+		if (highlightChanges && written != 0) {
+			this.highlighting = true;
+			this.highlightRows = written;
+			table.tableChanged(new TableModelEvent(table.getModel()));
+			if (Coprocessor1.holdsLastWrite()) {
+				Globals.getGui().getRegistersPane().setSelectedComponent(this);
+			}
+		}
+	}
+
+	/**
+	 * From now until the next simulation starts, highlight the registers
+	 * written between one update of the display and the next.
+	 */
+	public void highlightChanges() {
+		this.highlightChanges = true;
+		this.highlighting = true;
 	}
 
 	private void updateConditionFlagDisplay() {
@@ -260,11 +290,9 @@ public class Coprocessor1Window extends JPanel implements ActionListener, Observ
 
 	/**
 	 * Required by Observer interface. Called when notified by an Observable
-	 * that we are registered with. Observables include: The Simulator object,
-	 * which lets us know when it starts and stops running A register object,
-	 * which lets us know of register operations The Simulator keeps us informed
-	 * of when simulated MIPS execution is active. This is the only time we care
-	 * about register operations.
+	 * that we are registered with. The Simulator keeps us informed of when
+	 * simulated MIPS execution is active. Registers changed during stepped or
+	 * timed execution are highlighted when the display is updated.
 	 * 
 	 * @param observable
 	 *            The Observable object who is notifying us
@@ -278,58 +306,14 @@ public class Coprocessor1Window extends JPanel implements ActionListener, Observ
 				// Simulated MIPS execution starts. Respond to memory changes if
 				// running in timed
 				// or stepped mode.
+				this.highlightChanges = false;
 				if (notice.getRunSpeed() != RunSpeedPanel.UNLIMITED_SPEED || notice.getMaxSteps() == 1) {
-					Coprocessor1.addRegistersObserver(this);
-					this.highlighting = true;
+					highlightChanges();
 				}
-			} else {
-				// Simulated MIPS execution stops. Stop responding.
-				Coprocessor1.deleteRegistersObserver(this);
-			}
-		} else if (obj instanceof RegisterAccessNotice) {
-			// NOTE: each register is a separate Observable
-			RegisterAccessNotice access = (RegisterAccessNotice) obj;
-			if (access.getAccessType() == AccessNotice.WRITE) {
-				// For now, use highlighting technique used by Label Window
-				// feature to highlight
-				// memory cell corresponding to a selected label. The
-				// highlighting is not
-				// as visually distinct as changing the background color, but
-				// will do for now.
-				// Ideally, use the same highlighting technique as for Text
-				// Segment -- see
-				// AddressCellRenderer class in DataSegmentWindow.java.
-				this.highlighting = true;
-				this.highlightCellForRegister((Register) observable);
-				Globals.getGui().getRegistersPane().setSelectedComponent(this);
 			}
 		}
 	}
 
-	/**
-	 * Highlight the row corresponding to the given register.
-	 * 
-	 * @param register
-	 *            Register object corresponding to row to be selected.
-	 */
-	void highlightCellForRegister(Register register) {
-		this.highlightRow = register.getNumber();
-		table.tableChanged(new TableModelEvent(table.getModel()));
-		/*
-		 * int registerColumn = FLOAT_COLUMN; registerColumn =
-		 * table.convertColumnIndexToView(registerColumn); Rectangle
-		 * registerCell = table.getCellRect(registerRow, registerColumn, true);
-		 * // STEP 2: Select the cell by generating a fake Mouse Pressed event
-		 * and // explicitly invoking the table's mouse listener. MouseEvent
-		 * fakeMouseEvent = new MouseEvent(table, MouseEvent.MOUSE_PRESSED, new
-		 * Date().getTime(), MouseEvent.BUTTON1_MASK,
-		 * (int)registerCell.getX()+1, (int)registerCell.getY()+1, 1, false);
-		 * MouseListener[] mouseListeners = table.getMouseListeners(); for (int
-		 * i=0; i<mouseListeners.length; i++) {
-		 * mouseListeners[i].mousePressed(fakeMouseEvent); }
-		 */
-	}
-
 	/*
 	 * Cell renderer for displaying register entries. This does highlighting, so
 	 * if you don't want highlighting for a given column, don't use this.
@@ -350,7 +334,7 @@ public class Coprocessor1Window extends JPanel implements ActionListener, Observ
 			JLabel cell = (JLabel) super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
 			cell.setFont(font);
 			cell.setHorizontalAlignment(alignment);
-			if (settings.getRegistersHighlighting() && highlighting && row == highlightRow) {
+			if (settings.getRegistersHighlighting() && highlighting && (highlightRows & (1L << row)) != 0) {
 				cell.setBackground(settings.getColorSettingByPosition(Settings.REGISTER_HIGHLIGHT_BACKGROUND));
 				cell.setForeground(settings.getColorSettingByPosition(Settings.REGISTER_HIGHLIGHT_FOREGROUND));
 				cell.setFont(settings.getFontByPosition(Settings.REGISTER_HIGHLIGHT_FONT));
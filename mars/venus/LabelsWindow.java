@@ -315,14 +315,17 @@ public class LabelsWindow extends JInternalFrame {
 			SymbolTable symbolTable = (myMIPSprogram == null) ? Globals.symbolTable
 					: myMIPSprogram.getLocalSymbolTable();
 			int addressBase = Globals.getGui().getMainPane().getExecutePane().getAddressDisplayBase();
-			if (textLabels.isSelected() && dataLabels.isSelected()) {
-				symbols = symbolTable.getAllSymbols();
-			} else if (textLabels.isSelected() && !dataLabels.isSelected()) {
-				symbols = symbolTable.getTextSymbols();
-			} else if (!textLabels.isSelected() && dataLabels.isSelected()) {
-				symbols = symbolTable.getDataSymbols();
-			} else {
-				symbols = new ArrayList();
+			// Start from the symbol table's sorted view for the sort column
+			// (states 0-3 sort by address, 4-7 by name), so that the sort
+			// below only has to confirm or reverse the order.
+			ArrayList sorted = (sortState < 4) ? symbolTable.getSymbolsSortedByAddress()
+					: symbolTable.getSymbolsSortedByName();
+			symbols = new ArrayList();
+			for (int i = 0; i < sorted.size(); i++) {
+				Symbol s = (Symbol) sorted.get(i);
+				if (s.getType() == Symbol.DATA_SYMBOL ? dataLabels.isSelected() : textLabels.isSelected()) {
+					symbols.add(s);
+				}
 			}
 			Collections.sort(symbols, tableSortComparator); // DPS 25 Dec 2008
 			labelData = new Object[symbols.size()][2];
@@ -50,7 +50,9 @@ public class RegistersWindow extends JPanel implements Observer {
 	private static Register[] registers;
 	private Object[][] tableData;
 	private boolean highlighting;
-	private int highlightRow;
+	private long highlightRows; // bit n set to highlight row n
+	private boolean highlightChanges; // highlight rows as registers change
+	private int displayedBase = -1; // number base of values in the table
 	private ExecutePane executePane;
 	private static final int NAME_COLUMN = 0;
 	private static final int NUMBER_COLUMN = 1;
@@ -131,7 +133,7 @@ public class RegistersWindow extends JPanel implements Observer {
 		if (table != null) {
 			table.tableChanged(new TableModelEvent(table.getModel()));
 		}
-		highlightRow = -1; // assure highlight will not occur upon re-assemble.
+		highlightRows = 0; // assure highlight will not occur upon re-assemble.
 	}
 
 	/**
@@ -151,19 +153,52 @@ public class RegistersWindow extends JPanel implements Observer {
 	}
 
 	/**
-	 * update register display using specified number base (10 or 16)
+	 * update register display using specified number base (10 or 16). Only
+	 * registers written since the previous update are redisplayed, unless the
+	 * base has changed.
 	 *
 	 * @param base
 	 *            desired number base
 	 */
 	public void updateRegisters(int base) {
+		long written = RegisterFile.takeDirtyRegisters();
+		long changed = (base == displayedBase) ? written : -1L;
+		displayedBase = base;
 		registers = RegisterFile.getRegisters();
 		for (int i = 0; i < registers.length; i++) {
-			updateRegisterValue(registers[i].getNumber(), registers[i].getValue(), base);
+			if ((changed & (1L << i)) != 0) {
+				updateRegisterValue(registers[i].getNumber(), registers[i].getValueNoNotify(), base);
+			}
+		}
+		if ((changed & (1L << 32)) != 0) {
+			updateRegisterUnsignedValue(32, RegisterFile.getProgramCounter(), base);
+		}
+		if ((changed & (1L << 33)) != 0) {
+			updateRegisterValue(33, RegisterFile.getValue(33), base);
+		}
+		if ((changed & (1L << 34)) != 0) {
+			updateRegisterValue(34, RegisterFile.getValue(34), base);
+		}
+		// The program counter changes with every instruction; don't
+		// highlight it.
+		written &= ~(1L << 32);
+		if (highlightChanges && written != 0) {
+			this.highlighting = true;
+			this.highlightRows = written;
+			table.tableChanged(new TableModelEvent(table.getModel()));
+			if (RegisterFile.holdsLastWrite()) {
+				Globals.getGui().getRegistersPane().setSelectedComponent(this);
+			}
 		}
-		updateRegisterUnsignedValue(32, RegisterFile.getProgramCounter(), base);
-		updateRegisterValue(33, RegisterFile.getValue(33), base);
-		updateRegisterValue(34, RegisterFile.getValue(34), base);
+	}
+
+	/**
+	 * From now until the next simulation starts, highlight the registers
+	 * written between one update of the display and the next.
+	 */
+	public void highlightChanges() {
+		this.highlightChanges = true;
+		this.highlighting = true;
 	}
 
 	/**
@@ -187,11 +222,9 @@ public class RegistersWindow extends JPanel implements Observer {
 
 	/**
 	 * Required by Observer interface. Called when notified by an Observable
-	 * that we are registered with. Observables include: The Simulator object,
-	 * which lets us know when it starts and stops running A register object,
-	 * which lets us know of register operations The Simulator keeps us informed
-	 * of when simulated MIPS execution is active. This is the only time we care
-	 * about register operations.
+	 * that we are registered with. The Simulator keeps us informed of when
+	 * simulated MIPS execution is active. Registers changed during stepped or
+	 * timed execution are highlighted when the display is updated.
 	 * 
 	 * @param observable
 	 *            The Observable object who is notifying us
@@ -205,46 +238,14 @@ public class RegistersWindow extends JPanel implements Observer {
 				// Simulated MIPS execution starts. Respond to memory changes if
 				// running in timed
 				// or stepped mode.
+				this.highlightChanges = false;
 				if (notice.getRunSpeed() != RunSpeedPanel.UNLIMITED_SPEED || notice.getMaxSteps() == 1) {
-					RegisterFile.addRegistersObserver(this);
-					this.highlighting = true;
+					highlightChanges();
 				}
-			} else {
-				// Simulated MIPS execution stops. Stop responding.
-				RegisterFile.deleteRegistersObserver(this);
-			}
-		} else if (obj instanceof RegisterAccessNotice) {
-			// NOTE: each register is a separate Observable
-			RegisterAccessNotice access = (RegisterAccessNotice) obj;
-			if (access.getAccessType() == AccessNotice.WRITE) {
-				// Uses the same highlighting technique as for Text Segment --
-				// see
-				// AddressCellRenderer class in DataSegmentWindow.java.
-				this.highlighting = true;
-				this.highlightCellForRegister((Register) observable);
-				Globals.getGui().getRegistersPane().setSelectedComponent(this);
 			}
 		}
 	}
 
-	/**
-	 * Highlight the row corresponding to the given register.
-	 * 
-	 * @param register
-	 *            Register object corresponding to row to be selected.
-	 */
-	void highlightCellForRegister(Register register) {
-		this.highlightRow = register.getNumber();
-		// Tell the system that table contents have changed. This will trigger
-		// re-rendering
-		// during which cell renderers are obtained. The row of interest
-		// (identified by
-		// instance variabls this.registerRow) will get a renderer
-		// with highlight background color and all others get renderer with
-		// default background.
-		table.tableChanged(new TableModelEvent(table.getModel()));
-	}
-
 	/*
 	 * Cell renderer for displaying register entries. This does highlighting, so
 	 * if you don't want highlighting for a given column, don't use this.
@@ -265,7 +266,7 @@ public class RegistersWindow extends JPanel implements Observer {
 			JLabel cell = (JLabel) super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
 			cell.setFont(font);
 			cell.setHorizontalAlignment(alignment);
-			if (settings.getRegistersHighlighting() && highlighting && row == highlightRow) {
+			if (settings.getRegistersHighlighting() && highlighting && (highlightRows & (1L << row)) != 0) {
 				cell.setBackground(settings.getColorSettingByPosition(Settings.REGISTER_HIGHLIGHT_BACKGROUND));
 				cell.setForeground(settings.getColorSettingByPosition(Settings.REGISTER_HIGHLIGHT_FOREGROUND));
 				cell.setFont(settings.getFontByPosition(Settings.REGISTER_HIGHLIGHT_FONT));
@@ -69,12 +69,11 @@ public class RunBackstepAction extends GuiAction {
 																					// June
 																					// 2007
 			Memory.getInstance().addObserver(executePane.getDataSegmentWindow());
-			RegisterFile.addRegistersObserver(executePane.getRegistersWindow());
-			Coprocessor0.addRegistersObserver(executePane.getCoprocessor0Window());
-			Coprocessor1.addRegistersObserver(executePane.getCoprocessor1Window());
+			executePane.getRegistersWindow().highlightChanges();
+			executePane.getCoprocessor0Window().highlightChanges();
+			executePane.getCoprocessor1Window().highlightChanges();
 			Globals.program.getBackStepper().backStep();
 			Memory.getInstance().deleteObserver(executePane.getDataSegmentWindow());
-			RegisterFile.deleteRegistersObserver(executePane.getRegistersWindow());
 			executePane.getRegistersWindow().updateRegisters();
 			executePane.getCoprocessor1Window().updateRegisters();
 			executePane.getCoprocessor0Window().updateRegisters();
@@ -114,7 +114,14 @@ public class RunGoAction extends GuiAction {
 			stopped(pe, Simulator.NORMAL_TERMINATION);
 			return;
 		}
-		if (pauseReason == Simulator.BREAKPOINT) {
+		if (pauseReason == Simulator.BREAKPOINT && Globals.memory.getWatchpoints().isTriggered()) {
+			mainUI.messagesPane.postMarsMessage(name + ": execution paused at watchpoint: "
+					+ Globals.memory.getWatchpoints().getTriggerDescription() + "\n\n");
+		} else if (pauseReason == Simulator.BREAKPOINT
+				&& Simulator.getInstance().getBreakpointConditions().getTriggerDescription() != null) {
+			mainUI.messagesPane.postMarsMessage(name + ": execution paused at "
+					+ Simulator.getInstance().getBreakpointConditions().getTriggerDescription() + "\n\n");
+		} else if (pauseReason == Simulator.BREAKPOINT) {
 			mainUI.messagesPane.postMarsMessage(
 					name + ": execution paused at breakpoint: " + FileStatus.getFile().getName() + "\n\n");
 		} else {
@@ -2,6 +2,7 @@ package mars.venus;
 
 import mars.*;
 import mars.util.*;
+import mars.simulator.*;
 import mars.mips.hardware.*;
 import java.awt.*;
 import java.awt.event.*;
@@ -71,6 +72,7 @@ public class RunResetAction extends GuiAction {
 					"Unable to reset.  Please close file then re-open and re-assemble.\n");
 			return;
 		}
+		Simulator.getInstance().getBreakpointConditions().resetHitCounts();
 		RegisterFile.resetRegisters();
 		Coprocessor1.resetRegisters();
 		Coprocessor0.resetRegisters();
@@ -0,0 +1,73 @@
+package mars.venus;
+
+import mars.*;
+import mars.simulator.*;
+import java.awt.*;
+import java.awt.event.*;
+import javax.swing.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Action for the Run -> Reverse Continue menu item. Reverses execution to the
+ * most recent point at which it was about to execute a breakpoint, or to the
+ * start of the program if there is none (see ReverseExecution).
+ * 
+ * @version October 2026
+ */
+public class RunReverseContinueAction extends GuiAction {
+	private static final long serialVersionUID = 1L;
+
+	public RunReverseContinueAction(String name, Icon icon, String descrip, Integer mnemonic, KeyStroke accel,
+			VenusUI gui) {
+		super(name, icon, descrip, mnemonic, accel, gui);
+	}
+
+	public void actionPerformed(ActionEvent e) {
+		ReverseExecution reverse = Globals.program.getReverseExecution();
+		if (!FileStatus.isAssembled() || reverse == null) {
+			return;
+		}
+		final int[] breakPoints = mainUI.getMainPane().getExecutePane().getTextSegmentWindow()
+				.getSortedBreakPointsArray();
+		final ReverseExecution reversing = reverse;
+		final boolean[] atBreakpoint = new boolean[1];
+		RunStepBackAction.reverseInBackground(mainUI, reverse, new Runnable() {
+			public void run() {
+				atBreakpoint[0] = reversing.reverseContinue(breakPoints);
+			}
+		}, new Runnable() {
+			public void run() {
+				String where = reversing.wasStopped() ? "stopped" : atBreakpoint[0] ? "back to breakpoint"
+						: "back to start of program";
+				RunStepBackAction.showReversedState(mainUI, getValue(Action.NAME) + ": " + where + ", instruction "
+						+ reversing.getInstructionCount() + ".\n");
+			}
+		});
+	}
+}
@@ -0,0 +1,135 @@
+package mars.venus;
+
+import mars.*;
+import mars.simulator.*;
+import java.awt.*;
+import java.awt.event.*;
+import javax.swing.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Action for the Run -> Step Back menu item. Reverses execution by a number
+ * of instructions given by the user, restoring a checkpoint and re-executing
+ * from there (see ReverseExecution).
+ * 
+ * @version October 2026
+ */
+public class RunStepBackAction extends GuiAction {
+	private static final long serialVersionUID = 1L;
+
+	private static String lastCount = "1";
+
+	public RunStepBackAction(String name, Icon icon, String descrip, Integer mnemonic, KeyStroke accel,
+			VenusUI gui) {
+		super(name, icon, descrip, mnemonic, accel, gui);
+	}
+
+	public void actionPerformed(ActionEvent e) {
+		ReverseExecution reverse = Globals.program.getReverseExecution();
+		if (!FileStatus.isAssembled() || reverse == null) {
+			return;
+		}
+		String input = JOptionPane.showInputDialog(mainUI,
+				"Number of instructions to step back (" + reverse.getInstructionCount() + " executed)", lastCount);
+		if (input == null) {
+			return;
+		}
+		long instructions;
+		try {
+			instructions = Long.parseLong(input.trim());
+		} catch (NumberFormatException nfe) {
+			JOptionPane.showMessageDialog(mainUI, "\"" + input + "\" is not a number of instructions.");
+			return;
+		}
+		lastCount = input.trim();
+		final ReverseExecution reversing = reverse;
+		final long count = instructions;
+		final long[] done = new long[1];
+		reverseInBackground(mainUI, reverse, new Runnable() {
+			public void run() {
+				done[0] = reversing.stepBack(count);
+			}
+		}, new Runnable() {
+			public void run() {
+				showReversedState(mainUI, getValue(Action.NAME) + ": back " + done[0] + " instructions, to instruction "
+						+ reversing.getInstructionCount() + (reversing.wasStopped() ? " (stopped)" : "") + ".\n");
+			}
+		});
+	}
+
+	/**
+	 * Reverse execution on the simulator thread, with the GUI in its running
+	 * state meanwhile so that PAUSE and STOP can end it early. Used by both
+	 * reverse execution actions.
+	 *
+	 * @param mainUI
+	 *            the GUI
+	 * @param reverse
+	 *            the reverse execution support of the program
+	 * @param reversal
+	 *            does the reversing
+	 * @param whenFinished
+	 *            run in the GUI thread when reversal is finished, normally to
+	 *            call showReversedState()
+	 */
+	static void reverseInBackground(VenusUI mainUI, ReverseExecution reverse, Runnable reversal,
+			Runnable whenFinished) {
+		ExecutePane executePane = mainUI.getMainPane().getExecutePane();
+		executePane.getTextSegmentWindow().setCodeHighlighting(false);
+		executePane.getTextSegmentWindow().unhighlightAllSteps();
+		mainUI.setMenuState(FileStatus.RUNNING);
+		Simulator.getInstance().reverse(reverse, reversal, whenFinished);
+	}
+
+	/**
+	 * Bring the display up to date after execution has been reversed. Used by
+	 * both reverse execution actions.
+	 * 
+	 * @param mainUI
+	 *            the GUI
+	 * @param message
+	 *            reported in the MARS Messages tab
+	 */
+	static void showReversedState(VenusUI mainUI, String message) {
+		ExecutePane executePane = mainUI.getMainPane().getExecutePane();
+		VenusUI.setStarted(true);
+		executePane.getRegistersWindow().clearHighlighting();
+		executePane.getRegistersWindow().updateRegisters();
+		executePane.getCoprocessor1Window().clearHighlighting();
+		executePane.getCoprocessor1Window().updateRegisters();
+		executePane.getCoprocessor0Window().clearHighlighting();
+		executePane.getCoprocessor0Window().updateRegisters();
+		executePane.getDataSegmentWindow().updateValues();
+		executePane.getTextSegmentWindow().setCodeHighlighting(true);
+		executePane.getTextSegmentWindow().highlightStepAtPC(Simulator.inDelaySlot());
+		FileStatus.set(FileStatus.RUNNABLE);
+		VenusUI.setReset(false);
+		mainUI.getMessagesPane().postMarsMessage(message);
+	}
+}
@@ -0,0 +1,146 @@
+package mars.venus;
+
+import mars.mips.hardware.*;
+import mars.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.*;
+import javax.swing.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Action class for the Run menu item to view, add and remove data
+ * watchpoints. Execution pauses, as at a breakpoint, after an instruction that
+ * reads, writes or changes a watched address.
+ */
+public class RunWatchpointsAction extends GuiAction {
+	private static final long serialVersionUID = 1L;
+
+	private JDialog dialog;
+	private DefaultListModel listModel;
+	private JList list;
+	private JTextField rangeField;
+	private JCheckBox readBox, writeBox, changeBox;
+
+	public RunWatchpointsAction(String name, Icon icon, String descrip, Integer mnemonic, KeyStroke accel,
+			VenusUI gui) {
+		super(name, icon, descrip, mnemonic, accel, gui);
+	}
+
+	public void actionPerformed(ActionEvent e) {
+		dialog = new JDialog(Globals.getGui(), "Data Watchpoints", true);
+		dialog.setContentPane(buildDialogPanel());
+		dialog.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+		dialog.pack();
+		dialog.setLocationRelativeTo(Globals.getGui());
+		dialog.setVisible(true);
+	}
+
+	private JPanel buildDialogPanel() {
+		JPanel contents = new JPanel(new BorderLayout(10, 10));
+		contents.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+		listModel = new DefaultListModel();
+		list = new JList(listModel);
+		list.setVisibleRowCount(8);
+		refreshList();
+		contents.add(new JScrollPane(list), BorderLayout.CENTER);
+
+		JPanel addPanel = new JPanel();
+		rangeField = new JTextField(22);
+		rangeField.setToolTipText("Address, or range of addresses such as 0x10010000-0x1001000f");
+		readBox = new JCheckBox("Read");
+		writeBox = new JCheckBox("Write", true);
+		changeBox = new JCheckBox("Change");
+		JButton addButton = new JButton("Add");
+		addButton.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				addWatchpoint();
+			}
+		});
+		addPanel.add(new JLabel("Address:"));
+		addPanel.add(rangeField);
+		addPanel.add(readBox);
+		addPanel.add(writeBox);
+		addPanel.add(changeBox);
+		addPanel.add(addButton);
+		contents.add(addPanel, BorderLayout.NORTH);
+
+		JPanel buttons = new JPanel();
+		JButton removeButton = new JButton("Remove");
+		removeButton.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				int[] selected = list.getSelectedIndices();
+				for (int i = 0; i < selected.length; i++) {
+					Globals.memory.getWatchpoints().remove((MemoryWatchpoints.Watchpoint) listModel.get(selected[i]));
+				}
+				refreshList();
+			}
+		});
+		JButton clearButton = new JButton("Remove All");
+		clearButton.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				Globals.memory.getWatchpoints().clear();
+				refreshList();
+			}
+		});
+		JButton closeButton = new JButton("Close");
+		closeButton.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				dialog.dispose();
+			}
+		});
+		buttons.add(removeButton);
+		buttons.add(clearButton);
+		buttons.add(closeButton);
+		contents.add(buttons, BorderLayout.SOUTH);
+		return contents;
+	}
+
+	private void addWatchpoint() {
+		String kinds = (readBox.isSelected() ? "r" : "") + (writeBox.isSelected() ? "w" : "")
+				+ (changeBox.isSelected() ? "c" : "");
+		try {
+			Globals.memory.getWatchpoints().add(rangeField.getText().trim(), kinds);
+		} catch (IllegalArgumentException ex) {
+			JOptionPane.showMessageDialog(dialog, "Cannot add watchpoint: " + ex.getMessage());
+			return;
+		}
+		rangeField.setText("");
+		refreshList();
+	}
+
+	private void refreshList() {
+		listModel.clear();
+		Iterator it = Globals.memory.getWatchpoints().getWatchpoints().iterator();
+		while (it.hasNext()) {
+			listModel.addElement(it.next());
+		}
+	}
+}
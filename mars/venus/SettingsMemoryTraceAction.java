@@ -0,0 +1,110 @@
+package mars.venus;
+
+import mars.mips.hardware.*;
+import mars.*;
+import java.awt.event.*;
+import javax.swing.*;
+import java.io.*;
+
+/*
+Copyright (c) 2003-2006,  Pete Sanderson and Kenneth Vollmar
+
+Developed by Pete Sanderson (psanderson@otterbein.edu)
+and Kenneth Vollmar (kenvollmar@missouristate.edu)
+
+Permission is hereby granted, free of charge, to any person obtaining 
+a copy of this software and associated documentation files (the 
+"Software"), to deal in the Software without restriction, including 
+without limitation the rights to use, copy, modify, merge, publish, 
+distribute, sublicense, and/or sell copies of the Software, and to 
+permit persons to whom the Software is furnished to do so, subject 
+to the following conditions:
+
+The above copyright notice and this permission notice shall be 
+included in all copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, 
+EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF 
+MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. 
+IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR 
+ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF 
+CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION 
+WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+
+(MIT license, http://www.opensource.org/licenses/mit-license.html)
+ */
+/**
+ * Action class for the Settings menu item to record every instruction fetch
+ * and memory access of the running MIPS program to a binary trace file.
+ * Selecting the item asks for the file and starts recording; deselecting it
+ * stops recording and closes the file. The setting is not persistent.
+ */
+public class SettingsMemoryTraceAction extends GuiAction {
+	private static final long serialVersionUID = 1L;
+
+	private MemoryTraceRecorder recorder;
+	private Thread closeOnExit;
+
+	public SettingsMemoryTraceAction(String name, Icon icon, String descrip, Integer mnemonic, KeyStroke accel,
+			VenusUI gui) {
+		super(name, icon, descrip, mnemonic, accel, gui);
+	}
+
+	public void actionPerformed(ActionEvent e) {
+		JCheckBoxMenuItem item = (JCheckBoxMenuItem) e.getSource();
+		if (item.isSelected()) {
+			item.setSelected(startTrace());
+		} else {
+			stopTrace();
+		}
+	}
+
+	// Ask for the trace file and install a recorder writing to it. Returns
+	// true if recording has started.
+	private boolean startTrace() {
+		JFileChooser saveDialog = new JFileChooser(mainUI.getEditor().getCurrentSaveDirectory());
+		saveDialog.setDialogTitle("Record Memory Trace To File");
+		if (saveDialog.showSaveDialog(mainUI) != JFileChooser.APPROVE_OPTION) {
+			return false;
+		}
+		File file = saveDialog.getSelectedFile();
+		try {
+			recorder = new MemoryTraceRecorder(file);
+		} catch (IOException ex) {
+			JOptionPane.showMessageDialog(mainUI, "Unable to create memory trace file " + file + ": " + ex.getMessage());
+			return false;
+		}
+		Globals.memory.setTraceRecorder(recorder);
+		// Make sure buffered records reach the file if MARS exits while tracing.
+		final MemoryTraceRecorder closing = recorder;
+		closeOnExit = new Thread() {
+			public void run() {
+				try {
+					closing.close();
+				} catch (IOException ex) {
+				}
+			}
+		};
+		Runtime.getRuntime().addShutdownHook(closeOnExit);
+		return true;
+	}
+
+	private void stopTrace() {
+		if (recorder == null) {
+			return;
+		}
+		Globals.memory.setTraceRecorder(null);
+		Runtime.getRuntime().removeShutdownHook(closeOnExit);
+		String message;
+		try {
+			recorder.close();
+			message = recorder.getRecordCount() + " memory accesses recorded to " + recorder.getFile();
+		} catch (IOException ex) {
+			message = "Error writing memory trace file " + recorder.getFile() + ": " + ex.getMessage();
+		}
+		recorder = null;
+		closeOnExit = null;
+		JOptionPane.showMessageDialog(mainUI, message);
+	}
+
+}
@@ -117,6 +117,7 @@ public class TextSegmentWindow extends JInternalFrame implements Observer {
 		int addressBase = Globals.getGui().getMainPane().getExecutePane().getAddressDisplayBase();
 		codeHighlighting = true;
 		breakpointsEnabled = true;
+		Simulator.getInstance().getBreakpointConditions().clear();
 		ArrayList sourceStatementList = Globals.program.getMachineList();
 		data = new Object[sourceStatementList.size()][columnNames.length];
 		intAddresses = new int[data.length];
@@ -168,6 +169,7 @@ public class TextSegmentWindow extends JInternalFrame implements Observer {
 		// prevents cells in row from being highlighted when user clicks on
 		// breakpoint checkbox
 		table.setRowSelectionAllowed(false);
+		table.addMouseListener(new BreakpointConditionMouseListener());
 
 		table.getColumnModel().getColumn(BREAK_COLUMN).setMinWidth(40);
 		table.getColumnModel().getColumn(ADDRESS_COLUMN).setMinWidth(80);
@@ -791,6 +793,10 @@ public class TextSegmentWindow extends JInternalFrame implements Observer {
 		 */
 		@Override
 		public void setValueAt(Object value, int row, int col) {
+			if (col == BREAK_COLUMN && Boolean.FALSE.equals(value)) {
+				// Removing a breakpoint removes its condition too.
+				Simulator.getInstance().getBreakpointConditions().remove(intAddresses[row]);
+			}
 			if (col != CODE_COLUMN) {
 				data[row][col] = value;
 				fireTableCellUpdated(row, col);
@@ -1025,6 +1031,12 @@ public class TextSegmentWindow extends JInternalFrame implements Observer {
 					setBorder(noFocusBorder);
 				}
 				setSelected(Boolean.TRUE.equals(value));
+				// Mark breakpoints that have a condition, log message or hit
+				// count, and describe it in the tool tip.
+				BreakpointConditions.Breakpoint breakpoint = Boolean.TRUE.equals(value)
+						? Simulator.getInstance().getBreakpointConditions().get(intAddresses[row]) : null;
+				setText((breakpoint == null) ? "" : (breakpoint.isPausing() ? "?" : "T"));
+				setToolTipText((breakpoint == null) ? null : breakpoint + ", hits " + breakpoint.getHits());
 			}
 			return this;
 		}
@@ -1044,7 +1056,7 @@ public class TextSegmentWindow extends JInternalFrame implements Observer {
 		}
 
 		private String[] columnToolTips = {
-				/* break */ "If checked, will set an execution breakpoint. Click header to disable/enable breakpoints",
+				/* break */ "If checked, will set an execution breakpoint. Right-click a line to add a condition or log message. Click header to disable/enable breakpoints",
 				/* address */ "Text segment address of binary instruction code",
 				/* code */ "32-bit binary MIPS instruction", /* basic */ "Basic assembler instruction",
 				/* source */ "Source code line" };
@@ -1127,6 +1139,28 @@ public class TextSegmentWindow extends JInternalFrame implements Observer {
 		}
 	}
 
+	/*
+	 * Right-clicking a line opens a dialog to attach a condition or log
+	 * message to its breakpoint. Setting one also sets the breakpoint.
+	 */
+	private class BreakpointConditionMouseListener extends MouseAdapter {
+		public void mouseClicked(MouseEvent e) {
+			if (!SwingUtilities.isRightMouseButton(e)) {
+				return;
+			}
+			int row = table.rowAtPoint(e.getPoint());
+			if (row < 0) {
+				return;
+			}
+			BreakpointConditionDialog dialog = new BreakpointConditionDialog(Globals.getGui(), intAddresses[row]);
+			if (dialog.showDialog() && !((Boolean) data[row][BREAK_COLUMN]).booleanValue()) {
+				tableModel.setValueAt(Boolean.TRUE, row, BREAK_COLUMN);
+			} else {
+				tableModel.fireTableCellUpdated(row, BREAK_COLUMN);
+			}
+		}
+	}
+
 	/*
 	 * Will capture movement of text columns. This info goes into persistent
 	 * store.
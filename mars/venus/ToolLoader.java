@@ -103,11 +103,20 @@ public class ToolLoader {
 	 * the name of the JAR file (using toString, not getName). Extract that
 	 * name, open it as a ZipFile, get the ZipEntry enumeration, find the class
 	 * files in the tools folder, then continue as before.
+	 *
+	 * The tools that come with MARS are listed in an index generated at build
+	 * time (see ServiceIndex). The tools folder is still searched, for tools
+	 * the user has added to it, but only the classes not in the index are
+	 * loaded to check them.
 	 */
 	private ArrayList loadMarsTools() {
 		ArrayList toolList = new ArrayList();
-		ArrayList candidates = FilenameFinder.getFilenameList(this.getClass().getClassLoader(), TOOLS_DIRECTORY_PATH,
-				CLASS_EXTENSION);
+		ClassLoader classLoader = this.getClass().getClassLoader();
+		ArrayList toolClassNames = ServiceIndex.readIndex(classLoader, MarsTool.class.getName());
+		if (toolClassNames == null) {
+			toolClassNames = new ArrayList();
+		}
+		ArrayList candidates = FilenameFinder.getFilenameList(classLoader, TOOLS_DIRECTORY_PATH, CLASS_EXTENSION);
 		// Add any tools stored externally, as listed in Config.properties file.
 		// This needs some work, because mars.Globals.getExternalTools() returns
 		// whatever is in the properties file entry. Since the class file will
@@ -117,30 +126,31 @@ public class ToolLoader {
 		// pathname.
 		// candidates.addAll(mars.Globals.getExternalTools()); // this by itself
 		// is not enough...
-		HashMap tools = new HashMap();
 		for (int i = 0; i < candidates.size(); i++) {
 			String file = (String) candidates.get(i);
+			if (file.equals(MARSTOOL_INTERFACE) || file.indexOf('$') >= 0) {
+				continue;
+			}
+			String toolClassName = CLASS_PREFIX + file.substring(0, file.indexOf(CLASS_EXTENSION) - 1);
 			// Do not add class if already encountered (happens if run in MARS
 			// development directory)
-			if (tools.containsKey(file)) {
-				continue;
-			} else {
-				tools.put(file, file);
+			if (!toolClassNames.contains(toolClassName)) {
+				toolClassNames.add(toolClassName);
 			}
-			if (!file.equals(MARSTOOL_INTERFACE)) {
-				try {
-					// grab the class, make sure it implements MarsTool,
-					// instantiate, add to menu
-					String toolClassName = CLASS_PREFIX + file.substring(0, file.indexOf(CLASS_EXTENSION) - 1);
-					Class clas = Class.forName(toolClassName);
-					if (!MarsTool.class.isAssignableFrom(clas) || Modifier.isAbstract(clas.getModifiers())
-							|| Modifier.isInterface(clas.getModifiers())) {
-						continue;
-					}
-					toolList.add(new MarsToolClassAndInstance(clas, (MarsTool) clas.newInstance()));
-				} catch (Exception e) {
-					System.out.println("Error instantiating MarsTool from file " + file + ": " + e);
+		}
+		for (int i = 0; i < toolClassNames.size(); i++) {
+			String toolClassName = (String) toolClassNames.get(i);
+			try {
+				// grab the class, make sure it implements MarsTool,
+				// instantiate, add to menu
+				Class clas = Class.forName(toolClassName);
+				if (!MarsTool.class.isAssignableFrom(clas) || Modifier.isAbstract(clas.getModifiers())
+						|| Modifier.isInterface(clas.getModifiers())) {
+					continue;
 				}
+				toolList.add(new MarsToolClassAndInstance(clas, (MarsTool) clas.newInstance()));
+			} catch (Exception e) {
+				System.out.println("Error instantiating MarsTool " + toolClassName + ": " + e);
 			}
 		}
 		return toolList;
@@ -2,6 +2,7 @@ package mars.venus;
 
 import mars.*;
 import mars.mips.dump.*;
+import mars.simulator.*;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
@@ -76,10 +77,11 @@ public class VenusUI extends JFrame {
 			filePrint, fileExit;
 	private JMenuItem editUndo, editRedo, editCut, editCopy, editPaste, editFindReplace, editSelectAll;
 	private JMenuItem runGo, runStep, runBackstep, runReset, runAssemble, runStop, runPause, runClearBreakpoints,
-			runToggleBreakpoints;
+			runToggleBreakpoints, runWatchpoints, runStepBack, runReverseContinue;
 	private JCheckBoxMenuItem settingsLabel, settingsPopupInput, settingsValueDisplayBase, settingsAddressDisplayBase,
 			settingsExtended, settingsAssembleOnOpen, settingsAssembleAll, settingsWarningsAreErrors,
-			settingsStartAtMain, settingsDelayedBranching, settingsProgramArguments, settingsSelfModifyingCode;
+			settingsStartAtMain, settingsDelayedBranching, settingsProgramArguments, settingsSelfModifyingCode,
+			settingsMemoryTrace;
 	private JMenuItem settingsExceptionHandler, settingsEditor, settingsHighlighting, settingsMemoryConfiguration;
 	private JMenuItem helpHelp, helpAbout;
 
@@ -101,13 +103,14 @@ public class VenusUI extends JFrame {
 	EditRedoAction editRedoAction;
 	private Action editCutAction, editCopyAction, editPasteAction, editFindReplaceAction, editSelectAllAction;
 	private Action runAssembleAction, runGoAction, runStepAction, runBackstepAction, runResetAction, runStopAction,
-			runPauseAction, runClearBreakpointsAction, runToggleBreakpointsAction;
+			runPauseAction, runClearBreakpointsAction, runToggleBreakpointsAction, runWatchpointsAction,
+			runStepBackAction, runReverseContinueAction;
 	private Action settingsLabelAction, settingsPopupInputAction, settingsValueDisplayBaseAction,
 			settingsAddressDisplayBaseAction, settingsExtendedAction, settingsAssembleOnOpenAction,
 			settingsAssembleAllAction, settingsWarningsAreErrorsAction, settingsStartAtMainAction,
 			settingsProgramArgumentsAction, settingsDelayedBranchingAction, settingsExceptionHandlerAction,
 			settingsEditorAction, settingsHighlightingAction, settingsMemoryConfigurationAction,
-			settingsSelfModifyingCodeAction;
+			settingsSelfModifyingCodeAction, settingsMemoryTraceAction;
 	private Action helpHelpAction, helpAboutAction;
 
 	/**
@@ -336,6 +339,12 @@ public class VenusUI extends JFrame {
 					new ImageIcon(tk.getImage(cs.getResource(Globals.imagesPath + "StepBack22.png"))),
 					"Undo the last step", new Integer(KeyEvent.VK_B), KeyStroke.getKeyStroke(KeyEvent.VK_F8, 0),
 					mainUI);
+			runStepBackAction = new RunStepBackAction("Step Back...", null,
+					"Reverse execution by a given number of instructions", Integer.valueOf(KeyEvent.VK_E), null,
+					mainUI);
+			runReverseContinueAction = new RunReverseContinueAction("Reverse Continue", null,
+					"Reverse execution to the last breakpoint reached, or to the start", Integer.valueOf(KeyEvent.VK_V),
+					KeyStroke.getKeyStroke(KeyEvent.VK_F5, InputEvent.SHIFT_DOWN_MASK), mainUI);
 			runPauseAction = new RunPauseAction("Pause",
 					new ImageIcon(tk.getImage(cs.getResource(Globals.imagesPath + "Pause22.png"))),
 					"Pause the currently running program", new Integer(KeyEvent.VK_P),
@@ -357,6 +366,9 @@ public class VenusUI extends JFrame {
 					new Integer(KeyEvent.VK_T),
 					KeyStroke.getKeyStroke(KeyEvent.VK_T, Toolkit.getDefaultToolkit().getMenuShortcutKeyMask()),
 					mainUI);
+			runWatchpointsAction = new RunWatchpointsAction("Watchpoints...", null,
+					"Pause execution when the program reads, writes or changes selected memory addresses",
+					Integer.valueOf(KeyEvent.VK_W), null, mainUI);
 			settingsLabelAction = new SettingsLabelAction("Show Labels Window (symbol table)", null,
 					"Toggle visibility of Labels window (symbol table) in the Execute tab", null, null, mainUI);
 			settingsPopupInputAction = new SettingsPopupInputAction("Popup dialog for input syscalls (5,6,7,8,12)",
@@ -394,6 +406,9 @@ public class VenusUI extends JFrame {
 			settingsSelfModifyingCodeAction = new SettingsSelfModifyingCodeAction("Self-modifying code", null,
 					"If set, the MIPS program can write and branch to both text and data segments.", null, null,
 					mainUI);
+			settingsMemoryTraceAction = new SettingsMemoryTraceAction("Record memory trace...", null,
+					"If set, every instruction fetch and memory access is recorded to a binary trace file.", null,
+					null, mainUI);
 			settingsEditorAction = new SettingsEditorAction("Editor...", null, "View and modify text editor settings.",
 					null, null, mainUI);
 			settingsHighlightingAction = new SettingsHighlightingAction("Highlighting...", null,
@@ -508,6 +523,10 @@ public class VenusUI extends JFrame {
 		runStep.setIcon(new ImageIcon(tk.getImage(cs.getResource(Globals.imagesPath + "StepForward16.png"))));// "MyStepForward16.gif"))));
 		runBackstep = new JMenuItem(runBackstepAction);
 		runBackstep.setIcon(new ImageIcon(tk.getImage(cs.getResource(Globals.imagesPath + "StepBack16.png"))));// "MyStepBack16.gif"))));
+		runStepBack = new JMenuItem(runStepBackAction);
+		runStepBack.setIcon(new ImageIcon(tk.getImage(cs.getResource(Globals.imagesPath + "MyBlank16.gif"))));
+		runReverseContinue = new JMenuItem(runReverseContinueAction);
+		runReverseContinue.setIcon(new ImageIcon(tk.getImage(cs.getResource(Globals.imagesPath + "MyBlank16.gif"))));
 		runReset = new JMenuItem(runResetAction);
 		runReset.setIcon(new ImageIcon(tk.getImage(cs.getResource(Globals.imagesPath + "Reset16.png"))));// "MyReset16.gif"))));
 		runStop = new JMenuItem(runStopAction);
@@ -518,17 +537,22 @@ public class VenusUI extends JFrame {
 		runClearBreakpoints.setIcon(new ImageIcon(tk.getImage(cs.getResource(Globals.imagesPath + "MyBlank16.gif"))));
 		runToggleBreakpoints = new JMenuItem(runToggleBreakpointsAction);
 		runToggleBreakpoints.setIcon(new ImageIcon(tk.getImage(cs.getResource(Globals.imagesPath + "MyBlank16.gif"))));
+		runWatchpoints = new JMenuItem(runWatchpointsAction);
+		runWatchpoints.setIcon(new ImageIcon(tk.getImage(cs.getResource(Globals.imagesPath + "MyBlank16.gif"))));
 
 		run.add(runAssemble);
 		run.add(runGo);
 		run.add(runStep);
 		run.add(runBackstep);
+		run.add(runStepBack);
+		run.add(runReverseContinue);
 		run.add(runPause);
 		run.add(runStop);
 		run.add(runReset);
 		run.addSeparator();
 		run.add(runClearBreakpoints);
 		run.add(runToggleBreakpoints);
+		run.add(runWatchpoints);
 
 		settingsLabel = new JCheckBoxMenuItem(settingsLabelAction);
 		settingsLabel.setSelected(Globals.getSettings().getLabelWindowVisibility());
@@ -551,6 +575,8 @@ public class VenusUI extends JFrame {
 		settingsSelfModifyingCode = new JCheckBoxMenuItem(settingsSelfModifyingCodeAction);
 		settingsSelfModifyingCode
 				.setSelected(Globals.getSettings().getBooleanSetting(Settings.SELF_MODIFYING_CODE_ENABLED));
+		settingsMemoryTrace = new JCheckBoxMenuItem(settingsMemoryTraceAction);
+		settingsMemoryTrace.setSelected(false);
 		settingsAssembleOnOpen = new JCheckBoxMenuItem(settingsAssembleOnOpenAction);
 		settingsAssembleOnOpen.setSelected(Globals.getSettings().getAssembleOnOpenEnabled());
 		settingsAssembleAll = new JCheckBoxMenuItem(settingsAssembleAllAction);
@@ -580,6 +606,7 @@ public class VenusUI extends JFrame {
 		settings.add(settingsExtended);
 		settings.add(settingsDelayedBranching);
 		settings.add(settingsSelfModifyingCode);
+		settings.add(settingsMemoryTrace);
 		settings.addSeparator();
 		settings.add(settingsEditor);
 		settings.add(settingsHighlighting);
@@ -763,6 +790,7 @@ public class VenusUI extends JFrame {
 		runGoAction.setEnabled(false);
 		runStepAction.setEnabled(false);
 		runBackstepAction.setEnabled(false);
+		setReverseExecutionEnabled(false);
 		runResetAction.setEnabled(false);
 		runStopAction.setEnabled(false);
 		runPauseAction.setEnabled(false);
@@ -805,6 +833,8 @@ public class VenusUI extends JFrame {
 			runGoAction.setEnabled(false);
 			runStepAction.setEnabled(false);
 			runBackstepAction.setEnabled(false);
+			setReverseExecutionEnabled(false);
+		setReverseExecutionEnabled(false);
 			runResetAction.setEnabled(false);
 			runStopAction.setEnabled(false);
 			runPauseAction.setEnabled(false);
@@ -841,6 +871,7 @@ public class VenusUI extends JFrame {
 		runGoAction.setEnabled(false);
 		runStepAction.setEnabled(false);
 		runBackstepAction.setEnabled(false);
+		setReverseExecutionEnabled(false);
 		runResetAction.setEnabled(false);
 		runStopAction.setEnabled(false);
 		runPauseAction.setEnabled(false);
@@ -879,6 +910,7 @@ public class VenusUI extends JFrame {
 		runGoAction.setEnabled(false);
 		runStepAction.setEnabled(false);
 		runBackstepAction.setEnabled(false);
+		setReverseExecutionEnabled(false);
 		runResetAction.setEnabled(false);
 		runStopAction.setEnabled(false);
 		runPauseAction.setEnabled(false);
@@ -919,6 +951,7 @@ public class VenusUI extends JFrame {
 		runBackstepAction.setEnabled(
 				(Globals.getSettings().getBackSteppingEnabled() && !Globals.program.getBackStepper().empty()) ? true
 						: false);
+		setReverseExecutionEnabled(true);
 		runResetAction.setEnabled(true);
 		runStopAction.setEnabled(false);
 		runPauseAction.setEnabled(false);
@@ -956,6 +989,7 @@ public class VenusUI extends JFrame {
 		runGoAction.setEnabled(false);
 		runStepAction.setEnabled(false);
 		runBackstepAction.setEnabled(false);
+		setReverseExecutionEnabled(false);
 		runResetAction.setEnabled(false);
 		runStopAction.setEnabled(true);
 		runPauseAction.setEnabled(true);
@@ -997,6 +1031,7 @@ public class VenusUI extends JFrame {
 		runBackstepAction.setEnabled(
 				(Globals.getSettings().getBackSteppingEnabled() && !Globals.program.getBackStepper().empty()) ? true
 						: false);
+		setReverseExecutionEnabled(true);
 		runResetAction.setEnabled(true);
 		runStopAction.setEnabled(false);
 		runPauseAction.setEnabled(false);
@@ -1007,6 +1042,15 @@ public class VenusUI extends JFrame {
 		editRedoAction.updateRedoState();
 	}
 
+	// Reverse execution is possible once an instruction has executed, if
+	// checkpoints are being taken.
+	private void setReverseExecutionEnabled(boolean state) {
+		ReverseExecution reverse = (Globals.program == null) ? null : Globals.program.getReverseExecution();
+		state = state && reverse != null && reverse.canReverse();
+		runStepBackAction.setEnabled(state);
+		runReverseContinueAction.setEnabled(state);
+	}
+
 	/**
 	 * Get current menu state. State values are constants in FileStatus class.
 	 * DPS 23 July 2008
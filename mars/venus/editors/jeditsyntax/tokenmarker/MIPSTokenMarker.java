@@ -466,9 +466,9 @@ public class MIPSTokenMarker extends TokenMarker {
 		if (cKeywords == null) {
 			cKeywords = new KeywordMap(false);
 			// add Instruction mnemonics
-			java.util.ArrayList instructionSet = mars.Globals.instructionSet.getInstructionList();
-			for (int i = 0; i < instructionSet.size(); i++) {
-				cKeywords.add(((mars.mips.instructions.Instruction) instructionSet.get(i)).getName(), Token.KEYWORD1);
+			java.util.Iterator mnemonics = mars.Globals.instructionSet.getOperatorNames().iterator();
+			while (mnemonics.hasNext()) {
+				cKeywords.add((String) mnemonics.next(), Token.KEYWORD1);
 			}
 			// add assembler directives
 			java.util.ArrayList directiveSet = mars.assembler.Directives.getDirectiveList();